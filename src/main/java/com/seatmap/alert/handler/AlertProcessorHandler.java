@@ -234,7 +234,9 @@ public class AlertProcessorHandler implements RequestHandler<ScheduledEvent, Str
         try {
             if (bookmark.getItemType() == Bookmark.ItemType.SAVED_SEARCH) {
                 // Use saved search criteria - search for multiple flights
+                // Alerts only read seat availability, so the seatmaps come back as their summaries
                 FlightSearchRequest request = bookmark.toFlightSearchRequest();
+                request.setSummaryOnly(true);
                 return flightSearchService.searchFlightsWithSeatmaps(request);
             } else {
                 // For individual bookmark - get fresh seatmap for the specific flight
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.seatmap.api.model.FlightSearchRequest;
 import com.seatmap.api.model.FlightSearchResponse;
 import com.seatmap.api.model.FlightSearchResult;
+import com.seatmap.api.model.SeatMapData;
 import com.seatmap.common.model.Bookmark;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -314,7 +315,13 @@ public class AlertEvaluationService {
      * Calculate seat availability percentage using actual seatmap data
      */
     private double calculateSeatPercentage(FlightSearchResult flight) {
-        // Use actual seatmap data if available
+        // Use the availability summary computed when the seatmap was converted
+        SeatMapData.AvailabilitySummary summary = flight.getSeatMap() != null ? flight.getSeatMap().getSummary() : null;
+        if (summary != null && summary.getTotalSeats() > 0) {
+            return (double) summary.getAvailableSeats() / summary.getTotalSeats() * 100.0;
+        }
+        
+        // Otherwise use actual seatmap data if available
         if (flight.getSeatMap() != null && flight.getSeatMap().getSeats() != null) {
             var seats = flight.getSeatMap().getSeats();
             
@@ -14,10 +14,12 @@ import com.seatmap.api.model.FlightSearchResponse;
 import com.seatmap.api.service.AmadeusService;
 import com.seatmap.api.service.FlightSearchService;
 import com.seatmap.api.service.SabreService;
+import com.seatmap.api.service.SearchDeadline;
 import com.seatmap.auth.repository.BookmarkRepository;
 import com.seatmap.auth.service.AuthService;
 import com.seatmap.auth.service.JwtService;
 import com.seatmap.common.exception.SeatmapException;
+import com.seatmap.common.http.ResponseWriter;
 import com.seatmap.common.model.Bookmark;
 import io.jsonwebtoken.Claims;
 import jakarta.validation.ConstraintViolation;
@@ -38,6 +40,7 @@ public class FlightSearchHandler implements RequestHandler<APIGatewayProxyReques
     private static final Logger logger = LoggerFactory.getLogger(FlightSearchHandler.class);
     
     private final ObjectMapper objectMapper;
+    private final ResponseWriter responseWriter = new ResponseWriter();
     private final AmadeusService amadeusService;
     private final SabreService sabreService;
     private final FlightSearchService flightSearchService;
@@ -83,6 +86,10 @@ public class FlightSearchHandler implements RequestHandler<APIGatewayProxyReques
     
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        return responseWriter.handle(event, request -> route(request, context));
+    }
+    
+    private APIGatewayProxyResponseEvent route(APIGatewayProxyRequestEvent event, Context context) {
         logger.info("Processing flight search request: {} {}", event.getHttpMethod(), event.getPath());
         
         try {
@@ -93,6 +100,12 @@ public class FlightSearchHandler implements RequestHandler<APIGatewayProxyReques
                 return handleFlightSearchByBookmark(event, bookmarkId);
             }
             
+            // Resolve a seatmap handle from a lazy seatmap search
+            if ("GET".equals(event.getHttpMethod()) && path != null && path.matches("/flight-search/seatmap/[^/]+")) {
+                String handle = path.substring("/flight-search/seatmap/".length());
+                return handleSeatmapByHandle(event, handle, context);
+            }
+            
             // Handle regular flight search request (POST /flight-search)
             // Extract and validate JWT token
             String authHeader = event.getHeaders().get("Authorization");
@@ -136,8 +149,9 @@ public class FlightSearchHandler implements RequestHandler<APIGatewayProxyReques
                 return createErrorResponse(400, request.getValidationError());
             }
             
-            // Search for flights with integrated seatmaps from both sources concurrently
-            FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
+            // Search for flights with integrated seatmaps, returning what completes before the invocation times out
+            SearchDeadline deadline = SearchDeadline.fromRemainingTime(context != null ? context.getRemainingTimeInMillis() : 0);
+            FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request, deadline);
             
             return createSuccessResponse(response);
             
@@ -150,6 +164,30 @@ public class FlightSearchHandler implements RequestHandler<APIGatewayProxyReques
     
     
     
+    private APIGatewayProxyResponseEvent handleSeatmapByHandle(APIGatewayProxyRequestEvent event, String handle, Context context) {
+        // Same access as the search that handed out the handle: guests and users alike
+        String authHeader = event.getHeaders().get("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return createErrorResponse(401, "Missing or invalid authorization header");
+        }
+        
+        String token = authHeader.substring(7);
+        try {
+            if (!jwtService.isGuestToken(token)) {
+                jwtService.validateToken(token);
+            }
+        } catch (com.seatmap.common.exception.SeatmapException e) {
+            return createErrorResponse(401, "Invalid or expired token");
+        }
+        
+        try {
+            SearchDeadline deadline = SearchDeadline.fromRemainingTime(context != null ? context.getRemainingTimeInMillis() : 0);
+            return createSuccessResponse(flightSearchService.getSeatmapForHandle(handle, deadline));
+        } catch (com.seatmap.common.exception.SeatmapException e) {
+            return createErrorResponse(e.getHttpStatus(), e.getMessage());
+        }
+    }
+    
     private APIGatewayProxyResponseEvent handleFlightSearchByBookmark(APIGatewayProxyRequestEvent event, String bookmarkId) {
         logger.info("Processing flight search request for bookmark ID: {}", bookmarkId);
         
@@ -231,8 +269,7 @@ public class FlightSearchHandler implements RequestHandler<APIGatewayProxyReques
                 String origin = extractFromFlightOffer(flightOffer, "origin");
                 String destination = extractFromFlightOffer(flightOffer, "destination");
                 
-                JsonNode seatMapResponse = sabreService.getSeatMapFromFlight(carrierCode, flightNumber, departureDate, origin, destination);
-                com.seatmap.api.model.SeatMapData seatMapData = sabreService.convertToSeatMapData(seatMapResponse);
+                com.seatmap.api.model.SeatMapData seatMapData = sabreService.getSeatMapDataFromFlight(carrierCode, flightNumber, departureDate, origin, destination);
                 return new FlightSearchResult(flightOffer, seatMapData, true, null);
             } else {
                 throw new Exception("Unknown data source: " + dataSource);
@@ -14,6 +14,7 @@ import com.seatmap.auth.service.AuthService;
 import com.seatmap.auth.service.JwtService;
 import com.seatmap.auth.service.PasswordService;
 import com.seatmap.auth.service.UserUsageLimitsService;
+import com.seatmap.common.http.ResponseWriter;
 import com.seatmap.common.model.User;
 import com.seatmap.email.service.EmailService;
 import io.jsonwebtoken.Claims;
@@ -33,6 +34,7 @@ public class SeatmapViewHandler implements RequestHandler<APIGatewayProxyRequest
     private static final Logger logger = LoggerFactory.getLogger(SeatmapViewHandler.class);
     
     private final ObjectMapper objectMapper;
+    private final ResponseWriter responseWriter = new ResponseWriter();
     private final Validator validator;
     private final JwtService jwtService;
     private final AuthService authService;
@@ -73,6 +75,10 @@ public class SeatmapViewHandler implements RequestHandler<APIGatewayProxyRequest
     
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        return responseWriter.handle(event, request -> route(request, context));
+    }
+    
+    private APIGatewayProxyResponseEvent route(APIGatewayProxyRequestEvent event, Context context) {
         logger.info("Processing seatmap view tracking request");
         
         try {
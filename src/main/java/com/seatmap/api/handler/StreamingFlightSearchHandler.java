@@ -0,0 +1,244 @@
+package com.seatmap.api.handler;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.seatmap.api.model.FlightSearchRequest;
+import com.seatmap.api.model.FlightSearchResponse;
+import com.seatmap.api.model.FlightSearchResult;
+import com.seatmap.api.service.AmadeusService;
+import com.seatmap.api.service.FlightSearchService;
+import com.seatmap.api.service.SabreService;
+import com.seatmap.api.service.SearchDeadline;
+import com.seatmap.auth.service.JwtService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming variant of the POST /flight-search search, served through a Lambda function URL. The
+ * response is newline-delimited JSON: one FlightSearchResult per line as each seatmap completes, then
+ * a final {"meta": ...} line with the same metadata the buffered search returns.
+ *
+ * The output starts with the HTTP response prelude a streaming function URL expects (status code and
+ * headers as JSON, then eight NUL bytes). Requests rejected before anything is written (wrong method,
+ * authentication, validation, a search failing before its first result) get their real status code
+ * with a {"success":false,"message":...} body; once results are flowing the status is already sent,
+ * so a failure ends the stream with such a line instead.
+ *
+ * The managed java17 runtime does not stream: it buffers the whole output and returns it once the
+ * handler finishes. Results only reach the client as they complete, and the prelude's status code
+ * only takes effect, when the function runs on a runtime that streams responses (a custom runtime or
+ * the Lambda Web Adapter).
+ */
+public class StreamingFlightSearchHandler implements RequestStreamHandler {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingFlightSearchHandler.class);
+    private static final String CONTENT_TYPE = "application/x-ndjson";
+    // Separates the prelude from the body in a function URL's streamed response
+    private static final byte[] PRELUDE_DELIMITER = new byte[8];
+
+    private final ObjectMapper objectMapper;
+    private final AmadeusService amadeusService;
+    private final SabreService sabreService;
+    private final FlightSearchService flightSearchService;
+    private final JwtService jwtService;
+    private final Validator validator;
+
+    public StreamingFlightSearchHandler() {
+        this.objectMapper = new ObjectMapper();
+        this.amadeusService = new AmadeusService();
+        this.sabreService = new SabreService();
+        this.flightSearchService = new FlightSearchService(amadeusService, sabreService);
+        this.jwtService = new JwtService();
+        this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        try (ResultStream stream = new ResultStream(output)) {
+            try {
+                streamSearch(objectMapper.readTree(input), context, stream);
+            } catch (Exception e) {
+                logger.error("Error processing streaming flight search request", e);
+                stream.writeError(500, "Internal server error");
+            }
+        }
+    }
+
+    private void streamSearch(JsonNode event, Context context, ResultStream stream) throws Exception {
+        String method = event.path("requestContext").path("http").path("method").asText(null);
+        if (!"POST".equals(method)) {
+            stream.writeError(405, "Method not allowed");
+            return;
+        }
+
+        // Extract and validate JWT token
+        String authHeader = header(event, "Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            stream.writeError(401, "Missing or invalid authorization header");
+            return;
+        }
+
+        String token = authHeader.substring(7);
+        try {
+            jwtService.getUserIdFromToken(token);
+            if (!jwtService.isGuestToken(token)) {
+                jwtService.validateToken(token);
+            }
+        } catch (com.seatmap.common.exception.SeatmapException e) {
+            stream.writeError(401, "Invalid or expired token");
+            return;
+        }
+
+        // Parse request body
+        FlightSearchRequest request;
+        try {
+            request = objectMapper.readValue(body(event), FlightSearchRequest.class);
+        } catch (Exception e) {
+            logger.error("Error parsing request body", e);
+            stream.writeError(400, "Invalid request format");
+            return;
+        }
+
+        // Validate request
+        Set<ConstraintViolation<FlightSearchRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            StringBuilder errors = new StringBuilder();
+            for (ConstraintViolation<FlightSearchRequest> violation : violations) {
+                errors.append(violation.getMessage()).append("; ");
+            }
+            stream.writeError(400, "Validation errors: " + errors.toString());
+            return;
+        }
+
+        if (!request.isValid()) {
+            stream.writeError(400, request.getValidationError());
+            return;
+        }
+
+        // Each result is written as its seatmap completes, the first one sending the 200 prelude; the
+        // metadata line closes the response
+        SearchDeadline deadline = SearchDeadline.fromRemainingTime(context != null ? context.getRemainingTimeInMillis() : 0);
+        FlightSearchResponse response = flightSearchService.streamFlightsWithSeatmaps(request, deadline, stream::writeResult);
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("meta", response.getMeta());
+        stream.write(meta);
+    }
+
+    /**
+     * Header lookup ignoring case, since function URLs deliver header names in lower case
+     */
+    private String header(JsonNode event, String name) {
+        Iterator<Map.Entry<String, JsonNode>> headers = event.path("headers").fields();
+        while (headers.hasNext()) {
+            Map.Entry<String, JsonNode> header = headers.next();
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue().asText(null);
+            }
+        }
+        return null;
+    }
+
+    private String body(JsonNode event) {
+        String body = event.path("body").asText(null);
+        if (body != null && event.path("isBase64Encoded").asBoolean(false)) {
+            return new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+        }
+        return body;
+    }
+
+    /**
+     * Writes records one line at a time, after the prelude. Results arrive from provider threads; once
+     * a write fails, usually because the client went away, later records are dropped rather than
+     * failing the search.
+     */
+    private final class ResultStream implements AutoCloseable {
+        private final OutputStream output;
+        private SequenceWriter writer;
+        private boolean failed;
+
+        ResultStream(OutputStream output) {
+            this.output = output;
+        }
+
+        /**
+         * Send the prelude with the given status; does nothing once the response has started
+         */
+        synchronized void start(int statusCode) {
+            if (writer != null || failed) {
+                return;
+            }
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", statusCode == 200 ? CONTENT_TYPE : "application/json");
+            if (statusCode == 405) {
+                headers.put("Allow", "POST");
+            }
+            Map<String, Object> prelude = new LinkedHashMap<>();
+            prelude.put("statusCode", statusCode);
+            prelude.put("headers", headers);
+            try {
+                output.write(objectMapper.writeValueAsBytes(prelude));
+                output.write(PRELUDE_DELIMITER);
+                writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(output);
+            } catch (IOException e) {
+                failed = true;
+                logger.warn("Could not start flight search response: {}", e.getMessage());
+            }
+        }
+
+        void writeResult(FlightSearchResult result) {
+            write(result);
+        }
+
+        /**
+         * Before the response has started this sets its status; after, the status is already sent and
+         * the error only ends the stream
+         */
+        synchronized void writeError(int statusCode, String message) {
+            start(statusCode);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", message);
+            write(errorResponse);
+        }
+
+        synchronized void write(Object record) {
+            start(200);
+            if (failed) {
+                return;
+            }
+            try {
+                writer.write(record);
+                writer.flush();
+            } catch (IOException e) {
+                failed = true;
+                logger.warn("Stopped streaming flight search response: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            } else {
+                output.close();
+            }
+        }
+    }
+}
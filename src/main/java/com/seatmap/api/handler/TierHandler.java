@@ -7,6 +7,7 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.seatmap.common.exception.SeatmapException;
+import com.seatmap.common.http.ResponseWriter;
 import com.seatmap.common.model.TierDefinition;
 import com.seatmap.common.repository.TierRepository;
 import org.slf4j.Logger;
@@ -25,6 +26,7 @@ public class TierHandler implements RequestHandler<APIGatewayProxyRequestEvent,
     private static final Logger logger = LoggerFactory.getLogger(TierHandler.class);
     
     private final ObjectMapper objectMapper;
+    private final ResponseWriter responseWriter = new ResponseWriter();
     private final TierRepository tierRepository;
     
     public TierHandler() {
@@ -47,6 +49,10 @@ public class TierHandler implements RequestHandler<APIGatewayProxyRequestEvent,
     
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        return responseWriter.handle(event, request -> route(request, context));
+    }
+    
+    private APIGatewayProxyResponseEvent route(APIGatewayProxyRequestEvent event, Context context) {
         try {
             String httpMethod = event.getHttpMethod();
             String path = event.getPath();
@@ -0,0 +1,217 @@
+package com.seatmap.api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, dictionary-encoded form of a seat map's seats, sent as seatMap.compactSeats when a search
+ * asks for seatFormat COMPACT. Seat i is the i-th entry of every per-seat column; repeated values
+ * (characteristics, cabins, statuses, currencies, decks) are sent once in a table and referenced by
+ * index, with null for an absent value. Prices are seat totals in the currency's minor units. The
+ * schema is documented in docs/api/flight-search.md.
+ */
+public class CompactSeats {
+    public static final int VERSION = 1;
+
+    private int version = VERSION;
+    private int count;
+
+    // Tables referenced by index from the per-seat columns
+    private List<SeatMapData.SeatCharacteristic> characteristics = new ArrayList<>();
+    private List<String> cabins = new ArrayList<>();
+    private List<String> statuses = new ArrayList<>();
+    private List<String> currencies = new ArrayList<>();
+    private List<DeckInfo> decks = new ArrayList<>();
+
+    // Per-seat columns
+    private List<String> number = new ArrayList<>();
+    private List<Integer> deck = new ArrayList<>();
+    private List<Integer> cabin = new ArrayList<>();
+    private List<Integer> x = new ArrayList<>();
+    private List<Integer> y = new ArrayList<>();
+    private List<Integer> status = new ArrayList<>();
+    private List<List<Integer>> characteristicIds = new ArrayList<>();
+    private List<Long> price = new ArrayList<>();
+    private List<Integer> currency = new ArrayList<>();
+
+    public CompactSeats() {}
+
+    /**
+     * Encode the flat seat list, pointing each seat at the deck that holds it. Seats on no deck
+     * have a null deck index.
+     */
+    public static CompactSeats encode(List<SeatMapData.SeatMapDeck> seatMapDecks, List<SeatMapData.Seat> seats) {
+        CompactSeats compact = new CompactSeats();
+        Map<SeatMapData.Seat, Integer> deckBySeat = new IdentityHashMap<>();
+        if (seatMapDecks != null) {
+            for (SeatMapData.SeatMapDeck seatMapDeck : seatMapDecks) {
+                int deckIndex = compact.decks.size();
+                compact.decks.add(new DeckInfo(seatMapDeck.getDeckType(), seatMapDeck.getDeckConfiguration()));
+                if (seatMapDeck.getSeats() != null) {
+                    seatMapDeck.getSeats().forEach(seat -> deckBySeat.put(seat, deckIndex));
+                }
+            }
+        }
+
+        Map<String, Integer> characteristicIndex = new HashMap<>();
+        Map<String, Integer> cabinIndex = new HashMap<>();
+        Map<String, Integer> statusIndex = new HashMap<>();
+        Map<String, Integer> currencyIndex = new HashMap<>();
+        if (seats != null) {
+            for (SeatMapData.Seat seat : seats) {
+                compact.number.add(seat.getNumber());
+                compact.deck.add(deckBySeat.get(seat));
+                compact.cabin.add(indexOf(compact.cabins, cabinIndex, seat.getCabin()));
+                compact.status.add(indexOf(compact.statuses, statusIndex, seat.getAvailabilityStatus()));
+
+                JsonNode coordinates = seat.getCoordinates();
+                compact.x.add(coordinates != null && coordinates.path("x").isNumber() ? coordinates.get("x").asInt() : null);
+                compact.y.add(coordinates != null && coordinates.path("y").isNumber() ? coordinates.get("y").asInt() : null);
+
+                List<Integer> ids = null;
+                if (seat.getCharacteristics() != null) {
+                    ids = new ArrayList<>(seat.getCharacteristics().size());
+                    for (SeatMapData.SeatCharacteristic characteristic : seat.getCharacteristics()) {
+                        ids.add(compact.characteristicIndex(characteristicIndex, characteristic));
+                    }
+                }
+                compact.characteristicIds.add(ids);
+
+                Long minorUnits = null;
+                Integer currencyId = null;
+                SeatMapData.SeatPricing pricing = seat.getPricing();
+                if (pricing != null && pricing.getTotal() != null) {
+                    minorUnits = toMinorUnits(pricing.getTotal(), pricing.getCurrency());
+                    if (minorUnits != null) {
+                        currencyId = indexOf(compact.currencies, currencyIndex, pricing.getCurrency());
+                    }
+                }
+                compact.price.add(minorUnits);
+                compact.currency.add(currencyId);
+            }
+        }
+        compact.count = compact.number.size();
+        return compact;
+    }
+
+    private int characteristicIndex(Map<String, Integer> index, SeatMapData.SeatCharacteristic characteristic) {
+        // Providers can describe one code differently, so entries are keyed on everything they carry
+        String key = String.join("\u0000", String.valueOf(characteristic.getCode()), String.valueOf(characteristic.getCategory()),
+            String.valueOf(characteristic.getDescription()), String.valueOf(characteristic.isRestriction()), String.valueOf(characteristic.isPremium()));
+        return index.computeIfAbsent(key, k -> {
+            characteristics.add(characteristic);
+            return characteristics.size() - 1;
+        });
+    }
+
+    private static Integer indexOf(List<String> table, Map<String, Integer> index, String value) {
+        if (value == null) {
+            return null;
+        }
+        return index.computeIfAbsent(value, v -> {
+            table.add(v);
+            return table.size() - 1;
+        });
+    }
+
+    /**
+     * Price in the currency's minor units, rounded to its usual decimals (2 when the currency is unknown);
+     * null when the price cannot be read
+     */
+    static Long toMinorUnits(String total, String currencyCode) {
+        try {
+            return new BigDecimal(total.trim()).setScale(fractionDigits(currencyCode), RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decimal places of a currency's minor unit, for turning compact prices back into amounts
+     */
+    public static int fractionDigits(String currencyCode) {
+        try {
+            int digits = currencyCode != null ? Currency.getInstance(currencyCode).getDefaultFractionDigits() : -1;
+            return digits >= 0 ? digits : 2;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+
+    /**
+     * A deck's own fields; its seats are those whose deck column points at it
+     */
+    public static class DeckInfo {
+        private String deckType;
+        private JsonNode deckConfiguration;
+
+        public DeckInfo() {}
+
+        public DeckInfo(String deckType, JsonNode deckConfiguration) {
+            this.deckType = deckType;
+            this.deckConfiguration = deckConfiguration;
+        }
+
+        public String getDeckType() { return deckType; }
+        public void setDeckType(String deckType) { this.deckType = deckType; }
+
+        public JsonNode getDeckConfiguration() { return deckConfiguration; }
+        public void setDeckConfiguration(JsonNode deckConfiguration) { this.deckConfiguration = deckConfiguration; }
+    }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public List<SeatMapData.SeatCharacteristic> getCharacteristics() { return characteristics; }
+    public void setCharacteristics(List<SeatMapData.SeatCharacteristic> characteristics) { this.characteristics = characteristics; }
+
+    public List<String> getCabins() { return cabins; }
+    public void setCabins(List<String> cabins) { this.cabins = cabins; }
+
+    public List<String> getStatuses() { return statuses; }
+    public void setStatuses(List<String> statuses) { this.statuses = statuses; }
+
+    public List<String> getCurrencies() { return currencies; }
+    public void setCurrencies(List<String> currencies) { this.currencies = currencies; }
+
+    public List<DeckInfo> getDecks() { return decks; }
+    public void setDecks(List<DeckInfo> decks) { this.decks = decks; }
+
+    public List<String> getNumber() { return number; }
+    public void setNumber(List<String> number) { this.number = number; }
+
+    public List<Integer> getDeck() { return deck; }
+    public void setDeck(List<Integer> deck) { this.deck = deck; }
+
+    public List<Integer> getCabin() { return cabin; }
+    public void setCabin(List<Integer> cabin) { this.cabin = cabin; }
+
+    public List<Integer> getX() { return x; }
+    public void setX(List<Integer> x) { this.x = x; }
+
+    public List<Integer> getY() { return y; }
+    public void setY(List<Integer> y) { this.y = y; }
+
+    public List<Integer> getStatus() { return status; }
+    public void setStatus(List<Integer> status) { this.status = status; }
+
+    public List<List<Integer>> getCharacteristicIds() { return characteristicIds; }
+    public void setCharacteristicIds(List<List<Integer>> characteristicIds) { this.characteristicIds = characteristicIds; }
+
+    public List<Long> getPrice() { return price; }
+    public void setPrice(List<Long> price) { this.price = price; }
+
+    public List<Integer> getCurrency() { return currency; }
+    public void setCurrency(List<Integer> currency) { this.currency = currency; }
+}
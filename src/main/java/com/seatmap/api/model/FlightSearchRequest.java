@@ -36,8 +36,22 @@ public class FlightSearchRequest {
     @Max(value = 100, message = "Offset cannot exceed 100 (5 pages × 20 max results)")
     private Integer offset = 0; // Optional, defaults to 0 for pagination
     
+    @Pattern(regexp = "^[A-Za-z0-9_-]{1,128}$", message = "Cursor must be a value returned in meta.pagination.nextCursor")
+    private String cursor; // Optional: continues a previous search, takes precedence over offset
+    
     private Boolean includeRawFlightOffer = false; // Optional, defaults to false for clean response
     
+    @Pattern(regexp = "^(BATCH|PER_OFFER)$", message = "Seatmap strategy must be BATCH or PER_OFFER")
+    private String seatmapStrategy; // Optional: overrides AMADEUS_SEATMAP_STRATEGY for this search
+    
+    @Pattern(regexp = "^(EAGER|LAZY)$", message = "Seatmap mode must be EAGER or LAZY")
+    private String seatmapMode; // Optional: LAZY returns offers with a seatmapHandle instead of seatmaps
+    
+    private Boolean summaryOnly = false; // Optional: seatmaps carry only their availability summary
+    
+    @Pattern(regexp = "^(FULL|COMPACT)$", message = "Seat format must be FULL or COMPACT")
+    private String seatFormat; // Optional: COMPACT sends seats as seatMap.compactSeats columns
+    
     // Constructors
     public FlightSearchRequest() {}
     
@@ -113,6 +127,14 @@ public class FlightSearchRequest {
         this.offset = offset;
     }
     
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
     public Boolean getIncludeRawFlightOffer() {
         return includeRawFlightOffer;
     }
@@ -121,6 +143,43 @@ public class FlightSearchRequest {
         this.includeRawFlightOffer = includeRawFlightOffer;
     }
     
+    public String getSeatmapStrategy() {
+        return seatmapStrategy;
+    }
+    
+    public void setSeatmapStrategy(String seatmapStrategy) {
+        this.seatmapStrategy = seatmapStrategy;
+    }
+    
+    public String getSeatmapMode() {
+        return seatmapMode;
+    }
+    
+    public void setSeatmapMode(String seatmapMode) {
+        this.seatmapMode = seatmapMode;
+    }
+    
+    @JsonIgnore
+    public boolean isLazySeatmaps() {
+        return "LAZY".equals(seatmapMode);
+    }
+    
+    public Boolean getSummaryOnly() {
+        return summaryOnly;
+    }
+    
+    public void setSummaryOnly(Boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+    
+    public String getSeatFormat() {
+        return seatFormat;
+    }
+    
+    public void setSeatFormat(String seatFormat) {
+        this.seatFormat = seatFormat;
+    }
+    
     @JsonIgnore
     public boolean isValid() {
         // If flightNumber is provided, airlineCode must also be provided
@@ -1,7 +1,9 @@
 package com.seatmap.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import java.util.Map;
 
 public class FlightSearchResponse {
     private List<FlightSearchResult> data;
@@ -40,6 +42,13 @@ public class FlightSearchResponse {
         private String sources;
         private String searchParams;
         private PaginationInfo pagination;
+        private boolean partial;
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        private List<String> timedOutOfferIds;
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        private List<String> timedOutSources;
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        private Map<String, String> circuitBreakers;
         
         // Default constructor
         public SearchMetadata() {}
@@ -77,6 +86,21 @@ public class FlightSearchResponse {
         
         public PaginationInfo getPagination() { return pagination; }
         public void setPagination(PaginationInfo pagination) { this.pagination = pagination; }
+        
+        // True when the search deadline was reached and some flights were left out
+        public boolean isPartial() { return partial; }
+        public void setPartial(boolean partial) { this.partial = partial; }
+        
+        public List<String> getTimedOutOfferIds() { return timedOutOfferIds; }
+        public void setTimedOutOfferIds(List<String> timedOutOfferIds) { this.timedOutOfferIds = timedOutOfferIds; }
+        
+        // Providers still outstanding at their deadline, whose results are missing from this response
+        public List<String> getTimedOutSources() { return timedOutSources; }
+        public void setTimedOutSources(List<String> timedOutSources) { this.timedOutSources = timedOutSources; }
+        
+        // Provider endpoint circuit breaker states (CLOSED, OPEN, HALF_OPEN) at the time of the search
+        public Map<String, String> getCircuitBreakers() { return circuitBreakers; }
+        public void setCircuitBreakers(Map<String, String> circuitBreakers) { this.circuitBreakers = circuitBreakers; }
     }
     
     // Inner class for pagination metadata
@@ -86,6 +110,7 @@ public class FlightSearchResponse {
         private int total;
         private boolean hasNext;
         private boolean hasPrevious;
+        private String nextCursor;
         
         // Default constructor
         public PaginationInfo() {}
@@ -99,6 +124,12 @@ public class FlightSearchResponse {
             this.hasPrevious = hasPrevious;
         }
         
+        // Constructor with cursor for the next page
+        public PaginationInfo(int offset, int limit, int total, boolean hasNext, boolean hasPrevious, String nextCursor) {
+            this(offset, limit, total, hasNext, hasPrevious);
+            this.nextCursor = nextCursor;
+        }
+        
         // Getters and setters
         public int getOffset() { return offset; }
         public void setOffset(int offset) { this.offset = offset; }
@@ -114,5 +145,8 @@ public class FlightSearchResponse {
         
         public boolean isHasPrevious() { return hasPrevious; }
         public void setHasPrevious(boolean hasPrevious) { this.hasPrevious = hasPrevious; }
+        
+        public String getNextCursor() { return nextCursor; }
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.seatmap.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,9 +8,13 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class FlightSearchResult {
+    // Shared across results; ObjectMapper is thread-safe once configured
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
     private String id;
     
     @NotNull(message = "dataSource is required for provider routing")
@@ -33,6 +38,10 @@ public class FlightSearchResult {
     private boolean seatMapAvailable;
     private String seatMapError;
     
+    // Lazy seatmap mode: resolves to the seatmap via GET /flight-search/seatmap/{handle}
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String seatmapHandle;
+    
     // Raw flight offer data (only populated when requested)
     private JsonNode rawFlightOffer;
     
@@ -44,7 +53,8 @@ public class FlightSearchResult {
         this(flightOffer, seatMap, seatMapAvailable, seatMapError, false);
     }
     
-    // Constructor from existing flight offer + seatmap with optional raw data inclusion
+    // Constructor from existing flight offer + seatmap with optional raw data inclusion.
+    // The result keeps references to the offer's nested nodes instead of copying them, so those must not be modified afterwards.
     public FlightSearchResult(JsonNode flightOffer, SeatMapData seatMap, boolean seatMapAvailable, String seatMapError, boolean includeRawFlightOffer) {
         // Extract flight offer fields
         this.id = flightOffer.path("id").asText();
@@ -63,25 +73,15 @@ public class FlightSearchResult {
         this.lastTicketingDateTime = flightOffer.path("lastTicketingDateTime").asText();
         this.numberOfBookableSeats = flightOffer.path("numberOfBookableSeats").asInt();
         
-        // Convert arrays to lists
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            if (flightOffer.has("itineraries") && flightOffer.get("itineraries").isArray()) {
-                this.itineraries = mapper.convertValue(flightOffer.get("itineraries"), 
-                    mapper.getTypeFactory().constructCollectionType(List.class, JsonNode.class));
-            }
-            
-            if (flightOffer.has("travelerPricings") && flightOffer.get("travelerPricings").isArray()) {
-                this.travelerPricings = mapper.convertValue(flightOffer.get("travelerPricings"), 
-                    mapper.getTypeFactory().constructCollectionType(List.class, JsonNode.class));
+        // Lists over the offer's own array elements, without converting or copying them
+        this.itineraries = elements(flightOffer.get("itineraries"));
+        this.travelerPricings = elements(flightOffer.get("travelerPricings"));
+        JsonNode airlineCodes = flightOffer.get("validatingAirlineCodes");
+        if (airlineCodes != null && airlineCodes.isArray()) {
+            this.validatingAirlineCodes = new ArrayList<>(airlineCodes.size());
+            for (JsonNode code : airlineCodes) {
+                this.validatingAirlineCodes.add(code.isNull() ? null : code.asText());
             }
-            
-            if (flightOffer.has("validatingAirlineCodes") && flightOffer.get("validatingAirlineCodes").isArray()) {
-                this.validatingAirlineCodes = mapper.convertValue(flightOffer.get("validatingAirlineCodes"), 
-                    mapper.getTypeFactory().constructCollectionType(List.class, String.class));
-            }
-        } catch (Exception e) {
-            // Handle conversion errors gracefully
         }
         
         this.price = flightOffer.get("price");
@@ -91,16 +91,33 @@ public class FlightSearchResult {
         this.seatMapAvailable = seatMapAvailable;
         this.seatMapError = seatMapError;
         
-        // Conditionally include raw data
+        // Conditionally include raw data, copying only the top level; nested nodes are shared
         if (includeRawFlightOffer) {
-            this.rawFlightOffer = flightOffer.deepCopy();
+            this.rawFlightOffer = flightOffer.isObject() ? MAPPER.createObjectNode().setAll((ObjectNode) flightOffer) : flightOffer;
         }
     }
     
-    // Convert back to JsonNode (for compatibility with existing code)
+    /**
+     * Shallow copy of a flight offer with its dataSource set. Only the top-level fields are copied;
+     * nested nodes are shared with the offer, which must not be modified in place.
+     */
+    public static ObjectNode withDataSource(JsonNode flightOffer, String dataSource) {
+        ObjectNode copy = MAPPER.createObjectNode().setAll((ObjectNode) flightOffer);
+        return copy.put("dataSource", dataSource);
+    }
+    
+    private static List<JsonNode> elements(JsonNode array) {
+        if (array == null || !array.isArray()) {
+            return null;
+        }
+        List<JsonNode> elements = new ArrayList<>(array.size());
+        array.forEach(elements::add);
+        return elements;
+    }
+    
+    // Convert back to JsonNode (for compatibility with existing code); shares the offer's nodes rather than copying them
     public JsonNode toJsonNode() {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode node = mapper.createObjectNode();
+        ObjectNode node = MAPPER.createObjectNode();
         
         node.put("id", id);
         node.put("dataSource", dataSource);
@@ -114,26 +131,29 @@ public class FlightSearchResult {
         node.put("numberOfBookableSeats", numberOfBookableSeats);
         
         if (itineraries != null) {
-            node.set("itineraries", mapper.valueToTree(itineraries));
+            node.putArray("itineraries").addAll(itineraries);
         }
         if (price != null) {
             node.set("price", price);
         }
         if (travelerPricings != null) {
-            node.set("travelerPricings", mapper.valueToTree(travelerPricings));
+            node.putArray("travelerPricings").addAll(travelerPricings);
         }
         if (validatingAirlineCodes != null) {
-            node.set("validatingAirlineCodes", mapper.valueToTree(validatingAirlineCodes));
+            validatingAirlineCodes.forEach(node.putArray("validatingAirlineCodes")::add);
         }
         
         // Add seatmap data
         if (seatMap != null) {
-            node.set("seatMap", mapper.valueToTree(seatMap));
+            node.set("seatMap", MAPPER.valueToTree(seatMap));
         }
         node.put("seatMapAvailable", seatMapAvailable);
         if (seatMapError != null) {
             node.put("seatMapError", seatMapError);
         }
+        if (seatmapHandle != null) {
+            node.put("seatmapHandle", seatmapHandle);
+        }
         
         // Add raw flight offer data if available
         if (rawFlightOffer != null) {
@@ -203,6 +223,9 @@ public class FlightSearchResult {
     public String getSeatMapError() { return seatMapError; }
     public void setSeatMapError(String seatMapError) { this.seatMapError = seatMapError; }
     
+    public String getSeatmapHandle() { return seatmapHandle; }
+    public void setSeatmapHandle(String seatmapHandle) { this.seatmapHandle = seatmapHandle; }
+    
     public JsonNode getRawFlightOffer() { return rawFlightOffer; }
     public void setRawFlightOffer(JsonNode rawFlightOffer) { this.rawFlightOffer = rawFlightOffer; }
 }
\ No newline at end of file
@@ -1,10 +1,18 @@
 package com.seatmap.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 
 public class SeatMapData {
     private List<SeatMapDeck> decks;
@@ -13,6 +21,10 @@ public class SeatMapData {
     private List<Seat> seats;
     private LayoutInfo layout;
     private String source; // AMADEUS/SABRE
+    private AvailabilitySummary summary; // Computed once at conversion
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CompactSeats compactSeats; // Only in COMPACT seat format, in place of decks and seats
+    private ConversionStats conversionStats; // Diagnostics only, never serialized
     
     // Default constructor
     public SeatMapData() {}
@@ -60,6 +72,35 @@ public class SeatMapData {
     public String getSource() { return source; }
     public void setSource(String source) { this.source = source; }
     
+    public AvailabilitySummary getSummary() { return summary; }
+    public void setSummary(AvailabilitySummary summary) { this.summary = summary; }
+    
+    public CompactSeats getCompactSeats() { return compactSeats; }
+    public void setCompactSeats(CompactSeats compactSeats) { this.compactSeats = compactSeats; }
+    
+    /**
+     * This seat map without its decks and seats: flight, aircraft, layout and the availability summary
+     */
+    public SeatMapData toSummaryOnly() {
+        SeatMapData projection = new SeatMapData(null, aircraft, flight, null, layout, source);
+        projection.setSummary(summary);
+        return projection;
+    }
+    
+    /**
+     * This seat map with its decks and seats in the columnar CompactSeats encoding
+     */
+    public SeatMapData toCompact() {
+        SeatMapData projection = toSummaryOnly();
+        projection.setCompactSeats(CompactSeats.encode(decks, seats));
+        return projection;
+    }
+    
+    @JsonIgnore
+    public ConversionStats getConversionStats() { return conversionStats; }
+    @JsonIgnore
+    public void setConversionStats(ConversionStats conversionStats) { this.conversionStats = conversionStats; }
+    
     // Inner classes for seatmap structure
     public static class SeatMapDeck {
         private String deckType;
@@ -302,4 +343,250 @@ public class SeatMapData {
         public String getConfiguration() { return configuration; }
         public void setConfiguration(String configuration) { this.configuration = configuration; }
     }
+    
+    /**
+     * Seat availability counted once when a provider response is converted, so list views and alert
+     * checks need not walk every seat. Prices cover available seats in the first currency seen.
+     */
+    public static class AvailabilitySummary {
+        private int totalSeats;
+        private int availableSeats;
+        private int occupiedSeats;
+        private int availableWindowSeats;
+        private int availableAisleSeats;
+        private List<CabinSummary> cabins;
+        private PriceSummary prices; // null when no available seat is priced
+        
+        public AvailabilitySummary() {}
+        
+        /**
+         * Summarize seats deck by deck, or the flat seat list when there are no decks
+         */
+        public static AvailabilitySummary of(List<SeatMapDeck> decks, List<Seat> seats) {
+            AvailabilitySummary summary = new AvailabilitySummary();
+            Map<String, CabinSummary> cabins = new LinkedHashMap<>();
+            List<BigDecimal> prices = new ArrayList<>();
+            String[] currency = new String[1];
+            
+            if (decks != null && !decks.isEmpty()) {
+                for (SeatMapDeck deck : decks) {
+                    if (deck.getSeats() != null) {
+                        for (Seat seat : deck.getSeats()) {
+                            summary.count(cabins, deck.getDeckType(), seat, prices, currency);
+                        }
+                    }
+                }
+            } else if (seats != null) {
+                for (Seat seat : seats) {
+                    summary.count(cabins, null, seat, prices, currency);
+                }
+            }
+            
+            summary.cabins = new ArrayList<>(cabins.values());
+            if (!prices.isEmpty()) {
+                Collections.sort(prices);
+                summary.prices = new PriceSummary(currency[0], prices.get(0).toPlainString(),
+                    prices.get((prices.size() - 1) / 2).toPlainString(), prices.get(prices.size() - 1).toPlainString());
+            }
+            return summary;
+        }
+        
+        private void count(Map<String, CabinSummary> cabins, String deckType, Seat seat, List<BigDecimal> prices, String[] currency) {
+            CabinSummary cabin = cabins.computeIfAbsent(deckType + "|" + seat.getCabin(), key -> new CabinSummary(deckType, seat.getCabin()));
+            totalSeats++;
+            cabin.totalSeats++;
+            if ("OCCUPIED".equalsIgnoreCase(seat.getAvailabilityStatus())) {
+                occupiedSeats++;
+                cabin.occupiedSeats++;
+            }
+            if (!"AVAILABLE".equalsIgnoreCase(seat.getAvailabilityStatus())) {
+                return;
+            }
+            
+            availableSeats++;
+            cabin.availableSeats++;
+            List<String> codes = seat.getCharacteristicsCodes();
+            if (codes != null && codes.contains("W")) {
+                availableWindowSeats++;
+                cabin.availableWindowSeats++;
+            }
+            if (codes != null && codes.contains("A")) {
+                availableAisleSeats++;
+                cabin.availableAisleSeats++;
+            }
+            
+            SeatPricing pricing = seat.getPricing();
+            if (pricing != null && pricing.getTotal() != null) {
+                if (currency[0] == null) {
+                    currency[0] = pricing.getCurrency();
+                }
+                if (Objects.equals(currency[0], pricing.getCurrency())) {
+                    try {
+                        prices.add(new BigDecimal(pricing.getTotal().trim()));
+                    } catch (NumberFormatException e) {
+                        // Unparseable prices are left out of the range
+                    }
+                }
+            }
+        }
+        
+        public int getTotalSeats() { return totalSeats; }
+        public void setTotalSeats(int totalSeats) { this.totalSeats = totalSeats; }
+        
+        public int getAvailableSeats() { return availableSeats; }
+        public void setAvailableSeats(int availableSeats) { this.availableSeats = availableSeats; }
+        
+        public int getOccupiedSeats() { return occupiedSeats; }
+        public void setOccupiedSeats(int occupiedSeats) { this.occupiedSeats = occupiedSeats; }
+        
+        public int getAvailableWindowSeats() { return availableWindowSeats; }
+        public void setAvailableWindowSeats(int availableWindowSeats) { this.availableWindowSeats = availableWindowSeats; }
+        
+        public int getAvailableAisleSeats() { return availableAisleSeats; }
+        public void setAvailableAisleSeats(int availableAisleSeats) { this.availableAisleSeats = availableAisleSeats; }
+        
+        public List<CabinSummary> getCabins() { return cabins; }
+        public void setCabins(List<CabinSummary> cabins) { this.cabins = cabins; }
+        
+        public PriceSummary getPrices() { return prices; }
+        public void setPrices(PriceSummary prices) { this.prices = prices; }
+    }
+    
+    /**
+     * Availability of one cabin on one deck
+     */
+    public static class CabinSummary {
+        private String deckType;
+        private String cabin;
+        private int totalSeats;
+        private int availableSeats;
+        private int occupiedSeats;
+        private int availableWindowSeats;
+        private int availableAisleSeats;
+        
+        public CabinSummary() {}
+        
+        public CabinSummary(String deckType, String cabin) {
+            this.deckType = deckType;
+            this.cabin = cabin;
+        }
+        
+        public String getDeckType() { return deckType; }
+        public void setDeckType(String deckType) { this.deckType = deckType; }
+        
+        public String getCabin() { return cabin; }
+        public void setCabin(String cabin) { this.cabin = cabin; }
+        
+        public int getTotalSeats() { return totalSeats; }
+        public void setTotalSeats(int totalSeats) { this.totalSeats = totalSeats; }
+        
+        public int getAvailableSeats() { return availableSeats; }
+        public void setAvailableSeats(int availableSeats) { this.availableSeats = availableSeats; }
+        
+        public int getOccupiedSeats() { return occupiedSeats; }
+        public void setOccupiedSeats(int occupiedSeats) { this.occupiedSeats = occupiedSeats; }
+        
+        public int getAvailableWindowSeats() { return availableWindowSeats; }
+        public void setAvailableWindowSeats(int availableWindowSeats) { this.availableWindowSeats = availableWindowSeats; }
+        
+        public int getAvailableAisleSeats() { return availableAisleSeats; }
+        public void setAvailableAisleSeats(int availableAisleSeats) { this.availableAisleSeats = availableAisleSeats; }
+    }
+    
+    /**
+     * Price range of available seats; the median of an even count is the lower middle price
+     */
+    public static class PriceSummary {
+        private String currency;
+        private String min;
+        private String median;
+        private String max;
+        
+        public PriceSummary() {}
+        
+        public PriceSummary(String currency, String min, String median, String max) {
+            this.currency = currency;
+            this.min = min;
+            this.median = median;
+            this.max = max;
+        }
+        
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        
+        public String getMin() { return min; }
+        public void setMin(String min) { this.min = min; }
+        
+        public String getMedian() { return median; }
+        public void setMedian(String median) { this.median = median; }
+        
+        public String getMax() { return max; }
+        public void setMax(String max) { this.max = max; }
+    }
+    
+    /**
+     * Counts gathered while converting a provider response, logged once per conversion
+     */
+    public static class ConversionStats {
+        private int segmentCount;
+        private int deckCount;
+        private int seatCount;
+        private int pricedSeatCount;
+        private int includedSeatCount;
+        private int incompletePricingCount;
+        private final Map<String, Integer> missingFieldCounts = new TreeMap<>();
+        private final Map<String, Integer> unknownCharacteristicCounts = new TreeMap<>();
+        private String failure;
+        
+        public void recordSegment() { segmentCount++; }
+        public void recordDeck() { deckCount++; }
+        public void recordMissingField(String field) { missingFieldCounts.merge(field, 1, Integer::sum); }
+        public void recordFailure(String failure) { this.failure = failure; }
+        /** A seat the provider reports as free of charge, so no pricing is expected for it */
+        public void recordIncludedSeat() { includedSeatCount++; }
+        
+        /**
+         * Count a fully converted seat, its pricing completeness and unmapped characteristic codes
+         */
+        public void recordSeat(Seat seat) {
+            seatCount++;
+            SeatPricing pricing = seat.getPricing();
+            if (pricing != null) {
+                pricedSeatCount++;
+                if (pricing.getCurrency() == null || pricing.getTotal() == null || pricing.getBase() == null) {
+                    incompletePricingCount++;
+                }
+            }
+            if (seat.getCharacteristics() != null) {
+                for (SeatCharacteristic characteristic : seat.getCharacteristics()) {
+                    if ("UNKNOWN".equals(characteristic.getCategory())) {
+                        unknownCharacteristicCounts.merge(characteristic.getCode(), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        
+        public int getSegmentCount() { return segmentCount; }
+        public int getDeckCount() { return deckCount; }
+        public int getSeatCount() { return seatCount; }
+        public int getPricedSeatCount() { return pricedSeatCount; }
+        public int getIncludedSeatCount() { return includedSeatCount; }
+        public int getSeatsMissingPricingCount() { return seatCount - pricedSeatCount - includedSeatCount; }
+        public int getIncompletePricingCount() { return incompletePricingCount; }
+        public Map<String, Integer> getMissingFieldCounts() { return missingFieldCounts; }
+        public Map<String, Integer> getUnknownCharacteristicCounts() { return unknownCharacteristicCounts; }
+        public String getFailure() { return failure; }
+        
+        public boolean hasIssues() {
+            return failure != null || getSeatsMissingPricingCount() > 0 || incompletePricingCount > 0
+                || !missingFieldCounts.isEmpty() || !unknownCharacteristicCounts.isEmpty();
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("segments=%d, decks=%d, seats=%d (priced=%d, included=%d, missingPricing=%d, incompletePricing=%d), missingFields=%s, unknownCharacteristics=%s%s",
+                segmentCount, deckCount, seatCount, pricedSeatCount, includedSeatCount, getSeatsMissingPricingCount(), incompletePricingCount,
+                missingFieldCounts, unknownCharacteristicCounts, failure != null ? ", failure=" + failure : "");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.exception.SeatmapApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe holder for a provider OAuth token. At most one refresh runs at a time and concurrent
+ * callers wait on it. Once a token enters its refresh window it is renewed in the background while
+ * callers keep using the current one, so only an expired (or missing) token blocks a request.
+ */
+public class AccessTokenManager {
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenManager.class);
+
+    private static final long BACKGROUND_RETRY_DELAY_MS = 5000;
+
+    /**
+     * Performs the actual token request against the provider
+     */
+    @FunctionalInterface
+    public interface TokenFetcher {
+        IssuedToken fetch() throws SeatmapApiException;
+    }
+
+    /**
+     * Token as returned by the provider's token endpoint
+     */
+    public static final class IssuedToken {
+        private final String value;
+        private final long expiresInSeconds;
+
+        public IssuedToken(String value, long expiresInSeconds) {
+            this.value = value;
+            this.expiresInSeconds = expiresInSeconds;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getExpiresInSeconds() {
+            return expiresInSeconds;
+        }
+    }
+
+    private final String provider;
+    private final TokenFetcher fetcher;
+    private final Executor refreshExecutor;
+    private final long expirySafetyMs;
+    private final long refreshAheadMs;
+    private final LongSupplier clock;
+
+    private final Object refreshLock = new Object();
+    private volatile TokenState current;
+    private CompletableFuture<TokenState> inFlightRefresh; // Guarded by refreshLock
+    private long nextBackgroundAttemptAt; // Guarded by refreshLock
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong backgroundRefreshCount = new AtomicLong();
+    private final AtomicLong blockingRefreshCount = new AtomicLong();
+    private final AtomicLong coalescedWaitCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    /**
+     * @param expirySafetyMs treat the token as expired this long before the provider's expiry
+     * @param refreshAheadMs start a background refresh this long before the (safety-adjusted) expiry
+     */
+    public AccessTokenManager(String provider, TokenFetcher fetcher, Executor refreshExecutor, long expirySafetyMs, long refreshAheadMs) {
+        this(provider, fetcher, refreshExecutor, expirySafetyMs, refreshAheadMs, System::currentTimeMillis);
+    }
+
+    AccessTokenManager(String provider, TokenFetcher fetcher, Executor refreshExecutor, long expirySafetyMs, long refreshAheadMs, LongSupplier clock) {
+        this.provider = provider;
+        this.fetcher = fetcher;
+        this.refreshExecutor = refreshExecutor;
+        this.expirySafetyMs = expirySafetyMs;
+        this.refreshAheadMs = refreshAheadMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Current valid token, refreshing first only if there is none or it has expired
+     */
+    public String getToken() throws SeatmapApiException {
+        TokenState state = current;
+        long now = clock.getAsLong();
+        if (state != null && now < state.expiresAt) {
+            if (now >= state.refreshAt) {
+                startBackgroundRefresh(now);
+            }
+            return state.value;
+        }
+        return awaitRefresh().value;
+    }
+
+    /**
+     * Last issued token without any expiry check, for use after getToken() has validated it
+     */
+    public String getCurrentToken() {
+        TokenState state = current;
+        return state != null ? state.value : null;
+    }
+
+    private TokenState awaitRefresh() throws SeatmapApiException {
+        CompletableFuture<TokenState> refresh;
+        boolean leader = false;
+        synchronized (refreshLock) {
+            TokenState state = current;
+            if (state != null && clock.getAsLong() < state.expiresAt) {
+                return state; // Refreshed while we waited for the lock
+            }
+            if (inFlightRefresh == null) {
+                inFlightRefresh = new CompletableFuture<>();
+                leader = true;
+            }
+            refresh = inFlightRefresh;
+        }
+
+        if (leader) {
+            blockingRefreshCount.incrementAndGet();
+            runRefresh(refresh);
+        } else {
+            coalescedWaitCount.incrementAndGet();
+        }
+
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SeatmapApiException) {
+                throw (SeatmapApiException) cause;
+            }
+            throw new SeatmapApiException("Failed to refresh " + provider + " access token", cause);
+        }
+    }
+
+    private void startBackgroundRefresh(long now) {
+        CompletableFuture<TokenState> refresh;
+        synchronized (refreshLock) {
+            if (inFlightRefresh != null || now < nextBackgroundAttemptAt) {
+                return;
+            }
+            refresh = new CompletableFuture<>();
+            inFlightRefresh = refresh;
+            nextBackgroundAttemptAt = now + BACKGROUND_RETRY_DELAY_MS;
+        }
+        backgroundRefreshCount.incrementAndGet();
+        refreshExecutor.execute(() -> runRefresh(refresh));
+    }
+
+    private void runRefresh(CompletableFuture<TokenState> refresh) {
+        try {
+            IssuedToken token = fetcher.fetch();
+            TokenState state = newState(token);
+            current = state;
+            refreshCount.incrementAndGet();
+            refresh.complete(state);
+        } catch (Exception e) {
+            failureCount.incrementAndGet();
+            logger.warn("{} access token refresh failed: {}", provider, e.getMessage());
+            refresh.completeExceptionally(e);
+        } finally {
+            synchronized (refreshLock) {
+                if (inFlightRefresh == refresh) {
+                    inFlightRefresh = null;
+                }
+            }
+        }
+    }
+
+    private TokenState newState(IssuedToken token) {
+        long issuedAt = clock.getAsLong();
+        long expiresAt = issuedAt + token.getExpiresInSeconds() * 1000L - expirySafetyMs;
+        // Short-lived tokens refresh halfway through their lifetime instead of immediately
+        long refreshAt = Math.max(expiresAt - refreshAheadMs, issuedAt + (expiresAt - issuedAt) / 2);
+        return new TokenState(token.getValue(), issuedAt, expiresAt, refreshAt);
+    }
+
+    public TokenStats getStats() {
+        TokenState state = current;
+        long now = clock.getAsLong();
+        return new TokenStats(provider,
+            state != null ? now - state.issuedAt : -1,
+            state != null ? state.expiresAt - now : -1,
+            refreshCount.get(), backgroundRefreshCount.get(), blockingRefreshCount.get(),
+            coalescedWaitCount.get(), failureCount.get());
+    }
+
+    private static final class TokenState {
+        private final String value;
+        private final long issuedAt;
+        private final long expiresAt;
+        private final long refreshAt;
+
+        private TokenState(String value, long issuedAt, long expiresAt, long refreshAt) {
+            this.value = value;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+
+    /**
+     * Token age and refresh counters. Age and remaining lifetime are -1 when no token is held.
+     */
+    public static class TokenStats {
+        private final String provider;
+        private final long tokenAgeMs;
+        private final long remainingMs;
+        private final long refreshCount;
+        private final long backgroundRefreshCount;
+        private final long blockingRefreshCount;
+        private final long coalescedWaitCount;
+        private final long failureCount;
+
+        public TokenStats(String provider, long tokenAgeMs, long remainingMs, long refreshCount, long backgroundRefreshCount,
+                          long blockingRefreshCount, long coalescedWaitCount, long failureCount) {
+            this.provider = provider;
+            this.tokenAgeMs = tokenAgeMs;
+            this.remainingMs = remainingMs;
+            this.refreshCount = refreshCount;
+            this.backgroundRefreshCount = backgroundRefreshCount;
+            this.blockingRefreshCount = blockingRefreshCount;
+            this.coalescedWaitCount = coalescedWaitCount;
+            this.failureCount = failureCount;
+        }
+
+        public String getProvider() { return provider; }
+        public long getTokenAgeMs() { return tokenAgeMs; }
+        public long getRemainingMs() { return remainingMs; }
+        public long getRefreshCount() { return refreshCount; }
+        public long getBackgroundRefreshCount() { return backgroundRefreshCount; }
+        public long getBlockingRefreshCount() { return blockingRefreshCount; }
+        public long getCoalescedWaitCount() { return coalescedWaitCount; }
+        public long getFailureCount() { return failureCount; }
+
+        @Override
+        public String toString() {
+            return String.format("%s tokenAge=%dms, remaining=%dms, refreshes=%d (background=%d, blocking=%d), coalescedWaits=%d, failures=%d",
+                provider, tokenAgeMs, remainingMs, refreshCount, backgroundRefreshCount, blockingRefreshCount, coalescedWaitCount, failureCount);
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seatmap.api.exception.SeatmapApiException;
+import com.seatmap.api.model.SeatMapData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Decodes an Amadeus seat map response straight into SeatMapData with a streaming JsonParser,
+ * without building a JsonNode tree for the whole response. Produces the same SeatMapData as
+ * AmadeusService.convertToSeatMapData. Only the small nodes the model keeps as JsonNode
+ * (coordinates, deckConfiguration, operating) and the dictionaries are materialized, and the
+ * characteristics dictionary is built once per response instead of once per seat.
+ */
+public class AmadeusSeatMapDecoder {
+    private static final Logger logger = LoggerFactory.getLogger(AmadeusSeatMapDecoder.class);
+
+    // First-traveler pricing outcome of a seat, for the conversion stats
+    private static final int PRICING_ABSENT = 0;
+    private static final int PRICING_WITHOUT_PRICE = 1;
+    private static final int PRICING_WITH_PRICE = 2;
+
+    private final ObjectMapper objectMapper;
+    private final SeatMapDiagnostics diagnostics;
+
+    public AmadeusSeatMapDecoder(ObjectMapper objectMapper) {
+        this(objectMapper, SeatMapDiagnostics.disabled("AMADEUS"));
+    }
+
+    public AmadeusSeatMapDecoder(ObjectMapper objectMapper, SeatMapDiagnostics diagnostics) {
+        this.objectMapper = objectMapper;
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Decode a response body stream. The stream is read to the end of the JSON document and closed.
+     */
+    public SeatMapData decode(InputStream body) throws SeatmapApiException {
+        // Sampled conversions keep a copy of the bytes in case the payload needs to be logged
+        ByteArrayOutputStream payloadCopy = diagnostics.shouldCapturePayload() ? new ByteArrayOutputStream() : null;
+        InputStream source = payloadCopy != null ? new CopyingInputStream(body, payloadCopy) : body;
+        try (JsonParser parser = objectMapper.getFactory().createParser(source)) {
+            return decode(parser, payloadCopy != null ? () -> payloadCopy.toString(StandardCharsets.UTF_8) : null);
+        } catch (IOException e) {
+            throw new SeatmapApiException("Failed to decode seat map response: " + e.getMessage(), e);
+        }
+    }
+
+    public SeatMapData decode(byte[] body) throws SeatmapApiException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            return decode(parser, diagnostics.shouldCapturePayload() ? () -> new String(body, StandardCharsets.UTF_8) : null);
+        } catch (IOException e) {
+            throw new SeatmapApiException("Failed to decode seat map response: " + e.getMessage(), e);
+        }
+    }
+
+    private SeatMapData decode(JsonParser parser, Supplier<String> capturedPayload) throws IOException, SeatmapApiException {
+        SeatMapData seatMapData = new SeatMapData();
+        seatMapData.setSource("AMADEUS");
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            logger.warn("Seat map response is not a JSON object, returning empty SeatMapData");
+            return seatMapData;
+        }
+
+        DecodeState state = new DecodeState();
+        boolean hasData = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("data".equals(field)) {
+                hasData = true;
+                if (token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        readSegment(parser, state);
+                    }
+                } else {
+                    // Single segment response
+                    readSegment(parser, state);
+                }
+            } else if ("dictionaries".equals(field)) {
+                // Usually follows data, so characteristics are resolved once the document is read
+                state.dictionaries = parser.readValueAsTree();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!hasData) {
+            logger.warn("Missing 'data' field in seat map response");
+            return seatMapData;
+        }
+        if (state.stats.getSegmentCount() == 0) {
+            logger.info("No seat map segments found in response");
+            throw new SeatmapApiException("No seat map data available for flight");
+        }
+
+        if (!state.characteristicSeats.isEmpty()) {
+            Map<String, String> responseDictionary = SeatCharacteristicMapper.buildResponseDictionary(state.dictionaries);
+            for (int i = 0; i < state.characteristicSeats.size(); i++) {
+                state.characteristicSeats.get(i).setCharacteristics(
+                    SeatCharacteristicMapper.mapAmadeusCharacteristicsWithDictionary(state.characteristicCodes.get(i), responseDictionary));
+            }
+        }
+        for (SeatMapData.Seat seat : state.seats) {
+            state.stats.recordSeat(seat);
+        }
+
+        seatMapData.setFlight(state.flightInfo);
+        seatMapData.setAircraft(state.aircraftInfo);
+        seatMapData.setDecks(state.decks);
+        seatMapData.setSeats(state.seats);
+        seatMapData.setSummary(SeatMapData.AvailabilitySummary.of(state.decks, state.seats));
+
+        if (state.totalRows > 0 || state.totalColumns > 0) {
+            SeatMapData.LayoutInfo layout = new SeatMapData.LayoutInfo();
+            layout.setTotalRows(state.totalRows);
+            layout.setTotalColumns(state.totalColumns);
+            layout.setConfiguration(String.format("%dx%d", state.totalRows, state.totalColumns));
+            seatMapData.setLayout(layout);
+        }
+
+        seatMapData.setConversionStats(state.stats);
+        diagnostics.emit(state.stats, capturedPayload);
+        return seatMapData;
+    }
+
+    private void readSegment(JsonParser parser, DecodeState state) throws IOException {
+        state.stats.recordSegment();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        String number = "";
+        String carrierCode = "";
+        SeatMapData.FlightInfo.DepartureInfo departure = null;
+        SeatMapData.FlightInfo.ArrivalInfo arrival = null;
+        JsonNode operating = null;
+        boolean hasDecks = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "number":
+                    number = readText(parser);
+                    break;
+                case "carrierCode":
+                    carrierCode = readText(parser);
+                    break;
+                case "departure":
+                    departure = readDeparture(parser);
+                    break;
+                case "arrival":
+                    arrival = readArrival(parser);
+                    break;
+                case "operating":
+                    operating = parser.readValueAsTree();
+                    break;
+                case "aircraft":
+                    String aircraftCode = readFieldText(parser, "code");
+                    if (state.aircraftInfo == null) {
+                        state.aircraftInfo = new SeatMapData.AircraftInfo();
+                        state.aircraftInfo.setCode(aircraftCode);
+                        state.aircraftInfo.setName(""); // Amadeus doesn't provide aircraft name
+                    }
+                    break;
+                case "decks":
+                    hasDecks = true;
+                    readDecks(parser, state);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (!hasDecks) {
+            state.stats.recordMissingField("decks");
+        }
+
+        // Flight info comes from the first segment with a flight number and carrier
+        if (state.flightInfo == null && !number.isEmpty() && !carrierCode.isEmpty()) {
+            SeatMapData.FlightInfo flightInfo = new SeatMapData.FlightInfo();
+            flightInfo.setNumber(number);
+            flightInfo.setCarrierCode(carrierCode);
+            flightInfo.setDeparture(departure);
+            flightInfo.setArrival(arrival);
+            flightInfo.setOperating(operating);
+            state.flightInfo = flightInfo;
+        }
+    }
+
+    private void readDecks(JsonParser parser, DecodeState state) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            SeatMapData.SeatMapDeck deck = new SeatMapData.SeatMapDeck();
+            deck.setDeckType("");
+            List<SeatMapData.Seat> deckSeats = new ArrayList<>();
+            state.stats.recordDeck();
+
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "deckType":
+                            deck.setDeckType(readText(parser));
+                            break;
+                        case "deckConfiguration":
+                            JsonNode deckConfig = parser.readValueAsTree();
+                            deck.setDeckConfiguration(deckConfig);
+                            state.totalColumns = Math.max(state.totalColumns, deckConfig.path("width").asInt(0));
+                            state.totalRows = Math.max(state.totalRows, deckConfig.path("length").asInt(0));
+                            break;
+                        case "seats":
+                            readSeats(parser, state, deckSeats);
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+
+            deck.setSeats(deckSeats);
+            state.decks.add(deck);
+        }
+    }
+
+    private void readSeats(JsonParser parser, DecodeState state, List<SeatMapData.Seat> deckSeats) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            SeatMapData.Seat seat = new SeatMapData.Seat();
+            seat.setNumber("");
+            seat.setCabin("");
+            int pricingState = PRICING_ABSENT;
+
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "number":
+                            seat.setNumber(readText(parser));
+                            break;
+                        case "cabin":
+                            seat.setCabin(readText(parser));
+                            break;
+                        case "characteristicsCodes":
+                            state.characteristicSeats.add(seat);
+                            state.characteristicCodes.add(readTextArray(parser));
+                            break;
+                        case "coordinates":
+                            seat.setCoordinates(parser.readValueAsTree());
+                            break;
+                        case "travelerPricing":
+                            pricingState = readTravelerPricing(parser, seat);
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+
+            if (pricingState == PRICING_ABSENT) {
+                state.stats.recordMissingField("travelerPricing");
+            } else if (pricingState == PRICING_WITHOUT_PRICE) {
+                state.stats.recordMissingField("travelerPricing.price");
+            }
+            deckSeats.add(seat);
+            state.seats.add(seat);
+        }
+    }
+
+    /**
+     * Availability and pricing come from the first traveler only (single traveler searches).
+     * Returns PRICING_ABSENT for a missing or empty array, otherwise whether the first traveler had a price.
+     */
+    private int readTravelerPricing(JsonParser parser, SeatMapData.Seat seat) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return PRICING_ABSENT;
+        }
+        int pricingState = PRICING_ABSENT;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (pricingState != PRICING_ABSENT || parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                if (pricingState == PRICING_ABSENT) {
+                    pricingState = PRICING_WITHOUT_PRICE;
+                }
+                continue;
+            }
+            pricingState = PRICING_WITHOUT_PRICE;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("seatAvailabilityStatus".equals(field)) {
+                    seat.setAvailabilityStatus(readText(parser));
+                } else if ("price".equals(field)) {
+                    seat.setPricing(readPrice(parser));
+                    pricingState = PRICING_WITH_PRICE;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return pricingState;
+    }
+
+    private SeatMapData.SeatPricing readPrice(JsonParser parser) throws IOException {
+        SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return pricing;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "currency":
+                    pricing.setCurrency(readTextOrNull(parser));
+                    break;
+                case "total":
+                    pricing.setTotal(readTextOrNull(parser));
+                    break;
+                case "base":
+                    pricing.setBase(readTextOrNull(parser));
+                    break;
+                case "taxes":
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        pricing.setTaxes(readTaxes(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return pricing;
+    }
+
+    private List<SeatMapData.SeatPricing.Tax> readTaxes(JsonParser parser) throws IOException {
+        List<SeatMapData.SeatPricing.Tax> taxes = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            SeatMapData.SeatPricing.Tax tax = new SeatMapData.SeatPricing.Tax();
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("amount".equals(field)) {
+                        tax.setAmount(readTextOrNull(parser));
+                    } else if ("code".equals(field)) {
+                        tax.setCode(readTextOrNull(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            taxes.add(tax);
+        }
+        return taxes;
+    }
+
+    private SeatMapData.FlightInfo.DepartureInfo readDeparture(JsonParser parser) throws IOException {
+        SeatMapData.FlightInfo.DepartureInfo departure = new SeatMapData.FlightInfo.DepartureInfo();
+        String[] values = readLocation(parser);
+        departure.setIataCode(values[0]);
+        departure.setTerminal(values[1]);
+        departure.setAt(values[2]);
+        return departure;
+    }
+
+    private SeatMapData.FlightInfo.ArrivalInfo readArrival(JsonParser parser) throws IOException {
+        SeatMapData.FlightInfo.ArrivalInfo arrival = new SeatMapData.FlightInfo.ArrivalInfo();
+        String[] values = readLocation(parser);
+        arrival.setIataCode(values[0]);
+        arrival.setTerminal(values[1]);
+        arrival.setAt(values[2]);
+        return arrival;
+    }
+
+    /**
+     * iataCode, terminal and at of a departure/arrival object, "" when absent
+     */
+    private String[] readLocation(JsonParser parser) throws IOException {
+        String[] values = {"", "", ""};
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return values;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "iataCode":
+                    values[0] = readText(parser);
+                    break;
+                case "terminal":
+                    values[1] = readText(parser);
+                    break;
+                case "at":
+                    values[2] = readText(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Text of one field of the current object, "" when absent
+     */
+    private String readFieldText(JsonParser parser, String name) throws IOException {
+        String value = "";
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return value;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                value = readText(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    private List<String> readTextArray(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>();
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return values;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readText(parser));
+        }
+        return values;
+    }
+
+    /**
+     * Text of the current value with JsonNode.asText() semantics ("" for containers, "null" for null)
+     */
+    private static String readText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return String.valueOf(parser.getDoubleValue());
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Text of the current value with JsonNode.asText(null) semantics
+     */
+    private static String readTextOrNull(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : readText(parser);
+    }
+
+    private static final class DecodeState {
+        private final List<SeatMapData.SeatMapDeck> decks = new ArrayList<>();
+        private final List<SeatMapData.Seat> seats = new ArrayList<>();
+        private final List<SeatMapData.Seat> characteristicSeats = new ArrayList<>();
+        private final List<List<String>> characteristicCodes = new ArrayList<>();
+        private SeatMapData.FlightInfo flightInfo;
+        private SeatMapData.AircraftInfo aircraftInfo;
+        private final SeatMapData.ConversionStats stats = new SeatMapData.ConversionStats();
+        private JsonNode dictionaries;
+        private int totalRows;
+        private int totalColumns;
+    }
+}
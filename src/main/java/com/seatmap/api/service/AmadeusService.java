@@ -7,24 +7,37 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.seatmap.api.exception.SeatmapApiException;
 import com.seatmap.api.model.FlightSearchResult;
 import com.seatmap.api.model.SeatMapData;
+import com.seatmap.common.cache.TtlLruCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -33,14 +46,61 @@ import static java.util.stream.Collectors.toList;
 public class AmadeusService {
     private static final Logger logger = LoggerFactory.getLogger(AmadeusService.class);
     
+    private static final long DEFAULT_SEATMAP_CACHE_TTL_SECONDS = 300; // 5 minutes
+    private static final long DEFAULT_SEATMAP_CACHE_MAX_MB = 64; // Sized for 512 MB Lambdas
+    private static final int DEFAULT_SEATMAP_BATCH_SIZE = 10;
+    private static final int DEFAULT_MAX_CONCURRENCY = 32; // Wide enough for a full page of per-offer seat maps
+    private static final long TOKEN_EXPIRY_SAFETY_MS = 60000; // Treat tokens as expired 1 minute early
+    private static final long DEFAULT_TOKEN_REFRESH_AHEAD_SECONDS = 300;
+    private static final long DEFAULT_SEATMAP_TIMEOUT_SECONDS = 15;
+    private static final long DEFAULT_OFFER_SEARCH_TIMEOUT_SECONDS = 20;
+    private static final long DEFAULT_TOKEN_TIMEOUT_SECONDS = 10;
+    private static final double DEFAULT_RATE_LIMIT_PER_SECOND = 10; // Amadeus self-service quota
+    private static final int DEFAULT_RATE_LIMIT_BURST = 10;
+    private static final double DEFAULT_OAUTH_RATE_LIMIT_PER_SECOND = 1;
+    private static final int DEFAULT_OAUTH_RATE_LIMIT_BURST = 2;
+    private static final int MAX_THROTTLED_RETRIES = 3;
+    private static final long DEFAULT_RETRY_AFTER_MS = 1000; // When a 429 carries no Retry-After
+    private static final long MAX_RETRY_AFTER_MS = 30000; // Longer waits fail the call instead of holding a thread
+    
+    /**
+     * How seat maps are requested for a list of offers
+     */
+    public enum SeatmapStrategy {
+        PER_OFFER, // One seat map POST per offer
+        BATCH;     // Offers packed into chunked multi-offer POSTs
+        
+        public static SeatmapStrategy fromString(String value, SeatmapStrategy defaultValue) {
+            if (value == null || value.trim().isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                return SeatmapStrategy.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return defaultValue;
+            }
+        }
+    }
+    
     private final String apiKey;
     private final String apiSecret;
     private final String endpoint;
     private final HttpClient httpClient;
+    private final InstrumentedHttpClient transport;
     private final ObjectMapper objectMapper;
-    
-    private String accessToken;
-    private long tokenExpiresAt;
+    private final SeatMapDiagnostics seatMapDiagnostics;
+    private final AmadeusSeatMapDecoder seatMapDecoder;
+    private final TtlLruCache<String, byte[]> seatMapCache;
+    private final SingleFlight<String, SeatMapData> seatMapFetches;
+    private final SeatmapStrategy defaultSeatmapStrategy;
+    private final int seatmapBatchSize;
+    private final Duration seatmapRequestTimeout;
+    private final Duration offerSearchRequestTimeout;
+    private final Duration tokenRequestTimeout;
+    private final ProviderIoExecutor ioExecutor;
+    private final AccessTokenManager tokenManager;
+    private final RateLimiter rateLimiter;
+    private final RateLimiter oauthRateLimiter;
     
     public AmadeusService() {
         this.apiKey = System.getenv("AMADEUS_API_KEY");
@@ -51,10 +111,104 @@ public class AmadeusService {
             throw new IllegalStateException("Amadeus API credentials not configured");
         }
         
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
+        // gzip and HTTP/2 on pooled connections; large offer and seat map bodies dominate transfer time
+        this.transport = InstrumentedHttpClient.create("AMADEUS", Duration.ofSeconds(10));
+        this.httpClient = transport;
         this.objectMapper = new ObjectMapper();
+        this.seatMapDiagnostics = SeatMapDiagnostics.fromEnv("AMADEUS");
+        this.seatMapDecoder = new AmadeusSeatMapDecoder(objectMapper, seatMapDiagnostics);
+        
+        // Seat map responses keyed by canonical segment identity, weighed by response size
+        long cacheTtlSeconds = parseLongEnvVar("AMADEUS_SEATMAP_CACHE_TTL_SECONDS", DEFAULT_SEATMAP_CACHE_TTL_SECONDS);
+        long cacheMaxMb = parseLongEnvVar("AMADEUS_SEATMAP_CACHE_MAX_MB", DEFAULT_SEATMAP_CACHE_MAX_MB);
+        this.seatMapCache = new TtlLruCache<>(cacheMaxMb * 1024 * 1024, cacheTtlSeconds * 1000, body -> body.length);
+        this.seatMapFetches = new SingleFlight<>("AMADEUS_SEATMAP");
+        
+        String strategyEnv = System.getenv("AMADEUS_SEATMAP_STRATEGY");
+        this.defaultSeatmapStrategy = SeatmapStrategy.fromString(strategyEnv, SeatmapStrategy.PER_OFFER);
+        if (strategyEnv != null && !strategyEnv.trim().isEmpty() && !strategyEnv.trim().equalsIgnoreCase(defaultSeatmapStrategy.name())) {
+            logger.warn("Invalid value for AMADEUS_SEATMAP_STRATEGY: '{}', using default: {}", strategyEnv, defaultSeatmapStrategy);
+        }
+        this.seatmapBatchSize = (int) parseLongEnvVar("AMADEUS_SEATMAP_BATCH_SIZE", DEFAULT_SEATMAP_BATCH_SIZE);
+        
+        // Per-request budget for seat map calls; a search deadline can cut it shorter
+        this.seatmapRequestTimeout = Duration.ofSeconds(parseLongEnvVar("AMADEUS_SEATMAP_TIMEOUT_SECONDS", DEFAULT_SEATMAP_TIMEOUT_SECONDS));
+        this.offerSearchRequestTimeout = Duration.ofSeconds(parseLongEnvVar("AMADEUS_OFFER_SEARCH_TIMEOUT_SECONDS", DEFAULT_OFFER_SEARCH_TIMEOUT_SECONDS));
+        this.tokenRequestTimeout = Duration.ofSeconds(parseLongEnvVar("AMADEUS_TOKEN_TIMEOUT_SECONDS", DEFAULT_TOKEN_TIMEOUT_SECONDS));
+        
+        // Blocking seat map calls fan out on a dedicated pool rather than the (vCPU-sized) common pool
+        this.ioExecutor = ProviderIoExecutor.forProvider("AMADEUS", DEFAULT_MAX_CONCURRENCY);
+        
+        // API calls and token requests are metered separately so a token refresh never waits behind seat maps
+        this.rateLimiter = RateLimiter.forName("AMADEUS", DEFAULT_RATE_LIMIT_PER_SECOND, DEFAULT_RATE_LIMIT_BURST);
+        this.oauthRateLimiter = RateLimiter.forName("AMADEUS_OAUTH", DEFAULT_OAUTH_RATE_LIMIT_PER_SECOND, DEFAULT_OAUTH_RATE_LIMIT_BURST);
+        
+        long refreshAheadSeconds = parseLongEnvVar("AMADEUS_TOKEN_REFRESH_AHEAD_SECONDS", DEFAULT_TOKEN_REFRESH_AHEAD_SECONDS);
+        this.tokenManager = new AccessTokenManager("AMADEUS", this::requestAccessToken, ioExecutor,
+            TOKEN_EXPIRY_SAFETY_MS, refreshAheadSeconds * 1000);
+    }
+    
+    private long parseLongEnvVar(String envVarName, long defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Hit/miss counters and occupancy of the in-process seat map cache
+     */
+    public TtlLruCache.CacheStats getSeatMapCacheStats() {
+        return seatMapCache.getStats();
+    }
+    
+    /**
+     * Concurrency and queue depth of the Amadeus I/O executor
+     */
+    public ProviderIoExecutor.ExecutorStats getIoExecutorStats() {
+        return ioExecutor.getStats();
+    }
+    
+    /**
+     * Age of the current OAuth token and refresh counters
+     */
+    public AccessTokenManager.TokenStats getTokenStats() {
+        return tokenManager.getStats();
+    }
+    
+    /**
+     * Token level and wait times of the Amadeus API rate limiter
+     */
+    public RateLimiter.LimiterStats getRateLimiterStats() {
+        return rateLimiter.getStats();
+    }
+    
+    /**
+     * Token level and wait times of the OAuth endpoint rate limiter
+     */
+    public RateLimiter.LimiterStats getOAuthRateLimiterStats() {
+        return oauthRateLimiter.getStats();
+    }
+    
+    /**
+     * State and counters of the circuit breaker for an Amadeus endpoint path, e.g. /v1/shopping/seatmaps
+     */
+    public CircuitBreaker.BreakerStats getCircuitBreakerStats(String path) {
+        return CircuitBreaker.forEndpoint("AMADEUS", path).getStats();
+    }
+    
+    /**
+     * Wire versus decoded bytes and connection reuse of the Amadeus HTTP client
+     */
+    public InstrumentedHttpClient.TransportStats getTransportStats() {
+        return transport.getStats();
     }
     
     public JsonNode getSeatMap(String airlineCode, String flightNumber, String departureDate, String origin, String destination) throws SeatmapApiException {
@@ -62,7 +216,7 @@ public class AmadeusService {
             ensureValidToken();
             
             // Step 1: Search for flight offers using Flight Offers Search API (any travel class)
-            JsonNode flightOffers = searchFlightOffersInternal(origin, destination, departureDate, null, airlineCode, flightNumber, 10);
+            JsonNode flightOffers = searchFlightOffersInternal(origin, destination, departureDate, null, airlineCode, flightNumber, 10, SearchDeadline.none());
             
             if (flightOffers == null || !flightOffers.has("data") || flightOffers.get("data").size() == 0) {
                 throw new SeatmapApiException("No flight offers found for the specified criteria");
@@ -78,14 +232,23 @@ public class AmadeusService {
         }
     }
     
+    /**
+     * Search flight offers. Amadeus has no offset parameter, so later pages are served from the
+     * offer list of one search (see FlightSearchService) rather than by searching again.
+     */
     public JsonNode searchFlightOffers(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults) throws SeatmapApiException {
-        return searchFlightOffers(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, 0);
+        return searchFlightOffers(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, SearchDeadline.none());
     }
     
-    public JsonNode searchFlightOffers(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset) throws SeatmapApiException {
+    /**
+     * Search flight offers within a search deadline. A search the deadline cuts short fails with a
+     * SeatmapApiException caused by HttpTimeoutException.
+     */
+    public JsonNode searchFlightOffers(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults,
+                                       SearchDeadline deadline) throws SeatmapApiException {
         try {
             ensureValidToken();
-            return searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset);
+            return searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, deadline);
         } catch (IOException | InterruptedException e) {
             logger.error("Error calling Amadeus API", e);
             throw new SeatmapApiException("Network error calling Amadeus API", e);
@@ -96,23 +259,22 @@ public class AmadeusService {
      * Search flight offers with integrated seatmap data
      */
     public List<FlightSearchResult> searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults) throws SeatmapApiException {
-        return searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, 0);
-    }
-    
-    public List<FlightSearchResult> searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset) throws SeatmapApiException {
         try {
             ensureValidToken();
             
             // 1. Get flight offers
-            JsonNode flightOffers = searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset);
+            JsonNode flightOffers = searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, SearchDeadline.none());
             
             if (flightOffers == null || !flightOffers.has("data")) {
                 return new ArrayList<>();
             }
             
             // 2. For each offer, fetch seatmap concurrently and filter out failures
-            List<FlightSearchResult> results = extractFlightOffers(flightOffers).parallelStream()
-                .map(this::buildFlightSearchResult)
+            List<CompletableFuture<FlightSearchResult>> futures = extractFlightOffers(flightOffers).stream()
+                .map(offer -> ioExecutor.supplyAsync(() -> buildResultWithSeatmap(offer)))
+                .collect(toList());
+            List<FlightSearchResult> results = futures.stream()
+                .map(CompletableFuture::join)
                 .filter(Objects::nonNull)  // Only include flights with successful seatmaps
                 .collect(toList());
             
@@ -129,21 +291,9 @@ public class AmadeusService {
      * Build FlightSearchResult with integrated seatmap data
      * Returns null if seatmap fetch fails (flight will be filtered out)
      */
-    private FlightSearchResult buildFlightSearchResult(JsonNode offer) {
+    private FlightSearchResult buildResultWithSeatmap(JsonNode offer) {
         try {
-            // Get the enhanced offer that will be sent to Amadeus
-            JsonNode enhancedOffer = enhanceFlightOfferWithOperatingCarrier(offer);
-            
-            // Get seatmap data for this offer
-            JsonNode seatMapResponse = getSeatMapFromOfferInternal(offer);
-            SeatMapData seatMapData = convertToSeatMapData(seatMapResponse);
-            
-            // Add dataSource field to the enhanced offer for FlightSearchResult
-            ObjectNode enhancedOfferWithDataSource = enhancedOffer.deepCopy();
-            enhancedOfferWithDataSource.put("dataSource", "AMADEUS");
-            
-            return new FlightSearchResult(enhancedOfferWithDataSource, seatMapData, true, null, true);
-            
+            return buildSeatmapResult(offer, getSeatMapDataForOffer(offer, SearchDeadline.none()), true);
         } catch (Exception e) {
             logger.warn("Omitting flight {} - seatmap unavailable: {}", offer.path("id").asText(), e.getMessage());
             return null; // Filter out flights without seatmaps
@@ -154,7 +304,6 @@ public class AmadeusService {
      * Convert Amadeus seatmap response to SeatMapData model
      */
     public SeatMapData convertToSeatMapData(JsonNode seatMapResponse) throws SeatmapApiException {
-        logger.info("Converting Amadeus seat map response to SeatMapData");
         SeatMapData seatMapData = new SeatMapData();
         seatMapData.setSource("AMADEUS");
         
@@ -163,33 +312,24 @@ public class AmadeusService {
             return seatMapData;
         }
         
-        // Enhanced logging for debugging Alaska Airlines and other problematic responses
-        logger.info("Seat map response structure: {}", seatMapResponse.has("data") ? "has data field" : "missing data field");
-        if (seatMapResponse.has("data")) {
-            JsonNode data = seatMapResponse.get("data");
-            logger.info("Data field type: {}, size: {}", data.getNodeType(), data.isArray() ? data.size() : "not array");
-        } else {
-            // Log available field names for debugging
-            StringBuilder fieldNames = new StringBuilder();
-            if (seatMapResponse.fieldNames().hasNext()) {
-                seatMapResponse.fieldNames().forEachRemaining(name -> fieldNames.append(name).append(", "));
-                if (fieldNames.length() > 2) fieldNames.setLength(fieldNames.length() - 2); // Remove trailing ", "
-            }
+        if (!seatMapResponse.has("data")) {
+            List<String> fieldNames = new ArrayList<>();
+            seatMapResponse.fieldNames().forEachRemaining(fieldNames::add);
             logger.warn("Missing 'data' field in seat map response. Available fields: {}", 
-                       fieldNames.length() > 0 ? fieldNames.toString() : "none");
+                       fieldNames.isEmpty() ? "none" : String.join(", ", fieldNames));
             return seatMapData;
         }
         
+        // Counters replace per-seat logging; emitted once below
+        SeatMapData.ConversionStats stats = new SeatMapData.ConversionStats();
+        seatMapData.setConversionStats(stats);
+        boolean capturePayload = seatMapDiagnostics.shouldCapturePayload();
+        
         try {
             JsonNode data = seatMapResponse.get("data");
             
-            // Extract dictionaries for characteristic mapping
-            JsonNode dictionaries = seatMapResponse.get("dictionaries");
-            if (dictionaries != null) {
-                logger.info("Found dictionaries in seat map response");
-            } else {
-                logger.info("No dictionaries found in seat map response");
-            }
+            // Build the characteristics dictionary once rather than per seat
+            Map<String, String> responseDictionary = SeatCharacteristicMapper.buildResponseDictionary(seatMapResponse.get("dictionaries"));
             
             // Handle both single segment and multi-segment responses
             if (!data.isArray()) {
@@ -202,8 +342,6 @@ public class AmadeusService {
                 throw new SeatmapApiException("No seat map data available for flight");
             }
             
-            logger.info("Processing {} seat map segments", data.size());
-            
             // Process ALL segments to collect complete seat map data
             List<SeatMapData.SeatMapDeck> allDecks = new ArrayList<>();
             List<SeatMapData.Seat> allSeats = new ArrayList<>();
@@ -215,11 +353,7 @@ public class AmadeusService {
             // Iterate through ALL segments (handles both single and multi-segment)
             for (int segmentIndex = 0; segmentIndex < data.size(); segmentIndex++) {
                 JsonNode segment = data.get(segmentIndex);
-                String segmentFlightNumber = segment.path("number").asText("unknown");
-                String segmentCarrierCode = segment.path("carrierCode").asText("unknown");
-                logger.info("Processing segment {}: flight {} {}, has decks: {}, has aircraft: {}", 
-                          segmentIndex + 1, segmentCarrierCode, segmentFlightNumber, 
-                          segment.has("decks"), segment.has("aircraft"));
+                stats.recordSegment();
                 
                 // Extract flight info from first segment with complete data
                 if (flightInfo == null) {
@@ -255,9 +389,6 @@ public class AmadeusService {
                         if (segment.has("operating")) {
                             flightInfo.setOperating(segment.get("operating"));
                         }
-                        
-                        logger.info("Flight info extracted from segment {}: {} {}", 
-                                  segmentIndex + 1, carrierCode, flightNumber);
                     }
                 }
                 
@@ -267,122 +398,97 @@ public class AmadeusService {
                     aircraftInfo = new SeatMapData.AircraftInfo();
                     aircraftInfo.setCode(aircraft.path("code").asText());
                     aircraftInfo.setName(""); // Amadeus doesn't provide aircraft name
-                    logger.info("Aircraft info extracted from segment {}: {}", 
-                              segmentIndex + 1, aircraftInfo.getCode());
                 }
                 
                 // Extract deck information and seats from THIS segment
-                if (segment.has("decks")) {
-                    int segmentSeatCount = 0;
-                    for (JsonNode deckNode : segment.get("decks")) {
-                        SeatMapData.SeatMapDeck deck = new SeatMapData.SeatMapDeck();
-                        deck.setDeckType(deckNode.path("deckType").asText());
+                if (!segment.has("decks")) {
+                    stats.recordMissingField("decks");
+                    continue;
+                }
+                for (JsonNode deckNode : segment.get("decks")) {
+                    SeatMapData.SeatMapDeck deck = new SeatMapData.SeatMapDeck();
+                    deck.setDeckType(deckNode.path("deckType").asText());
+                    stats.recordDeck();
+                    
+                    // Store deck configuration
+                    if (deckNode.has("deckConfiguration")) {
+                        deck.setDeckConfiguration(deckNode.get("deckConfiguration"));
                         
-                        // Store deck configuration
-                        if (deckNode.has("deckConfiguration")) {
-                            deck.setDeckConfiguration(deckNode.get("deckConfiguration"));
+                        // Extract layout dimensions from deck configuration
+                        JsonNode deckConfig = deckNode.get("deckConfiguration");
+                        totalColumns = Math.max(totalColumns, deckConfig.path("width").asInt(0));
+                        totalRows = Math.max(totalRows, deckConfig.path("length").asInt(0));
+                    }
+                    
+                    // Extract seats from this deck
+                    List<SeatMapData.Seat> deckSeats = new ArrayList<>();
+                    if (deckNode.has("seats")) {
+                        for (JsonNode seatNode : deckNode.get("seats")) {
+                            SeatMapData.Seat seat = new SeatMapData.Seat();
+                            seat.setNumber(seatNode.path("number").asText());
+                            seat.setCabin(seatNode.path("cabin").asText());
                             
-                            // Extract layout dimensions from deck configuration
-                            JsonNode deckConfig = deckNode.get("deckConfiguration");
-                            totalColumns = Math.max(totalColumns, deckConfig.path("width").asInt(0));
-                            totalRows = Math.max(totalRows, deckConfig.path("length").asInt(0));
-                        }
-                        
-                        // Extract seats from this deck
-                        List<SeatMapData.Seat> deckSeats = new ArrayList<>();
-                        if (deckNode.has("seats")) {
-                            for (JsonNode seatNode : deckNode.get("seats")) {
-                                SeatMapData.Seat seat = new SeatMapData.Seat();
-                                seat.setNumber(seatNode.path("number").asText());
-                                seat.setCabin(seatNode.path("cabin").asText());
-                                
-                                // Extract characteristics codes
-                                if (seatNode.has("characteristicsCodes")) {
-                                    List<String> characteristicCodes = new ArrayList<>();
-                                    for (JsonNode code : seatNode.get("characteristicsCodes")) {
-                                        characteristicCodes.add(code.asText());
-                                    }
-                                    // Map to normalized characteristics using response dictionaries
-                                    List<SeatMapData.SeatCharacteristic> characteristics = SeatCharacteristicMapper.mapAmadeusCharacteristics(characteristicCodes, dictionaries);
-                                    seat.setCharacteristics(characteristics);
+                            // Extract characteristics codes
+                            if (seatNode.has("characteristicsCodes")) {
+                                List<String> characteristicCodes = new ArrayList<>();
+                                for (JsonNode code : seatNode.get("characteristicsCodes")) {
+                                    characteristicCodes.add(code.asText());
                                 }
+                                // Map to normalized characteristics using response dictionaries
+                                seat.setCharacteristics(SeatCharacteristicMapper.mapAmadeusCharacteristicsWithDictionary(characteristicCodes, responseDictionary));
+                            }
+                            
+                            // Extract coordinates
+                            if (seatNode.has("coordinates")) {
+                                seat.setCoordinates(seatNode.get("coordinates"));
+                            }
+                            
+                            // Extract availability status and pricing (single traveler)
+                            JsonNode travelerPricing = seatNode.get("travelerPricing");
+                            if (travelerPricing != null && travelerPricing.isArray() && travelerPricing.size() > 0) {
+                                JsonNode firstTraveler = travelerPricing.get(0);
                                 
-                                // Extract coordinates
-                                if (seatNode.has("coordinates")) {
-                                    seat.setCoordinates(seatNode.get("coordinates"));
+                                // Extract availability status
+                                if (firstTraveler.has("seatAvailabilityStatus")) {
+                                    seat.setAvailabilityStatus(firstTraveler.get("seatAvailabilityStatus").asText());
                                 }
                                 
-                                // Extract availability status and pricing (single traveler)
-                                if (seatNode.has("travelerPricing") && seatNode.get("travelerPricing").isArray() && seatNode.get("travelerPricing").size() > 0) {
-                                    JsonNode firstTraveler = seatNode.get("travelerPricing").get(0);
+                                // Extract pricing information
+                                if (firstTraveler.has("price")) {
+                                    JsonNode priceNode = firstTraveler.get("price");
+                                    SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+                                    pricing.setCurrency(priceNode.path("currency").asText(null));
+                                    pricing.setTotal(priceNode.path("total").asText(null));
+                                    pricing.setBase(priceNode.path("base").asText(null));
                                     
-                                    // Extract availability status
-                                    if (firstTraveler.has("seatAvailabilityStatus")) {
-                                        seat.setAvailabilityStatus(firstTraveler.get("seatAvailabilityStatus").asText());
-                                    }
-                                    
-                                    // Extract pricing information
-                                    if (firstTraveler.has("price")) {
-                                        JsonNode priceNode = firstTraveler.get("price");
-                                        SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
-                                        
-                                        String currency = priceNode.path("currency").asText(null);
-                                        String total = priceNode.path("total").asText(null);
-                                        String base = priceNode.path("base").asText(null);
-                                        
-                                        pricing.setCurrency(currency);
-                                        pricing.setTotal(total);
-                                        pricing.setBase(base);
-                                        
-                                        // Log pricing data issues
-                                        if (currency == null || total == null || base == null) {
-                                            logger.warn("Seat {} pricing data incomplete - currency: {}, total: {}, base: {}, priceNode: {}", 
-                                                seat.getNumber(), currency, total, base, priceNode.toPrettyString());
-                                        } else {
-                                            logger.debug("Seat {} pricing extracted - currency: {}, total: {}, base: {}", 
-                                                seat.getNumber(), currency, total, base);
-                                        }
-                                        
-                                        // Extract taxes if present
-                                        if (priceNode.has("taxes") && priceNode.get("taxes").isArray()) {
-                                            List<SeatMapData.SeatPricing.Tax> taxes = new ArrayList<>();
-                                            for (JsonNode taxNode : priceNode.get("taxes")) {
-                                                SeatMapData.SeatPricing.Tax tax = new SeatMapData.SeatPricing.Tax();
-                                                tax.setAmount(taxNode.path("amount").asText(null));
-                                                tax.setCode(taxNode.path("code").asText(null));
-                                                taxes.add(tax);
-                                            }
-                                            pricing.setTaxes(taxes);
-                                            logger.debug("Seat {} has {} tax entries", seat.getNumber(), taxes.size());
+                                    // Extract taxes if present
+                                    if (priceNode.has("taxes") && priceNode.get("taxes").isArray()) {
+                                        List<SeatMapData.SeatPricing.Tax> taxes = new ArrayList<>();
+                                        for (JsonNode taxNode : priceNode.get("taxes")) {
+                                            SeatMapData.SeatPricing.Tax tax = new SeatMapData.SeatPricing.Tax();
+                                            tax.setAmount(taxNode.path("amount").asText(null));
+                                            tax.setCode(taxNode.path("code").asText(null));
+                                            taxes.add(tax);
                                         }
-                                        
-                                        seat.setPricing(pricing);
-                                    } else {
-                                        logger.warn("Seat {} missing price field in travelerPricing, firstTraveler: {}", 
-                                            seat.getNumber(), firstTraveler.toPrettyString());
+                                        pricing.setTaxes(taxes);
                                     }
+                                    
+                                    seat.setPricing(pricing);
                                 } else {
-                                    String reason = !seatNode.has("travelerPricing") ? "missing travelerPricing field" :
-                                                   !seatNode.get("travelerPricing").isArray() ? "travelerPricing is not array" :
-                                                   "travelerPricing array is empty";
-                                    List<String> fieldNames = new ArrayList<>();
-                                    seatNode.fieldNames().forEachRemaining(fieldNames::add);
-                                    logger.warn("Seat {} has no pricing data - {}, seatNode keys: {}", 
-                                        seat.getNumber(), reason, 
-                                        String.join(", ", fieldNames));
+                                    stats.recordMissingField("travelerPricing.price");
                                 }
-                                
-                                deckSeats.add(seat);
-                                allSeats.add(seat);
-                                segmentSeatCount++;
+                            } else {
+                                stats.recordMissingField("travelerPricing");
                             }
+                            
+                            stats.recordSeat(seat);
+                            deckSeats.add(seat);
+                            allSeats.add(seat);
                         }
-                        
-                        deck.setSeats(deckSeats);
-                        allDecks.add(deck);
                     }
                     
-                    logger.info("Segment {} contributed {} seats", segmentIndex + 1, segmentSeatCount);
+                    deck.setSeats(deckSeats);
+                    allDecks.add(deck);
                 }
             }
             
@@ -391,6 +497,7 @@ public class AmadeusService {
             seatMapData.setAircraft(aircraftInfo);
             seatMapData.setDecks(allDecks);
             seatMapData.setSeats(allSeats);
+            seatMapData.setSummary(SeatMapData.AvailabilitySummary.of(allDecks, allSeats));
             
             // Create layout info
             if (totalRows > 0 || totalColumns > 0) {
@@ -405,37 +512,12 @@ public class AmadeusService {
             // Re-throw SeatmapApiException to trigger flight filtering
             throw e;
         } catch (Exception e) {
-            logger.error("Error converting Amadeus seat map response: {}", e.getMessage(), e);
-            
-            // Special logging for Alaska Airlines debugging
-            boolean isAlaskaFlight = seatMapResponse != null && 
-                seatMapResponse.toString().contains("\"carrierCode\":\"AS\"") || 
-                seatMapResponse.toString().contains("Alaska");
-            if (isAlaskaFlight) {
-                logger.error("ALASKA AIRLINES DEBUG - Full response structure: {}", 
-                           seatMapResponse.toPrettyString());
-            } else {
-                logger.error("Response structure: {}", seatMapResponse != null ? seatMapResponse.toPrettyString() : "null");
-            }
             // Return basic seat map data with source only if conversion fails
+            logger.error("Error converting Amadeus seat map response: {}", e.getMessage(), e);
+            stats.recordFailure(e.getClass().getSimpleName() + ": " + e.getMessage());
         }
         
-        // Final pricing statistics summary
-        if (seatMapData.getSeats() != null) {
-            long totalSeatsWithPricing = seatMapData.getSeats().stream().filter(seat -> seat.getPricing() != null).count();
-            long totalSeats = seatMapData.getSeats().size();
-            long totalSeatsWithoutPricing = totalSeats - totalSeatsWithPricing;
-            
-            logger.info("Conversion complete. SeatMapData has {} decks, {} seats (pricing: {} with, {} without), flight: {}", 
-                        seatMapData.getDecks() != null ? seatMapData.getDecks().size() : 0,
-                        totalSeats, totalSeatsWithPricing, totalSeatsWithoutPricing,
-                        seatMapData.getFlight() != null ? seatMapData.getFlight().getNumber() : "null");
-        } else {
-            logger.info("Conversion complete. SeatMapData has {} decks, no seats, flight: {}", 
-                        seatMapData.getDecks() != null ? seatMapData.getDecks().size() : 0,
-                        seatMapData.getFlight() != null ? seatMapData.getFlight().getNumber() : "null");
-        }
-        
+        seatMapDiagnostics.emit(stats, capturePayload ? seatMapResponse::toString : null);
         return seatMapData;
     }
     
@@ -465,6 +547,63 @@ public class AmadeusService {
         }
     }
     
+    /**
+     * Fetch one offer's seat map within a deadline, from the seat map cache when warm. A request for a
+     * flight whose seat map is already being fetched, e.g. by a prefetch, waits for that fetch instead.
+     */
+    public SeatMapData getSeatMapDataForOffer(JsonNode flightOffer, SearchDeadline deadline) throws SeatmapApiException {
+        ensureValidToken();
+        String cacheKey = FlightSegmentKey.forOffer(flightOffer);
+        try {
+            if (cacheKey == null) {
+                return fetchSeatMapDataUnchecked(flightOffer, deadline);
+            }
+            return seatMapFetches.execute(cacheKey, () -> fetchSeatMapDataUnchecked(flightOffer, deadline)).getValue();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SeatmapApiException) {
+                throw (SeatmapApiException) e.getCause();
+            }
+            logger.error("Error calling Amadeus API", e.getCause());
+            throw new SeatmapApiException("Network error calling Amadeus API", e.getCause());
+        }
+    }
+    
+    private SeatMapData fetchSeatMapDataUnchecked(JsonNode flightOffer, SearchDeadline deadline) {
+        try {
+            return fetchSeatMapData(flightOffer, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (SeatmapApiException | IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+    
+    /**
+     * Warm the seat map cache for offers in the background, so later seat map requests for them are
+     * answered locally. Work still running when the invocation returns resumes with the container's
+     * next invocation. Failures are dropped; a later request fetches the seat map itself.
+     */
+    public void prefetchSeatMaps(List<JsonNode> offers) {
+        for (JsonNode offer : offers) {
+            ioExecutor.supplyAsync(() -> {
+                try {
+                    return getSeatMapDataForOffer(offer, SearchDeadline.none());
+                } catch (Exception e) {
+                    logger.info("Seat map prefetch failed for flight offer {}: {}", offer.path("id").asText(), e.getMessage());
+                    return null;
+                }
+            });
+        }
+    }
+    
+    /**
+     * Flights currently being fetched versus requests that joined a fetch already in flight
+     */
+    public SingleFlight.FlightStats getSeatMapFetchStats() {
+        return seatMapFetches.getStats();
+    }
+    
     public JsonNode getSeatMapFromOfferData(String flightOfferData) throws SeatmapApiException {
         try {
             ensureValidToken();
@@ -485,7 +624,7 @@ public class AmadeusService {
     public JsonNode getBatchSeatMapsFromOffers(List<JsonNode> flightOffers) throws SeatmapApiException {
         try {
             ensureValidToken();
-            return getBatchSeatMapsFromOffersInternal(flightOffers);
+            return getBatchSeatMapsFromOffersInternal(flightOffers, SearchDeadline.none());
         } catch (IOException | InterruptedException e) {
             logger.error("Error calling Amadeus batch seat map API", e);
             throw new SeatmapApiException("Network error calling Amadeus API", e);
@@ -496,95 +635,313 @@ public class AmadeusService {
      * Enhanced search method that uses batch seat map requests for better performance
      */
     public List<FlightSearchResult> searchFlightsWithBatchSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults) throws SeatmapApiException {
-        return searchFlightsWithBatchSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, 0, false);
+        return searchFlightsWithBatchSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, false);
     }
     
-    public List<FlightSearchResult> searchFlightsWithBatchSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset) throws SeatmapApiException {
-        return searchFlightsWithBatchSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset, false);
-    }
-    
-    public List<FlightSearchResult> searchFlightsWithBatchSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset, boolean includeRawFlightOffer) throws SeatmapApiException {
+    public List<FlightSearchResult> searchFlightsWithBatchSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, boolean includeRawFlightOffer) throws SeatmapApiException {
         try {
             ensureValidToken();
             
             // 1. Get flight offers
-            JsonNode flightOffers = searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset);
+            JsonNode flightOffers = searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, SearchDeadline.none());
             
             if (flightOffers == null || !flightOffers.has("data")) {
                 return new ArrayList<>();
             }
             
-            // 2. Extract flight offers into a list
-            List<JsonNode> offers = extractFlightOffers(flightOffers);
-            
-            if (offers.isEmpty()) {
-                return new ArrayList<>();
-            }
-            
-            // 3. Make individual seat map requests in parallel for each offer
-            List<CompletableFuture<FlightSearchResult>> futures = offers.stream()
-                .map(offer -> CompletableFuture.supplyAsync(() -> {
-                    try {
-                        // Enhance flight offer with operating carrier code if missing (needed for seat map API)
-                        JsonNode enhancedOffer = enhanceFlightOfferWithOperatingCarrier(offer);
-                        
-                        // Get seatmap data using the enhanced offer
-                        JsonNode seatMapResponse = getSeatMapFromOfferInternal(offer);
-                        SeatMapData seatMapData = convertToSeatMapData(seatMapResponse);
-                        
-                        // Add dataSource field to identify this as AMADEUS data
-                        ObjectNode offerWithDataSource = enhancedOffer.deepCopy();
-                        offerWithDataSource.put("dataSource", "AMADEUS");
-                        
-                        // Create enhanced offer for raw flight offer (includes dataSource but no other internal processing)
-                        ObjectNode rawOfferWithDataSource = null;
-                        if (includeRawFlightOffer) {
-                            rawOfferWithDataSource = enhancedOffer.deepCopy();
-                            rawOfferWithDataSource.put("dataSource", "AMADEUS");
-                        }
-                        
-                        // Create FlightSearchResult
-                        FlightSearchResult result = new FlightSearchResult(offerWithDataSource, seatMapData, true, null, false);
-                        if (includeRawFlightOffer) {
-                            result.setRawFlightOffer(rawOfferWithDataSource); // Use enhanced offer with carrier codes AND dataSource field
-                        }
-                        
-                        return result;
-                        
-                    } catch (Exception e) {
-                        logger.warn("Omitting flight {} - seatmap unavailable: {}", offer.path("id").asText(), e.getMessage());
-                        return null; // Filter out flights without seatmaps
+            // 2. Extract flight offers into a list and fetch their seat maps
+            return getSeatmapsForOffersInternal(extractFlightOffers(flightOffers), includeRawFlightOffer, defaultSeatmapStrategy, SearchDeadline.none(), result -> { });
+
+        } catch (IOException | InterruptedException e) {
+            logger.error("Error calling Amadeus API for batch flight search with seatmaps", e);
+            throw new SeatmapApiException("Network error calling Amadeus API", e);
+        }
+    }
+
+    /**
+     * Fetch seat maps for offers from an earlier search (e.g. one page of a cached result set).
+     * Offers whose seat map is unavailable are omitted.
+     */
+    public List<FlightSearchResult> getSeatmapsForOffers(List<JsonNode> offers, boolean includeRawFlightOffer) throws SeatmapApiException {
+        return getSeatmapsForOffers(offers, includeRawFlightOffer, null);
+    }
+    
+    /**
+     * Fetch seat maps with an explicit strategy; null uses AMADEUS_SEATMAP_STRATEGY (PER_OFFER by default)
+     */
+    public List<FlightSearchResult> getSeatmapsForOffers(List<JsonNode> offers, boolean includeRawFlightOffer, SeatmapStrategy strategy) throws SeatmapApiException {
+        return getSeatmapsForOffers(offers, includeRawFlightOffer, strategy, SearchDeadline.none());
+    }
+    
+    /**
+     * Fetch seat maps within a search deadline. Offers still outstanding at the deadline are omitted
+     * and recorded on the deadline; the results that completed in time are returned.
+     */
+    public List<FlightSearchResult> getSeatmapsForOffers(List<JsonNode> offers, boolean includeRawFlightOffer, SeatmapStrategy strategy, SearchDeadline deadline) throws SeatmapApiException {
+        return getSeatmapsForOffers(offers, includeRawFlightOffer, strategy, deadline, result -> { });
+    }
+    
+    /**
+     * Fetch seat maps within a search deadline, passing each result to onResult as soon as its seat map
+     * arrives (PER_OFFER) or once its batch is mapped back (BATCH). onResult is called from I/O threads,
+     * possibly concurrently.
+     */
+    public List<FlightSearchResult> getSeatmapsForOffers(List<JsonNode> offers, boolean includeRawFlightOffer, SeatmapStrategy strategy, SearchDeadline deadline,
+                                                         Consumer<FlightSearchResult> onResult) throws SeatmapApiException {
+        if (offers == null || offers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ensureValidToken();
+        return getSeatmapsForOffersInternal(offers, includeRawFlightOffer, strategy != null ? strategy : defaultSeatmapStrategy, deadline, onResult);
+    }
+    
+    private List<FlightSearchResult> getSeatmapsForOffersInternal(List<JsonNode> offers, boolean includeRawFlightOffer, SeatmapStrategy strategy, SearchDeadline deadline,
+                                                                  Consumer<FlightSearchResult> onResult) {
+        if (offers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        if (strategy == SeatmapStrategy.BATCH && offers.size() > 1) {
+            return getBatchedSeatmapsForOffersInternal(offers, includeRawFlightOffer, deadline, onResult);
+        }
+        
+        // Make individual seat map requests in parallel for each offer
+        List<CompletableFuture<FlightSearchResult>> futures = offers.stream()
+            .map(offer -> ioExecutor.supplyAsync(() -> {
+                // Still queued when the deadline passed: skip the call rather than start it
+                if (deadline.isExpired()) {
+                    deadline.recordTimedOut(offer.path("id").asText());
+                    return null;
+                }
+                try {
+                    // Get seatmap data using the enhanced offer
+                    SeatMapData seatMapData = fetchSeatMapData(offer, deadline);
+                    FlightSearchResult result = buildSeatmapResult(offer, seatMapData, includeRawFlightOffer);
+                    onResult.accept(result);
+                    return result;
+                    
+                } catch (Exception e) {
+                    if (e instanceof HttpTimeoutException || deadline.isExpired()) {
+                        deadline.recordTimedOut(offer.path("id").asText());
                     }
-                }))
-                .collect(Collectors.toList());
+                    logger.warn("Omitting flight {} - seatmap unavailable: {}", offer.path("id").asText(), e.getMessage());
+                    return null; // Filter out flights without seatmaps
+                }
+            }))
+            .collect(Collectors.toList());
+        
+        // Collect the results that completed before the deadline, filtering out nulls
+        boolean completed = deadline.awaitAll(futures);
+        List<FlightSearchResult> results = new ArrayList<>();
+        for (int i = 0; i < offers.size(); i++) {
+            CompletableFuture<FlightSearchResult> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                FlightSearchResult result = future.join();
+                if (result != null) {
+                    results.add(result);
+                }
+            } else if (!completed) {
+                logger.warn("Omitting flight {} - seatmap request outstanding at search deadline", offers.get(i).path("id").asText());
+                deadline.recordTimedOut(offers.get(i).path("id").asText());
+            }
+        }
+        
+        logger.info("Successfully processed {} flight offers with individual parallel seatmaps from Amadeus (filtered from {} offers, {} timed out), seat map cache: {}, executor: {}, transport: {}", 
+            results.size(), offers.size(), deadline.getTimedOutOfferIds().size(), seatMapCache.getStats(), ioExecutor.getStats(), transport.getStats());
+        return results;
+    }
+    
+    /**
+     * Pack offers into evenly sized chunks, one seat map POST per chunk, and map the seat maps back
+     * to offers by offer ID and segment identity. A failed chunk is retried one offer at a time.
+     */
+    private List<FlightSearchResult> getBatchedSeatmapsForOffersInternal(List<JsonNode> offers, boolean includeRawFlightOffer, SearchDeadline deadline,
+                                                                         Consumer<FlightSearchResult> onResult) {
+        Map<Integer, SeatMapData> responsesByIndex = new ConcurrentHashMap<>();
+        List<Integer> batchable = new ArrayList<>();
+        List<Integer> singles = new ArrayList<>();
+        Set<String> seenOfferIds = new HashSet<>();
+        
+        for (int i = 0; i < offers.size(); i++) {
+            JsonNode offer = offers.get(i);
             
-            // Collect all results from parallel execution, filtering out nulls
-            List<FlightSearchResult> results = futures.stream()
-                .map(CompletableFuture::join)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+            // Serve repeated segments from the in-process cache before packing chunks
+            byte[] cachedBody = cachedSeatMapBody(offer, FlightSegmentKey.forOffer(offer));
+            if (cachedBody != null) {
+                try {
+                    responsesByIndex.put(i, seatMapDecoder.decode(cachedBody));
+                    continue;
+                } catch (SeatmapApiException e) {
+                    logger.warn("Discarding unreadable cached seat map for offer {}", offer.path("id").asText());
+                }
+            }
             
-            logger.info("Successfully processed {} flight offers with individual parallel seatmaps from Amadeus (filtered from {} offers)", 
-                results.size(), offers.size());
-            return results;
+            // Batch results are keyed by offer ID, so offers without a unique ID go one at a time
+            String offerId = offer.path("id").asText("");
+            if (!offerId.isEmpty() && seenOfferIds.add(offerId)) {
+                batchable.add(i);
+            } else {
+                singles.add(i);
+            }
+        }
+        
+        // Failed chunks are retried per offer by composing new tasks, so no worker blocks on another
+        List<List<Integer>> chunks = partitionEvenly(batchable, seatmapBatchSize);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<Integer> chunk : chunks) {
+            futures.add(ioExecutor.supplyAsync(() -> fetchSeatmapChunk(offers, chunk, responsesByIndex, deadline))
+                .thenCompose(chunkSucceeded -> chunkSucceeded
+                    ? CompletableFuture.<Void>completedFuture(null)
+                    : fetchSeatmapsIndividually(offers, chunk, responsesByIndex, deadline)));
+        }
+        futures.add(fetchSeatmapsIndividually(offers, singles, responsesByIndex, deadline));
+        boolean completed = deadline.awaitAll(futures);
+        
+        // Build results in the original offer order from the seat maps that arrived before the deadline
+        Map<Integer, SeatMapData> arrived = new HashMap<>(responsesByIndex);
+        List<FlightSearchResult> results = new ArrayList<>();
+        for (int i = 0; i < offers.size(); i++) {
+            JsonNode offer = offers.get(i);
+            SeatMapData seatMapData = arrived.get(i);
+            if (seatMapData == null) {
+                if (!completed) {
+                    logger.warn("Omitting flight {} - seatmap outstanding at search deadline", offer.path("id").asText());
+                    deadline.recordTimedOut(offer.path("id").asText());
+                } else {
+                    logger.warn("Omitting flight {} - seatmap unavailable in batch response", offer.path("id").asText());
+                }
+                continue;
+            }
+            try {
+                FlightSearchResult result = buildSeatmapResult(offer, seatMapData, includeRawFlightOffer);
+                results.add(result);
+                onResult.accept(result);
+            } catch (Exception e) {
+                logger.warn("Omitting flight {} - seatmap unavailable: {}", offer.path("id").asText(), e.getMessage());
+            }
+        }
+        
+        logger.info("Successfully processed {} flight offers with batched seatmaps from Amadeus ({} chunks, {} single requests, filtered from {} offers), seat map cache: {}, executor: {}, transport: {}", 
+            results.size(), chunks.size(), singles.size(), offers.size(), seatMapCache.getStats(), ioExecutor.getStats(), transport.getStats());
+        return results;
+    }
+    
+    /**
+     * Fetch one chunk with a single batch POST. Returns false if the request failed and the chunk needs per-offer retries.
+     */
+    private boolean fetchSeatmapChunk(List<JsonNode> offers, List<Integer> chunk, Map<Integer, SeatMapData> responsesByIndex, SearchDeadline deadline) {
+        if (deadline.isExpired()) {
+            return false;
+        }
+        List<JsonNode> chunkOffers = new ArrayList<>();
+        for (Integer index : chunk) {
+            chunkOffers.add(offers.get(index));
+        }
+        
+        try {
+            JsonNode batchResponse = getBatchSeatMapsFromOffersInternal(chunkOffers, deadline);
+            Map<String, ObjectNode> responsesByOfferId = buildSeatMapResponsesFromBatch(chunkOffers, batchResponse);
             
-        } catch (IOException | InterruptedException e) {
-            logger.error("Error calling Amadeus API for batch flight search with seatmaps", e);
-            throw new SeatmapApiException("Network error calling Amadeus API", e);
+            for (Integer index : chunk) {
+                JsonNode offer = offers.get(index);
+                ObjectNode seatMapResponse = responsesByOfferId.get(offer.path("id").asText());
+                if (seatMapResponse == null) {
+                    logger.debug("No seat map in batch response for flight offer: {}", offer.path("id").asText());
+                    continue;
+                }
+                
+                // Decode the per-offer response the same way as a single-offer body (and cache hits)
+                byte[] body = objectMapper.writeValueAsBytes(seatMapResponse);
+                try {
+                    responsesByIndex.put(index, seatMapDecoder.decode(body));
+                } catch (SeatmapApiException e) {
+                    logger.debug("Unusable seat map in batch response for flight offer {}: {}", offer.path("id").asText(), e.getMessage());
+                    continue;
+                }
+                
+                String cacheKey = FlightSegmentKey.forOffer(offer);
+                if (cacheKey != null) {
+                    seatMapCache.put(cacheKey, body);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            // Only this chunk falls back to per-offer requests
+            logger.warn("Batch seat map request for {} offers failed, retrying per offer: {}", chunk.size(), e.getMessage());
+            return false;
         }
     }
     
-    private JsonNode searchFlightOffersInternal(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults) throws SeatmapApiException, IOException, InterruptedException {
-        return searchFlightOffersInternal(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, 0);
+    private CompletableFuture<Void> fetchSeatmapsIndividually(List<JsonNode> offers, List<Integer> indexes, Map<Integer, SeatMapData> responsesByIndex, SearchDeadline deadline) {
+        CompletableFuture<?>[] futures = indexes.stream()
+            .map(index -> ioExecutor.runAsync(() -> fetchSingleSeatmap(offers, index, responsesByIndex, deadline)))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
     }
     
-    private JsonNode searchFlightOffersInternal(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset) throws SeatmapApiException, IOException, InterruptedException {
-        int max = maxResults != null ? maxResults : 10;
-        int pageOffset = offset != null ? offset : 0;
+    private void fetchSingleSeatmap(List<JsonNode> offers, int index, Map<Integer, SeatMapData> responsesByIndex, SearchDeadline deadline) {
+        JsonNode offer = offers.get(index);
+        if (deadline.isExpired()) {
+            deadline.recordTimedOut(offer.path("id").asText());
+            return;
+        }
+        try {
+            responsesByIndex.put(index, fetchSeatMapData(offer, deadline));
+        } catch (HttpTimeoutException e) {
+            logger.warn("Seat map request timed out for flight offer {}: {}", offer.path("id").asText(), e.getMessage());
+            deadline.recordTimedOut(offer.path("id").asText());
+        } catch (Exception e) {
+            logger.warn("Seat map request failed for flight offer {}: {}", offer.path("id").asText(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Split items into the fewest chunks of at most maxChunkSize, with sizes differing by at most one
+     * (22 offers at size 10 become 8/7/7 rather than 10/10/2) so no chunk dominates tail latency.
+     */
+    static <T> List<List<T>> partitionEvenly(List<T> items, int maxChunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        if (items.isEmpty()) {
+            return chunks;
+        }
+        int chunkCount = (items.size() + maxChunkSize - 1) / maxChunkSize;
+        int baseSize = items.size() / chunkCount;
+        int remainder = items.size() % chunkCount;
         
-        // Request offset + max results to implement pagination workaround
-        // Since Amadeus API doesn't support offset parameter, we request more results and filter
-        int totalToRequest = max + pageOffset;
+        int start = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            int size = baseSize + (i < remainder ? 1 : 0);
+            chunks.add(new ArrayList<>(items.subList(start, start + size)));
+            start += size;
+        }
+        return chunks;
+    }
+    
+    /**
+     * Build a FlightSearchResult for an offer without its seat map, as listed by lazy seatmap searches
+     */
+    public FlightSearchResult buildOfferResult(JsonNode offer, boolean includeRawFlightOffer) {
+        return buildSeatmapResult(offer, null, includeRawFlightOffer);
+    }
+    
+    /**
+     * Build a FlightSearchResult from an offer and its decoded seat map
+     */
+    private FlightSearchResult buildSeatmapResult(JsonNode offer, SeatMapData seatMapData, boolean includeRawFlightOffer) {
+        // Enhance flight offer with operating carrier code if missing (needed for seat map API)
+        JsonNode enhancedOffer = enhanceFlightOfferWithOperatingCarrier(offer);
+        
+        // Add dataSource field to identify this as AMADEUS data. The copy is shallow: the offer may be
+        // cached for later pages and is shared, never modified.
+        ObjectNode offerWithDataSource = FlightSearchResult.withDataSource(enhancedOffer, "AMADEUS");
+        
+        // The raw flight offer is this same enhanced offer with its dataSource
+        return new FlightSearchResult(offerWithDataSource, seatMapData, seatMapData != null, null, includeRawFlightOffer);
+    }
+    
+    private JsonNode searchFlightOffersInternal(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults,
+                                                SearchDeadline deadline) throws SeatmapApiException, IOException, InterruptedException {
+        int max = maxResults != null ? maxResults : 10;
         
         // Build base URL - only include travelClass if specified (minimum cabin quality)
         StringBuilder urlBuilder = new StringBuilder();
@@ -593,11 +950,9 @@ public class AmadeusService {
             URLEncoder.encode(origin, StandardCharsets.UTF_8),
             URLEncoder.encode(destination, StandardCharsets.UTF_8),
             URLEncoder.encode(departureDate, StandardCharsets.UTF_8),
-            totalToRequest
+            max
         ));
         
-        // Remove offset parameter - Amadeus API doesn't support it
-        
         // Add travelClass parameter only if specified (searches minimum quality or higher)
         if (travelClass != null && !travelClass.trim().isEmpty()) {
             urlBuilder.append("&travelClass=").append(URLEncoder.encode(travelClass, StandardCharsets.UTF_8));
@@ -614,36 +969,17 @@ public class AmadeusService {
         
         HttpRequest request = HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .header("Authorization", "Bearer " + accessToken)
+            .header("Authorization", "Bearer " + tokenManager.getCurrentToken())
             .header("Content-Type", "application/json")
+            .timeout(offerSearchRequestTimeout)
             .GET()
             .build();
         
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = sendRateLimited(request, HttpResponse.BodyHandlers.ofString(), rateLimiter, deadline);
         
         if (response.statusCode() == 200) {
             JsonNode result = objectMapper.readTree(response.body());
             
-            // Apply pagination filtering if offset > 0
-            if (pageOffset > 0 && result.has("data") && result.get("data").isArray()) {
-                ArrayNode originalData = (ArrayNode) result.get("data");
-                ArrayNode filteredData = objectMapper.createArrayNode();
-                
-                // Skip the first 'pageOffset' results and take up to 'max' results
-                int startIndex = pageOffset;
-                int endIndex = Math.min(pageOffset + max, originalData.size());
-                
-                for (int i = startIndex; i < endIndex; i++) {
-                    filteredData.add(originalData.get(i));
-                }
-                
-                // Replace the data array in the result with filtered data
-                ((ObjectNode) result).set("data", filteredData);
-                
-                logger.info("Applied pagination filter: skipped {} results, returning {} results (requested offset: {}, limit: {})", 
-                    pageOffset, filteredData.size(), pageOffset, max);
-            }
-            
             logger.info("Found {} flight offers", result.has("data") ? result.get("data").size() : 0);
             return result;
         } else {
@@ -653,6 +989,91 @@ public class AmadeusService {
     }
     
     private JsonNode getSeatMapFromOfferInternal(JsonNode flightOffer) throws SeatmapApiException, IOException, InterruptedException {
+        // Serve repeated segments (other users, bookmark refreshes) from the in-process cache
+        String cacheKey = FlightSegmentKey.forOffer(flightOffer);
+        byte[] cachedBody = cachedSeatMapBody(flightOffer, cacheKey);
+        if (cachedBody != null) {
+            return withFlightOfferId(objectMapper.readTree(cachedBody), flightOffer.path("id").asText());
+        }
+        
+        HttpRequest request = buildSeatMapRequest(flightOffer, seatmapRequestTimeout);
+        HttpResponse<String> response = sendRateLimited(request, HttpResponse.BodyHandlers.ofString(), rateLimiter, SearchDeadline.none());
+        
+        if (response.statusCode() == 200) {
+            JsonNode result = objectMapper.readTree(response.body());
+            logger.info("Successfully retrieved seat map data");
+            
+            // Only cache responses that actually contain seat maps
+            if (cacheKey != null && result.path("data").size() > 0) {
+                seatMapCache.put(cacheKey, response.body().getBytes(StandardCharsets.UTF_8));
+            }
+            return result;
+        } else {
+            logger.error("Seat map API error: {} - {}", response.statusCode(), response.body());
+            throw new SeatmapApiException("Failed to retrieve seat map: " + response.statusCode());
+        }
+    }
+    
+    /**
+     * Fetch the seat map for one offer and decode it straight from the response stream into SeatMapData.
+     * Cached bodies go through the same decoder. The request timeout is capped by the search deadline.
+     */
+    private SeatMapData fetchSeatMapData(JsonNode flightOffer, SearchDeadline deadline) throws SeatmapApiException, IOException, InterruptedException {
+        String cacheKey = FlightSegmentKey.forOffer(flightOffer);
+        byte[] cachedBody = cachedSeatMapBody(flightOffer, cacheKey);
+        if (cachedBody != null) {
+            return seatMapDecoder.decode(cachedBody);
+        }
+        
+        HttpRequest request = buildSeatMapRequest(flightOffer, seatmapRequestTimeout);
+        HttpResponse<InputStream> response = sendRateLimited(request, HttpResponse.BodyHandlers.ofInputStream(), rateLimiter, deadline);
+        
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                logger.error("Seat map API error: {} - {}", response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                throw new SeatmapApiException("Failed to retrieve seat map: " + response.statusCode());
+            }
+            if (cacheKey == null) {
+                return seatMapDecoder.decode(body);
+            }
+            
+            // Keep the bytes the decoder reads so the body can be cached without a second pass
+            ByteArrayOutputStream bodyCopy = new ByteArrayOutputStream();
+            SeatMapData seatMapData = seatMapDecoder.decode(new CopyingInputStream(body, bodyCopy));
+            
+            // Only cache responses that actually contain seat maps
+            if (seatMapData.getSeats() != null) {
+                seatMapCache.put(cacheKey, bodyCopy.toByteArray());
+            }
+            return seatMapData;
+        }
+    }
+    
+    /**
+     * Cached seat map body for the offer's segments, or null on a miss or when the offer has no segment key
+     */
+    private byte[] cachedSeatMapBody(JsonNode flightOffer, String cacheKey) {
+        byte[] cachedBody = cacheKey != null ? seatMapCache.get(cacheKey) : null;
+        if (cachedBody != null) {
+            logger.info("Seat map cache hit for flight offer: {}", flightOffer.path("id").asText());
+        }
+        return cachedBody;
+    }
+    
+    /**
+     * Point a cached seat map response at the requesting offer. Bodies are cached per segment, so the
+     * flightOfferId they carry is that of whichever offer filled the cache.
+     */
+    private JsonNode withFlightOfferId(JsonNode seatMapResponse, String flightOfferId) {
+        for (JsonNode seatMap : seatMapResponse.path("data")) {
+            if (seatMap.isObject()) {
+                ((ObjectNode) seatMap).put("flightOfferId", flightOfferId);
+            }
+        }
+        return seatMapResponse;
+    }
+    
+    private HttpRequest buildSeatMapRequest(JsonNode flightOffer, Duration timeout) throws IOException {
         String url = "https://" + endpoint + "/v1/shopping/seatmaps";
         
         // Enhance flight offer with operating carrier code if missing
@@ -666,26 +1087,16 @@ public class AmadeusService {
         
         logger.info("Getting seat map for flight offer: {}", enhancedOffer.get("id"));
         
-        HttpRequest request = HttpRequest.newBuilder()
+        return HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .header("Authorization", "Bearer " + accessToken)
+            .timeout(timeout)
+            .header("Authorization", "Bearer " + tokenManager.getCurrentToken())
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(requestBody))
             .build();
-        
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() == 200) {
-            JsonNode result = objectMapper.readTree(response.body());
-            logger.info("Successfully retrieved seat map data");
-            return result;
-        } else {
-            logger.error("Seat map API error: {} - {}", response.statusCode(), response.body());
-            throw new SeatmapApiException("Failed to retrieve seat map: " + response.statusCode());
-        }
     }
     
-    private JsonNode getBatchSeatMapsFromOffersInternal(List<JsonNode> flightOffers) throws SeatmapApiException, IOException, InterruptedException {
+    private JsonNode getBatchSeatMapsFromOffersInternal(List<JsonNode> flightOffers, SearchDeadline deadline) throws SeatmapApiException, IOException, InterruptedException {
         String url = "https://" + endpoint + "/v1/shopping/seatmaps";
         
         // Create request body with enhanced flight offers
@@ -703,12 +1114,13 @@ public class AmadeusService {
         
         HttpRequest request = HttpRequest.newBuilder()
             .uri(URI.create(url))
-            .header("Authorization", "Bearer " + accessToken)
+            .timeout(seatmapRequestTimeout)
+            .header("Authorization", "Bearer " + tokenManager.getCurrentToken())
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(requestBody))
             .build();
         
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = sendRateLimited(request, HttpResponse.BodyHandlers.ofString(), rateLimiter, deadline);
         
         if (response.statusCode() == 200) {
             JsonNode result = objectMapper.readTree(response.body());
@@ -720,49 +1132,64 @@ public class AmadeusService {
         }
     }
     
-    private List<FlightSearchResult> buildFlightSearchResultsFromBatch(List<JsonNode> offers, JsonNode batchSeatMapResponse) {
-        List<FlightSearchResult> results = new ArrayList<>();
-        
-        // Create a map of flight offer ID to seat map data for quick lookup
-        Map<String, JsonNode> seatMapsByOfferId = new HashMap<>();
+    /**
+     * Split a multi-offer seat map response into per-offer responses shaped like a single-offer response.
+     * Seat maps are assigned by flightOfferId when it names an offer in the chunk that flies the seat map's
+     * segment; otherwise by segment identity (carrier, number, origin, destination, departure time).
+     */
+    private Map<String, ObjectNode> buildSeatMapResponsesFromBatch(List<JsonNode> offers, JsonNode batchSeatMapResponse) {
+        Map<String, Set<String>> segmentKeysByOfferId = new HashMap<>();
+        Map<String, List<String>> offerIdsBySegmentKey = new HashMap<>();
+        for (JsonNode offer : offers) {
+            String offerId = offer.path("id").asText();
+            Set<String> segmentKeys = new HashSet<>();
+            for (JsonNode itinerary : offer.path("itineraries")) {
+                for (JsonNode segment : itinerary.path("segments")) {
+                    String segmentKey = FlightSegmentKey.forSegment(segment, "");
+                    if (segmentKey != null) {
+                        segmentKeys.add(segmentKey);
+                        offerIdsBySegmentKey.computeIfAbsent(segmentKey, k -> new ArrayList<>()).add(offerId);
+                    }
+                }
+            }
+            segmentKeysByOfferId.put(offerId, segmentKeys);
+        }
         
-        if (batchSeatMapResponse != null && batchSeatMapResponse.has("data") && batchSeatMapResponse.get("data").isArray()) {
+        Map<String, ArrayNode> seatMapsByOfferId = new LinkedHashMap<>();
+        if (batchSeatMapResponse != null && batchSeatMapResponse.path("data").isArray()) {
             for (JsonNode seatMapData : batchSeatMapResponse.get("data")) {
-                // Extract the associated flight offer ID from the seat map response
                 String offerId = extractOfferIdFromSeatMap(seatMapData);
-                if (offerId != null) {
-                    seatMapsByOfferId.put(offerId, seatMapData);
+                String segmentKey = FlightSegmentKey.forSegment(seatMapData, "");
+                
+                List<String> owners;
+                if (offerId != null && segmentKeysByOfferId.containsKey(offerId)
+                        && (segmentKey == null || segmentKeysByOfferId.get(offerId).contains(segmentKey))) {
+                    owners = List.of(offerId);
+                } else if (segmentKey != null && offerIdsBySegmentKey.containsKey(segmentKey)) {
+                    owners = offerIdsBySegmentKey.get(segmentKey);
+                } else {
+                    logger.debug("Unable to match batch seat map to a flight offer (flightOfferId: {}, segment: {})", offerId, segmentKey);
+                    continue;
+                }
+                
+                for (String owner : owners) {
+                    seatMapsByOfferId.computeIfAbsent(owner, k -> objectMapper.createArrayNode()).add(seatMapData);
                 }
             }
         }
         
-        // Match offers with their seat maps and filter out those without seat maps
-        for (JsonNode offer : offers) {
-            String offerId = offer.path("id").asText();
-            JsonNode seatMapData = seatMapsByOfferId.get(offerId);
-            
-            if (seatMapData != null) {
-                try {
-                    // Convert seat map data to our model
-                    SeatMapData convertedSeatMap = convertSeatMapDataFromBatchResponse(seatMapData);
-                    
-                    // Add dataSource field to identify this as AMADEUS data
-                    ObjectNode offerWithDataSource = offer.deepCopy();
-                    offerWithDataSource.put("dataSource", "AMADEUS");
-                    
-                    results.add(new FlightSearchResult(offerWithDataSource, convertedSeatMap, true, null));
-                    
-                } catch (Exception e) {
-                    logger.warn("Error converting seat map for offer {}: {}", offerId, e.getMessage());
-                    // Skip this flight offer if seat map conversion fails
-                }
-            } else {
-                logger.debug("No seat map available for flight offer: {}", offerId);
-                // Filter out flights without seat maps
+        // Keep dictionaries so seat characteristics map the same way as single-offer responses
+        JsonNode dictionaries = batchSeatMapResponse != null ? batchSeatMapResponse.get("dictionaries") : null;
+        Map<String, ObjectNode> responsesByOfferId = new HashMap<>();
+        for (Map.Entry<String, ArrayNode> entry : seatMapsByOfferId.entrySet()) {
+            ObjectNode wrappedResponse = objectMapper.createObjectNode();
+            wrappedResponse.set("data", entry.getValue());
+            if (dictionaries != null) {
+                wrappedResponse.set("dictionaries", dictionaries);
             }
+            responsesByOfferId.put(entry.getKey(), wrappedResponse);
         }
-        
-        return results;
+        return responsesByOfferId;
     }
     
     private String extractOfferIdFromSeatMap(JsonNode seatMapData) {
@@ -782,20 +1209,17 @@ public class AmadeusService {
         return null;
     }
     
-    private SeatMapData convertSeatMapDataFromBatchResponse(JsonNode seatMapData) throws SeatmapApiException {
-        // Wrap the individual seat map in the expected structure for conversion
-        ObjectNode wrappedResponse = objectMapper.createObjectNode();
-        wrappedResponse.set("data", objectMapper.createArrayNode().add(seatMapData));
-        
-        return convertToSeatMapData(wrappedResponse);
-    }
-    
     /**
      * Enhance flight offer by populating missing operating carrier codes with marketing carrier codes
      * Returns the same flight offer if no enhancement is needed
      */
     private JsonNode enhanceFlightOfferWithOperatingCarrier(JsonNode flightOffer) {
         try {
+            // Copy on write: offers that already name every operating carrier are not copied
+            if (!isMissingOperatingCarrier(flightOffer)) {
+                return flightOffer;
+            }
+            
             boolean needsEnhancement = false;
             ObjectNode enhancedOffer = flightOffer.deepCopy();
             
@@ -856,13 +1280,120 @@ public class AmadeusService {
         }
     }
     
-    private void ensureValidToken() throws SeatmapApiException {
-        if (accessToken == null || System.currentTimeMillis() >= tokenExpiresAt) {
-            refreshAccessToken();
+    /**
+     * Whether any segment with a marketing carrier lacks an operating carrier code
+     */
+    private static boolean isMissingOperatingCarrier(JsonNode flightOffer) {
+        for (JsonNode itinerary : flightOffer.path("itineraries")) {
+            for (JsonNode segment : itinerary.path("segments")) {
+                if (segment.path("operating").path("carrierCode").asText().trim().isEmpty()
+                        && !segment.path("carrierCode").asText().trim().isEmpty()) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
+    
+    /**
+     * Send once the limiter issues a permit. A 429 pauses the limiter for the Retry-After time and the
+     * request is sent again if that still fits in the deadline; otherwise the call fails as a timeout so
+     * the offer is reported as timed out rather than silently dropped. While the endpoint's circuit
+     * breaker is open the call fails fast with CircuitOpenException.
+     */
+    private <T> HttpResponse<T> sendRateLimited(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                RateLimiter limiter, SearchDeadline deadline) throws IOException, InterruptedException {
+        CircuitBreaker breaker = CircuitBreaker.forEndpoint("AMADEUS", request.uri().getPath());
+        Duration requestBudget = request.timeout().orElse(null);
+        for (int attempt = 1; ; attempt++) {
+            if (!limiter.acquire(deadline)) {
+                throw new HttpTimeoutException(limiter.getName() + " rate limit permit not available before the search deadline");
+            }
+            
+            // Each attempt gets whatever is left of the deadline, up to the request's own timeout
+            boolean cappedByDeadline = requestBudget != null && deadline.limitsRequestTimeout(requestBudget);
+            HttpRequest attemptRequest = cappedByDeadline
+                ? HttpRequest.newBuilder(request, (name, value) -> true).timeout(deadline.requestTimeout(requestBudget)).build()
+                : request;
+            
+            // Only once the request can go out, so a rejected permit never holds a half-open probe slot
+            breaker.acquire();
+            HttpResponse<T> response;
+            try {
+                response = httpClient.send(attemptRequest, bodyHandler);
+            } catch (HttpTimeoutException e) {
+                // A timeout the deadline imposed says nothing about Amadeus
+                if (cappedByDeadline) {
+                    breaker.onIgnored();
+                } else {
+                    breaker.onFailure();
+                }
+                throw e;
+            } catch (IOException e) {
+                breaker.onFailure();
+                throw e;
+            }
+            // 5xx and transport errors count against the endpoint; a 429 is the limiter's business
+            if (response.statusCode() >= 500) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            if (response.statusCode() != 429 || attempt > MAX_THROTTLED_RETRIES) {
+                return response;
+            }
+            
+            long retryAfterMs = parseRetryAfterMillis(response);
+            limiter.pauseFor(retryAfterMs);
+            if (retryAfterMs > MAX_RETRY_AFTER_MS) {
+                return response;
+            }
+            discardBody(response);
+            if (retryAfterMs >= deadline.remainingMillis()) {
+                throw new HttpTimeoutException("Throttled by Amadeus, Retry-After " + retryAfterMs + "ms exceeds the search deadline");
+            }
+            
+            logger.info("Throttled by Amadeus (attempt {}), retrying {} after {}ms", attempt, request.uri().getPath(), retryAfterMs);
+        }
+    }
+    
+    /**
+     * Retry-After as delta-seconds or an HTTP date, in milliseconds from now
+     */
+    static long parseRetryAfterMillis(HttpResponse<?> response) {
+        String value = response.headers() != null ? response.headers().firstValue("Retry-After").orElse(null) : null;
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try an HTTP date
+        }
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, retryAt.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            logger.warn("Unparseable Retry-After header: '{}', using default: {}ms", value, DEFAULT_RETRY_AFTER_MS);
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+    }
+    
+    private static void discardBody(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream) {
+            try {
+                ((InputStream) response.body()).close();
+            } catch (IOException e) {
+                logger.debug("Error closing throttled response body: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void ensureValidToken() throws SeatmapApiException {
+        tokenManager.getToken();
     }
     
-    private void refreshAccessToken() throws SeatmapApiException {
+    private AccessTokenManager.IssuedToken requestAccessToken() throws SeatmapApiException {
         try {
             String credentials = Base64.getEncoder().encodeToString((apiKey + ":" + apiSecret).getBytes());
             String requestBody = "grant_type=client_credentials";
@@ -871,18 +1402,19 @@ public class AmadeusService {
                 .uri(URI.create("https://" + endpoint + "/v1/security/oauth2/token"))
                 .header("Authorization", "Basic " + credentials)
                 .header("Content-Type", "application/x-www-form-urlencoded")
+                .timeout(tokenRequestTimeout)
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
             
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = sendRateLimited(request, HttpResponse.BodyHandlers.ofString(), oauthRateLimiter, SearchDeadline.none());
             
             if (response.statusCode() == 200) {
                 JsonNode tokenResponse = objectMapper.readTree(response.body());
-                this.accessToken = tokenResponse.get("access_token").asText();
+                String accessToken = tokenResponse.get("access_token").asText();
                 int expiresIn = tokenResponse.get("expires_in").asInt();
-                this.tokenExpiresAt = System.currentTimeMillis() + (expiresIn * 1000L) - 60000; // Refresh 1 minute early
                 
                 logger.info("Successfully refreshed Amadeus access token");
+                return new AccessTokenManager.IssuedToken(accessToken, expiresIn);
             } else {
                 logger.error("Failed to get Amadeus access token: {} - {}", response.statusCode(), response.body());
                 throw new SeatmapApiException("Failed to authenticate with Amadeus API");
@@ -0,0 +1,208 @@
+package com.seatmap.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one provider endpoint (one per name, shared across service instances in a warm
+ * container). After a run of consecutive failures it opens and calls fail fast; once the open period
+ * is over a single half-open probe is let through, which closes the breaker on success or reopens it
+ * on failure.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final int DEFAULT_OPEN_SECONDS = 30;
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private long probeStartedNanos;
+    private boolean probeInFlight;
+    private long openedCount;
+    private long rejectedCount;
+    private long failureCount;
+    private long successCount;
+
+    /**
+     * Shared breaker for a provider endpoint. Settings come from {PROVIDER}_BREAKER_FAILURE_THRESHOLD
+     * and {PROVIDER}_BREAKER_OPEN_SECONDS.
+     */
+    public static CircuitBreaker forEndpoint(String provider, String endpoint) {
+        return BREAKERS.computeIfAbsent(provider + " " + endpoint, name -> new CircuitBreaker(name,
+            parseIntEnvVar(provider + "_BREAKER_FAILURE_THRESHOLD", DEFAULT_FAILURE_THRESHOLD),
+            TimeUnit.SECONDS.toNanos(parseIntEnvVar(provider + "_BREAKER_OPEN_SECONDS", DEFAULT_OPEN_SECONDS)),
+            System::nanoTime));
+    }
+
+    /**
+     * State of every breaker created so far, by name
+     */
+    public static Map<String, String> states() {
+        Map<String, String> states = new TreeMap<>();
+        BREAKERS.forEach((name, breaker) -> states.put(name, breaker.getState().name()));
+        return states;
+    }
+
+    /**
+     * Drop all shared breakers, for tests that share a JVM
+     */
+    static void resetAll() {
+        BREAKERS.clear();
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+
+        logger.info("{} circuit breaker initialized - Failure threshold: {}, Open for: {}ms",
+            name, this.failureThreshold, TimeUnit.NANOSECONDS.toMillis(openNanos));
+    }
+
+    private static int parseIntEnvVar(String envVarName, int defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Whether a call may go ahead. Every permitted call must be followed by onSuccess, onFailure or onIgnored.
+     */
+    public synchronized boolean tryAcquire() {
+        long now = nanoClock.getAsLong();
+        if (state == State.OPEN && now - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            logger.info("{} circuit half-open, probing", name);
+        }
+        // A probe that never reported back (a caller that gave up) does not block the endpoint forever
+        if (state == State.HALF_OPEN && (!probeInFlight || now - probeStartedNanos >= openNanos)) {
+            probeInFlight = true;
+            probeStartedNanos = now;
+            return true;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        rejectedCount++;
+        return false;
+    }
+
+    /**
+     * Permit a call or throw CircuitOpenException
+     */
+    public void acquire() throws CircuitOpenException {
+        if (!tryAcquire()) {
+            throw new CircuitOpenException(name);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        successCount++;
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            logger.info("{} circuit closed after successful probe", name);
+            state = State.CLOSED;
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized void onFailure() {
+        failureCount++;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            logger.warn("{} circuit opened after {} consecutive failures, failing fast for {}ms",
+                name, consecutiveFailures, TimeUnit.NANOSECONDS.toMillis(openNanos));
+            state = State.OPEN;
+            openedAtNanos = nanoClock.getAsLong();
+            probeInFlight = false;
+            openedCount++;
+        }
+    }
+
+    /**
+     * The call ended without telling anything about the endpoint's health, e.g. it timed out because the
+     * caller's deadline cut its timeout short. Frees a half-open probe slot without changing state.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized BreakerStats getStats() {
+        return new BreakerStats(name, state, consecutiveFailures, openedCount, rejectedCount, failureCount, successCount);
+    }
+
+    /**
+     * Point-in-time snapshot of the breaker
+     */
+    public static class BreakerStats {
+        private final String name;
+        private final State state;
+        private final int consecutiveFailures;
+        private final long openedCount;
+        private final long rejectedCount;
+        private final long failureCount;
+        private final long successCount;
+
+        public BreakerStats(String name, State state, int consecutiveFailures, long openedCount, long rejectedCount,
+                            long failureCount, long successCount) {
+            this.name = name;
+            this.state = state;
+            this.consecutiveFailures = consecutiveFailures;
+            this.openedCount = openedCount;
+            this.rejectedCount = rejectedCount;
+            this.failureCount = failureCount;
+            this.successCount = successCount;
+        }
+
+        public String getName() { return name; }
+        public State getState() { return state; }
+        public int getConsecutiveFailures() { return consecutiveFailures; }
+        public long getOpenedCount() { return openedCount; }
+        public long getRejectedCount() { return rejectedCount; }
+        public long getFailureCount() { return failureCount; }
+        public long getSuccessCount() { return successCount; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s, consecutiveFailures=%d, opened=%d, rejected=%d, failures=%d, successes=%d",
+                name, state, consecutiveFailures, openedCount, rejectedCount, failureCount, successCount);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.seatmap.api.service;
+
+import java.io.IOException;
+
+/**
+ * A call rejected without being sent because the endpoint's circuit breaker is open
+ */
+public class CircuitOpenException extends IOException {
+    public CircuitOpenException(String breakerName) {
+        super(breakerName + " circuit open, failing fast");
+    }
+}
@@ -0,0 +1,37 @@
+package com.seatmap.api.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Copies every byte read from the wrapped stream into a buffer, so a streamed body can also be
+ * cached or captured without reading it twice
+ */
+class CopyingInputStream extends FilterInputStream {
+    private final ByteArrayOutputStream copy;
+
+    CopyingInputStream(InputStream in, ByteArrayOutputStream copy) {
+        super(in);
+        this.copy = copy;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            copy.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int count = super.read(buffer, offset, length);
+        if (count > 0) {
+            copy.write(buffer, offset, count);
+        }
+        return count;
+    }
+}
@@ -1,32 +1,141 @@
 package com.seatmap.api.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.seatmap.api.exception.SeatmapApiException;
 import com.seatmap.api.model.FlightSearchRequest;
 import com.seatmap.api.model.FlightSearchResult;
 import com.seatmap.api.model.FlightSearchResponse;
+import com.seatmap.api.model.SeatMapData;
+import com.seatmap.common.cache.TtlLruCache;
 import com.seatmap.common.exception.SeatmapException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.http.HttpTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 public class FlightSearchService {
     private static final Logger logger = LoggerFactory.getLogger(FlightSearchService.class);
     
+    private static final int DEFAULT_RESULT_SET_SIZE = 120; // Max offset (100) + max page size (20)
+    private static final int MAX_RESULT_SET_SIZE = 250; // Amadeus flight-offers "max" limit
+    private static final long DEFAULT_CURSOR_TTL_SECONDS = 600; // 10 minutes
+    private static final long DEFAULT_CURSOR_CACHE_MAX_OFFERS = 5000;
+    private static final long DEFAULT_SABRE_SEARCH_BUDGET_MS = 8000;
+    private static final int DEFAULT_PROVIDER_SEARCH_CONCURRENCY = 8;
+    private static final int DEFAULT_SEATMAP_PREFETCH_COUNT = 3; // Most users open one of the first few flights
+    
     private final AmadeusService amadeusService;
     private final SabreService sabreService;
+    private final boolean sabreEnabled;
+    private final long amadeusBudgetMs;
+    private final long sabreBudgetMs;
+    private final ProviderIoExecutor providerSearchExecutor;
+    private final int resultSetSize;
+    private final int seatmapPrefetchCount;
+    private final TtlLruCache<String, CachedOfferSet> offerSetCache;
+    private final SingleFlight<String, CachedOfferSet> searchCoalescer;
     
+    /**
+     * Sources come from FLIGHT_SEARCH_SOURCES (comma separated, default AMADEUS); listing SABRE as well
+     * queries both providers concurrently
+     */
     public FlightSearchService(AmadeusService amadeusService, SabreService sabreService) {
+        this(amadeusService, sabreService, isSabreConfigured());
+    }
+    
+    FlightSearchService(AmadeusService amadeusService, SabreService sabreService, boolean sabreEnabled) {
         this.amadeusService = amadeusService;
         this.sabreService = sabreService;
+        this.sabreEnabled = sabreEnabled && sabreService != null;
+        
+        // Each provider gets its own slice of the search deadline, so a slow second source cannot hold up the first
+        this.amadeusBudgetMs = parseLongEnvVar("AMADEUS_SEARCH_BUDGET_MS", Long.MAX_VALUE);
+        this.sabreBudgetMs = parseLongEnvVar("SABRE_SEARCH_BUDGET_MS", DEFAULT_SABRE_SEARCH_BUDGET_MS);
+        this.providerSearchExecutor = ProviderIoExecutor.forProvider("FLIGHT_SEARCH", DEFAULT_PROVIDER_SEARCH_CONCURRENCY);
+        
+        // Full offer lists are fetched once per search and paged from this cache, weighed by offer count
+        this.resultSetSize = Math.min(MAX_RESULT_SET_SIZE, (int) parseLongEnvVar("FLIGHT_SEARCH_RESULT_SET_SIZE", DEFAULT_RESULT_SET_SIZE));
+        long cursorTtlSeconds = parseLongEnvVar("FLIGHT_SEARCH_CURSOR_TTL_SECONDS", DEFAULT_CURSOR_TTL_SECONDS);
+        long cursorCacheMaxOffers = parseLongEnvVar("FLIGHT_SEARCH_CURSOR_CACHE_MAX_OFFERS", DEFAULT_CURSOR_CACHE_MAX_OFFERS);
+        this.offerSetCache = new TtlLruCache<>(cursorCacheMaxOffers, cursorTtlSeconds * 1000, offerSet -> offerSet.size());
+        this.searchCoalescer = new SingleFlight<>("FLIGHT_SEARCH");
+        
+        // Lazy seatmap searches warm the seat map cache for the top of the list while the user reads it
+        this.seatmapPrefetchCount = (int) parseLongEnvVar("FLIGHT_SEARCH_SEATMAP_PREFETCH_COUNT", DEFAULT_SEATMAP_PREFETCH_COUNT);
+    }
+    
+    private static boolean isSabreConfigured() {
+        String sources = System.getenv("FLIGHT_SEARCH_SOURCES");
+        return sources != null && Arrays.stream(sources.split(",")).anyMatch(source -> source.trim().equalsIgnoreCase("SABRE"));
+    }
+    
+    private long parseLongEnvVar(String envVarName, long defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Hit/miss counters and occupancy of the cursor result set cache
+     */
+    public TtlLruCache.CacheStats getOfferSetCacheStats() {
+        return offerSetCache.getStats();
+    }
+    
+    /**
+     * Offer searches run upstream versus searches served by joining an identical one already in flight
+     */
+    public SingleFlight.FlightStats getCoalescingStats() {
+        return searchCoalescer.getStats();
     }
     
     public FlightSearchResponse searchFlightsWithSeatmaps(FlightSearchRequest request) throws SeatmapException {
+        return searchFlightsWithSeatmaps(request, SearchDeadline.none());
+    }
+    
+    /**
+     * Search within a deadline (typically derived from the Lambda's remaining time). Flights whose
+     * seatmaps are still outstanding at the deadline are omitted and listed in the response metadata.
+     */
+    public FlightSearchResponse searchFlightsWithSeatmaps(FlightSearchRequest request, SearchDeadline deadline) throws SeatmapException {
+        return searchFlightsWithSeatmaps(request, deadline, null);
+    }
+    
+    /**
+     * Streaming search: each result is passed to onResult as soon as it is ready, Amadeus flights as
+     * their seatmap arrives and Sabre flights when Sabre finishes. A flight is passed on once, from
+     * whichever provider delivers it first, and at most a page's worth from each provider, so the
+     * whole Amadeus page is passed on however early Sabre finishes and the next cursor skips nothing
+     * that was not sent. onResult is
+     * called from provider threads, one call at a time, and never after this method returns. The
+     * response lists the results in the order they were passed on.
+     */
+    public FlightSearchResponse streamFlightsWithSeatmaps(FlightSearchRequest request, SearchDeadline deadline, Consumer<FlightSearchResult> onResult) throws SeatmapException {
+        return searchFlightsWithSeatmaps(request, deadline, onResult);
+    }
+    
+    private FlightSearchResponse searchFlightsWithSeatmaps(FlightSearchRequest request, SearchDeadline deadline, Consumer<FlightSearchResult> onResult) throws SeatmapException {
         boolean includeRaw = Boolean.TRUE.equals(request.getIncludeRawFlightOffer());
         return searchFlightsWithSeatmaps(
             request.getOrigin(),
@@ -37,7 +146,13 @@ public class FlightSearchService {
             request.getFlightNumber(),
             request.getMaxResults(),
             request.getOffset(),
-            includeRaw
+            request.getCursor(),
+            includeRaw,
+            AmadeusService.SeatmapStrategy.fromString(request.getSeatmapStrategy(), null),
+            deadline,
+            request.isLazySeatmaps(),
+            SeatMapView.of(request),
+            onResult
         );
     }
     
@@ -50,131 +165,512 @@ public class FlightSearchService {
     }
     
     public FlightSearchResponse searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset, boolean includeRawFlightOffer) throws SeatmapException {
-        logger.info("Searching flights with seatmaps from Amadeus and Sabre sources");
+        return searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset, null, includeRawFlightOffer);
+    }
+    
+    /**
+     * Search flights with seatmaps, paging through a cached result set.
+     * A cursor from a previous response takes precedence over offset; only the requested page's seatmaps are fetched.
+     */
+    public FlightSearchResponse searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset, String cursor, boolean includeRawFlightOffer) throws SeatmapException {
+        return searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset, cursor, includeRawFlightOffer, null);
+    }
+    
+    public FlightSearchResponse searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset, String cursor, boolean includeRawFlightOffer, AmadeusService.SeatmapStrategy seatmapStrategy) throws SeatmapException {
+        return searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset, cursor, includeRawFlightOffer, seatmapStrategy, SearchDeadline.none());
+    }
+    
+    public FlightSearchResponse searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset, String cursor, boolean includeRawFlightOffer, AmadeusService.SeatmapStrategy seatmapStrategy, SearchDeadline deadline) throws SeatmapException {
+        return searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, offset, cursor, includeRawFlightOffer, seatmapStrategy, deadline, false, SeatMapView.FULL, null);
+    }
+    
+    private FlightSearchResponse searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber, Integer maxResults, Integer offset, String cursor, boolean includeRawFlightOffer, AmadeusService.SeatmapStrategy seatmapStrategy, SearchDeadline deadline,
+                                                           boolean lazySeatmaps, SeatMapView seatMapView, Consumer<FlightSearchResult> onResult) throws SeatmapException {
+        logger.info("Searching flights with {} seatmaps from {}", lazySeatmaps ? "lazy" : "eager", sabreEnabled && !lazySeatmaps ? "Amadeus and Sabre" : "Amadeus");
+        
+        int limit = maxResults != null ? maxResults : 10;
+        String searchKey = createSearchKey(origin, destination, departureDate, travelClass, airlineCode, flightNumber);
         
-        // Normalize offset (ensure null is converted to 0)
-        Integer normalizedOffset = offset != null ? offset : 0;
+        boolean hasCursor = cursor != null && !cursor.trim().isEmpty();
+        final String searchId;
+        final int pageOffset;
+        final CachedOfferSet offerSet;
         
-        // Search Amadeus only (Sabre temporarily disabled)
-        CompletableFuture<List<FlightSearchResult>> amadeusFuture = CompletableFuture.supplyAsync(() -> {
+        if (hasCursor) {
+            SearchCursor searchCursor;
             try {
-                return amadeusService.searchFlightsWithBatchSeatmaps(origin, destination, departureDate, travelClass, airlineCode, flightNumber, maxResults, normalizedOffset, includeRawFlightOffer);
-            } catch (Exception e) {
-                logger.error("Error calling Amadeus API for batch flight search with seatmaps", e);
-                return new ArrayList<>();
+                searchCursor = SearchCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw SeatmapException.badRequest("Invalid pagination cursor");
             }
-        });
-        
-        try {
-            // Wait for Amadeus API call to complete
-            List<FlightSearchResult> amadeusResults = amadeusFuture.get();
+            searchId = searchCursor.getSearchId();
+            pageOffset = searchCursor.getOffset();
             
-            // Return only Amadeus results (Sabre temporarily disabled)
-            return createFlightSearchResponse(amadeusResults, maxResults, normalizedOffset);
-            
-        } catch (InterruptedException | ExecutionException e) {
-            logger.error("Error executing concurrent API calls", e);
-            throw new SeatmapException("EXTERNAL_API_ERROR", "Error searching flights from multiple sources", 500, e);
+            offerSet = offerSetCache.get(searchId);
+            if (offerSet != null && !offerSet.getSearchKey().equals(searchKey)) {
+                throw SeatmapException.badRequest("Pagination cursor does not match the search parameters");
+            }
+        } else {
+            // Normalize offset (ensure null is converted to 0)
+            searchId = UUID.randomUUID().toString();
+            pageOffset = offset != null ? offset : 0;
+            offerSet = null;
         }
+        
+        // A streaming caller gets results as they arrive, so they are passed on from its own fan-out
+        StreamedResults streamed = onResult != null ? new StreamedResults(limit, onResult) : null;
+        SearchPage page = fetchPage(searchId, offerSet, searchKey, origin, destination, departureDate, travelClass, airlineCode, flightNumber,
+            pageOffset, limit, includeRawFlightOffer, seatmapStrategy, deadline, lazySeatmaps, seatMapView, streamed);
+        
+        List<FlightSearchResult> results = new ArrayList<>(page.results);
+        boolean hasNext = pageOffset + limit < page.total;
+        String nextCursor = hasNext ? new SearchCursor(page.searchId, pageOffset + limit).encode() : null;
+        
+        FlightSearchResponse response = createFlightSearchResponse(results, page.sources, limit, pageOffset, page.total, nextCursor);
+        response.getMeta().setCircuitBreakers(CircuitBreaker.states());
+        if (!page.timedOutOfferIds.isEmpty()) {
+            logger.warn("Search deadline reached: returning {} flights, omitting {} with outstanding seatmaps", results.size(), page.timedOutOfferIds.size());
+            response.getMeta().setPartial(true);
+            response.getMeta().setTimedOutOfferIds(new ArrayList<>(page.timedOutOfferIds));
+        }
+        if (!page.timedOutSources.isEmpty()) {
+            response.getMeta().setPartial(true);
+            response.getMeta().setTimedOutSources(new ArrayList<>(page.timedOutSources));
+        }
+        return response;
     }
     
-    private FlightSearchResponse meshFlightSearchResults(List<FlightSearchResult> amadeusResults, List<FlightSearchResult> sabreResults, Integer maxResults) {
-        logger.info("Meshing flight search results from Amadeus and Sabre");
+    /**
+     * Run one page of a search: the offer set (unless a cursor found it cached), the page's seatmaps
+     * (or, for lazy seatmaps, handles to them), and on the first page Sabre alongside. With streamed
+     * results, the page is what was streamed. Seatmaps are projected to the requested view before
+     * they are merged or streamed.
+     */
+    private SearchPage fetchPage(String searchId, CachedOfferSet cachedOfferSet, String searchKey, String origin, String destination, String departureDate,
+                                 String travelClass, String airlineCode, String flightNumber, int pageOffset, int limit, boolean includeRawFlightOffer,
+                                 AmadeusService.SeatmapStrategy seatmapStrategy, SearchDeadline deadline, boolean lazySeatmaps, SeatMapView seatMapView, StreamedResults streamed) {
+        CachedOfferSet offerSet = cachedOfferSet;
         
-        List<FlightSearchResult> allResults = new ArrayList<>();
-        Map<String, FlightSearchResult> flightMap = new HashMap<>();
+        // Sabre has no result set to page through, so it contributes to the first page only. It runs
+        // alongside the whole Amadeus path and its results are merged in as soon as they arrive. Sabre
+        // flights have no cached offer to hand out a seatmap handle for, so lazy searches leave it out.
+        boolean querySabre = sabreEnabled && pageOffset == 0 && !lazySeatmaps;
+        SearchResultMerger merger = new SearchResultMerger(querySabre ? List.of("AMADEUS", "SABRE") : List.of("AMADEUS"));
+        SearchDeadline sabreDeadline = deadline.withBudget(sabreBudgetMs);
+        CompletableFuture<Void> sabreSearch = querySabre
+            ? providerSearchExecutor.supplyAsync(() -> searchSabre(origin, destination, departureDate, travelClass, flightNumber, limit, sabreDeadline))
+                .thenAccept(results -> {
+                    results.forEach(seatMapView::project);
+                    if (merger.add("SABRE", results) && streamed != null) {
+                        results.forEach(result -> streamed.offer("SABRE", result));
+                    }
+                })
+            : CompletableFuture.completedFuture(null);
         
-        // Add Amadeus results first (higher priority)
-        for (FlightSearchResult result : amadeusResults) {
-            String flightKey = createFlightKey(result);
-            flightMap.put(flightKey, result);
-            allResults.add(result);
+        // New search, or cursor expired or served by another container: fetch the result set within the
+        // Amadeus budget. Searches for the same parameters in flight at the same moment share one upstream
+        // search and page through the leader's result set, each with its own page, seatmaps and view.
+        SearchDeadline amadeusDeadline = deadline.withBudget(amadeusBudgetMs);
+        if (offerSet == null) {
+            SingleFlight.Outcome<CachedOfferSet> outcome = searchCoalescer.execute(searchKey, () -> {
+                CachedOfferSet fetched = fetchOfferSet(searchId, searchKey, origin, destination, departureDate, travelClass, airlineCode, flightNumber, amadeusDeadline);
+                if (fetched.size() > 0) {
+                    offerSetCache.put(searchId, fetched);
+                }
+                return fetched;
+            });
+            offerSet = outcome.getValue();
+            if (outcome.isCoalesced()) {
+                logger.info("Served offer search from an identical search already in flight ({})", searchCoalescer.getStats());
+            }
+        } else {
+            logger.info("Serving page at offset {} from cached result set {} ({} offers)", pageOffset, offerSet.getSearchId(), offerSet.size());
         }
         
-        // Add Sabre results only if not already present from Amadeus
-        for (FlightSearchResult result : sabreResults) {
-            String flightKey = createFlightKey(result);
-            if (!flightMap.containsKey(flightKey)) {
-                flightMap.put(flightKey, result);
-                allResults.add(result);
+        // Fetch seatmaps for the requested page only
+        List<JsonNode> pageOffers = offerSet.page(pageOffset, limit);
+        List<FlightSearchResult> amadeusResults;
+        if (lazySeatmaps) {
+            amadeusResults = listWithSeatmapHandles(offerSet.getSearchId(), pageOffers, pageOffset, includeRawFlightOffer, streamed);
+        } else {
+            try {
+                amadeusResults = streamed == null
+                    ? amadeusService.getSeatmapsForOffers(pageOffers, includeRawFlightOffer, seatmapStrategy, amadeusDeadline)
+                    : amadeusService.getSeatmapsForOffers(pageOffers, includeRawFlightOffer, seatmapStrategy, amadeusDeadline,
+                        result -> streamed.offer("AMADEUS", seatMapView.project(result)));
+                if (streamed == null) {
+                    amadeusResults.forEach(seatMapView::project);
+                }
+            } catch (Exception e) {
+                logger.error("Error calling Amadeus API for batch flight search with seatmaps", e);
+                amadeusResults = new ArrayList<>();
             }
         }
+        merger.add("AMADEUS", amadeusResults);
         
-        // Limit results to maxResults
-        int limit = maxResults != null ? maxResults : 10;
-        List<FlightSearchResult> limitedResults = allResults.subList(0, Math.min(allResults.size(), limit));
+        // Whatever Sabre has by its deadline is merged; a source still outstanding is cancelled and reported
+        List<String> timedOutSources = new ArrayList<>();
+        if (offerSet.isTimedOut()) {
+            timedOutSources.add("AMADEUS");
+        }
+        if (querySabre && !sabreDeadline.awaitAll(List.of(sabreSearch))) {
+            logger.warn("Sabre search outstanding at its {}ms budget, returning without it", sabreBudgetMs);
+            timedOutSources.add("SABRE");
+        }
+        List<FlightSearchResult> results = merger.close();
+        if (streamed != null) {
+            results = streamed.close();
+        } else if (results.size() > limit) {
+            results = results.subList(0, limit);
+        }
+        return new SearchPage(offerSet.getSearchId(), offerSet.size(), results, String.join(",", merger.getSources()),
+            timedOutSources, deadline.getTimedOutOfferIds());
+    }
+    
+    /**
+     * How much of each seatmap a search returns: everything, seats in the compact columnar encoding,
+     * or only the availability summary
+     */
+    enum SeatMapView {
+        FULL, COMPACT, SUMMARY;
         
-        // Log if no flights with seatmaps were found
-        if (limitedResults.isEmpty()) {
-            logger.warn("No flights found with available seatmap data");
+        static SeatMapView of(FlightSearchRequest request) {
+            if (Boolean.TRUE.equals(request.getSummaryOnly())) {
+                return SUMMARY;
+            }
+            return "COMPACT".equals(request.getSeatFormat()) ? COMPACT : FULL;
         }
         
-        // Build metadata
-        FlightSearchResponse.SearchMetadata meta = new FlightSearchResponse.SearchMetadata(
-            limitedResults.size(), 
-            "AMADEUS,SABRE"
-        );
+        /**
+         * Replace a result's seatmap with this view of it; the seatmap itself may be cached and is left as is
+         */
+        FlightSearchResult project(FlightSearchResult result) {
+            if (this != FULL && result.getSeatMap() != null) {
+                result.setSeatMap(this == SUMMARY ? result.getSeatMap().toSummaryOnly() : result.getSeatMap().toCompact());
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Lazy seatmap page: each offer with a handle to its seatmap instead of the seatmap, and the first
+     * few seatmaps prefetched into the seat map cache for when the user opens a flight
+     */
+    private List<FlightSearchResult> listWithSeatmapHandles(String searchId, List<JsonNode> pageOffers, int pageOffset, boolean includeRawFlightOffer, StreamedResults streamed) {
+        List<FlightSearchResult> results = new ArrayList<>(pageOffers.size());
+        for (int i = 0; i < pageOffers.size(); i++) {
+            FlightSearchResult result = amadeusService.buildOfferResult(pageOffers.get(i), includeRawFlightOffer);
+            result.setSeatmapHandle(new SeatmapHandle(searchId, pageOffset + i).encode());
+            results.add(result);
+            if (streamed != null) {
+                streamed.offer("AMADEUS", result);
+            }
+        }
+        amadeusService.prefetchSeatMaps(pageOffers.subList(0, Math.min(seatmapPrefetchCount, pageOffers.size())));
+        return results;
+    }
+    
+    /**
+     * Resolve a seatmap handle from a lazy search to that offer's seatmap. Handles resolve only while the
+     * search's result set is cached in the container that ran the search; elsewhere, or once the result
+     * set has expired, the handle is reported as expired (410) and the client has to search again.
+     */
+    public SeatMapData getSeatmapForHandle(String handle, SearchDeadline deadline) throws SeatmapException {
+        SeatmapHandle seatmapHandle;
+        try {
+            seatmapHandle = SeatmapHandle.decode(handle);
+        } catch (IllegalArgumentException e) {
+            throw SeatmapException.badRequest("Invalid seatmap handle");
+        }
         
-        logger.info("Combined {} flights with seatmaps from Amadeus and Sabre sources", limitedResults.size());
-        return new FlightSearchResponse(limitedResults, meta);
-    }
-    
-    private String createFlightKey(FlightSearchResult result) {
-        // Create unique key based on carrier, flight number, and route
-        StringBuilder key = new StringBuilder();
-        
-        if (result.getItineraries() != null && !result.getItineraries().isEmpty()) {
-            JsonNode firstItinerary = result.getItineraries().get(0);
-            if (firstItinerary.has("segments") && firstItinerary.get("segments").isArray() && firstItinerary.get("segments").size() > 0) {
-                JsonNode firstSegment = firstItinerary.get("segments").get(0);
-                
-                key.append(firstSegment.path("carrierCode").asText(""));
-                key.append(firstSegment.path("number").asText(""));
-                key.append(firstSegment.path("departure").path("iataCode").asText(""));
-                key.append(firstSegment.path("arrival").path("iataCode").asText(""));
-                String departureAt = firstSegment.path("departure").path("at").asText("");
-                if (departureAt.length() >= 10) {
-                    key.append(departureAt.substring(0, 10)); // Date only
+        CachedOfferSet offerSet = offerSetCache.get(seatmapHandle.getSearchId());
+        if (offerSet == null) {
+            throw new SeatmapException("SEATMAP_HANDLE_EXPIRED", "Seatmap handle has expired, please search again", 410);
+        }
+        if (seatmapHandle.getOfferIndex() >= offerSet.size()) {
+            throw SeatmapException.badRequest("Invalid seatmap handle");
+        }
+        
+        JsonNode offer = offerSet.get(seatmapHandle.getOfferIndex());
+        try {
+            return amadeusService.getSeatMapDataForOffer(offer, deadline);
+        } catch (SeatmapApiException e) {
+            logger.warn("Seatmap unavailable for flight offer {}: {}", offer.path("id").asText(), e.getMessage());
+            throw SeatmapException.externalApiError("Seatmap is temporarily unavailable. Please try again later.");
+        }
+    }
+    
+    /**
+     * Sabre schedules with seatmaps for the first page; failures yield no Sabre results
+     */
+    private List<FlightSearchResult> searchSabre(String origin, String destination, String departureDate, String travelClass, String flightNumber, int limit, SearchDeadline sabreDeadline) {
+        try {
+            return sabreService.searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, flightNumber, limit, sabreDeadline);
+        } catch (Exception e) {
+            logger.error("Error calling Sabre API for flight search with seatmaps", e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Fetch the full Amadeus offer list for a search. Failures yield an empty set that is not cached,
+     * marked as timed out when the deadline cut the search short.
+     */
+    private CachedOfferSet fetchOfferSet(String searchId, String searchKey, String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber,
+                                         SearchDeadline deadline) {
+        try {
+            JsonNode flightOffers = amadeusService.searchFlightOffers(origin, destination, departureDate, travelClass, airlineCode, flightNumber, resultSetSize, deadline);
+            
+            List<JsonNode> offers = new ArrayList<>();
+            if (flightOffers != null && flightOffers.path("data").isArray()) {
+                for (JsonNode offer : flightOffers.get("data")) {
+                    offers.add(offer);
                 }
             }
+            return new CachedOfferSet(searchId, searchKey, offers, false);
+        } catch (Exception e) {
+            if (e.getCause() instanceof HttpTimeoutException || deadline.isExpired()) {
+                logger.warn("Amadeus flight offers search outstanding at the search deadline: {}", e.getMessage());
+                return new CachedOfferSet(searchId, searchKey, Collections.emptyList(), true);
+            }
+            logger.error("Error calling Amadeus API for flight offers search", e);
+            return new CachedOfferSet(searchId, searchKey, Collections.emptyList(), false);
         }
-        
-        return key.toString();
     }
     
+    /**
+     * Identifies a search by its parameters alone, independent of paging and presentation
+     */
+    static String createSearchKey(String origin, String destination, String departureDate, String travelClass, String airlineCode, String flightNumber) {
+        return String.join("|",
+            normalizeCode(origin), normalizeCode(destination), normalize(departureDate),
+            normalizeCode(travelClass), normalizeCode(airlineCode), normalize(flightNumber));
+    }
     
-    private FlightSearchResponse createFlightSearchResponse(List<FlightSearchResult> results, Integer maxResults) {
-        return createFlightSearchResponse(results, maxResults, 0);
+    private static String normalize(String value) {
+        return value != null ? value.trim() : "";
     }
     
-    private FlightSearchResponse createFlightSearchResponse(List<FlightSearchResult> results, Integer maxResults, Integer offset) {
-        // Don't limit results here - they're already limited by the API call
-        int limit = maxResults != null ? maxResults : 10;
-        int pageOffset = offset != null ? offset : 0;
+    private static String normalizeCode(String value) {
+        return normalize(value).toUpperCase(Locale.ROOT);
+    }
+    
+    private FlightSearchResponse createFlightSearchResponse(List<FlightSearchResult> results, String sources, int limit, int pageOffset, int total, String nextCursor) {
+        // Don't limit results here - only the requested page was fetched
         
         // Log if no flights with seatmaps were found
         if (results.isEmpty()) {
             logger.warn("No flights found with available seatmap data");
         }
         
-        // Create pagination metadata
+        // Create pagination metadata; total counts offers in the result set, including those later omitted for missing seatmaps
         FlightSearchResponse.PaginationInfo pagination = new FlightSearchResponse.PaginationInfo(
             pageOffset,
             limit,
-            -1, // Total unknown from Amadeus API
-            results.size() >= limit, // hasNext: true if we got a full page
-            pageOffset > 0 // hasPrevious: true if offset > 0
+            total,
+            nextCursor != null, // hasNext: true if the result set extends past this page
+            pageOffset > 0, // hasPrevious: true if offset > 0
+            nextCursor
         );
         
-        // Build metadata (only Amadeus for now)
+        // Build metadata
         FlightSearchResponse.SearchMetadata meta = new FlightSearchResponse.SearchMetadata(
             results.size(), 
-            "AMADEUS",
+            sources,
             null,
             pagination
         );
         
-        logger.info("Found {} flights with seatmaps from Amadeus (offset: {}, limit: {})", results.size(), pageOffset, limit);
+        logger.info("Found {} flights with seatmaps from {} (offset: {}, limit: {}, total: {})", results.size(), sources, pageOffset, limit, total);
         return new FlightSearchResponse(results, meta);
     }
+    
+    /**
+     * Collects each provider's results as that provider finishes, keyed once per result by
+     * FlightSegmentKey.forFlight. Providers earlier in the priority list keep their flights whichever
+     * arrives first; later providers only add flights not already listed. Results added after close
+     * are dropped.
+     */
+    static final class SearchResultMerger {
+        private final List<String> providers;
+        private final Map<String, List<KeyedResult>> resultsByProvider = new LinkedHashMap<>();
+        private boolean closed;
+        
+        SearchResultMerger(List<String> providers) {
+            this.providers = providers;
+        }
+        
+        synchronized boolean add(String provider, List<FlightSearchResult> results) {
+            if (closed) {
+                return false;
+            }
+            List<KeyedResult> keyed = new ArrayList<>(results.size());
+            for (FlightSearchResult result : results) {
+                keyed.add(new KeyedResult(FlightSegmentKey.forFlight(result.getItineraries()), result));
+            }
+            resultsByProvider.put(provider, keyed);
+            return true;
+        }
+        
+        /**
+         * Stop accepting results and return the merged list in provider priority order
+         */
+        synchronized List<FlightSearchResult> close() {
+            closed = true;
+            List<FlightSearchResult> merged = new ArrayList<>();
+            Set<String> listedKeys = new HashSet<>();
+            for (String provider : providers) {
+                List<KeyedResult> keyed = resultsByProvider.get(provider);
+                if (keyed == null) {
+                    continue;
+                }
+                // A provider's own fares for the same flight are all kept; only cross-provider duplicates go
+                Set<String> providerKeys = new HashSet<>();
+                for (KeyedResult result : keyed) {
+                    if (result.key == null || !listedKeys.contains(result.key)) {
+                        merged.add(result.result);
+                        if (result.key != null) {
+                            providerKeys.add(result.key);
+                        }
+                    }
+                }
+                listedKeys.addAll(providerKeys);
+            }
+            return merged;
+        }
+        
+        /**
+         * Providers that delivered results before close, in priority order
+         */
+        synchronized List<String> getSources() {
+            List<String> sources = new ArrayList<>();
+            for (String provider : providers) {
+                if (resultsByProvider.containsKey(provider)) {
+                    sources.add(provider);
+                }
+            }
+            return sources;
+        }
+        
+        private static final class KeyedResult {
+            private final String key;
+            private final FlightSearchResult result;
+            
+            private KeyedResult(String key, FlightSearchResult result) {
+                this.key = key;
+                this.result = result;
+            }
+        }
+    }
+    
+    /**
+     * Results passed on to a streaming caller as providers deliver them: each flight once, whichever
+     * provider delivers it first (a provider's own fares for the same flight are all kept), up to the
+     * page limit for each provider, and nothing after close. The limit is counted per provider because
+     * the next cursor advances over the whole Amadeus page: Sabre flights arriving first must not take
+     * the slots of Amadeus offers that the cursor then skips.
+     */
+    static final class StreamedResults {
+        private final int limit;
+        private final Consumer<FlightSearchResult> onResult;
+        private final Map<String, String> providerByKey = new HashMap<>();
+        private final Map<String, Integer> countByProvider = new HashMap<>();
+        private final List<FlightSearchResult> passedOn = new ArrayList<>();
+        private boolean closed;
+        
+        StreamedResults(int limit, Consumer<FlightSearchResult> onResult) {
+            this.limit = limit;
+            this.onResult = onResult;
+        }
+        
+        synchronized void offer(String provider, FlightSearchResult result) {
+            if (closed || countByProvider.getOrDefault(provider, 0) >= limit) {
+                return;
+            }
+            String key = FlightSegmentKey.forFlight(result.getItineraries());
+            if (key != null) {
+                String listedBy = providerByKey.putIfAbsent(key, provider);
+                if (listedBy != null && !listedBy.equals(provider)) {
+                    return;
+                }
+            }
+            countByProvider.merge(provider, 1, Integer::sum);
+            passedOn.add(result);
+            onResult.accept(result);
+        }
+        
+        synchronized List<FlightSearchResult> close() {
+            closed = true;
+            return new ArrayList<>(passedOn);
+        }
+    }
+    
+    /**
+     * One page of a search as run for a single caller
+     */
+    private static final class SearchPage {
+        private final String searchId;
+        private final int total;
+        private final List<FlightSearchResult> results;
+        private final String sources;
+        private final List<String> timedOutSources;
+        private final List<String> timedOutOfferIds;
+        
+        private SearchPage(String searchId, int total, List<FlightSearchResult> results, String sources,
+                           List<String> timedOutSources, List<String> timedOutOfferIds) {
+            this.searchId = searchId;
+            this.total = total;
+            this.results = Collections.unmodifiableList(new ArrayList<>(results));
+            this.sources = sources;
+            this.timedOutSources = Collections.unmodifiableList(new ArrayList<>(timedOutSources));
+            this.timedOutOfferIds = Collections.unmodifiableList(new ArrayList<>(timedOutOfferIds));
+        }
+    }
+    
+    /**
+     * Offer list from a single search, shared read-only across page requests and coalesced searches
+     */
+    private static final class CachedOfferSet {
+        private final String searchId;
+        private final String searchKey;
+        private final List<JsonNode> offers;
+        private final boolean timedOut;
+        
+        private CachedOfferSet(String searchId, String searchKey, List<JsonNode> offers, boolean timedOut) {
+            this.searchId = searchId;
+            this.searchKey = searchKey;
+            this.offers = Collections.unmodifiableList(offers);
+            this.timedOut = timedOut;
+        }
+        
+        String getSearchId() {
+            return searchId;
+        }
+        
+        String getSearchKey() {
+            return searchKey;
+        }
+        
+        /**
+         * True for the empty set of a search the deadline cut short; such sets are never cached
+         */
+        boolean isTimedOut() {
+            return timedOut;
+        }
+        
+        int size() {
+            return offers.size();
+        }
+        
+        JsonNode get(int index) {
+            return offers.get(index);
+        }
+        
+        List<JsonNode> page(int offset, int limit) {
+            if (offset >= offers.size()) {
+                return Collections.emptyList();
+            }
+            return offers.subList(offset, Math.min(offers.size(), offset + limit));
+        }
+    }
 }
\ No newline at end of file
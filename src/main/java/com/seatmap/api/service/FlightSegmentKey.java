@@ -0,0 +1,107 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Canonical segment identity for flight offers (carrier, number, origin, destination,
+ * departure timestamp, cabin). Two offers with the same key request the same seat maps.
+ */
+public final class FlightSegmentKey {
+    private static final String FIELD_SEPARATOR = "|";
+    private static final String SEGMENT_SEPARATOR = "/";
+
+    private FlightSegmentKey() {}
+
+    /**
+     * Build the key for every segment of every itinerary in the offer.
+     * Returns null when a segment is missing identifying fields.
+     */
+    public static String forOffer(JsonNode flightOffer) {
+        if (flightOffer == null) {
+            return null;
+        }
+        JsonNode itineraries = flightOffer.path("itineraries");
+        if (!itineraries.isArray() || itineraries.size() == 0) {
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (JsonNode itinerary : itineraries) {
+            JsonNode segments = itinerary.path("segments");
+            if (!segments.isArray() || segments.size() == 0) {
+                return null;
+            }
+            for (JsonNode segment : segments) {
+                String segmentKey = forSegment(segment, findCabin(flightOffer, segment.path("id").asText("")));
+                if (segmentKey == null) {
+                    return null;
+                }
+                if (key.length() > 0) {
+                    key.append(SEGMENT_SEPARATOR);
+                }
+                key.append(segmentKey);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Build the key for a single segment. Returns null when identifying fields are missing.
+     */
+    public static String forSegment(JsonNode segment, String cabin) {
+        String carrierCode = segment.path("carrierCode").asText("");
+        String number = segment.path("number").asText("");
+        String origin = segment.path("departure").path("iataCode").asText("");
+        String destination = segment.path("arrival").path("iataCode").asText("");
+        String departureAt = segment.path("departure").path("at").asText("");
+
+        if (carrierCode.isEmpty() || number.isEmpty() || origin.isEmpty() || destination.isEmpty() || departureAt.isEmpty()) {
+            return null;
+        }
+
+        return carrierCode + FIELD_SEPARATOR + number + FIELD_SEPARATOR + origin + FIELD_SEPARATOR
+            + destination + FIELD_SEPARATOR + departureAt + FIELD_SEPARATOR + (cabin != null ? cabin : "");
+    }
+
+    /**
+     * Provider-independent identity of a flight, for merging results from several sources: carrier,
+     * number, route and departure date of the first segment. Departure times and cabins are left out
+     * because providers report them differently. Returns null when the first segment is incomplete.
+     */
+    public static String forFlight(List<JsonNode> itineraries) {
+        if (itineraries == null || itineraries.isEmpty()) {
+            return null;
+        }
+        JsonNode segment = itineraries.get(0).path("segments").path(0);
+        String carrierCode = segment.path("carrierCode").asText("");
+        String number = segment.path("number").asText("");
+        String origin = segment.path("departure").path("iataCode").asText("");
+        String destination = segment.path("arrival").path("iataCode").asText("");
+        String departureAt = segment.path("departure").path("at").asText("");
+
+        if (carrierCode.isEmpty() || number.isEmpty() || origin.isEmpty() || destination.isEmpty() || departureAt.length() < 10) {
+            return null;
+        }
+
+        return carrierCode + FIELD_SEPARATOR + number + FIELD_SEPARATOR + origin + FIELD_SEPARATOR
+            + destination + FIELD_SEPARATOR + departureAt.substring(0, 10);
+    }
+
+    /**
+     * Cabin booked for the segment, taken from the first traveler's fare details
+     */
+    static String findCabin(JsonNode flightOffer, String segmentId) {
+        JsonNode travelerPricings = flightOffer.path("travelerPricings");
+        if (!travelerPricings.isArray() || travelerPricings.size() == 0) {
+            return "";
+        }
+        for (JsonNode fareDetails : travelerPricings.get(0).path("fareDetailsBySegment")) {
+            if (segmentId.equals(fareDetails.path("segmentId").asText())) {
+                return fareDetails.path("cabin").asText("");
+            }
+        }
+        return "";
+    }
+}
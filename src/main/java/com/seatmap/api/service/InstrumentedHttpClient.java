@@ -0,0 +1,486 @@
+package com.seatmap.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * HttpClient for a provider API that negotiates gzip and prefers HTTP/2 on a pooled keep-alive
+ * connection. Compressed bodies are inflated as they stream in, before the caller's BodyHandler sees
+ * them, so callers keep using the standard handlers. Counts bytes on the wire against decoded bytes,
+ * and connection reuse (approximated by distinct TLS sessions, one per connection).
+ */
+public class InstrumentedHttpClient extends HttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedHttpClient.class);
+
+    private static final int DEFAULT_KEEPALIVE_SECONDS = 30; // Below typical server idle timeouts, so pooled connections are rarely stale
+    private static final int DEFAULT_POOL_SIZE = 0; // Unbounded
+    private static final int INFLATE_CHUNK_SIZE = 16 * 1024;
+
+    private final String provider;
+    private final HttpClient delegate;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong http2ResponseCount = new AtomicLong();
+    private final AtomicLong compressedResponseCount = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+    private final AtomicLong tlsResponseCount = new AtomicLong();
+    private final Map<Integer, List<WeakReference<SSLSession>>> seenSessions = new HashMap<>();
+    private long connectionCount;
+
+    InstrumentedHttpClient(String provider, HttpClient delegate) {
+        this.provider = provider;
+        this.delegate = delegate;
+    }
+
+    /**
+     * HTTP/2 client for a provider. Keep-alive and pool size come from {PROVIDER}_HTTP_KEEPALIVE_SECONDS
+     * and {PROVIDER}_HTTP_POOL_SIZE; the JDK reads these once per JVM, so the first client created wins.
+     */
+    public static InstrumentedHttpClient create(String provider, Duration connectTimeout) {
+        setPoolPropertyIfAbsent("jdk.httpclient.keepalive.timeout", provider + "_HTTP_KEEPALIVE_SECONDS", DEFAULT_KEEPALIVE_SECONDS);
+        setPoolPropertyIfAbsent("jdk.httpclient.connectionPoolSize", provider + "_HTTP_POOL_SIZE", DEFAULT_POOL_SIZE);
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .build();
+        logger.info("{} HTTP client initialized - HTTP/2 preferred, gzip accepted, keep-alive: {}s, pool size: {}", provider,
+            System.getProperty("jdk.httpclient.keepalive.timeout"), System.getProperty("jdk.httpclient.connectionPoolSize"));
+        return new InstrumentedHttpClient(provider, client);
+    }
+
+    private static void setPoolPropertyIfAbsent(String property, String envVarName, int defaultValue) {
+        if (System.getProperty(property) != null) {
+            return;
+        }
+        int value = defaultValue;
+        String env = System.getenv(envVarName);
+        if (env != null && !env.trim().isEmpty()) {
+            try {
+                value = Math.max(0, Integer.parseInt(env.trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, env, defaultValue);
+            }
+        }
+        System.setProperty(property, String.valueOf(value));
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        HttpResponse<T> response = delegate.send(withAcceptEncoding(request), decoding(responseBodyHandler));
+        recordResponse(response);
+        return response;
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return delegate.sendAsync(withAcceptEncoding(request), decoding(responseBodyHandler)).thenApply(this::recordResponse);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return delegate.sendAsync(withAcceptEncoding(request), decoding(responseBodyHandler), pushPromiseHandler).thenApply(this::recordResponse);
+    }
+
+    private static HttpRequest withAcceptEncoding(HttpRequest request) {
+        if (request.headers().firstValue("Accept-Encoding").isPresent()) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+            .header("Accept-Encoding", "gzip")
+            .build();
+    }
+
+    private <T> HttpResponse.BodyHandler<T> decoding(HttpResponse.BodyHandler<T> handler) {
+        return responseInfo -> {
+            boolean gzip = responseInfo.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.trim().equalsIgnoreCase("gzip"))
+                .orElse(false);
+            if (gzip) {
+                compressedResponseCount.incrementAndGet();
+            }
+            return new DecodingBodySubscriber<>(handler.apply(responseInfo), gzip ? new GzipDecoder() : null, wireBytes, decodedBytes);
+        };
+    }
+
+    private <T> HttpResponse<T> recordResponse(HttpResponse<T> response) {
+        requestCount.incrementAndGet();
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            http2ResponseCount.incrementAndGet();
+        }
+        response.sslSession().ifPresent(this::recordSession);
+        return response;
+    }
+
+    /**
+     * Count a TLS session the first time it is seen. Sessions are compared by identity, since
+     * resumed TLS 1.3 sessions can share an ID across connections.
+     */
+    private synchronized void recordSession(SSLSession session) {
+        tlsResponseCount.incrementAndGet();
+        List<WeakReference<SSLSession>> bucket = seenSessions.computeIfAbsent(System.identityHashCode(session), hash -> new ArrayList<>());
+        for (Iterator<WeakReference<SSLSession>> it = bucket.iterator(); it.hasNext(); ) {
+            SSLSession seen = it.next().get();
+            if (seen == session) {
+                return;
+            }
+            if (seen == null) {
+                it.remove();
+            }
+        }
+        bucket.add(new WeakReference<>(session));
+        connectionCount++;
+        if (seenSessions.size() > 1024) {
+            seenSessions.values().removeIf(refs -> refs.removeIf(ref -> ref.get() == null) && refs.isEmpty());
+        }
+    }
+
+    public synchronized TransportStats getStats() {
+        return new TransportStats(provider, requestCount.get(), http2ResponseCount.get(), compressedResponseCount.get(),
+            wireBytes.get(), decodedBytes.get(), tlsResponseCount.get(), connectionCount);
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    /**
+     * Passes each chunk of the body to the caller's subscriber, inflating it first when the response
+     * is gzip encoded. Every upstream chunk produces exactly one downstream chunk, so demand passes
+     * straight through.
+     */
+    static final class DecodingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> downstream;
+        private final GzipDecoder decoder;
+        private final AtomicLong wireBytes;
+        private final AtomicLong decodedBytes;
+        private Flow.Subscription subscription;
+        private boolean failed;
+
+        DecodingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, GzipDecoder decoder, AtomicLong wireBytes, AtomicLong decodedBytes) {
+            this.downstream = downstream;
+            this.decoder = decoder;
+            this.wireBytes = wireBytes;
+            this.decodedBytes = decodedBytes;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (failed) {
+                return;
+            }
+            wireBytes.addAndGet(remaining(items));
+            List<ByteBuffer> decoded = items;
+            if (decoder != null) {
+                try {
+                    decoded = decoder.decode(items);
+                } catch (IOException e) {
+                    failed = true;
+                    subscription.cancel();
+                    downstream.onError(e);
+                    return;
+                }
+            }
+            decodedBytes.addAndGet(remaining(decoded));
+            downstream.onNext(decoded);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!failed) {
+                failed = true;
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (failed) {
+                return;
+            }
+            if (decoder != null && !decoder.isAtMemberBoundary()) {
+                failed = true;
+                downstream.onError(new EOFException("Truncated gzip response body"));
+                return;
+            }
+            downstream.onComplete();
+        }
+
+        private static long remaining(List<ByteBuffer> buffers) {
+            long total = 0;
+            for (ByteBuffer buffer : buffers) {
+                total += buffer.remaining();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Incremental gzip (RFC 1952) decoder: header, raw deflate data and trailer may be split across
+     * any chunk boundaries. Concatenated members are decoded in sequence.
+     */
+    static final class GzipDecoder {
+        private static final int FHCRC = 0x02;
+        private static final int FEXTRA = 0x04;
+        private static final int FNAME = 0x08;
+        private static final int FCOMMENT = 0x10;
+        private static final int TRAILER_LENGTH = 8;
+
+        private enum State { HEADER, DATA, TRAILER }
+
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private State state = State.HEADER;
+
+        List<ByteBuffer> decode(List<ByteBuffer> items) throws IOException {
+            List<ByteBuffer> output = new ArrayList<>();
+            for (ByteBuffer item : items) {
+                ByteBuffer input = item.duplicate();
+                while (input.hasRemaining()) {
+                    switch (state) {
+                        case HEADER:
+                            readHeader(input);
+                            break;
+                        case DATA:
+                            inflate(input, output);
+                            break;
+                        case TRAILER:
+                            readTrailer(input);
+                            break;
+                    }
+                }
+            }
+            return output;
+        }
+
+        boolean isAtMemberBoundary() {
+            return state == State.HEADER && pending.size() == 0;
+        }
+
+        private void readHeader(ByteBuffer input) throws IOException {
+            while (input.hasRemaining()) {
+                pending.write(input.get());
+                int headerLength = headerLength(pending.toByteArray());
+                if (headerLength > 0) {
+                    pending.reset();
+                    inflater.reset();
+                    crc.reset();
+                    state = State.DATA;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Length of a complete header in bytes, or -1 if more bytes are needed
+         */
+        private static int headerLength(byte[] header) throws ZipException {
+            if (header.length >= 1 && (header[0] & 0xff) != 0x1f || header.length >= 2 && (header[1] & 0xff) != 0x8b) {
+                throw new ZipException("Not in gzip format");
+            }
+            if (header.length >= 3 && header[2] != 8) {
+                throw new ZipException("Unsupported gzip compression method");
+            }
+            if (header.length < 10) {
+                return -1;
+            }
+            int flags = header[3] & 0xff;
+            int position = 10;
+            if ((flags & FEXTRA) != 0) {
+                if (header.length < position + 2) {
+                    return -1;
+                }
+                position += 2 + ((header[position] & 0xff) | (header[position + 1] & 0xff) << 8);
+            }
+            for (int field : new int[] {FNAME, FCOMMENT}) {
+                if ((flags & field) != 0) {
+                    while (position < header.length && header[position] != 0) {
+                        position++;
+                    }
+                    if (position >= header.length) {
+                        return -1;
+                    }
+                    position++;
+                }
+            }
+            if ((flags & FHCRC) != 0) {
+                position += 2;
+            }
+            return header.length >= position ? position : -1;
+        }
+
+        private void inflate(ByteBuffer input, List<ByteBuffer> output) throws IOException {
+            inflater.setInput(input);
+            try {
+                while (!inflater.finished()) {
+                    byte[] chunk = new byte[INFLATE_CHUNK_SIZE];
+                    int count = inflater.inflate(chunk);
+                    if (count > 0) {
+                        crc.update(chunk, 0, count);
+                        output.add(ByteBuffer.wrap(chunk, 0, count));
+                    } else if (inflater.needsInput() || inflater.needsDictionary()) {
+                        break;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Invalid gzip data: " + e.getMessage());
+            }
+            if (inflater.finished()) {
+                state = State.TRAILER;
+            }
+        }
+
+        private void readTrailer(ByteBuffer input) throws IOException {
+            while (input.hasRemaining() && pending.size() < TRAILER_LENGTH) {
+                pending.write(input.get());
+            }
+            if (pending.size() < TRAILER_LENGTH) {
+                return;
+            }
+            byte[] trailer = pending.toByteArray();
+            long expectedCrc = readUInt32(trailer, 0);
+            long expectedSize = readUInt32(trailer, 4);
+            if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt gzip trailer");
+            }
+            pending.reset();
+            state = State.HEADER;
+        }
+
+        private static long readUInt32(byte[] bytes, int offset) {
+            return (bytes[offset] & 0xffL) | (bytes[offset + 1] & 0xffL) << 8
+                | (bytes[offset + 2] & 0xffL) << 16 | (bytes[offset + 3] & 0xffL) << 24;
+        }
+    }
+
+    /**
+     * Point-in-time transfer counters for a provider's HTTP client
+     */
+    public static class TransportStats {
+        private final String provider;
+        private final long requestCount;
+        private final long http2ResponseCount;
+        private final long compressedResponseCount;
+        private final long wireBytes;
+        private final long decodedBytes;
+        private final long tlsResponseCount;
+        private final long connectionCount;
+
+        public TransportStats(String provider, long requestCount, long http2ResponseCount, long compressedResponseCount,
+                              long wireBytes, long decodedBytes, long tlsResponseCount, long connectionCount) {
+            this.provider = provider;
+            this.requestCount = requestCount;
+            this.http2ResponseCount = http2ResponseCount;
+            this.compressedResponseCount = compressedResponseCount;
+            this.wireBytes = wireBytes;
+            this.decodedBytes = decodedBytes;
+            this.tlsResponseCount = tlsResponseCount;
+            this.connectionCount = connectionCount;
+        }
+
+        public String getProvider() { return provider; }
+        public long getRequestCount() { return requestCount; }
+        public long getHttp2ResponseCount() { return http2ResponseCount; }
+        public long getCompressedResponseCount() { return compressedResponseCount; }
+        public long getWireBytes() { return wireBytes; }
+        public long getDecodedBytes() { return decodedBytes; }
+        public long getConnectionCount() { return connectionCount; }
+        public long getReusedConnectionCount() { return tlsResponseCount - connectionCount; }
+
+        public double getCompressionRatio() {
+            return wireBytes > 0 ? (double) decodedBytes / wireBytes : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s requests=%d (http2=%d, gzip=%d), wireBytes=%d, decodedBytes=%d (ratio=%.1f), connections=%d, reused=%d",
+                provider, requestCount, http2ResponseCount, compressedResponseCount, wireBytes, decodedBytes,
+                getCompressionRatio(), connectionCount, getReusedConnectionCount());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.seatmap.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for blocking provider I/O (one per provider, shared across service instances
+ * in a warm container). Runs up to maxConcurrency calls at once independent of vCPU count, queues
+ * the rest, and runs work on the submitting thread once the queue is full.
+ */
+public class ProviderIoExecutor implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(ProviderIoExecutor.class);
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 30;
+    private static final Map<String, ProviderIoExecutor> EXECUTORS = new ConcurrentHashMap<>();
+
+    private final String provider;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor pool;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong callerRunsCount = new AtomicLong();
+    private final AtomicInteger peakActiveCount = new AtomicInteger();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    /**
+     * Shared executor for a provider. Limits come from {PROVIDER}_MAX_CONCURRENCY and {PROVIDER}_MAX_QUEUE.
+     */
+    public static ProviderIoExecutor forProvider(String provider, int defaultMaxConcurrency) {
+        return EXECUTORS.computeIfAbsent(provider, name -> new ProviderIoExecutor(name,
+            parseIntEnvVar(name + "_MAX_CONCURRENCY", defaultMaxConcurrency),
+            parseIntEnvVar(name + "_MAX_QUEUE", DEFAULT_QUEUE_CAPACITY)));
+    }
+
+    ProviderIoExecutor(String provider, int maxConcurrency, int queueCapacity) {
+        this.provider = provider;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, provider.toLowerCase() + "-io-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+            IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            threadFactory,
+            (runnable, executor) -> {
+                if (runnable instanceof QueuedOnly) {
+                    throw new RejectedExecutionException(provider + " I/O executor queue is full");
+                }
+                // Queue full: apply backpressure by running on the caller instead of failing the request
+                callerRunsCount.incrementAndGet();
+                if (!executor.isShutdown()) {
+                    runnable.run();
+                }
+            });
+        this.pool.allowCoreThreadTimeOut(true);
+
+        logger.info("{} I/O executor initialized - Max concurrency: {}, Queue capacity: {}", provider, maxConcurrency, queueCapacity);
+    }
+
+    private static int parseIntEnvVar(String envVarName, int defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submittedCount.incrementAndGet();
+        pool.execute(command);
+        peakActiveCount.accumulateAndGet(pool.getActiveCount(), Math::max);
+        peakQueueDepth.accumulateAndGet(pool.getQueue().size(), Math::max);
+    }
+
+    /**
+     * Queue command for a pool thread, never running it on the caller: for callers whose own thread
+     * must not block, such as timers. Throws RejectedExecutionException when the queue is full.
+     */
+    public void executeQueued(Runnable command) {
+        execute(new QueuedOnly(command));
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, this);
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        return CompletableFuture.runAsync(runnable, this);
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public ExecutorStats getStats() {
+        return new ExecutorStats(provider, maxConcurrency, queueCapacity, pool.getActiveCount(), pool.getQueue().size(),
+            peakActiveCount.get(), peakQueueDepth.get(), submittedCount.get(), pool.getCompletedTaskCount(), callerRunsCount.get());
+    }
+
+    /**
+     * Point-in-time snapshot of executor load
+     */
+    public static class ExecutorStats {
+        private final String provider;
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final int activeCount;
+        private final int queueDepth;
+        private final int peakActiveCount;
+        private final int peakQueueDepth;
+        private final long submittedCount;
+        private final long completedCount;
+        private final long callerRunsCount;
+
+        public ExecutorStats(String provider, int maxConcurrency, int queueCapacity, int activeCount, int queueDepth,
+                             int peakActiveCount, int peakQueueDepth, long submittedCount, long completedCount, long callerRunsCount) {
+            this.provider = provider;
+            this.maxConcurrency = maxConcurrency;
+            this.queueCapacity = queueCapacity;
+            this.activeCount = activeCount;
+            this.queueDepth = queueDepth;
+            this.peakActiveCount = peakActiveCount;
+            this.peakQueueDepth = peakQueueDepth;
+            this.submittedCount = submittedCount;
+            this.completedCount = completedCount;
+            this.callerRunsCount = callerRunsCount;
+        }
+
+        public String getProvider() { return provider; }
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public int getActiveCount() { return activeCount; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getPeakActiveCount() { return peakActiveCount; }
+        public int getPeakQueueDepth() { return peakQueueDepth; }
+        public long getSubmittedCount() { return submittedCount; }
+        public long getCompletedCount() { return completedCount; }
+        public long getCallerRunsCount() { return callerRunsCount; }
+
+        @Override
+        public String toString() {
+            return String.format("%s active=%d/%d, queued=%d/%d, peakActive=%d, peakQueued=%d, submitted=%d, completed=%d, callerRuns=%d",
+                provider, activeCount, maxConcurrency, queueDepth, queueCapacity, peakActiveCount, peakQueueDepth,
+                submittedCount, completedCount, callerRunsCount);
+        }
+    }
+
+    private static final class QueuedOnly implements Runnable {
+        private final Runnable command;
+
+        private QueuedOnly(Runnable command) {
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            command.run();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.seatmap.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket in front of a provider endpoint (one per name, shared across service instances in a
+ * warm container). Callers reserve a permit and sleep until it is due, so bursts queue in arrival
+ * order instead of hitting the provider's quota. A Retry-After from the provider pauses the bucket.
+ */
+public class RateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final double permitsPerSecond;
+    private final double burst;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this. Tokens go negative while callers are queued for permits they already reserved.
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private long acquiredCount;
+    private long waitedCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long throttledCount;
+    private long rejectedCount;
+
+    /**
+     * Shared limiter for a name. Limits come from {NAME}_RATE_LIMIT_PER_SECOND and {NAME}_RATE_LIMIT_BURST.
+     */
+    public static RateLimiter forName(String name, double defaultPermitsPerSecond, int defaultBurst) {
+        return LIMITERS.computeIfAbsent(name, key -> new RateLimiter(key,
+            parseDoubleEnvVar(key + "_RATE_LIMIT_PER_SECOND", defaultPermitsPerSecond),
+            parseDoubleEnvVar(key + "_RATE_LIMIT_BURST", defaultBurst),
+            System::nanoTime));
+    }
+
+    RateLimiter(String name, double permitsPerSecond, double burst, LongSupplier nanoClock) {
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.tokens = this.burst;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.pausedUntilNanos = lastRefillNanos;
+
+        logger.info("{} rate limiter initialized - {} permits/s, burst {}", name, permitsPerSecond, this.burst);
+    }
+
+    private static double parseDoubleEnvVar(String envVarName, double defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Wait for a permit. Returns false without taking one if it would not be due before the deadline.
+     */
+    public boolean acquire(SearchDeadline deadline) throws InterruptedException {
+        long waitNanos = reserve(deadline.isBounded() ? TimeUnit.MILLISECONDS.toNanos(deadline.remainingMillis()) : Long.MAX_VALUE);
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Reserve the next permit and return how long the caller must wait for it, or -1 (reserving
+     * nothing) if that wait would exceed maxWaitNanos
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+
+        double tokensAfter = tokens - 1;
+        long waitNanos = Math.max(0, pausedUntilNanos - now);
+        if (tokensAfter < 0) {
+            waitNanos += (long) Math.ceil(-tokensAfter / permitsPerSecond * NANOS_PER_SECOND);
+        }
+        if (waitNanos > maxWaitNanos) {
+            rejectedCount++;
+            return -1;
+        }
+
+        tokens = tokensAfter;
+        acquiredCount++;
+        if (waitNanos > 0) {
+            waitedCount++;
+            totalWaitNanos += waitNanos;
+            this.maxWaitNanos = Math.max(this.maxWaitNanos, waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Stop issuing permits for the given time (a provider's Retry-After). Any burst saved up before the
+     * pause is dropped, so one request probes at the end of the pause and the rest follow at the steady rate.
+     */
+    public synchronized void pauseFor(long millis) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        throttledCount++;
+        long until = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        if (until > pausedUntilNanos) {
+            pausedUntilNanos = until;
+            lastRefillNanos = until;
+            tokens = Math.min(tokens, 1);
+        }
+        logger.warn("{} throttled by provider, pausing permits for {}ms", name, millis);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillNanos) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / NANOS_PER_SECOND);
+            lastRefillNanos = now;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized LimiterStats getStats() {
+        refill(nanoClock.getAsLong());
+        return new LimiterStats(name, permitsPerSecond, burst, tokens, acquiredCount, waitedCount,
+            TimeUnit.NANOSECONDS.toMillis(totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), throttledCount, rejectedCount);
+    }
+
+    /**
+     * Point-in-time snapshot of the bucket. Negative available tokens mean callers are queued.
+     */
+    public static class LimiterStats {
+        private final String name;
+        private final double permitsPerSecond;
+        private final double burst;
+        private final double availableTokens;
+        private final long acquiredCount;
+        private final long waitedCount;
+        private final long totalWaitMs;
+        private final long maxWaitMs;
+        private final long throttledCount;
+        private final long rejectedCount;
+
+        public LimiterStats(String name, double permitsPerSecond, double burst, double availableTokens, long acquiredCount,
+                            long waitedCount, long totalWaitMs, long maxWaitMs, long throttledCount, long rejectedCount) {
+            this.name = name;
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.availableTokens = availableTokens;
+            this.acquiredCount = acquiredCount;
+            this.waitedCount = waitedCount;
+            this.totalWaitMs = totalWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.throttledCount = throttledCount;
+            this.rejectedCount = rejectedCount;
+        }
+
+        public String getName() { return name; }
+        public double getPermitsPerSecond() { return permitsPerSecond; }
+        public double getBurst() { return burst; }
+        public double getAvailableTokens() { return availableTokens; }
+        public long getAcquiredCount() { return acquiredCount; }
+        public long getWaitedCount() { return waitedCount; }
+        public long getTotalWaitMs() { return totalWaitMs; }
+        public long getMaxWaitMs() { return maxWaitMs; }
+        public long getThrottledCount() { return throttledCount; }
+        public long getRejectedCount() { return rejectedCount; }
+
+        public double getAverageWaitMs() {
+            return waitedCount == 0 ? 0.0 : (double) totalWaitMs / waitedCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s tokens=%.1f/%.0f at %.1f/s, acquired=%d, waited=%d (avg %.1fms, max %dms), throttled=%d, rejected=%d",
+                name, availableTokens, burst, permitsPerSecond, acquiredCount, waitedCount, getAverageWaitMs(), maxWaitMs,
+                throttledCount, rejectedCount);
+        }
+    }
+}
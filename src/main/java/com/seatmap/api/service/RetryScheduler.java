@@ -0,0 +1,123 @@
+package com.seatmap.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Retries with jittered exponential backoff, scheduled on a timer instead of sleeping, so no thread is
+ * parked while a provider recovers. The first attempt runs on the calling thread; retries run on the
+ * provider's executor once their delay has passed. The timer thread only hands retries to that
+ * executor and never runs one itself: a retry the executor has no room for fails instead.
+ */
+public class RetryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private static final ScheduledExecutorService RETRY_TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "retry-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String provider;
+    private final ProviderIoExecutor executor;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    private final AtomicLong scheduledCount = new AtomicLong();
+    private final AtomicLong exhaustedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T call() throws Exception;
+    }
+
+    public RetryScheduler(String provider, ProviderIoExecutor executor, long baseDelayMs, long maxDelayMs) {
+        this.provider = provider;
+        this.executor = executor;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = Math.max(baseDelayMs, maxDelayMs);
+    }
+
+    /**
+     * Run attempt up to maxAttempts times. Failures the predicate rejects, the last failure, and a
+     * failure whose retry could not start (before the deadline, or for lack of executor capacity)
+     * complete the future exceptionally with that failure.
+     */
+    public <T> CompletableFuture<T> call(Attempt<T> attempt, int maxAttempts, Predicate<Exception> retryable, SearchDeadline deadline) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        run(attempt, 1, maxAttempts, retryable, deadline, result);
+        return result;
+    }
+
+    private <T> void run(Attempt<T> attempt, int attemptNumber, int maxAttempts, Predicate<Exception> retryable,
+                         SearchDeadline deadline, CompletableFuture<T> result) {
+        try {
+            result.complete(attempt.call());
+            return;
+        } catch (Exception e) {
+            if (!retryable.test(e)) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (attemptNumber >= maxAttempts) {
+                exhaustedCount.incrementAndGet();
+                logger.error("{} request failed after {} attempts", provider, attemptNumber, e);
+                result.completeExceptionally(e);
+                return;
+            }
+            long delayMs = backoffMillis(attemptNumber);
+            if (delayMs >= deadline.remainingMillis()) {
+                logger.warn("{} request failed on attempt {} and the search deadline leaves no time to retry: {}",
+                    provider, attemptNumber, e.getMessage());
+                result.completeExceptionally(e);
+                return;
+            }
+
+            logger.warn("{} request failed on attempt {} of {}, retrying in {}ms: {}",
+                provider, attemptNumber, maxAttempts, delayMs, e.getMessage());
+            scheduledCount.incrementAndGet();
+            RETRY_TIMER.schedule(() -> {
+                try {
+                    executor.executeQueued(() -> run(attempt, attemptNumber + 1, maxAttempts, retryable, deadline, result));
+                } catch (RejectedExecutionException rejected) {
+                    rejectedCount.incrementAndGet();
+                    logger.warn("{} retry after attempt {} dropped: {}", provider, attemptNumber, rejected.getMessage());
+                    e.addSuppressed(rejected);
+                    result.completeExceptionally(e);
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Delay before the retry that follows the given attempt: half of the exponential step fixed and
+     * half random, so callers that failed together do not retry together
+     */
+    long backoffMillis(int attemptNumber) {
+        long step = Math.min(maxDelayMs, baseDelayMs << Math.min(attemptNumber - 1, 30));
+        long half = step / 2;
+        return half + ThreadLocalRandom.current().nextLong(step - half + 1);
+    }
+
+    public long getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    public long getExhaustedCount() {
+        return exhaustedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.seatmap.api.service;
+
+import jakarta.xml.soap.SOAPException;
+
+/**
+ * A SOAP fault or NotProcessed application result returned by Sabre. Faults are answers from the
+ * server rather than transport failures, so they are not retried.
+ */
+public class SabreFaultException extends SOAPException {
+    private final String faultCode;
+    private final String faultString;
+
+    public SabreFaultException(String faultCode, String faultString) {
+        super("Sabre fault " + faultCode + ": " + faultString);
+        this.faultCode = faultCode;
+        this.faultString = faultString;
+    }
+
+    public String getFaultCode() { return faultCode; }
+    public String getFaultString() { return faultString; }
+
+    /**
+     * Whether Sabre rejected the session token, in which case the session must not be reused
+     */
+    public boolean isInvalidSession() {
+        return isInvalidSessionFault(faultCode, faultString);
+    }
+
+    static boolean isInvalidSessionFault(String faultCode, String faultString) {
+        String fault = (faultCode + " " + faultString).toLowerCase();
+        return fault.contains("invalidsecuritytoken") || fault.contains("security token");
+    }
+}
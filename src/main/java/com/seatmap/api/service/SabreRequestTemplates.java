@@ -0,0 +1,147 @@
+package com.seatmap.api.service;
+
+import java.util.Map;
+
+/**
+ * Precompiled Sabre request envelopes, byte-for-byte what the SAAJ builders serialized: the SOAP-ENV
+ * prefix, no XML declaration, attributes in name order and empty elements self-closed. Credentials,
+ * the PCC and the default airline are compiled in once; only per-request values are slots.
+ */
+public class SabreRequestTemplates {
+    private static final String SOAP_ENV = "xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\"";
+    private static final String EB = "xmlns:eb=\"http://www.ebxml.org/namespaces/messageHeader\"";
+    private static final String WSSE = "xmlns:wsse=\"http://schemas.xmlsoap.org/ws/2002/12/secext\"";
+    private static final String WSU = "xmlns:wsu=\"http://schemas.xmlsoap.org/ws/2002/12/utility\"";
+    private static final String N1 = "xmlns:n1=\"http://services.sabre.com/ACS/BSO/airportFlightList/v3\"";
+    private static final String NS8 = "xmlns:ns8=\"http://stl.sabre.com/Merchandising/v8\"";
+
+    private static final String SESSION_TOKEN_HEADER = "<SOAP-ENV:Header>"
+        + "<wsse:Security><wsse:BinarySecurityToken>${token}</wsse:BinarySecurityToken></wsse:Security>"
+        + "</SOAP-ENV:Header>";
+
+    private final SoapRequestTemplate sessionCreate;
+    private final SoapRequestTemplate sessionClose;
+    private final SoapRequestTemplate flightListStart;
+    private final SoapRequestTemplate flightListDepartureDate;
+    private final SoapRequestTemplate flightListDestination;
+    private final SoapRequestTemplate flightListFlightNumber;
+    private final SoapRequestTemplate flightListHours;
+    private final SoapRequestTemplate flightListEnd;
+    private final SoapRequestTemplate seatMap;
+
+    public SabreRequestTemplates(String userId, String password, String organization, String domain, String airline) {
+        Map<String, String> constants = Map.of(
+            "userId", userId, "password", password, "organization", organization, "domain", domain, "airline", airline);
+
+        this.sessionCreate = new SoapRequestTemplate("<SOAP-ENV:Envelope " + SOAP_ENV + " " + EB + " " + WSSE + " " + WSU + ">"
+            + "<SOAP-ENV:Header>"
+            + "<eb:MessageHeader mustUnderstand=\"1\" version=\"1.0\">"
+            + "<eb:From><eb:PartyId type=\"urn:x12.org:IO5:01\">999999</eb:PartyId></eb:From>"
+            + "<eb:To><eb:PartyId type=\"urn:x12.org:IO5:01\">123123</eb:PartyId></eb:To>"
+            + "<eb:CPAId>${organization}</eb:CPAId>"
+            + "<eb:ConversationId>${conversationId}</eb:ConversationId>"
+            + "<eb:Service type=\"OTA\">SessionCreateRQ</eb:Service>"
+            + "<eb:Action>SessionCreateRQ</eb:Action>"
+            + "<eb:MessageData><eb:MessageId>${messageId}</eb:MessageId><eb:Timestamp>${timestamp}</eb:Timestamp></eb:MessageData>"
+            + "</eb:MessageHeader>"
+            + "<wsse:Security><wsse:UsernameToken>"
+            + "<wsse:Username>${userId}</wsse:Username><wsse:Password>${password}</wsse:Password>"
+            + "<Organization>${organization}</Organization><Domain>${domain}</Domain>"
+            + "</wsse:UsernameToken></wsse:Security>"
+            + "</SOAP-ENV:Header>"
+            + "<SOAP-ENV:Body>"
+            + "<SessionCreateRQ returnContextID=\"true\"><POS><Source PseudoCityCode=\"${organization}\"/></POS></SessionCreateRQ>"
+            + "</SOAP-ENV:Body></SOAP-ENV:Envelope>",
+            constants, "conversationId", "messageId", "timestamp");
+
+        this.sessionClose = new SoapRequestTemplate("<SOAP-ENV:Envelope " + SOAP_ENV + " " + EB + " " + WSSE + ">"
+            + "<SOAP-ENV:Header>"
+            + "<eb:MessageHeader mustUnderstand=\"1\" version=\"1.0\">"
+            + "<eb:From><eb:PartyId>999999</eb:PartyId></eb:From>"
+            + "<eb:To><eb:PartyId>123123</eb:PartyId></eb:To>"
+            + "<eb:CPAId>${organization}</eb:CPAId>"
+            + "<eb:ConversationId>${conversationId}</eb:ConversationId>"
+            + "<eb:Service>SessionCloseRQ</eb:Service>"
+            + "<eb:Action>SessionCloseRQ</eb:Action>"
+            + "<eb:MessageData><eb:MessageId>${messageId}</eb:MessageId><eb:Timestamp>${timestamp}</eb:Timestamp></eb:MessageData>"
+            + "</eb:MessageHeader>"
+            + "<wsse:Security><wsse:BinarySecurityToken>${token}</wsse:BinarySecurityToken></wsse:Security>"
+            + "</SOAP-ENV:Header>"
+            + "<SOAP-ENV:Body>"
+            + "<SessionCloseRQ><POS><Source PseudoCityCode=\"${organization}\"/></POS></SessionCloseRQ>"
+            + "</SOAP-ENV:Body></SOAP-ENV:Envelope>",
+            constants, "token", "conversationId", "messageId", "timestamp");
+
+        // ACS_AirportFlightListRQ v3, with the optional FlightInfo elements as separate parts
+        this.flightListStart = new SoapRequestTemplate("<SOAP-ENV:Envelope " + SOAP_ENV + " " + N1 + " " + WSSE + " " + WSU + ">"
+            + SESSION_TOKEN_HEADER
+            + "<SOAP-ENV:Body><n1:ACS_AirportFlightListRQ><n1:FlightInfo>"
+            + "<n1:Airline>${airline}</n1:Airline><n1:Origin>${origin}</n1:Origin>",
+            constants, "token", "origin");
+        this.flightListDepartureDate = new SoapRequestTemplate("<n1:DepartureDate>${value}</n1:DepartureDate>", "value");
+        this.flightListDestination = new SoapRequestTemplate("<n1:Destination>${value}</n1:Destination>", "value");
+        this.flightListFlightNumber = new SoapRequestTemplate("<n1:FlightNumber>${value}</n1:FlightNumber>", "value");
+        this.flightListHours = new SoapRequestTemplate("<n1:HoursFromCurrentTime>${value}</n1:HoursFromCurrentTime>", "value");
+        this.flightListEnd = new SoapRequestTemplate("</n1:FlightInfo><n1:Client>WEB</n1:Client>"
+            + "</n1:ACS_AirportFlightListRQ></SOAP-ENV:Body></SOAP-ENV:Envelope>");
+
+        // EnhancedSeatMapRQ v8
+        this.seatMap = new SoapRequestTemplate("<SOAP-ENV:Envelope " + SOAP_ENV + " " + NS8 + " " + WSSE + " " + WSU + ">"
+            + SESSION_TOKEN_HEADER
+            + "<SOAP-ENV:Body><ns8:EnhancedSeatMapRQ version=\"8\">"
+            + "<ns8:SeatMapQueryEnhanced correlationID=\"${correlationId}\">"
+            + "<ns8:RequestType>Payload</ns8:RequestType>"
+            + "<ns8:Flight destination=\"${destination}\" origin=\"${origin}\">"
+            + "<ns8:DepartureDate>${departureDate}</ns8:DepartureDate>"
+            + "<ns8:Operating carrier=\"${carrier}\">${flightNumber}</ns8:Operating>"
+            + "<ns8:Marketing carrier=\"${carrier}\">${flightNumber}</ns8:Marketing>"
+            + "</ns8:Flight>"
+            + "<ns8:CabinDefinition><ns8:RBD>Y</ns8:RBD></ns8:CabinDefinition>"
+            + "<ns8:Client>WEB</ns8:Client>"
+            + "</ns8:SeatMapQueryEnhanced></ns8:EnhancedSeatMapRQ></SOAP-ENV:Body></SOAP-ENV:Envelope>",
+            "token", "correlationId", "carrier", "flightNumber", "departureDate", "origin", "destination");
+    }
+
+    public byte[] sessionCreate(String conversationId, String messageId, String timestamp) {
+        return sessionCreate.render(conversationId, messageId, timestamp);
+    }
+
+    public byte[] sessionClose(String token, String conversationId, String messageId, String timestamp) {
+        return sessionClose.render(token, conversationId, messageId, timestamp);
+    }
+
+    /**
+     * Flight list request; departureDate, destination, flightNumber and hoursFromCurrentTime are
+     * left out when null
+     */
+    public byte[] flightSchedules(String token, String origin, String departureDate, String destination,
+                                  String flightNumber, String hoursFromCurrentTime) {
+        int length = flightListStart.renderedLength(token, origin) + flightListEnd.getFixedLength()
+            + optionalLength(flightListDepartureDate, departureDate)
+            + optionalLength(flightListDestination, destination)
+            + optionalLength(flightListFlightNumber, flightNumber)
+            + optionalLength(flightListHours, hoursFromCurrentTime);
+
+        byte[] request = new byte[length];
+        int position = flightListStart.renderInto(request, 0, token, origin);
+        position = renderOptional(flightListDepartureDate, departureDate, request, position);
+        position = renderOptional(flightListDestination, destination, request, position);
+        position = renderOptional(flightListFlightNumber, flightNumber, request, position);
+        position = renderOptional(flightListHours, hoursFromCurrentTime, request, position);
+        flightListEnd.renderInto(request, position);
+        return request;
+    }
+
+    public byte[] seatMap(String token, String correlationId, String carrier, String flightNumber,
+                          String departureDate, String origin, String destination) {
+        return seatMap.render(token, correlationId, carrier, flightNumber, departureDate, origin, destination);
+    }
+
+    private static int optionalLength(SoapRequestTemplate template, String value) {
+        return value != null ? template.renderedLength(value) : 0;
+    }
+
+    private static int renderOptional(SoapRequestTemplate template, String value, byte[] request, int position) {
+        return value != null ? template.renderInto(request, position, value) : position;
+    }
+}
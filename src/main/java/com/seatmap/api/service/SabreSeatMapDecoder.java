@@ -0,0 +1,612 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seatmap.api.model.SeatMapData;
+import jakarta.xml.soap.SOAPException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Decodes a Sabre EnhancedSeatMapRS SOAP response straight into SeatMapData with a StAX reader,
+ * reading the body once without building a SAAJ or DOM tree. Each SeatMap is a segment, cabins on
+ * the same deck level share one SeatMapDeck, and seat location, facility and limitation codes are
+ * IATA seat characteristic codes mapped through SeatCharacteristicMapper. SOAP faults and
+ * NotProcessed application results are thrown as SabreFaultException.
+ */
+public class SabreSeatMapDecoder {
+    private static final Logger logger = LoggerFactory.getLogger(SabreSeatMapDecoder.class);
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final SeatMapDiagnostics diagnostics;
+
+    public SabreSeatMapDecoder() {
+        this(SeatMapDiagnostics.disabled("SABRE"));
+    }
+
+    public SabreSeatMapDecoder(SeatMapDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Responses never need a DTD, and external entities must not be resolved
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Decode a SOAP response body stream. The stream is read to the end of the envelope but not closed.
+     */
+    public SeatMapData decode(InputStream body) throws SOAPException {
+        // Sampled conversions keep a copy of the bytes in case the payload needs to be logged
+        ByteArrayOutputStream payloadCopy = diagnostics.shouldCapturePayload() ? new ByteArrayOutputStream() : null;
+        InputStream source = payloadCopy != null ? new CopyingInputStream(body, payloadCopy) : body;
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(source);
+            return decode(reader, payloadCopy != null ? () -> payloadCopy.toString(StandardCharsets.UTF_8) : null);
+        } catch (XMLStreamException e) {
+            throw new SOAPException("Failed to decode Sabre seat map response: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    logger.debug("Failed to close seat map reader: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private SeatMapData decode(XMLStreamReader reader, Supplier<String> capturedPayload) throws XMLStreamException, SOAPException {
+        DecodeState state = new DecodeState();
+        // Envelope, Header, Body and the response element are walked through; only these are read
+        while (reader.hasNext()) {
+            if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "Fault":
+                    readFault(reader);
+                    break;
+                case "ApplicationResults":
+                    readApplicationResults(reader);
+                    break;
+                case "SeatMap":
+                    readSeatMap(reader, state);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (state.stats.getSegmentCount() == 0) {
+            logger.info("No seat map segments found in Sabre response");
+            throw new SabreFaultException("NoSeatMap", "No seat map data available for flight");
+        }
+
+        SeatMapData seatMapData = new SeatMapData();
+        seatMapData.setSource("SABRE");
+        seatMapData.setFlight(state.flightInfo);
+        seatMapData.setAircraft(state.aircraftInfo);
+        seatMapData.setDecks(state.decks);
+        seatMapData.setSeats(state.seats);
+        seatMapData.setSummary(SeatMapData.AvailabilitySummary.of(state.decks, state.seats));
+
+        if (state.totalRows > 0 || state.totalColumns > 0) {
+            SeatMapData.LayoutInfo layout = new SeatMapData.LayoutInfo();
+            layout.setTotalRows(state.totalRows);
+            layout.setTotalColumns(state.totalColumns);
+            layout.setConfiguration(String.format("%dx%d", state.totalRows, state.totalColumns));
+            seatMapData.setLayout(layout);
+        }
+
+        seatMapData.setConversionStats(state.stats);
+        diagnostics.emit(state.stats, capturedPayload);
+        return seatMapData;
+    }
+
+    /**
+     * SOAP 1.1 faultcode/faultstring, or SOAP 1.2 Code/Value and Reason/Text
+     */
+    private void readFault(XMLStreamReader reader) throws XMLStreamException, SabreFaultException {
+        String faultCode = "";
+        String faultString = "";
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (faultCode.isEmpty() && ("faultcode".equals(name) || "Value".equals(name))) {
+                    faultCode = readText(reader);
+                } else if (faultString.isEmpty() && ("faultstring".equals(name) || "Text".equals(name))) {
+                    faultString = readText(reader);
+                } else {
+                    depth++;
+                }
+            }
+        }
+        logger.error("Sabre seat map SOAP fault - Code: {}, Message: {}", faultCode, faultString);
+        throw new SabreFaultException(faultCode, faultString);
+    }
+
+    /**
+     * Throws for a NotProcessed status with the error messages; warnings on processed responses are only logged
+     */
+    private void readApplicationResults(XMLStreamReader reader) throws XMLStreamException, SabreFaultException {
+        String status = attribute(reader, "status");
+        List<String> messages = new ArrayList<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("Message".equals(reader.getLocalName())) {
+                    String message = readText(reader);
+                    if (!message.isEmpty()) {
+                        messages.add(message);
+                    }
+                } else {
+                    depth++;
+                }
+            }
+        }
+
+        if ("NotProcessed".equals(status)) {
+            String faultString = messages.isEmpty() ? "Seat map request not processed" : String.join("; ", messages);
+            logger.error("Sabre seat map request not processed: {}", faultString);
+            throw new SabreFaultException("ApplicationResults.NotProcessed", faultString);
+        }
+        if (!messages.isEmpty()) {
+            logger.warn("Sabre seat map response status {} with messages: {}", status, messages);
+        }
+    }
+
+    private void readSeatMap(XMLStreamReader reader, DecodeState state) throws XMLStreamException {
+        state.stats.recordSegment();
+        String equipment = attribute(reader, "equipment");
+        Map<String, DeckBuilder> segmentDecks = new LinkedHashMap<>();
+        boolean hasCabins = false;
+
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "Flight":
+                    readFlight(reader, state);
+                    break;
+                case "Equipment":
+                    equipment = readText(reader);
+                    break;
+                case "Cabin":
+                    hasCabins = true;
+                    readCabin(reader, state, segmentDecks);
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+
+        if (!hasCabins) {
+            state.stats.recordMissingField("Cabin");
+        }
+        if (state.aircraftInfo == null && !equipment.isEmpty()) {
+            state.aircraftInfo = new SeatMapData.AircraftInfo(equipment, ""); // Sabre doesn't provide aircraft name
+        }
+
+        for (DeckBuilder builder : segmentDecks.values()) {
+            ObjectNode deckConfiguration = NODES.objectNode();
+            deckConfiguration.put("width", builder.width);
+            deckConfiguration.put("length", builder.rowCount);
+            if (builder.firstRow > 0) {
+                deckConfiguration.put("startSeatRow", builder.firstRow);
+                deckConfiguration.put("endSeatRow", builder.lastRow);
+            }
+            builder.deck.setDeckConfiguration(deckConfiguration);
+            builder.deck.setSeats(builder.seats);
+            state.decks.add(builder.deck);
+            state.totalColumns = Math.max(state.totalColumns, builder.width);
+            state.totalRows = Math.max(state.totalRows, builder.rowCount);
+        }
+    }
+
+    private void readFlight(XMLStreamReader reader, DecodeState state) throws XMLStreamException {
+        SeatMapData.FlightInfo.DepartureInfo departure = new SeatMapData.FlightInfo.DepartureInfo();
+        departure.setIataCode(attribute(reader, "origin"));
+        departure.setTerminal("");
+        SeatMapData.FlightInfo.ArrivalInfo arrival = new SeatMapData.FlightInfo.ArrivalInfo();
+        arrival.setIataCode(attribute(reader, "destination"));
+        arrival.setTerminal("");
+
+        String number = "";
+        String carrierCode = "";
+        String departureDate = "";
+        String departureTime = "";
+        String arrivalDate = "";
+        String arrivalTime = "";
+        ObjectNode operating = null;
+
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "Marketing":
+                    carrierCode = attribute(reader, "carrier");
+                    number = readText(reader);
+                    break;
+                case "Operating":
+                    operating = NODES.objectNode();
+                    operating.put("carrierCode", attribute(reader, "carrier"));
+                    readText(reader);
+                    break;
+                case "DepartureDate":
+                    departureDate = readText(reader);
+                    break;
+                case "DepartureTime":
+                    departureTime = readText(reader);
+                    break;
+                case "ArrivalDate":
+                    arrivalDate = readText(reader);
+                    break;
+                case "ArrivalTime":
+                    arrivalTime = readText(reader);
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+
+        // Flight info comes from the first segment with a flight number and carrier
+        if (state.flightInfo == null && !number.isEmpty() && !carrierCode.isEmpty()) {
+            departure.setAt(dateTime(departureDate, departureTime));
+            arrival.setAt(dateTime(arrivalDate, arrivalTime));
+            SeatMapData.FlightInfo flightInfo = new SeatMapData.FlightInfo();
+            flightInfo.setNumber(number);
+            flightInfo.setCarrierCode(carrierCode);
+            flightInfo.setDeparture(departure);
+            flightInfo.setArrival(arrival);
+            flightInfo.setOperating(operating);
+            state.flightInfo = flightInfo;
+        }
+    }
+
+    private void readCabin(XMLStreamReader reader, DecodeState state, Map<String, DeckBuilder> segmentDecks) throws XMLStreamException {
+        String deckType = "true".equals(attribute(reader, "upperDeckInd")) ? "UPPER" : "MAIN";
+        DeckBuilder deck = segmentDecks.get(deckType);
+        if (deck == null) {
+            deck = new DeckBuilder(deckType);
+            segmentDecks.put(deckType, deck);
+            state.stats.recordDeck();
+        }
+
+        String cabin = "";
+        List<String> columns = new ArrayList<>();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "CabinClass":
+                    cabin = cabinName(readChildText(reader, "CabinType"));
+                    break;
+                case "Column":
+                    String column = readChildText(reader, "Column");
+                    if (!column.isEmpty()) {
+                        columns.add(column);
+                    }
+                    break;
+                case "Row":
+                    readRow(reader, state, deck, cabin, columns);
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+        deck.width = Math.max(deck.width, columns.size());
+    }
+
+    private void readRow(XMLStreamReader reader, DecodeState state, DeckBuilder deck, String cabin, List<String> columns) throws XMLStreamException {
+        int rowIndex = deck.rowCount++;
+        String rowNumber = "";
+        int seatIndex = 0;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "RowNumber":
+                    rowNumber = readText(reader);
+                    trackRowNumber(deck, rowNumber);
+                    break;
+                case "Seat":
+                    SeatMapData.Seat seat = readSeat(reader, state, cabin, columns, rowNumber, rowIndex, seatIndex++);
+                    deck.seats.add(seat);
+                    state.seats.add(seat);
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+    }
+
+    private SeatMapData.Seat readSeat(XMLStreamReader reader, DecodeState state, String cabin, List<String> columns,
+                                      String rowNumber, int rowIndex, int seatIndex) throws XMLStreamException {
+        SeatMapData.Seat seat = new SeatMapData.Seat();
+        seat.setCabin(cabin);
+
+        boolean occupied = "true".equals(attribute(reader, "occupiedInd"));
+        boolean inoperative = "true".equals(attribute(reader, "inoperativeInd"));
+        boolean chargeable = "true".equals(attribute(reader, "chargeableInd"));
+        Set<String> codes = new LinkedHashSet<>();
+        if ("true".equals(attribute(reader, "exitRowInd"))) codes.add("E");
+        if ("true".equals(attribute(reader, "premiumInd"))) codes.add("O");
+        if ("true".equals(attribute(reader, "noInfantInd"))) codes.add("1A");
+        if ("true".equals(attribute(reader, "restrictedReclineInd"))) codes.add("1D");
+        if (chargeable) codes.add("CH");
+
+        String letter = "";
+        String occupation = "";
+        SeatMapData.SeatPricing pricing = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "Number":
+                    letter = readText(reader);
+                    break;
+                case "Location":
+                case "Facilities":
+                case "Limitations":
+                    readDetailCodes(reader, codes);
+                    break;
+                case "Occupation":
+                    occupation = readChildText(reader, "Detail");
+                    break;
+                case "Offer":
+                case "Price":
+                    // Pricing comes from the first offer only (single traveler searches)
+                    if (pricing == null) {
+                        pricing = readPrice(reader);
+                    } else {
+                        skip(reader);
+                    }
+                    break;
+                default:
+                    skip(reader);
+            }
+        }
+
+        if (letter.isEmpty()) {
+            state.stats.recordMissingField("Seat.Number");
+        }
+        seat.setNumber(letter.isEmpty() || Character.isDigit(letter.charAt(0)) ? letter : rowNumber + letter);
+
+        int columnIndex = columns.indexOf(letter);
+        ObjectNode coordinates = NODES.objectNode();
+        coordinates.put("x", rowIndex);
+        coordinates.put("y", columnIndex >= 0 ? columnIndex : seatIndex);
+        seat.setCoordinates(coordinates);
+
+        if (inoperative) {
+            seat.setAvailabilityStatus("BLOCKED");
+        } else if (occupied || occupation.contains("Occupied")) {
+            seat.setAvailabilityStatus("OCCUPIED");
+        } else {
+            seat.setAvailabilityStatus("AVAILABLE");
+        }
+
+        List<String> characteristicCodes = new ArrayList<>(codes);
+        seat.setCharacteristicsCodes(characteristicCodes);
+        seat.setCharacteristics(SeatCharacteristicMapper.mapSabreCharacteristics(characteristicCodes));
+        seat.setPricing(pricing);
+
+        state.stats.recordSeat(seat);
+        // Free seats carry no price at all, which is not a gap in the response
+        if (pricing == null && !chargeable) {
+            state.stats.recordIncludedSeat();
+        }
+        return seat;
+    }
+
+    private void readDetailCodes(XMLStreamReader reader, Set<String> codes) throws XMLStreamException {
+        while (nextChild(reader)) {
+            if ("Detail".equals(reader.getLocalName())) {
+                String code = readText(reader);
+                if (!code.isEmpty()) {
+                    codes.add(code);
+                }
+            } else {
+                skip(reader);
+            }
+        }
+    }
+
+    /**
+     * TotalAmount, BaseAmount and Tax anywhere under the current Offer or Price element
+     */
+    private SeatMapData.SeatPricing readPrice(XMLStreamReader reader) throws XMLStreamException {
+        SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+        List<SeatMapData.SeatPricing.Tax> taxes = new ArrayList<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "TotalAmount":
+                        String currency = attribute(reader, "currencyCode");
+                        if (!currency.isEmpty()) {
+                            pricing.setCurrency(currency);
+                        }
+                        pricing.setTotal(readText(reader));
+                        break;
+                    case "BaseAmount":
+                        if (pricing.getCurrency() == null && !attribute(reader, "currencyCode").isEmpty()) {
+                            pricing.setCurrency(attribute(reader, "currencyCode"));
+                        }
+                        pricing.setBase(readText(reader));
+                        break;
+                    case "Tax":
+                        SeatMapData.SeatPricing.Tax tax = new SeatMapData.SeatPricing.Tax();
+                        tax.setCode(attribute(reader, "code"));
+                        tax.setAmount(readText(reader));
+                        taxes.add(tax);
+                        break;
+                    default:
+                        depth++;
+                }
+            }
+        }
+        if (!taxes.isEmpty()) {
+            pricing.setTaxes(taxes);
+        }
+        return pricing;
+    }
+
+    private static void trackRowNumber(DeckBuilder deck, String rowNumber) {
+        try {
+            int row = Integer.parseInt(rowNumber);
+            deck.firstRow = deck.firstRow == 0 ? row : Math.min(deck.firstRow, row);
+            deck.lastRow = Math.max(deck.lastRow, row);
+        } catch (NumberFormatException e) {
+            // Row numbers are only used for the deck's row range
+        }
+    }
+
+    /**
+     * Normalized cabin names, matching the ones Amadeus returns
+     */
+    private static String cabinName(String cabinType) {
+        switch (cabinType) {
+            case "F":
+            case "P":
+                return "FIRST";
+            case "C":
+            case "J":
+                return "BUSINESS";
+            case "W":
+                return "PREMIUM_ECONOMY";
+            case "Y":
+                return "ECONOMY";
+            default:
+                return cabinType.toUpperCase().replace(' ', '_');
+        }
+    }
+
+    private static String dateTime(String date, String time) {
+        if (date.isEmpty() || time.isEmpty()) {
+            return date;
+        }
+        return date + "T" + (time.length() == 5 ? time + ":00" : time);
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value.trim() : "";
+    }
+
+    /**
+     * Advance to the next child element of the current element; false once its end tag is reached
+     */
+    private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Text of the first child element with the given name, or of the element itself if it has no
+     * element children. Consumes the current element.
+     */
+    private static String readChildText(XMLStreamReader reader, String childName) throws XMLStreamException {
+        String value = null;
+        StringBuilder ownText = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (value == null && childName.equals(reader.getLocalName())) {
+                    value = readText(reader);
+                } else {
+                    skip(reader);
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                ownText.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        return value != null ? value : ownText.toString().trim();
+    }
+
+    /**
+     * Trimmed text directly inside the current element; nested elements are skipped. Consumes the element.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                skip(reader);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        return text.toString().trim();
+    }
+
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static final class DeckBuilder {
+        private final SeatMapData.SeatMapDeck deck = new SeatMapData.SeatMapDeck();
+        private final List<SeatMapData.Seat> seats = new ArrayList<>();
+        private int width;
+        private int rowCount;
+        private int firstRow;
+        private int lastRow;
+
+        private DeckBuilder(String deckType) {
+            deck.setDeckType(deckType);
+        }
+    }
+
+    private static final class DecodeState {
+        private final List<SeatMapData.SeatMapDeck> decks = new ArrayList<>();
+        private final List<SeatMapData.Seat> seats = new ArrayList<>();
+        private SeatMapData.FlightInfo flightInfo;
+        private SeatMapData.AircraftInfo aircraftInfo;
+        private final SeatMapData.ConversionStats stats = new SeatMapData.ConversionStats();
+        private int totalRows;
+        private int totalColumns;
+    }
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.seatmap.api.exception.SeatmapApiException;
 import com.seatmap.api.model.FlightSearchResult;
 import com.seatmap.api.model.SeatMapData;
+import com.seatmap.common.cache.TtlLruCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,12 +22,14 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -35,8 +38,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import static java.util.stream.Collectors.toList;
 
@@ -49,17 +55,33 @@ public class SabreService {
     private final String organization;
     private final String domain;
     private final HttpClient httpClient;
+    private final InstrumentedHttpClient transport;
     private final ObjectMapper objectMapper;
-    private final SOAPConnectionFactory soapConnectionFactory;
+    private final SoapHttpTransport soapTransport;
+    private final SabreSeatMapDecoder seatMapDecoder;
+    private final SabreRequestTemplates requestTemplates;
     private final XPath xpath;
+    private final ProviderIoExecutor ioExecutor;
+    private final ProviderIoExecutor sessionExecutor;
+    private final SabreSessionPool sessionPool;
+    private final RetryScheduler retryScheduler;
+    private final RetryScheduler sessionRetryScheduler;
+    private final TtlLruCache<String, JsonNode> scheduleCache;
     
-    private String sessionToken;
-    private long tokenExpiresAt;
     private static final long SESSION_DURATION_MS = 60 * 60 * 1000; // 1 hour
     private static final long TOKEN_REFRESH_BUFFER_MS = 5 * 60 * 1000; // 5 minutes before expiry
     private static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 30;
     private static final int DEFAULT_REQUEST_TIMEOUT_SECONDS = 60;
     private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final int DEFAULT_MAX_CONCURRENCY = 16;
+    private static final int DEFAULT_SOAP_POOL_SIZE = DEFAULT_MAX_CONCURRENCY; // One connection per concurrent seat map call
+    private static final int DEFAULT_SESSION_POOL_SIZE = 8;
+    private static final int DEFAULT_SESSION_IDLE_TIMEOUT_SECONDS = 600; // Below Sabre's 15 minute idle session timeout
+    private static final int DEFAULT_SESSION_CHECKOUT_TIMEOUT_SECONDS = 30;
+    private static final int DEFAULT_RETRY_BASE_DELAY_MS = 1000;
+    private static final int DEFAULT_RETRY_MAX_DELAY_MS = 8000;
+    private static final int DEFAULT_SCHEDULE_CACHE_TTL_SECONDS = 4 * 60 * 60; // Schedules change a few times a day at most
+    private static final int DEFAULT_SCHEDULE_CACHE_MAX_FLIGHTS = 5000;
     
     // Configuration from environment variables
     private final int connectTimeoutSeconds;
@@ -67,9 +89,16 @@ public class SabreService {
     private final int maxRetries;
     
     public SabreService() {
+        this(System.getenv("SABRE_ENDPOINT"));
+    }
+    
+    /**
+     * Service against the given SOAP endpoint, e.g. a local stub; everything else comes from the environment
+     */
+    SabreService(String endpoint) {
         this.userId = System.getenv("SABRE_USER_ID");
         this.password = System.getenv("SABRE_PASSWORD");
-        this.endpoint = System.getenv("SABRE_ENDPOINT");
+        this.endpoint = endpoint;
         this.organization = System.getenv("SABRE_ORGANIZATION") != null ? System.getenv("SABRE_ORGANIZATION") : "1S";
         this.domain = System.getenv("SABRE_DOMAIN") != null ? System.getenv("SABRE_DOMAIN") : "DEFAULT";
         
@@ -82,19 +111,53 @@ public class SabreService {
         this.requestTimeoutSeconds = parseIntEnvVar("SABRE_REQUEST_TIMEOUT_SECONDS", DEFAULT_REQUEST_TIMEOUT_SECONDS);
         this.maxRetries = parseIntEnvVar("SABRE_MAX_RETRIES", DEFAULT_MAX_RETRIES);
         
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
-            .build();
+        // Keep-alive connections reused across SOAP calls instead of a new connection and TLS handshake per call
+        this.transport = InstrumentedHttpClient.create("SABRE", Duration.ofSeconds(connectTimeoutSeconds));
+        this.httpClient = transport;
         this.objectMapper = new ObjectMapper();
         this.xpath = XPathFactory.newInstance().newXPath();
+        this.seatMapDecoder = new SabreSeatMapDecoder(SeatMapDiagnostics.fromEnv("SABRE"));
+        
+        // Credentials and the default airline are compiled into the request templates once
+        String airline = System.getenv("SABRE_DEFAULT_AIRLINE");
+        if (airline == null || airline.trim().isEmpty()) {
+            airline = "U0"; // Default airline code
+        }
+        this.requestTemplates = new SabreRequestTemplates(userId, password, organization, domain, airline);
+        this.ioExecutor = ProviderIoExecutor.forProvider("SABRE", DEFAULT_MAX_CONCURRENCY);
+        this.retryScheduler = new RetryScheduler("SABRE", ioExecutor,
+            parseIntEnvVar("SABRE_RETRY_BASE_DELAY_MS", DEFAULT_RETRY_BASE_DELAY_MS),
+            parseIntEnvVar("SABRE_RETRY_MAX_DELAY_MS", DEFAULT_RETRY_MAX_DELAY_MS));
+        
+        // Sessions are opened and closed off the fan-out executor, so an open (or its retry) never queues
+        // behind fan-out workers that are waiting for the session it would provide
+        this.sessionExecutor = ProviderIoExecutor.forProvider("SABRE_SESSION", DEFAULT_SESSION_POOL_SIZE);
+        this.sessionRetryScheduler = new RetryScheduler("SABRE", sessionExecutor,
+            parseIntEnvVar("SABRE_RETRY_BASE_DELAY_MS", DEFAULT_RETRY_BASE_DELAY_MS),
+            parseIntEnvVar("SABRE_RETRY_MAX_DELAY_MS", DEFAULT_RETRY_MAX_DELAY_MS));
+        
+        // Each concurrent call checks out its own session rather than sharing one token
+        this.sessionPool = new SabreSessionPool("SABRE",
+            parseIntEnvVar("SABRE_SESSION_POOL_SIZE", DEFAULT_SESSION_POOL_SIZE),
+            SESSION_DURATION_MS, TOKEN_REFRESH_BUFFER_MS,
+            parseIntEnvVar("SABRE_SESSION_IDLE_TIMEOUT_SECONDS", DEFAULT_SESSION_IDLE_TIMEOUT_SECONDS) * 1000L,
+            parseIntEnvVar("SABRE_SESSION_CHECKOUT_TIMEOUT_SECONDS", DEFAULT_SESSION_CHECKOUT_TIMEOUT_SECONDS) * 1000L,
+            this::openSession, this::closeSession, sessionExecutor);
+        
+        // Schedule responses keyed by search, weighed by flight count, so searches only pay for seat maps
+        this.scheduleCache = new TtlLruCache<>(
+            parseIntEnvVar("SABRE_SCHEDULE_CACHE_MAX_FLIGHTS", DEFAULT_SCHEDULE_CACHE_MAX_FLIGHTS),
+            parseIntEnvVar("SABRE_SCHEDULE_CACHE_TTL_SECONDS", DEFAULT_SCHEDULE_CACHE_TTL_SECONDS) * 1000L,
+            schedules -> Math.max(1, schedules.path("data").size()));
         
         logger.info("Sabre service initialized with config - Connect timeout: {}s, Request timeout: {}s, Max retries: {}", 
                    connectTimeoutSeconds, requestTimeoutSeconds, maxRetries);
         
         try {
-            this.soapConnectionFactory = SOAPConnectionFactory.newInstance();
+            this.soapTransport = new SoapHttpTransport("SABRE", URI.create(endpoint), httpClient, MessageFactory.newInstance(),
+                parseIntEnvVar("SABRE_SOAP_POOL_SIZE", DEFAULT_SOAP_POOL_SIZE));
         } catch (SOAPException e) {
-            throw new RuntimeException("Failed to initialize SOAP connection factory", e);
+            throw new RuntimeException("Failed to initialize SOAP message factory", e);
         }
     }
     
@@ -111,15 +174,45 @@ public class SabreService {
         }
     }
     
+    /**
+     * In-use and peak connections of the pooled SOAP transport, and time spent waiting for one
+     */
+    public SoapHttpTransport.PoolStats getSoapPoolStats() {
+        return soapTransport.getStats();
+    }
+    
+    /**
+     * Wire versus decoded bytes and connection reuse of the Sabre HTTP client
+     */
+    public InstrumentedHttpClient.TransportStats getTransportStats() {
+        return transport.getStats();
+    }
+    
+    /**
+     * Hit/miss counters and occupancy of the flight schedule cache
+     */
+    public TtlLruCache.CacheStats getScheduleCacheStats() {
+        return scheduleCache.getStats();
+    }
+    
     public JsonNode searchFlightSchedules(String origin, String destination, String departureDate, String travelClass, String flightNumber, Integer maxResults) throws SeatmapApiException {
+        return withGeneratedFields(fetchFlightSchedules(origin, destination, departureDate, flightNumber, maxResults, SearchDeadline.none()));
+    }
+    
+    /**
+     * Schedules as Sabre returned them, without the ids and placeholder times withGeneratedFields adds.
+     * The schedule request carries no cabin, so none is taken here. The session open and the request
+     * are both cut short by the deadline.
+     */
+    JsonNode fetchFlightSchedules(String origin, String destination, String departureDate, String flightNumber, Integer maxResults,
+                                  SearchDeadline deadline) throws SeatmapApiException {
         try {
             // Validate inputs first
             validateInputs(origin, destination, departureDate);
             
-            ensureValidSession();
-            
-            SOAPMessage soapRequest = createFlightSchedulesRequest(origin, destination, departureDate, travelClass, flightNumber, maxResults);
-            SOAPMessage soapResponse = sendSoapRequest(soapRequest);
+            SOAPMessage soapResponse = sendWithSession("ACS_AirportFlightListRQ",
+                token -> createFlightSchedulesRequest(origin, destination, departureDate, flightNumber, maxResults, token),
+                maxRetries, deadline);
             
             return parseFlightSchedulesResponse(soapResponse);
             
@@ -136,14 +229,20 @@ public class SabreService {
      * Search flight schedules with integrated seatmap data
      */
     public List<FlightSearchResult> searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String flightNumber, Integer maxResults) throws SeatmapApiException {
+        return searchFlightsWithSeatmaps(origin, destination, departureDate, travelClass, flightNumber, maxResults, SearchDeadline.none());
+    }
+    
+    /**
+     * Search within a deadline. Flights whose seatmap is still outstanding at the deadline are omitted
+     * and recorded on the deadline.
+     */
+    public List<FlightSearchResult> searchFlightsWithSeatmaps(String origin, String destination, String departureDate, String travelClass, String flightNumber, Integer maxResults, SearchDeadline deadline) throws SeatmapApiException {
         try {
             // Validate inputs first
             validateInputs(origin, destination, departureDate);
             
-            ensureValidSession();
-            
-            // 1. Get flight schedules
-            JsonNode flightSchedules = searchFlightSchedules(origin, destination, departureDate, travelClass, flightNumber, maxResults);
+            // 1. Get flight schedules, from the cache when the same search ran recently
+            JsonNode flightSchedules = getFlightSchedulesCached(origin, destination, departureDate, flightNumber, maxResults, deadline);
             
             if (flightSchedules == null || !flightSchedules.has("data")) {
                 return new ArrayList<>();
@@ -153,12 +252,31 @@ public class SabreService {
             List<JsonNode> flights = new ArrayList<>();
             flightSchedules.get("data").forEach(flights::add);
             
-            List<FlightSearchResult> results = flights.parallelStream()
-                .map(this::buildFlightSearchResult)
-                .filter(Objects::nonNull)  // Only include flights with successful seatmaps
+            // Open the sessions the fan-out needs up front, concurrently, instead of one per call mid-fan-out
+            sessionPool.ensureAvailable(flights.size(), deadline);
+            
+            List<CompletableFuture<FlightSearchResult>> futures = flights.stream()
+                .map(flight -> ioExecutor.supplyAsync(() -> buildFlightSearchResult(flight, deadline)).thenCompose(Function.identity()))
                 .collect(toList());
             
-            logger.info("Successfully processed {} flight schedules with seatmaps from Sabre", results.size());
+            // Each call is capped by the deadline, and so is the wait, which covers calls still queued
+            boolean completed = deadline.awaitAll(futures);
+            List<FlightSearchResult> results = new ArrayList<>();
+            for (int i = 0; i < flights.size(); i++) {
+                CompletableFuture<FlightSearchResult> future = futures.get(i);
+                if (future.isDone() && !future.isCompletedExceptionally()) {
+                    FlightSearchResult result = future.join();
+                    if (result != null) {  // Only include flights with successful seatmaps
+                        results.add(result);
+                    }
+                } else if (!completed) {
+                    logger.warn("Omitting flight {} - seatmap request outstanding at search deadline", flights.get(i).path("id").asText());
+                    deadline.recordTimedOut(flights.get(i).path("id").asText());
+                }
+            }
+            
+            logger.info("Successfully processed {} flight schedules with seatmaps from Sabre, executor: {}, sessions: {}", 
+                results.size(), ioExecutor.getStats(), sessionPool.getStats());
             return results;
             
         } catch (SeatmapApiException e) {
@@ -171,46 +289,120 @@ public class SabreService {
     }
     
     /**
-     * Build FlightSearchResult with integrated seatmap data
-     * Returns null if seatmap fetch fails (flight will be filtered out)
+     * Read-through to fetchFlightSchedules. Only schedules with flights are cached, so an empty or
+     * partial provider response is retried on the next search. The cached tree holds Sabre's answer
+     * only; each search gets its own copy with ids and placeholder times generated.
      */
-    private FlightSearchResult buildFlightSearchResult(JsonNode flight) {
-        try {
-            // Extract flight details for seatmap call
-            String carrierCode = extractCarrierCode(flight);
-            String flightNumber = extractFlightNumber(flight);
-            String departureDate = extractDepartureDate(flight);
-            String origin = extractOrigin(flight);
-            String destination = extractDestination(flight);
-            
-            // Get seatmap data for this flight
-            JsonNode seatMapResponse = getSeatMapFromFlight(carrierCode, flightNumber, departureDate, origin, destination);
-            SeatMapData seatMapData = convertToSeatMapData(seatMapResponse);
-            
-            // Add dataSource field to identify this as SABRE data
-            ObjectNode flightWithDataSource = flight.deepCopy();
-            flightWithDataSource.put("dataSource", "SABRE");
-            
-            return new FlightSearchResult(flightWithDataSource, seatMapData, true, null);
-            
-        } catch (Exception e) {
-            logger.warn("Omitting flight {} - seatmap unavailable: {}", flight.path("id").asText(), e.getMessage());
-            return null; // Filter out flights without seatmaps
+    JsonNode getFlightSchedulesCached(String origin, String destination, String departureDate, String flightNumber, Integer maxResults,
+                                      SearchDeadline deadline) throws SeatmapApiException {
+        String key = scheduleCacheKey(origin, destination, departureDate, flightNumber, maxResults);
+        JsonNode flightSchedules = scheduleCache.get(key);
+        if (flightSchedules != null) {
+            logger.debug("Sabre schedule cache hit for {}", key);
+        } else {
+            flightSchedules = fetchFlightSchedules(origin, destination, departureDate, flightNumber, maxResults, deadline);
+            if (flightSchedules != null && flightSchedules.path("data").size() > 0) {
+                scheduleCache.put(key, flightSchedules);
+            }
         }
+        return withGeneratedFields(flightSchedules);
     }
     
     /**
-     * Convert Sabre seatmap response to SeatMapData model
+     * Normalized the same way as the schedule request, so searches that send the same request share an entry
+     */
+    static String scheduleCacheKey(String origin, String destination, String departureDate, String flightNumber, Integer maxResults) {
+        return String.join("|",
+            normalize(origin).toUpperCase(),
+            normalize(destination).toUpperCase(),
+            normalize(departureDate),
+            normalize(flightNumber),
+            maxResults != null && maxResults > 0 ? String.valueOf(Math.min(maxResults, 24)) : "");
+    }
+    
+    private static String normalize(String value) {
+        return value != null ? value.trim() : "";
+    }
+    
+    /**
+     * Copy of parsed schedules with what Sabre does not supply filled in: a new id per flight, and the
+     * current time for segment times the response lacks (arrival times are never sent)
+     */
+    private JsonNode withGeneratedFields(JsonNode flightSchedules) {
+        if (flightSchedules == null) {
+            return null;
+        }
+        JsonNode copy = flightSchedules.deepCopy();
+        String now = getCurrentTimestamp();
+        for (JsonNode flight : copy.path("data")) {
+            ((ObjectNode) flight).put("id", "sabre_" + UUID.randomUUID().toString().substring(0, 8));
+            for (JsonNode itinerary : flight.path("itineraries")) {
+                for (JsonNode segment : itinerary.path("segments")) {
+                    for (String endpoint : List.of("departure", "arrival")) {
+                        JsonNode point = segment.get(endpoint);
+                        if (point != null && point.isObject() && !point.has("at")) {
+                            ((ObjectNode) point).put("at", now);
+                        }
+                    }
+                }
+            }
+        }
+        return copy;
+    }
+    
+    /**
+     * Build FlightSearchResult with integrated seatmap data. Completes with null if the seatmap fetch
+     * fails (flight will be filtered out); retries wait on a timer, not on this thread.
+     */
+    private CompletableFuture<FlightSearchResult> buildFlightSearchResult(JsonNode flight, SearchDeadline deadline) {
+        String flightId = flight.path("id").asText();
+        // Still queued when the deadline passed: skip the call rather than start it
+        if (deadline.isExpired()) {
+            deadline.recordTimedOut(flightId);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // Extract flight details for seatmap call
+        String carrierCode = extractCarrierCode(flight);
+        String flightNumber = extractFlightNumber(flight);
+        String departureDate = extractDepartureDate(flight);
+        String origin = extractOrigin(flight);
+        String destination = extractDestination(flight);
+        
+        return getSeatMapDataAsync(carrierCode, flightNumber, departureDate, origin, destination, deadline)
+            .handle((seatMapData, e) -> {
+                if (e != null) {
+                    if (deadline.isExpired()) {
+                        deadline.recordTimedOut(flightId);
+                    }
+                    logger.warn("Omitting flight {} - seatmap unavailable: {}", flightId, unwrap(e).getMessage());
+                    return null; // Filter out flights without seatmaps
+                }
+                
+                // Add dataSource field to identify this as SABRE data
+                ObjectNode flightWithDataSource = FlightSearchResult.withDataSource(flight, "SABRE");
+                
+                return new FlightSearchResult(flightWithDataSource, seatMapData, true, null);
+            });
+    }
+    
+    /**
+     * Convert the JSON form returned by getSeatMapFromFlight back to the SeatMapData model.
+     * Anything that isn't that form converts to an empty SeatMapData.
      */
     public SeatMapData convertToSeatMapData(JsonNode seatMapResponse) {
-        // For now, return a basic SeatMapData with the source marked as SABRE
-        // This will be enhanced to properly parse the Sabre seatmap response
-        SeatMapData seatMapData = new SeatMapData();
+        SeatMapData seatMapData = null;
+        if (seatMapResponse != null && seatMapResponse.isObject()) {
+            try {
+                seatMapData = objectMapper.treeToValue(seatMapResponse, SeatMapData.class);
+            } catch (Exception e) {
+                logger.warn("Sabre seat map JSON does not match SeatMapData, returning empty SeatMapData: {}", e.getMessage());
+            }
+        }
+        if (seatMapData == null) {
+            seatMapData = new SeatMapData();
+        }
         seatMapData.setSource("SABRE");
-        
-        // TODO: Implement proper conversion from Sabre seatmap JSON to SeatMapData model
-        // This would involve parsing decks, seats, aircraft info, etc. from the response
-        
         return seatMapData;
     }
     
@@ -273,7 +465,36 @@ public class SabreService {
         return "XXX";
     }
     
+    /**
+     * Seat map as JSON, the serialized form of getSeatMapDataFromFlight
+     */
     public JsonNode getSeatMapFromFlight(String carrierCode, String flightNumber, String departureDate, String origin, String destination) throws SeatmapApiException {
+        return objectMapper.valueToTree(getSeatMapDataFromFlight(carrierCode, flightNumber, departureDate, origin, destination));
+    }
+    
+    public SeatMapData getSeatMapDataFromFlight(String carrierCode, String flightNumber, String departureDate, String origin, String destination) throws SeatmapApiException {
+        return getSeatMapDataFromFlight(carrierCode, flightNumber, departureDate, origin, destination, SearchDeadline.none());
+    }
+    
+    /**
+     * Fetch a seat map and decode the EnhancedSeatMapRS as it streams in, without building a SAAJ message
+     */
+    SeatMapData getSeatMapDataFromFlight(String carrierCode, String flightNumber, String departureDate, String origin, String destination, SearchDeadline deadline) throws SeatmapApiException {
+        try {
+            return await(getSeatMapDataAsync(carrierCode, flightNumber, departureDate, origin, destination, deadline));
+        } catch (SabreFaultException e) {
+            throw new SeatmapApiException("Sabre seat map error: " + e.getFaultString(), e);
+        } catch (SOAPException e) {
+            logger.error("Error calling Sabre Seat Map API", e);
+            throw new SeatmapApiException("Network error calling Sabre Seat Map API: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Seat map fetch that completes when the response is decoded. Checking out a session may block;
+     * waiting between retries does not.
+     */
+    CompletableFuture<SeatMapData> getSeatMapDataAsync(String carrierCode, String flightNumber, String departureDate, String origin, String destination, SearchDeadline deadline) {
         try {
             // Validate inputs
             validateInputs(origin, destination, departureDate);
@@ -284,28 +505,65 @@ public class SabreService {
                 throw new SeatmapApiException("Flight number is required");
             }
             
-            ensureValidSession();
-            
-            SOAPMessage soapRequest = createSeatMapRequest(carrierCode, flightNumber, departureDate, origin, destination);
-            SOAPMessage soapResponse = sendSoapRequest(soapRequest);
-            
-            return parseSeatMapResponse(soapResponse);
+            return sendWithSessionAsync("EnhancedSeatMapRQ",
+                token -> createSeatMapRequest(carrierCode, flightNumber, departureDate, origin, destination, token),
+                maxRetries, deadline, (headers, body) -> seatMapDecoder.decode(body));
             
         } catch (SeatmapApiException e) {
-            // Re-throw our own exceptions
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error calling Sabre Seat Map API", e);
-            throw new SeatmapApiException("Network error calling Sabre Seat Map API: " + e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
     
-    private void ensureValidSession() throws SeatmapApiException {
-        long currentTime = System.currentTimeMillis();
-        if (sessionToken == null || currentTime >= (tokenExpiresAt - TOKEN_REFRESH_BUFFER_MS)) {
-            logger.info("Session token is null or expiring soon, authenticating...");
-            authenticateSession();
+    /**
+     * Builds a request carrying the given session token
+     */
+    @FunctionalInterface
+    private interface SessionRequestBuilder {
+        byte[] build(String sessionToken);
+    }
+    
+    /**
+     * Send a request on a pooled session, waiting for the response
+     */
+    private SOAPMessage sendWithSession(String operation, SessionRequestBuilder requestBuilder, int retries, SearchDeadline deadline) throws SOAPException, SeatmapApiException {
+        return await(sendWithSessionAsync(operation, requestBuilder, retries, deadline, soapTransport.messageReader()));
+    }
+    
+    /**
+     * Send a request on a pooled session and read the response with the given reader. Each attempt
+     * checks out a session and returns it when its response is read, so no session is held while a
+     * retry waits for its delay. Sessions Sabre rejects are dropped instead of returned, whether the
+     * reader reports the fault as SabreFaultException or returns the fault message.
+     */
+    private <T> CompletableFuture<T> sendWithSessionAsync(String operation, SessionRequestBuilder requestBuilder, int retries, SearchDeadline deadline,
+                                                          SoapHttpTransport.ResponseReader<T> reader) {
+        CircuitBreaker breaker = CircuitBreaker.forEndpoint("SABRE", operation);
+        return retryScheduler.call(() -> {
+            SabreSessionPool.Session session = sessionPool.checkout(deadline);
+            boolean rejected = false;
+            try {
+                T response = callSoap(breaker, operation, requestBuilder.build(session.getToken()), deadline, reader);
+                rejected = response instanceof SOAPMessage && isInvalidSessionFault((SOAPMessage) response);
+                return response;
+            } catch (SabreFaultException e) {
+                rejected = e.isInvalidSession();
+                throw e;
+            } finally {
+                if (rejected) {
+                    sessionPool.invalidate(session);
+                } else {
+                    sessionPool.release(session);
+                }
+            }
+        }, retries, SabreService::isRetryable, deadline);
+    }
+    
+    private boolean isInvalidSessionFault(SOAPMessage response) throws SOAPException {
+        SOAPBody body = response.getSOAPBody();
+        if (body == null || !body.hasFault()) {
+            return false;
         }
+        return SabreFaultException.isInvalidSessionFault(body.getFault().getFaultCode(), body.getFault().getFaultString());
     }
     
     private void validateInputs(String origin, String destination, String departureDate) throws SeatmapApiException {
@@ -335,133 +593,92 @@ public class SabreService {
         }
     }
     
-    private synchronized void authenticateSession() throws SeatmapApiException {
-        // Double-check locking pattern to avoid unnecessary authentication
-        long currentTime = System.currentTimeMillis();
-        if (sessionToken != null && currentTime < (tokenExpiresAt - TOKEN_REFRESH_BUFFER_MS)) {
-            return; // Session is still valid
-        }
-        
+    /**
+     * Open a Sabre session (SessionCreateRQ) within the deadline and return its BinarySecurityToken
+     */
+    private String openSession(SearchDeadline deadline) throws SeatmapApiException {
         logger.info("Authenticating with Sabre API...");
         
         try {
-            SOAPMessage authRequest = createAuthenticationRequest();
-            SOAPMessage authResponse = sendSoapRequestWithRetry(authRequest, 2); // Fewer retries for auth
+            byte[] authRequest = createAuthenticationRequest();
+            SOAPMessage authResponse = sendSessionRequest("SessionCreateRQ", authRequest, 2, deadline); // Fewer retries for auth
             
-            parseAuthenticationResponse(authResponse);
-            
-            logger.info("Successfully authenticated with Sabre API. Token expires at: {}", 
-                       new java.util.Date(tokenExpiresAt));
+            String token = parseAuthenticationResponse(authResponse);
+            logger.info("Successfully authenticated with Sabre API");
+            return token;
             
         } catch (SeatmapApiException e) {
-            // Clear any invalid token
-            sessionToken = null;
-            tokenExpiresAt = 0;
             throw e;
         } catch (Exception e) {
-            // Clear any invalid token
-            sessionToken = null;
-            tokenExpiresAt = 0;
             logger.error("Failed to authenticate with Sabre API", e);
             throw new SeatmapApiException("Authentication failed with Sabre API: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Check if the current session token is valid and not expired
+     * Close a Sabre session (SessionCloseRQ) so it stops counting against the PCC's session limit
+     */
+    private void closeSession(String token) throws SeatmapApiException {
+        try {
+            SOAPMessage response = sendSessionRequest("SessionCloseRQ", createSessionCloseRequest(token), 1, SearchDeadline.none());
+            if (response.getSOAPBody() != null && response.getSOAPBody().hasFault()) {
+                logger.debug("Sabre session close returned a fault: {}", response.getSOAPBody().getFault().getFaultString());
+            }
+        } catch (SOAPException e) {
+            throw new SeatmapApiException("Failed to close Sabre session: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Check if the pool holds a session that is valid and not close to expiry
      */
     public boolean isSessionValid() {
-        return sessionToken != null && System.currentTimeMillis() < (tokenExpiresAt - TOKEN_REFRESH_BUFFER_MS);
+        return sessionPool.hasValidSession();
     }
     
     /**
-     * Manually refresh the session token
+     * Close pooled sessions and authenticate a fresh one
      */
     public void refreshSession() throws SeatmapApiException {
-        logger.info("Manually refreshing Sabre session...");
-        sessionToken = null; // Force re-authentication
-        tokenExpiresAt = 0;
-        authenticateSession();
+        logger.info("Manually refreshing Sabre sessions...");
+        sessionPool.retireAll();
+        sessionPool.release(sessionPool.checkout(SearchDeadline.none()));
     }
     
     /**
-     * Get session token expiration time
+     * Latest expiration time of the pooled sessions, or 0 if none are open
      */
     public long getSessionExpirationTime() {
-        return tokenExpiresAt;
+        return sessionPool.getLatestExpiry();
     }
     
-    private SOAPMessage createAuthenticationRequest() throws SOAPException {
-        MessageFactory messageFactory = MessageFactory.newInstance();
-        SOAPMessage soapMessage = messageFactory.createMessage();
-        SOAPPart soapPart = soapMessage.getSOAPPart();
-        
-        SOAPEnvelope envelope = soapPart.getEnvelope();
-        
-        // Add required namespaces for Sabre authentication
-        envelope.addNamespaceDeclaration("eb", "http://www.ebxml.org/namespaces/messageHeader");
-        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
-        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
-        
-        // Create SOAP Header with MessageHeader and Security
-        SOAPHeader header = envelope.getHeader();
-        
-        // MessageHeader
-        SOAPElement messageHeader = header.addChildElement("MessageHeader", "eb");
-        messageHeader.addAttribute(envelope.createName("mustUnderstand"), "1");
-        messageHeader.addAttribute(envelope.createName("version"), "1.0");
-        
-        // From element
-        SOAPElement from = messageHeader.addChildElement("From", "eb");
-        SOAPElement fromPartyId = from.addChildElement("PartyId", "eb");
-        fromPartyId.addAttribute(envelope.createName("type"), "urn:x12.org:IO5:01");
-        fromPartyId.addTextNode("999999");
-        
-        // To element
-        SOAPElement to = messageHeader.addChildElement("To", "eb");
-        SOAPElement toPartyId = to.addChildElement("PartyId", "eb");
-        toPartyId.addAttribute(envelope.createName("type"), "urn:x12.org:IO5:01");
-        toPartyId.addTextNode("123123");
-        
-        // Other MessageHeader elements
-        messageHeader.addChildElement("CPAId", "eb").addTextNode(organization);
-        messageHeader.addChildElement("ConversationId", "eb").addTextNode(generateConversationId());
-        
-        SOAPElement service = messageHeader.addChildElement("Service", "eb");
-        service.addAttribute(envelope.createName("type"), "OTA");
-        service.addTextNode("SessionCreateRQ");
-        
-        messageHeader.addChildElement("Action", "eb").addTextNode("SessionCreateRQ");
-        
-        // MessageData
-        SOAPElement messageData = messageHeader.addChildElement("MessageData", "eb");
-        messageData.addChildElement("MessageId", "eb").addTextNode(generateMessageId());
-        messageData.addChildElement("Timestamp", "eb").addTextNode(getCurrentTimestamp());
-        
-        // Security element with UsernameToken
-        SOAPElement security = header.addChildElement("Security", "wsse");
-        SOAPElement usernameToken = security.addChildElement("UsernameToken", "wsse");
-        usernameToken.addChildElement("Username", "wsse").addTextNode(userId);
-        usernameToken.addChildElement("Password", "wsse").addTextNode(password);
-        
-        // Organization and Domain without namespace prefix
-        SOAPElement orgElement = usernameToken.addChildElement("Organization");
-        orgElement.addTextNode(organization);
-        SOAPElement domainElement = usernameToken.addChildElement("Domain");
-        domainElement.addTextNode(domain);
-        
-        // SOAP Body
-        SOAPBody body = envelope.getBody();
-        SOAPElement sessionCreate = body.addChildElement("SessionCreateRQ");
-        sessionCreate.addAttribute(envelope.createName("returnContextID"), "true");
-        
-        // POS element
-        SOAPElement pos = sessionCreate.addChildElement("POS");
-        SOAPElement source = pos.addChildElement("Source");
-        source.addAttribute(envelope.createName("PseudoCityCode"), organization);
-        
-        soapMessage.saveChanges();
-        return soapMessage;
+    /**
+     * Idle and in-use sessions and session lifecycle counters
+     */
+    public SabreSessionPool.SessionPoolStats getSessionPoolStats() {
+        return sessionPool.getStats();
+    }
+
+    /**
+     * State and counters of the circuit breaker for a Sabre operation, e.g. EnhancedSeatMapRQ
+     */
+    public CircuitBreaker.BreakerStats getCircuitBreakerStats(String operation) {
+        return CircuitBreaker.forEndpoint("SABRE", operation).getStats();
+    }
+
+    /**
+     * Concurrency and queue depth of the Sabre I/O executor
+     */
+    public ProviderIoExecutor.ExecutorStats getIoExecutorStats() {
+        return ioExecutor.getStats();
+    }
+    
+    private byte[] createAuthenticationRequest() {
+        return requestTemplates.sessionCreate(generateConversationId(), generateMessageId(), getCurrentTimestamp());
+    }
+    
+    private byte[] createSessionCloseRequest(String sessionToken) {
+        return requestTemplates.sessionClose(sessionToken, generateConversationId(), generateMessageId(), getCurrentTimestamp());
     }
     
     private String generateConversationId() {
@@ -476,73 +693,13 @@ public class SabreService {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'"));
     }
     
-    private SOAPMessage createFlightSchedulesRequest(String origin, String destination, String departureDate, String travelClass, String flightNumber, Integer maxResults) throws SOAPException {
-        MessageFactory messageFactory = MessageFactory.newInstance();
-        SOAPMessage soapMessage = messageFactory.createMessage();
-        SOAPPart soapPart = soapMessage.getSOAPPart();
-        
-        SOAPEnvelope envelope = soapPart.getEnvelope();
-        
-        // Add required namespaces for v3.0.0
-        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
-        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
-        envelope.addNamespaceDeclaration("n1", "http://services.sabre.com/ACS/BSO/airportFlightList/v3");
-        
-        // Add session header with BinarySecurityToken
-        SOAPHeader header = envelope.getHeader();
-        SOAPElement security = header.addChildElement("Security", "wsse");
-        SOAPElement binaryToken = security.addChildElement("BinarySecurityToken", "wsse");
-        binaryToken.addTextNode(sessionToken);
-        
-        // SOAP Body with proper ACS_AirportFlightListRQ v3.0.0 format
-        SOAPBody body = envelope.getBody();
-        SOAPElement flightSchedulesRQ = body.addChildElement("ACS_AirportFlightListRQ", "n1");
-        
-        // FlightInfo element
-        SOAPElement flightInfo = flightSchedulesRQ.addChildElement("FlightInfo", "n1");
-        
-        // Add airline code - get from environment or use default
-        SOAPElement airline = flightInfo.addChildElement("Airline", "n1");
-        String airlineCode = System.getenv("SABRE_DEFAULT_AIRLINE");
-        if (airlineCode == null || airlineCode.trim().isEmpty()) {
-            airlineCode = "U0"; // Default airline code
-        }
-        airline.addTextNode(airlineCode);
-        
-        // Add origin airport
-        SOAPElement originElement = flightInfo.addChildElement("Origin", "n1");
-        originElement.addTextNode(origin.trim().toUpperCase());
-        
-        // Add departure date if provided
-        if (departureDate != null && !departureDate.trim().isEmpty()) {
-            SOAPElement depDate = flightInfo.addChildElement("DepartureDate", "n1");
-            depDate.addTextNode(departureDate);
-        }
-        
-        // Add destination if provided
-        if (destination != null && !destination.trim().isEmpty()) {
-            SOAPElement destinationElement = flightInfo.addChildElement("Destination", "n1");
-            destinationElement.addTextNode(destination.trim().toUpperCase());
-        }
-        
-        // Add flight number if provided
-        if (flightNumber != null && !flightNumber.trim().isEmpty()) {
-            SOAPElement flightNum = flightInfo.addChildElement("FlightNumber", "n1");
-            flightNum.addTextNode(flightNumber.trim());
-        }
-        
-        // Add departure time range if needed
-        if (maxResults != null && maxResults > 0) {
-            SOAPElement hoursFromCurrent = flightInfo.addChildElement("HoursFromCurrentTime", "n1");
-            hoursFromCurrent.addTextNode(String.valueOf(Math.min(maxResults, 24))); // Limit to 24 hours
-        }
-        
-        // Add client type
-        SOAPElement client = flightSchedulesRQ.addChildElement("Client", "n1");
-        client.addTextNode("WEB");
-        
-        soapMessage.saveChanges();
-        return soapMessage;
+    private byte[] createFlightSchedulesRequest(String origin, String destination, String departureDate, String flightNumber, Integer maxResults, String sessionToken) {
+        return requestTemplates.flightSchedules(sessionToken,
+            origin.trim().toUpperCase(),
+            departureDate != null && !departureDate.trim().isEmpty() ? departureDate : null,
+            destination != null && !destination.trim().isEmpty() ? destination.trim().toUpperCase() : null,
+            flightNumber != null && !flightNumber.trim().isEmpty() ? flightNumber.trim() : null,
+            maxResults != null && maxResults > 0 ? String.valueOf(Math.min(maxResults, 24)) : null); // Limit to 24 hours
     }
     
     private String mapTravelClassToSabre(String travelClass) {
@@ -556,142 +713,116 @@ public class SabreService {
         }
     }
     
-    private SOAPMessage createSeatMapRequest(String carrierCode, String flightNumber, String departureDate, String origin, String destination) throws SOAPException {
-        MessageFactory messageFactory = MessageFactory.newInstance();
-        SOAPMessage soapMessage = messageFactory.createMessage();
-        SOAPPart soapPart = soapMessage.getSOAPPart();
-        
-        SOAPEnvelope envelope = soapPart.getEnvelope();
-        
-        // Add required namespaces for v8.0.0
-        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
-        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
-        envelope.addNamespaceDeclaration("ns8", "http://stl.sabre.com/Merchandising/v8");
-        
-        // Add session header with BinarySecurityToken
-        SOAPHeader header = envelope.getHeader();
-        SOAPElement security = header.addChildElement("Security", "wsse");
-        SOAPElement binaryToken = security.addChildElement("BinarySecurityToken", "wsse");
-        binaryToken.addTextNode(sessionToken);
-        
-        // SOAP Body with EnhancedSeatMapRQ v8.0.0
-        SOAPBody body = envelope.getBody();
-        SOAPElement seatMapRQ = body.addChildElement("EnhancedSeatMapRQ", "ns8");
-        seatMapRQ.addAttribute(envelope.createName("version"), "8");
-        
-        // SeatMapQueryEnhanced with v8.0.0 structure
-        SOAPElement seatMapQuery = seatMapRQ.addChildElement("SeatMapQueryEnhanced", "ns8");
-        seatMapQuery.addAttribute(envelope.createName("correlationID"), generateCorrelationId());
-        
-        // RequestType
-        seatMapQuery.addChildElement("RequestType", "ns8").addTextNode("Payload");
-        
-        // Flight element with enhanced attributes
-        SOAPElement flight = seatMapQuery.addChildElement("Flight", "ns8");
-        flight.addAttribute(envelope.createName("destination"), destination.trim().toUpperCase());
-        flight.addAttribute(envelope.createName("origin"), origin.trim().toUpperCase());
-        
-        // DepartureDate in YYYY-MM-DD format
-        flight.addChildElement("DepartureDate", "ns8").addTextNode(departureDate);
-        
-        // Operating carrier
-        SOAPElement operating = flight.addChildElement("Operating", "ns8");
-        operating.addAttribute(envelope.createName("carrier"), carrierCode.trim().toUpperCase());
-        operating.addTextNode(flightNumber.trim());
-        
-        // Marketing carrier (same as operating for most cases)
-        SOAPElement marketing = flight.addChildElement("Marketing", "ns8");
-        marketing.addAttribute(envelope.createName("carrier"), carrierCode.trim().toUpperCase());
-        marketing.addTextNode(flightNumber.trim());
-        
-        // Add CabinDefinition for v8.0.0
-        SOAPElement cabinDefinition = seatMapQuery.addChildElement("CabinDefinition", "ns8");
-        SOAPElement rbd = cabinDefinition.addChildElement("RBD", "ns8");
-        rbd.addTextNode("Y"); // Default to economy class
-        
-        // Add Client type
-        SOAPElement client = seatMapQuery.addChildElement("Client", "ns8");
-        client.addTextNode("WEB");
-        
-        soapMessage.saveChanges();
-        return soapMessage;
+    private byte[] createSeatMapRequest(String carrierCode, String flightNumber, String departureDate, String origin, String destination, String sessionToken) {
+        return requestTemplates.seatMap(sessionToken, generateCorrelationId(),
+            carrierCode.trim().toUpperCase(), flightNumber.trim(), departureDate,
+            origin.trim().toUpperCase(), destination.trim().toUpperCase());
     }
     
     private String generateCorrelationId() {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
     }
     
-    private SOAPMessage sendSoapRequest(SOAPMessage request) throws SOAPException, SeatmapApiException {
-        return sendSoapRequestWithRetry(request, maxRetries);
+    /**
+     * Send a session lifecycle request (no session token) within the deadline, retrying on the session executor
+     */
+    private SOAPMessage sendSessionRequest(String operation, byte[] request, int maxRetries, SearchDeadline deadline) throws SOAPException, SeatmapApiException {
+        CircuitBreaker breaker = CircuitBreaker.forEndpoint("SABRE", operation);
+        SOAPMessage response = await(sessionRetryScheduler.call(
+            () -> callSoap(breaker, operation, request, deadline, soapTransport.messageReader()),
+            maxRetries, SabreService::isRetryable, deadline));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Received SOAP response:");
+            logSoapMessage(response);
+        }
+        return response;
     }
     
-    private SOAPMessage sendSoapRequestWithRetry(SOAPMessage request, int maxRetries) throws SOAPException, SeatmapApiException {
-        SOAPException lastException = null;
-        
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            SOAPConnection soapConnection = null;
-            
-            try {
-                soapConnection = soapConnectionFactory.createConnection();
-                
-                // Log the request for debugging (only on first attempt to avoid spam)
-                if (attempt == 1 && logger.isDebugEnabled()) {
-                    logger.debug("Sending SOAP request to: {} (attempt {})", endpoint, attempt);
-                    logSoapMessage(request);
-                }
-                
-                long startTime = System.currentTimeMillis();
-                SOAPMessage response = soapConnection.call(request, endpoint);
-                long duration = System.currentTimeMillis() - startTime;
-                
-                logger.debug("SOAP request completed in {}ms (attempt {})", duration, attempt);
-                
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Received SOAP response:");
-                    logSoapMessage(response);
-                }
-                
-                return response;
-                
-            } catch (SOAPException e) {
-                lastException = e;
-                logger.warn("SOAP request failed on attempt {} of {}: {}", attempt, maxRetries, e.getMessage());
-                
-                // Don't retry on authentication errors
-                if (e.getMessage() != null && e.getMessage().toLowerCase().contains("authentication")) {
-                    throw new SeatmapApiException("Authentication failed: " + e.getMessage(), e);
-                }
-                
-                // Wait before retry (exponential backoff)
-                if (attempt < maxRetries) {
-                    try {
-                        long waitTime = (long) Math.pow(2, attempt - 1) * 1000; // 1s, 2s, 4s...
-                        logger.debug("Waiting {}ms before retry", waitTime);
-                        Thread.sleep(waitTime);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new SeatmapApiException("Request interrupted during retry", ie);
-                    }
-                }
-                
-            } finally {
-                if (soapConnection != null) {
-                    try {
-                        soapConnection.close();
-                    } catch (SOAPException e) {
-                        logger.warn("Error closing SOAP connection: {}", e.getMessage());
-                    }
-                }
+    /**
+     * One SOAP attempt, read with the given reader. Faults the reader reports are answers from Sabre
+     * and count as breaker successes; while the operation's circuit breaker is open the attempt fails
+     * fast with CircuitOpenException.
+     */
+    private <T> T callSoap(CircuitBreaker breaker, String operation, byte[] request, SearchDeadline deadline,
+                           SoapHttpTransport.ResponseReader<T> reader) throws SOAPException, IOException, InterruptedException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Sending SOAP request to: {}", endpoint);
+            logger.debug("SOAP Message: {}", new String(request, StandardCharsets.UTF_8));
+        }
+        Duration requestBudget = Duration.ofSeconds(requestTimeoutSeconds);
+        boolean cappedByDeadline = deadline.limitsRequestTimeout(requestBudget);
+        breaker.acquire();
+        long startTime = System.currentTimeMillis();
+        try {
+            T response = soapTransport.call(request, deadline.requestTimeout(requestBudget), reader);
+            breaker.onSuccess();
+            logger.debug("SOAP {} completed in {}ms", operation, System.currentTimeMillis() - startTime);
+            return response;
+        } catch (SabreFaultException e) {
+            // Sabre answered, so the endpoint is healthy
+            breaker.onSuccess();
+            throw e;
+        } catch (SOAPException e) {
+            // A timeout the deadline imposed says nothing about Sabre
+            if (cappedByDeadline && e.getCause() instanceof HttpTimeoutException) {
+                breaker.onIgnored();
+            } else {
+                breaker.onFailure();
             }
+            throw e;
+        }
+    }
+    
+    /**
+     * Transport failures are retried; faults, authentication errors and open circuits are not
+     */
+    private static boolean isRetryable(Exception e) {
+        return e instanceof SOAPException && !(e instanceof SabreFaultException) && !isAuthenticationError(e);
+    }
+    
+    private static boolean isAuthenticationError(Throwable e) {
+        return e.getMessage() != null && e.getMessage().toLowerCase().contains("authentication");
+    }
+    
+    /**
+     * Wait for an async SOAP call, rethrowing Sabre faults as they are and anything else as SeatmapApiException
+     */
+    private static <T> T await(CompletableFuture<T> future) throws SOAPException, SeatmapApiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SeatmapApiException("SOAP request interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof SabreFaultException) {
+                throw (SabreFaultException) cause;
+            }
+            if (cause instanceof SeatmapApiException) {
+                throw (SeatmapApiException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new SeatmapApiException("SOAP request interrupted", cause);
+            }
+            if (cause instanceof SOAPException && isAuthenticationError(cause)) {
+                throw new SeatmapApiException("Authentication failed: " + cause.getMessage(), cause);
+            }
+            if (cause instanceof CircuitOpenException) {
+                throw new SeatmapApiException(cause.getMessage(), cause);
+            }
+            throw new SeatmapApiException("SOAP request failed: " + cause.getMessage(), cause);
         }
-        
-        // All retries failed
-        String errorMsg = String.format("SOAP request failed after %d attempts", maxRetries);
-        logger.error(errorMsg, lastException);
-        throw new SeatmapApiException(errorMsg, lastException);
     }
     
-    private void parseAuthenticationResponse(SOAPMessage response) throws SOAPException, SeatmapApiException {
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+    
+    private String parseAuthenticationResponse(SOAPMessage response) throws SOAPException, SeatmapApiException {
         SOAPBody body = response.getSOAPBody();
         
         if (body.hasFault()) {
@@ -717,10 +848,8 @@ public class SabreService {
                 Node tokenNode = tokenNodes.item(0);
                 String token = tokenNode.getTextContent();
                 if (token != null && !token.trim().isEmpty()) {
-                    this.sessionToken = token.trim();
-                    this.tokenExpiresAt = System.currentTimeMillis() + SESSION_DURATION_MS;
                     logger.info("Successfully extracted Sabre session token");
-                    return;
+                    return token.trim();
                 }
             }
             
@@ -800,7 +929,7 @@ public class SabreService {
         try {
             ObjectNode flight = objectMapper.createObjectNode();
             flight.put("type", "flight-offer");
-            flight.put("id", "sabre_" + UUID.randomUUID().toString().substring(0, 8));
+            flight.putNull("id"); // Generated per search by withGeneratedFields
             flight.put("dataSource", "SABRE");
             flight.put("source", "GDS");
             flight.put("instantTicketingRequired", false);
@@ -841,8 +970,6 @@ public class SabreService {
                 // Combine date and time
                 String fullDepartureTime = departureDate + "T" + convertToISOTime(departureTime);
                 departure.put("at", fullDepartureTime);
-            } else {
-                departure.put("at", getCurrentTimestamp());
             }
             segment.set("departure", departure);
             
@@ -852,8 +979,7 @@ public class SabreService {
                 arrival.put("iataCode", arrivalCode);
             }
             
-            // For arrival time, estimate based on departure + flight duration (placeholder)
-            arrival.put("at", getCurrentTimestamp());
+            // No arrival time in the response; withGeneratedFields fills in a placeholder per search
             segment.set("arrival", arrival);
             
             // Flight details - get flight number from Flight element
@@ -905,24 +1031,6 @@ public class SabreService {
         }
     }
     
-    private String getElementAttribute(Element parent, String elementName, String attributeName) {
-        NodeList elements = parent.getElementsByTagName(elementName);
-        if (elements.getLength() > 0) {
-            Element element = (Element) elements.item(0);
-            if (attributeName.isEmpty()) {
-                return element.getTextContent();
-            } else {
-                return element.getAttribute(attributeName);
-            }
-        }
-        return null;
-    }
-    
-    private java.util.Optional<String> getElementAttributeOptional(Element parent, String elementName, String attributeName) {
-        String value = getElementAttribute(parent, elementName, attributeName);
-        return value != null ? java.util.Optional.of(value) : java.util.Optional.empty();
-    }
-    
     private String getElementTextContent(Element parent, String elementName) {
         NodeList elements = parent.getElementsByTagName(elementName);
         if (elements.getLength() > 0) {
@@ -974,221 +1082,6 @@ public class SabreService {
         }
     }
     
-    private JsonNode parseSeatMapResponse(SOAPMessage response) throws SOAPException, SeatmapApiException {
-        SOAPBody body = response.getSOAPBody();
-        
-        if (body.hasFault()) {
-            SOAPFault fault = body.getFault();
-            String faultCode = fault.getFaultCode();
-            String faultString = fault.getFaultString();
-            logger.error("Sabre seat map SOAP fault - Code: {}, Message: {}", faultCode, faultString);
-            throw new SeatmapApiException("Sabre seat map error: " + faultString);
-        }
-        
-        try {
-            Document doc = body.getOwnerDocument();
-            
-            ObjectNode result = objectMapper.createObjectNode();
-            result.put("success", true);
-            
-            // Look for seat map data in the v8.0.0 response format
-            NodeList seatMapNodes = doc.getElementsByTagName("EnhancedSeatMapRS");
-            if (seatMapNodes.getLength() == 0) {
-                // Look for SeatMap element directly within EnhancedSeatMapRS
-                seatMapNodes = doc.getElementsByTagName("SeatMap");
-            }
-            
-            if (seatMapNodes.getLength() > 0) {
-                ObjectNode seatMapData = parseSeatMapData(seatMapNodes.item(0));
-                result.set("data", seatMapData);
-            } else {
-                // Create minimal response structure if no detailed seat map found
-                ObjectNode seatMapData = objectMapper.createObjectNode();
-                seatMapData.put("type", "seatmap");
-                seatMapData.put("source", "SABRE");
-                seatMapData.put("carrierCode", "XX");
-                seatMapData.put("flightNumber", "000");
-                
-                // Add basic deck structure
-                ObjectNode deck = objectMapper.createObjectNode();
-                deck.put("deckType", "MAIN");
-                
-                ObjectNode deckConfig = objectMapper.createObjectNode();
-                deckConfig.put("width", 6);
-                deckConfig.put("length", 30);
-                deck.set("deckConfiguration", deckConfig);
-                
-                ArrayNode facilities = objectMapper.createArrayNode();
-                deck.set("facilities", facilities);
-                
-                seatMapData.set("deck", deck);
-                result.set("data", seatMapData);
-                
-                logger.warn("No detailed seat map data found in Sabre response, returning basic structure");
-                if (logger.isDebugEnabled()) {
-                    logSoapMessage(response);
-                }
-            }
-            
-            return result;
-            
-        } catch (Exception e) {
-            logger.error("Error parsing Sabre seat map response", e);
-            throw new SeatmapApiException("Failed to parse seat map response: " + e.getMessage(), e);
-        }
-    }
-    
-    private ObjectNode parseSeatMapData(Node seatMapNode) {
-        ObjectNode seatMapData = objectMapper.createObjectNode();
-        seatMapData.put("type", "seatmap");
-        seatMapData.put("source", "SABRE");
-        
-        try {
-            Element seatMapElement = (Element) seatMapNode;
-            
-            // Extract flight information
-            String carrierCode = getElementAttribute(seatMapElement, "Carrier", "Code");
-            if (carrierCode == null) carrierCode = "XX";
-            seatMapData.put("carrierCode", carrierCode);
-            
-            String flightNumber = getElementAttributeOptional(seatMapElement, "FlightNumber", "")
-                    .orElse("000");
-            seatMapData.put("flightNumber", flightNumber);
-            
-            // Extract departure/arrival information
-            ObjectNode departure = objectMapper.createObjectNode();
-            String departureCode = getElementAttribute(seatMapElement, "DepartureAirport", "LocationCode");
-            if (departureCode != null) {
-                departure.put("iataCode", departureCode);
-                seatMapData.set("departure", departure);
-            }
-            
-            ObjectNode arrival = objectMapper.createObjectNode();
-            String arrivalCode = getElementAttribute(seatMapElement, "ArrivalAirport", "LocationCode");
-            if (arrivalCode != null) {
-                arrival.put("iataCode", arrivalCode);
-                seatMapData.set("arrival", arrival);
-            }
-            
-            // Parse cabin/deck information
-            NodeList cabins = seatMapElement.getElementsByTagName("CabinClass");
-            if (cabins.getLength() == 0) {
-                cabins = seatMapElement.getElementsByTagName("Cabin");
-            }
-            
-            if (cabins.getLength() > 0) {
-                ObjectNode deck = parseCabinInfo(cabins.item(0));
-                seatMapData.set("deck", deck);
-            } else {
-                // Create basic deck structure
-                ObjectNode deck = objectMapper.createObjectNode();
-                deck.put("deckType", "MAIN");
-                
-                ObjectNode deckConfig = objectMapper.createObjectNode();
-                deckConfig.put("width", 6);
-                deckConfig.put("length", 30);
-                deck.set("deckConfiguration", deckConfig);
-                
-                ArrayNode facilities = objectMapper.createArrayNode();
-                deck.set("facilities", facilities);
-                
-                seatMapData.set("deck", deck);
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error parsing seat map data details", e);
-        }
-        
-        return seatMapData;
-    }
-    
-    private ObjectNode parseCabinInfo(Node cabinNode) {
-        ObjectNode deck = objectMapper.createObjectNode();
-        deck.put("deckType", "MAIN");
-        
-        try {
-            Element cabinElement = (Element) cabinNode;
-            
-            // Extract cabin configuration
-            ObjectNode deckConfig = objectMapper.createObjectNode();
-            deckConfig.put("width", 6); // Default values
-            deckConfig.put("length", 30);
-            deck.set("deckConfiguration", deckConfig);
-            
-            // Parse seats/facilities
-            ArrayNode facilities = objectMapper.createArrayNode();
-            NodeList seats = cabinElement.getElementsByTagName("Seat");
-            
-            for (int i = 0; i < seats.getLength() && i < 50; i++) { // Limit to 50 seats to avoid huge responses
-                Node seatNode = seats.item(i);
-                ObjectNode facility = parseSeatInfo(seatNode, i);
-                if (facility != null) {
-                    facilities.add(facility);
-                }
-            }
-            
-            deck.set("facilities", facilities);
-            
-        } catch (Exception e) {
-            logger.error("Error parsing cabin information", e);
-        }
-        
-        return deck;
-    }
-    
-    private ObjectNode parseSeatInfo(Node seatNode, int index) {
-        try {
-            ObjectNode facility = objectMapper.createObjectNode();
-            Element seatElement = (Element) seatNode;
-            
-            // Seat identifier
-            String seatId = seatElement.getAttribute("SeatNumber");
-            if (seatId == null || seatId.isEmpty()) {
-                seatId = String.valueOf(index + 1) + "A"; // Generate basic seat ID
-            }
-            facility.put("code", seatId);
-            facility.put("type", "SEAT");
-            
-            // Coordinates (simplified)
-            ObjectNode coordinates = objectMapper.createObjectNode();
-            coordinates.put("x", (index % 6) + 1);
-            coordinates.put("y", (index / 6) + 1);
-            facility.set("coordinates", coordinates);
-            
-            // Traveler pricing (basic structure)
-            ArrayNode travelerPricing = objectMapper.createArrayNode();
-            ObjectNode pricing = objectMapper.createObjectNode();
-            pricing.put("travelerId", "1");
-            pricing.put("seatAvailabilityStatus", "AVAILABLE");
-            
-            ObjectNode price = objectMapper.createObjectNode();
-            price.put("currency", "USD");
-            price.put("total", "0.00");
-            price.put("base", "0.00");
-            pricing.set("price", price);
-            
-            travelerPricing.add(pricing);
-            facility.set("travelerPricing", travelerPricing);
-            
-            // Characteristics
-            ArrayNode characteristics = objectMapper.createArrayNode();
-            // Add basic characteristics based on seat position
-            if ((index % 6) == 0 || (index % 6) == 5) {
-                characteristics.add("W"); // Window
-            }
-            if ((index % 3) == 1) {
-                characteristics.add("A"); // Aisle
-            }
-            facility.set("characteristicsCodes", characteristics);
-            
-            return facility;
-            
-        } catch (Exception e) {
-            logger.error("Error parsing seat information for index {}", index, e);
-            return null;
-        }
-    }
-    
     private String extractTextFromSoapBody(SOAPBody body) {
         try {
             StringWriter writer = new StringWriter();
@@ -0,0 +1,467 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.exception.SeatmapApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Pool of provider sessions (Sabre BinarySecurityTokens), so concurrent calls each check out their
+ * own session instead of sharing one. Sessions are opened on demand up to maxSize, or ahead of a
+ * fan-out with ensureAvailable. On checkout, idle sessions close to expiry are replaced in the
+ * background and sessions idle past idleTimeoutMs are closed. Sessions the provider rejects are
+ * invalidated by the caller and never reused.
+ */
+public class SabreSessionPool {
+    private static final Logger logger = LoggerFactory.getLogger(SabreSessionPool.class);
+
+    /**
+     * Opens a session within the deadline of the search waiting for it and returns its token
+     */
+    @FunctionalInterface
+    public interface SessionOpener {
+        String open(SearchDeadline deadline) throws SeatmapApiException;
+    }
+
+    /**
+     * Closes a session with the provider (best effort)
+     */
+    @FunctionalInterface
+    public interface SessionCloser {
+        void close(String token) throws SeatmapApiException;
+    }
+
+    /**
+     * A session checked out of the pool. Must be returned with release or invalidate.
+     */
+    public static final class Session {
+        private final String token;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final long generation;
+        private long lastUsedAt; // Guarded by the pool lock
+
+        private Session(String token, long openedAt, long expiresAt, long refreshAt, long generation) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+            this.generation = generation;
+            this.lastUsedAt = openedAt;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private final String provider;
+    private final int maxSize;
+    private final long sessionDurationMs;
+    private final long refreshBufferMs;
+    private final long idleTimeoutMs;
+    private final long maxCheckoutWaitMs;
+    private final SessionOpener opener;
+    private final SessionCloser closer;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final Object lock = new Object();
+    private final Deque<Session> idle = new ArrayDeque<>(); // Most recently used first; guarded by lock
+    private final Set<Session> checkedOut = Collections.newSetFromMap(new IdentityHashMap<>()); // Guarded by lock
+    private int openingCount; // Guarded by lock
+    private long generation; // Guarded by lock; sessions from older generations are closed on release
+
+    private final AtomicLong openedCount = new AtomicLong();
+    private final AtomicLong closedCount = new AtomicLong();
+    private final AtomicLong replacedCount = new AtomicLong();
+    private final AtomicLong idleClosedCount = new AtomicLong();
+    private final AtomicLong invalidatedCount = new AtomicLong();
+    private final AtomicLong openFailureCount = new AtomicLong();
+    private final AtomicLong checkoutCount = new AtomicLong();
+    private final AtomicLong waitedCheckoutCount = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * @param refreshBufferMs replace idle sessions this long before they expire
+     * @param idleTimeoutMs close sessions unused for this long
+     * @param maxCheckoutWaitMs longest a checkout waits for a free session when there is no deadline
+     */
+    public SabreSessionPool(String provider, int maxSize, long sessionDurationMs, long refreshBufferMs, long idleTimeoutMs,
+                            long maxCheckoutWaitMs, SessionOpener opener, SessionCloser closer, Executor executor) {
+        this(provider, maxSize, sessionDurationMs, refreshBufferMs, idleTimeoutMs, maxCheckoutWaitMs, opener, closer, executor,
+            System::currentTimeMillis);
+    }
+
+    SabreSessionPool(String provider, int maxSize, long sessionDurationMs, long refreshBufferMs, long idleTimeoutMs,
+                     long maxCheckoutWaitMs, SessionOpener opener, SessionCloser closer, Executor executor, LongSupplier clock) {
+        this.provider = provider;
+        this.maxSize = maxSize;
+        this.sessionDurationMs = sessionDurationMs;
+        this.refreshBufferMs = refreshBufferMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxCheckoutWaitMs = maxCheckoutWaitMs;
+        this.opener = opener;
+        this.closer = closer;
+        this.executor = executor;
+        this.clock = clock;
+
+        logger.info("{} session pool initialized - Max size: {}, Idle timeout: {}ms", provider, maxSize, idleTimeoutMs);
+    }
+
+    /**
+     * Check out an idle session, opening one within the deadline if the pool is below maxSize.
+     * Otherwise waits for a release until the deadline (or maxCheckoutWaitMs without one).
+     */
+    public Session checkout(SearchDeadline deadline) throws SeatmapApiException {
+        long start = clock.getAsLong();
+        long waitUntil = start + Math.min(maxCheckoutWaitMs, deadline.remainingMillis());
+        List<Session> retired = new ArrayList<>();
+        int replacements = 0;
+        Session session = null;
+        boolean waited = false;
+        long openGeneration;
+
+        try {
+            synchronized (lock) {
+                while (true) {
+                    long now = clock.getAsLong();
+                    replacements += retireStale(now, retired);
+                    session = idle.pollFirst();
+                    if (session != null) {
+                        checkedOut.add(session);
+                        break;
+                    }
+                    if (size() < maxSize) {
+                        openingCount++;
+                        break;
+                    }
+                    long remaining = waitUntil - now;
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SeatmapApiException(provider + " session pool exhausted: all " + maxSize + " sessions in use");
+                    }
+                    waited = true;
+                    try {
+                        lock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SeatmapApiException("Interrupted waiting for a " + provider + " session", e);
+                    }
+                }
+                openGeneration = generation;
+            }
+        } finally {
+            closeAll(retired);
+            openInBackground(replacements);
+        }
+
+        checkoutCount.incrementAndGet();
+        if (waited) {
+            waitedCheckoutCount.incrementAndGet();
+            totalWaitMs.addAndGet(clock.getAsLong() - start);
+        }
+        if (session != null) {
+            return session;
+        }
+
+        session = open(openGeneration, deadline);
+        synchronized (lock) {
+            openingCount--;
+            checkedOut.add(session);
+        }
+        return session;
+    }
+
+    /**
+     * Return a session after use
+     */
+    public void release(Session session) {
+        boolean retire;
+        synchronized (lock) {
+            if (!checkedOut.remove(session)) {
+                return;
+            }
+            long now = clock.getAsLong();
+            session.lastUsedAt = now;
+            retire = session.generation != generation || now >= session.refreshAt;
+            if (!retire) {
+                idle.addFirst(session);
+            }
+            lock.notifyAll();
+        }
+        if (retire) {
+            closeAll(List.of(session));
+        }
+    }
+
+    /**
+     * Drop a session the provider rejected (e.g. an invalid or expired security token)
+     */
+    public void invalidate(Session session) {
+        synchronized (lock) {
+            if (!checkedOut.remove(session)) {
+                return;
+            }
+            lock.notifyAll();
+        }
+        invalidatedCount.incrementAndGet();
+        logger.warn("{} session invalidated, it will not be reused", provider);
+        closeAll(List.of(session));
+    }
+
+    /**
+     * Open sessions concurrently until min(count, maxSize) are idle or being opened, within and
+     * waiting for them until the deadline. Used before a fan-out so its calls do not each authenticate.
+     * Failures are logged; checkout opens sessions on demand anyway.
+     */
+    public void ensureAvailable(int count, SearchDeadline deadline) {
+        List<Session> retired = new ArrayList<>();
+        int replacements;
+        int toOpen;
+        long openGeneration;
+        synchronized (lock) {
+            replacements = retireStale(clock.getAsLong(), retired);
+            int target = Math.min(count, maxSize - checkedOut.size());
+            toOpen = Math.max(0, target - idle.size() - openingCount);
+            openingCount += toOpen;
+            openGeneration = generation;
+        }
+        closeAll(retired);
+        openInBackground(replacements);
+        if (toOpen == 0) {
+            return;
+        }
+
+        logger.info("Opening {} {} sessions ahead of fan-out", toOpen, provider);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < toOpen; i++) {
+            futures.add(CompletableFuture.runAsync(() -> openIntoIdle(openGeneration, deadline), executor));
+        }
+        deadline.awaitAll(futures);
+    }
+
+    /**
+     * Close all idle sessions now, and checked-out ones when they are released
+     */
+    public void retireAll() {
+        List<Session> retired;
+        synchronized (lock) {
+            generation++;
+            retired = new ArrayList<>(idle);
+            idle.clear();
+        }
+        closeAll(retired);
+    }
+
+    /**
+     * True if the pool holds at least one session that is not close to expiry
+     */
+    public boolean hasValidSession() {
+        long now = clock.getAsLong();
+        synchronized (lock) {
+            for (Session session : idle) {
+                if (now < session.refreshAt) {
+                    return true;
+                }
+            }
+            for (Session session : checkedOut) {
+                if (now < session.refreshAt) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Latest expiry of any pooled session, or 0 if the pool is empty
+     */
+    public long getLatestExpiry() {
+        long latest = 0;
+        synchronized (lock) {
+            for (Session session : idle) {
+                latest = Math.max(latest, session.expiresAt);
+            }
+            for (Session session : checkedOut) {
+                latest = Math.max(latest, session.expiresAt);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Move idle sessions near expiry or idle too long into retired. Caller holds the lock. Returns how
+     * many replacement slots were reserved (counted in openingCount) for openInBackground.
+     */
+    private int retireStale(long now, List<Session> retired) {
+        int expiring = 0;
+        for (Iterator<Session> it = idle.iterator(); it.hasNext(); ) {
+            Session session = it.next();
+            if (now >= session.refreshAt) {
+                it.remove();
+                retired.add(session);
+                expiring++;
+            } else if (now - session.lastUsedAt >= idleTimeoutMs) {
+                it.remove();
+                retired.add(session);
+                idleClosedCount.incrementAndGet();
+            }
+        }
+        int replacements = Math.min(expiring, maxSize - size());
+        openingCount += replacements;
+        replacedCount.addAndGet(replacements);
+        return replacements;
+    }
+
+    private void openInBackground(int count) {
+        long openGeneration;
+        synchronized (lock) {
+            openGeneration = generation;
+        }
+        for (int i = 0; i < count; i++) {
+            // Replacements serve later searches, so no search deadline applies
+            executor.execute(() -> openIntoIdle(openGeneration, SearchDeadline.none()));
+        }
+    }
+
+    private void openIntoIdle(long openGeneration, SearchDeadline deadline) {
+        Session session;
+        try {
+            session = open(openGeneration, deadline);
+        } catch (SeatmapApiException e) {
+            logger.warn("Failed to open {} session in advance: {}", provider, e.getMessage());
+            return;
+        }
+        synchronized (lock) {
+            openingCount--;
+            idle.addFirst(session);
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Open a session for a slot already counted in openingCount. On failure the slot is freed.
+     */
+    private Session open(long openGeneration, SearchDeadline deadline) throws SeatmapApiException {
+        try {
+            String token = opener.open(deadline);
+            long now = clock.getAsLong();
+            long expiresAt = now + sessionDurationMs;
+            openedCount.incrementAndGet();
+            return new Session(token, now, expiresAt, expiresAt - refreshBufferMs, openGeneration);
+        } catch (SeatmapApiException | RuntimeException e) {
+            openFailureCount.incrementAndGet();
+            synchronized (lock) {
+                openingCount--;
+                lock.notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private void closeAll(List<Session> sessions) {
+        for (Session session : sessions) {
+            closedCount.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    closer.close(session.token);
+                } catch (Exception e) {
+                    logger.debug("Failed to close {} session: {}", provider, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private int size() {
+        return idle.size() + checkedOut.size() + openingCount;
+    }
+
+    public SessionPoolStats getStats() {
+        synchronized (lock) {
+            return new SessionPoolStats(provider, maxSize, idle.size(), checkedOut.size(), openingCount,
+                openedCount.get(), closedCount.get(), replacedCount.get(), idleClosedCount.get(), invalidatedCount.get(),
+                openFailureCount.get(), checkoutCount.get(), waitedCheckoutCount.get(), totalWaitMs.get(), timeoutCount.get());
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of pool occupancy and session lifecycle counters
+     */
+    public static class SessionPoolStats {
+        private final String provider;
+        private final int maxSize;
+        private final int idleCount;
+        private final int inUseCount;
+        private final int openingCount;
+        private final long openedCount;
+        private final long closedCount;
+        private final long replacedCount;
+        private final long idleClosedCount;
+        private final long invalidatedCount;
+        private final long openFailureCount;
+        private final long checkoutCount;
+        private final long waitedCheckoutCount;
+        private final long totalWaitMs;
+        private final long timeoutCount;
+
+        public SessionPoolStats(String provider, int maxSize, int idleCount, int inUseCount, int openingCount,
+                                long openedCount, long closedCount, long replacedCount, long idleClosedCount, long invalidatedCount,
+                                long openFailureCount, long checkoutCount, long waitedCheckoutCount, long totalWaitMs, long timeoutCount) {
+            this.provider = provider;
+            this.maxSize = maxSize;
+            this.idleCount = idleCount;
+            this.inUseCount = inUseCount;
+            this.openingCount = openingCount;
+            this.openedCount = openedCount;
+            this.closedCount = closedCount;
+            this.replacedCount = replacedCount;
+            this.idleClosedCount = idleClosedCount;
+            this.invalidatedCount = invalidatedCount;
+            this.openFailureCount = openFailureCount;
+            this.checkoutCount = checkoutCount;
+            this.waitedCheckoutCount = waitedCheckoutCount;
+            this.totalWaitMs = totalWaitMs;
+            this.timeoutCount = timeoutCount;
+        }
+
+        public String getProvider() { return provider; }
+        public int getMaxSize() { return maxSize; }
+        public int getIdleCount() { return idleCount; }
+        public int getInUseCount() { return inUseCount; }
+        public int getOpeningCount() { return openingCount; }
+        public long getOpenedCount() { return openedCount; }
+        public long getClosedCount() { return closedCount; }
+        public long getReplacedCount() { return replacedCount; }
+        public long getIdleClosedCount() { return idleClosedCount; }
+        public long getInvalidatedCount() { return invalidatedCount; }
+        public long getOpenFailureCount() { return openFailureCount; }
+        public long getCheckoutCount() { return checkoutCount; }
+        public long getWaitedCheckoutCount() { return waitedCheckoutCount; }
+        public long getTotalWaitMs() { return totalWaitMs; }
+        public long getTimeoutCount() { return timeoutCount; }
+
+        @Override
+        public String toString() {
+            return String.format("%s idle=%d, inUse=%d/%d, opening=%d, opened=%d, closed=%d (replaced=%d, idle=%d, invalidated=%d), openFailures=%d, checkouts=%d, waited=%d (total %dms), timeouts=%d",
+                provider, idleCount, inUseCount, maxSize, openingCount, openedCount, closedCount, replacedCount, idleClosedCount,
+                invalidatedCount, openFailureCount, checkoutCount, waitedCheckoutCount, totalWaitMs, timeoutCount);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.seatmap.api.service;
+
+/**
+ * Opaque pagination cursor pointing at a position within a cached flight search result set.
+ * Encoded as a SearchPositionToken of the search ID and offset so clients treat it as a token.
+ */
+public final class SearchCursor {
+    private final String searchId;
+    private final int offset;
+
+    public SearchCursor(String searchId, int offset) {
+        this.searchId = searchId;
+        this.offset = offset;
+    }
+
+    public String getSearchId() {
+        return searchId;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public String encode() {
+        return SearchPositionToken.encode(searchId, offset);
+    }
+
+    /**
+     * Decode a cursor token. Throws IllegalArgumentException if the token is malformed.
+     */
+    public static SearchCursor decode(String token) {
+        SearchPositionToken decoded = SearchPositionToken.decode(token, "Cursor");
+        return new SearchCursor(decoded.getSearchId(), decoded.getPosition());
+    }
+}
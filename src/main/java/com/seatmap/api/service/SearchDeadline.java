@@ -0,0 +1,160 @@
+package com.seatmap.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Time budget for one search request, derived from the Lambda's remaining execution time.
+ * Provider calls size their request timeouts from it, and offers dropped because the budget
+ * ran out are recorded here so the response can list them.
+ */
+public class SearchDeadline {
+    private static final Logger logger = LoggerFactory.getLogger(SearchDeadline.class);
+
+    private static final long DEFAULT_RESERVE_MS = 3000; // Left over for serializing and returning the response
+    private static final long MIN_REQUEST_TIMEOUT_MS = 1;
+
+    private final long deadlineMillis;
+    private final LongSupplier clock;
+    private final Set<String> timedOutOfferIds;
+
+    SearchDeadline(long deadlineMillis, LongSupplier clock) {
+        this(deadlineMillis, clock, new LinkedHashSet<>());
+    }
+
+    private SearchDeadline(long deadlineMillis, LongSupplier clock, Set<String> timedOutOfferIds) {
+        this.deadlineMillis = deadlineMillis;
+        this.clock = clock;
+        this.timedOutOfferIds = timedOutOfferIds;
+    }
+
+    /**
+     * No deadline: calls are bounded only by their own per-request timeouts
+     */
+    public static SearchDeadline none() {
+        return new SearchDeadline(Long.MAX_VALUE, System::currentTimeMillis);
+    }
+
+    /**
+     * Deadline a reserve (FLIGHT_SEARCH_DEADLINE_RESERVE_MS, default 3000) before the invocation times out.
+     * A non-positive remaining time means it is unknown, and no deadline is applied.
+     */
+    public static SearchDeadline fromRemainingTime(long remainingMillis) {
+        if (remainingMillis <= 0) {
+            return none();
+        }
+        long reserveMillis = parseLongEnvVar("FLIGHT_SEARCH_DEADLINE_RESERVE_MS", DEFAULT_RESERVE_MS);
+        return after(Math.max(0, remainingMillis - Math.min(reserveMillis, remainingMillis / 2)));
+    }
+
+    public static SearchDeadline after(long budgetMillis) {
+        return new SearchDeadline(System.currentTimeMillis() + budgetMillis, System::currentTimeMillis);
+    }
+
+    private static long parseLongEnvVar(String envVarName, long defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            return parsed >= 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Deadline for one provider: this deadline, or budgetMillis from now if that is sooner. Offers the
+     * provider times out are recorded on this deadline too.
+     */
+    public SearchDeadline withBudget(long budgetMillis) {
+        long now = clock.getAsLong();
+        long budgetDeadline = budgetMillis >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + budgetMillis;
+        return new SearchDeadline(Math.min(deadlineMillis, budgetDeadline), clock, timedOutOfferIds);
+    }
+
+    public boolean isBounded() {
+        return deadlineMillis != Long.MAX_VALUE;
+    }
+
+    public long remainingMillis() {
+        return isBounded() ? Math.max(0, deadlineMillis - clock.getAsLong()) : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return isBounded() && clock.getAsLong() >= deadlineMillis;
+    }
+
+    /**
+     * Timeout for one provider call: the per-request budget, cut short by the deadline
+     */
+    public Duration requestTimeout(Duration perRequestBudget) {
+        if (!isBounded()) {
+            return perRequestBudget;
+        }
+        return Duration.ofMillis(Math.max(MIN_REQUEST_TIMEOUT_MS, Math.min(perRequestBudget.toMillis(), remainingMillis())));
+    }
+
+    /**
+     * Whether requestTimeout would cut this per-request budget short, in which case a timeout of that
+     * request is the deadline's doing rather than the provider's
+     */
+    public boolean limitsRequestTimeout(Duration perRequestBudget) {
+        return isBounded() && remainingMillis() < perRequestBudget.toMillis();
+    }
+
+    /**
+     * Wait for all futures until the deadline. Returns false if the deadline passed first, in which
+     * case the unfinished futures are cancelled so their results are discarded.
+     */
+    public boolean awaitAll(List<? extends CompletableFuture<?>> futures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        try {
+            if (isBounded()) {
+                all.get(remainingMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                all.get();
+            }
+            return true;
+        } catch (ExecutionException | CancellationException e) {
+            // Individual failures are handled by the caller through each future
+            return true;
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            return false;
+        }
+    }
+
+    public void recordTimedOut(String offerId) {
+        synchronized (timedOutOfferIds) {
+            timedOutOfferIds.add(offerId);
+        }
+    }
+
+    /**
+     * Offers omitted from the results because the deadline or their request timeout was reached
+     */
+    public List<String> getTimedOutOfferIds() {
+        synchronized (timedOutOfferIds) {
+            return new ArrayList<>(timedOutOfferIds);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.seatmap.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position within a cached flight search result set, as carried by cursors and seatmap handles.
+ * Encoded as URL-safe base64 of "searchId:position" so clients treat it as a token.
+ */
+final class SearchPositionToken {
+    private static final String SEPARATOR = ":";
+
+    private final String searchId;
+    private final int position;
+
+    private SearchPositionToken(String searchId, int position) {
+        this.searchId = searchId;
+        this.position = position;
+    }
+
+    String getSearchId() {
+        return searchId;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    static String encode(String searchId, int position) {
+        String raw = searchId + SEPARATOR + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token, naming it as kind in errors. Throws IllegalArgumentException if the token is malformed.
+     */
+    static SearchPositionToken decode(String token, String kind) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException(kind + " is empty");
+        }
+
+        String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        int separatorIndex = raw.lastIndexOf(SEPARATOR);
+        if (separatorIndex <= 0 || separatorIndex == raw.length() - 1) {
+            throw new IllegalArgumentException(kind + " is malformed");
+        }
+
+        int position = Integer.parseInt(raw.substring(separatorIndex + 1));
+        if (position < 0) {
+            throw new IllegalArgumentException(kind + " position is negative");
+        }
+        return new SearchPositionToken(raw.substring(0, separatorIndex), position);
+    }
+}
@@ -58,11 +58,8 @@ public class SeatCharacteristicMapper {
     }
     
     private static void initializeSabreMapping() {
-        // Add Sabre mappings as needed - many will be similar to Amadeus
-        // For now, we'll use the same mappings as a starting point
+        // Sabre seat map Detail codes are the same IATA seat characteristic codes Amadeus uses
         SABRE_MAPPINGS.putAll(AMADEUS_MAPPINGS);
-        
-        // TODO: Add Sabre-specific characteristic codes when we implement Sabre seat map parsing
     }
     
     /**
@@ -73,10 +70,14 @@ public class SeatCharacteristicMapper {
         if (codes == null || codes.isEmpty()) {
             return new ArrayList<>();
         }
-        
-        List<SeatCharacteristic> characteristics = new ArrayList<>();
-        
-        // Extract seat characteristics dictionary from the response
+        return mapAmadeusCharacteristicsWithDictionary(codes, buildResponseDictionary(dictionaries));
+    }
+    
+    /**
+     * Extracts the seat characteristics dictionary (code to description) from Amadeus response dictionaries.
+     * Build it once per response when mapping many seats.
+     */
+    public static Map<String, String> buildResponseDictionary(JsonNode dictionaries) {
         Map<String, String> responseDictionary = new HashMap<>();
         if (dictionaries != null && dictionaries.has("seatCharacteristics")) {
             JsonNode seatCharacteristics = dictionaries.get("seatCharacteristics");
@@ -87,6 +88,18 @@ public class SeatCharacteristicMapper {
         } else {
             logger.info("No seat characteristics dictionary found in response, using hardcoded mappings only");
         }
+        return responseDictionary;
+    }
+    
+    /**
+     * Maps Amadeus characteristic codes using a dictionary from buildResponseDictionary
+     */
+    public static List<SeatCharacteristic> mapAmadeusCharacteristicsWithDictionary(List<String> codes, Map<String, String> responseDictionary) {
+        if (codes == null || codes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<SeatCharacteristic> characteristics = new ArrayList<>();
         
         for (String code : codes) {
             SeatCharacteristic characteristic = null;
@@ -121,7 +134,7 @@ public class SeatCharacteristicMapper {
                 characteristics.add(characteristic);
             } else {
                 // Unknown code - create a generic characteristic and log it
-                logger.info("Unmapped characteristic found: '{}' - creating generic mapping", code);
+                logger.debug("Unmapped characteristic found: '{}' - creating generic mapping", code);
                 characteristics.add(new SeatCharacteristic(
                     code, 
                     "UNKNOWN", 
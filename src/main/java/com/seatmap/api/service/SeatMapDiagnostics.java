@@ -0,0 +1,81 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.model.SeatMapData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Emits one log line per seat map conversion from its ConversionStats. A sampled fraction of
+ * conversions keep the raw provider payload, which is logged only when the conversion had issues.
+ */
+public class SeatMapDiagnostics {
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapDiagnostics.class);
+
+    private static final int DEFAULT_MAX_PAYLOAD_CHARS = 64 * 1024;
+
+    private final String provider;
+    private final double payloadSampleRate;
+    private final int maxPayloadChars;
+    private final AtomicLong capturedPayloadCount = new AtomicLong();
+
+    public SeatMapDiagnostics(String provider, double payloadSampleRate, int maxPayloadChars) {
+        this.provider = provider;
+        this.payloadSampleRate = payloadSampleRate;
+        this.maxPayloadChars = maxPayloadChars;
+    }
+
+    /**
+     * Sample rate from {PROVIDER}_SEATMAP_PAYLOAD_SAMPLE_RATE (0.0-1.0, default 0 = never capture)
+     */
+    public static SeatMapDiagnostics fromEnv(String provider) {
+        String envVarName = provider + "_SEATMAP_PAYLOAD_SAMPLE_RATE";
+        String value = System.getenv(envVarName);
+        double sampleRate = 0.0;
+        if (value != null && !value.trim().isEmpty()) {
+            try {
+                sampleRate = Math.max(0.0, Math.min(1.0, Double.parseDouble(value.trim())));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value for {}: '{}', payload capture disabled", envVarName, value);
+            }
+        }
+        return new SeatMapDiagnostics(provider, sampleRate, DEFAULT_MAX_PAYLOAD_CHARS);
+    }
+
+    public static SeatMapDiagnostics disabled(String provider) {
+        return new SeatMapDiagnostics(provider, 0.0, DEFAULT_MAX_PAYLOAD_CHARS);
+    }
+
+    /**
+     * Decide up front whether this conversion keeps its raw payload
+     */
+    public boolean shouldCapturePayload() {
+        return payloadSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < payloadSampleRate;
+    }
+
+    /**
+     * Log the conversion summary, plus the raw payload if one was captured and the conversion had issues
+     */
+    public void emit(SeatMapData.ConversionStats stats, Supplier<String> capturedPayload) {
+        if (!stats.hasIssues()) {
+            logger.info("{} seat map converted: {}", provider, stats);
+            return;
+        }
+
+        logger.warn("{} seat map converted with issues: {}", provider, stats);
+        if (capturedPayload != null) {
+            String payload = capturedPayload.get();
+            capturedPayloadCount.incrementAndGet();
+            logger.warn("{} seat map payload sample ({} chars{}): {}", provider, payload.length(),
+                payload.length() > maxPayloadChars ? ", truncated" : "",
+                payload.length() > maxPayloadChars ? payload.substring(0, maxPayloadChars) : payload);
+        }
+    }
+
+    public long getCapturedPayloadCount() {
+        return capturedPayloadCount.get();
+    }
+}
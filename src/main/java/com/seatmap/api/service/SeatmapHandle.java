@@ -0,0 +1,37 @@
+package com.seatmap.api.service;
+
+/**
+ * Opaque handle to one offer's seatmap in a cached flight search result set, returned by lazy
+ * seatmap searches. Encoded as a SearchPositionToken of the search ID and offer index so clients
+ * treat it as a token. The handle only identifies a position, so it resolves only while that
+ * result set is cached in the container that ran the search.
+ */
+public final class SeatmapHandle {
+    private final String searchId;
+    private final int offerIndex;
+
+    public SeatmapHandle(String searchId, int offerIndex) {
+        this.searchId = searchId;
+        this.offerIndex = offerIndex;
+    }
+
+    public String getSearchId() {
+        return searchId;
+    }
+
+    public int getOfferIndex() {
+        return offerIndex;
+    }
+
+    public String encode() {
+        return SearchPositionToken.encode(searchId, offerIndex);
+    }
+
+    /**
+     * Decode a handle token. Throws IllegalArgumentException if the token is malformed.
+     */
+    public static SeatmapHandle decode(String token) {
+        SearchPositionToken decoded = SearchPositionToken.decode(token, "Seatmap handle");
+        return new SeatmapHandle(decoded.getSearchId(), decoded.getPosition());
+    }
+}
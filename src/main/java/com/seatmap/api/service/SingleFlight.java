@@ -0,0 +1,116 @@
+package com.seatmap.api.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls: the first caller for a key runs the call on its own thread
+ * and callers arriving while it is in flight wait for and share its result, or its failure. Nothing
+ * is kept once the call completes, so a later caller runs the call again.
+ */
+public class SingleFlight<K, V> {
+    private final String name;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaderCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Result of an execute: the value and whether it came from another caller's call
+     */
+    public static final class Outcome<V> {
+        private final V value;
+        private final boolean coalesced;
+
+        private Outcome(V value, boolean coalesced) {
+            this.value = value;
+            this.coalesced = coalesced;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isCoalesced() {
+            return coalesced;
+        }
+    }
+
+    /**
+     * Run call for key, or wait for the identical call already in flight. Shared values must be
+     * treated as immutable by every caller.
+     */
+    public Outcome<V> execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return new Outcome<>(await(existing), true);
+        }
+
+        leaderCount.incrementAndGet();
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return new Outcome<>(value, false);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public FlightStats getStats() {
+        return new FlightStats(name, leaderCount.get(), coalescedCount.get(), inFlight.size());
+    }
+
+    /**
+     * Point-in-time snapshot of coalescing counters
+     */
+    public static class FlightStats {
+        private final String name;
+        private final long leaderCount;
+        private final long coalescedCount;
+        private final int inFlightCount;
+
+        public FlightStats(String name, long leaderCount, long coalescedCount, int inFlightCount) {
+            this.name = name;
+            this.leaderCount = leaderCount;
+            this.coalescedCount = coalescedCount;
+            this.inFlightCount = inFlightCount;
+        }
+
+        public String getName() { return name; }
+        public long getLeaderCount() { return leaderCount; }
+        public long getCoalescedCount() { return coalescedCount; }
+        public int getInFlightCount() { return inFlightCount; }
+
+        @Override
+        public String toString() {
+            return String.format("%s calls=%d, coalesced=%d, inFlight=%d", name, leaderCount, coalescedCount, inFlightCount);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.seatmap.api.service;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.MimeHeader;
+import jakarta.xml.soap.MimeHeaders;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SOAP over a shared keep-alive HttpClient, in place of a SOAPConnection opened and closed per call.
+ * At most poolSize calls are in flight at once, so the client holds at most that many connections
+ * open and reuses them across calls. Requests are serialized to bytes and responses parsed straight
+ * from the response stream.
+ */
+public class SoapHttpTransport {
+    private static final Logger logger = LoggerFactory.getLogger(SoapHttpTransport.class);
+
+    // Set by the HTTP client itself, or not allowed on java.net.http requests
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "host", "connection", "expect", "upgrade");
+    private static final String SOAP_1_1_CONTENT_TYPE = "text/xml; charset=utf-8";
+
+    private final String provider;
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final MessageFactory messageFactory;
+    private final int poolSize;
+    private final Semaphore permits;
+
+    private final AtomicInteger inUseCount = new AtomicInteger();
+    private final AtomicInteger peakInUseCount = new AtomicInteger();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong waitedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public SoapHttpTransport(String provider, URI endpoint, HttpClient httpClient, MessageFactory messageFactory, int poolSize) {
+        this.provider = provider;
+        this.endpoint = endpoint;
+        this.httpClient = httpClient;
+        this.messageFactory = messageFactory;
+        this.poolSize = poolSize;
+        this.permits = new Semaphore(poolSize, true);
+
+        logger.info("{} SOAP transport initialized - Endpoint: {}, Pool size: {}", provider, endpoint, poolSize);
+    }
+
+    /**
+     * Reads a SOAP response straight from the HTTP body stream
+     */
+    @FunctionalInterface
+    public interface ResponseReader<T> {
+        T read(HttpHeaders headers, InputStream body) throws IOException, SOAPException;
+    }
+
+    /**
+     * Post a SOAP message and parse the response envelope. SOAP faults (HTTP 500) are returned as
+     * messages, like SOAPConnection.call; transport errors and other statuses throw SOAPException.
+     */
+    public SOAPMessage call(SOAPMessage request, Duration timeout) throws SOAPException, InterruptedException {
+        return call(request, timeout, this::readMessage);
+    }
+
+    /**
+     * Post a SOAP message and hand the response body (HTTP 200 or 500) to the reader while the
+     * connection is still held, so large responses can be decoded without building a SAAJ DOM.
+     */
+    public <T> T call(SOAPMessage request, Duration timeout, ResponseReader<T> reader) throws SOAPException, InterruptedException {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = buildRequest(request, timeout);
+        } catch (IOException e) {
+            failedCount.incrementAndGet();
+            throw new SOAPException("Failed to serialize " + provider + " SOAP request: " + e.getMessage(), e);
+        }
+        return send(httpRequest, timeout, reader);
+    }
+
+    /**
+     * Post an already serialized SOAP 1.1 envelope, such as a rendered SoapRequestTemplate, with the
+     * Content-Type and empty SOAPAction SAAJ sets on a saved message
+     */
+    public <T> T call(byte[] envelope, Duration timeout, ResponseReader<T> reader) throws SOAPException, InterruptedException {
+        HttpRequest httpRequest = HttpRequest.newBuilder(endpoint)
+            .timeout(timeout)
+            .header("Content-Type", SOAP_1_1_CONTENT_TYPE)
+            .header("SOAPAction", "\"\"")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(envelope))
+            .build();
+        return send(httpRequest, timeout, reader);
+    }
+
+    private <T> T send(HttpRequest httpRequest, Duration timeout, ResponseReader<T> reader) throws SOAPException, InterruptedException {
+        long waitStart = System.nanoTime();
+        if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            failedCount.incrementAndGet();
+            throw new SOAPException(provider + " SOAP connection pool exhausted, no connection free within " + timeout.toMillis() + "ms");
+        }
+        recordWait(System.nanoTime() - waitStart);
+        peakInUseCount.accumulateAndGet(inUseCount.incrementAndGet(), Math::max);
+        requestCount.incrementAndGet();
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status != 200 && status != 500) {
+                    throw new SOAPException("Bad response: (" + status + ") from " + provider + " SOAP endpoint");
+                }
+                return reader.read(response.headers(), body);
+            }
+        } catch (SOAPException e) {
+            failedCount.incrementAndGet();
+            throw e;
+        } catch (IOException e) {
+            failedCount.incrementAndGet();
+            throw new SOAPException("Failed to send " + provider + " SOAP request: " + e.getMessage(), e);
+        } finally {
+            inUseCount.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Reader that parses the response into a SOAPMessage, as call(request, timeout) does
+     */
+    public ResponseReader<SOAPMessage> messageReader() {
+        return this::readMessage;
+    }
+
+    private SOAPMessage readMessage(HttpHeaders headers, InputStream body) throws IOException, SOAPException {
+        MimeHeaders mimeHeaders = new MimeHeaders();
+        headers.map().forEach((name, values) -> values.forEach(value -> mimeHeaders.addHeader(name, value)));
+
+        SOAPMessage message = messageFactory.createMessage(mimeHeaders, body);
+        // Parse the envelope before the stream is closed
+        message.getSOAPPart().getEnvelope();
+        return message;
+    }
+
+    private HttpRequest buildRequest(SOAPMessage request, Duration timeout) throws SOAPException, IOException {
+        if (request.saveRequired()) {
+            request.saveChanges();
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+        request.writeTo(body);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+            .timeout(timeout)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        // Content-Type and SOAPAction come from the message, as SOAPConnection sends them
+        for (Iterator<MimeHeader> it = request.getMimeHeaders().getAllHeaders(); it.hasNext(); ) {
+            MimeHeader header = it.next();
+            if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase())) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    private void recordWait(long waitNanos) {
+        // Uncontended acquires take well under a millisecond
+        if (waitNanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            waitedCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(provider, poolSize, inUseCount.get(), peakInUseCount.get(), permits.getQueueLength(),
+            requestCount.get(), failedCount.get(), waitedCount.get(),
+            TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    /**
+     * Point-in-time snapshot of pool utilization
+     */
+    public static class PoolStats {
+        private final String provider;
+        private final int poolSize;
+        private final int inUseCount;
+        private final int peakInUseCount;
+        private final int waitingCount;
+        private final long requestCount;
+        private final long failedCount;
+        private final long waitedCount;
+        private final long totalWaitMs;
+        private final long maxWaitMs;
+
+        public PoolStats(String provider, int poolSize, int inUseCount, int peakInUseCount, int waitingCount,
+                         long requestCount, long failedCount, long waitedCount, long totalWaitMs, long maxWaitMs) {
+            this.provider = provider;
+            this.poolSize = poolSize;
+            this.inUseCount = inUseCount;
+            this.peakInUseCount = peakInUseCount;
+            this.waitingCount = waitingCount;
+            this.requestCount = requestCount;
+            this.failedCount = failedCount;
+            this.waitedCount = waitedCount;
+            this.totalWaitMs = totalWaitMs;
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        public String getProvider() { return provider; }
+        public int getPoolSize() { return poolSize; }
+        public int getInUseCount() { return inUseCount; }
+        public int getPeakInUseCount() { return peakInUseCount; }
+        public int getWaitingCount() { return waitingCount; }
+        public long getRequestCount() { return requestCount; }
+        public long getFailedCount() { return failedCount; }
+        public long getWaitedCount() { return waitedCount; }
+        public long getTotalWaitMs() { return totalWaitMs; }
+        public long getMaxWaitMs() { return maxWaitMs; }
+
+        public double getUtilization() {
+            return poolSize == 0 ? 0.0 : (double) inUseCount / poolSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s inUse=%d/%d, peakInUse=%d, waiting=%d, requests=%d, failed=%d, waited=%d (total %dms, max %dms)",
+                provider, inUseCount, poolSize, peakInUseCount, waitingCount, requestCount, failedCount, waitedCount, totalWaitMs, maxWaitMs);
+        }
+    }
+}
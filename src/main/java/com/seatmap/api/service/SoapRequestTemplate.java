@@ -0,0 +1,203 @@
+package com.seatmap.api.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A request envelope precompiled into immutable UTF-8 fragments with ${name} slots between them.
+ * Rendering copies the fragments and the XML-escaped slot values into one exactly sized array, so a
+ * request costs a single allocation instead of a SAAJ DOM built node by node and then serialized.
+ * Values are escaped the way the SAAJ serializer escapes text and attribute content.
+ */
+public final class SoapRequestTemplate {
+    private static final Pattern SLOT = Pattern.compile("\\$\\{(\\w+)}");
+
+    private final List<String> slotNames;
+    private final byte[][] fragments;
+    private final int[] slotValueIndexes;
+    private final boolean[] attributeSlots;
+    private final int fixedLength;
+
+    public SoapRequestTemplate(String template, String... slotNames) {
+        this(template, Map.of(), slotNames);
+    }
+
+    /**
+     * @param template  envelope XML with ${name} slots, each inside text content or an attribute value
+     * @param constants values fixed for the life of the template (credentials, configuration), escaped
+     *                  into the fragments once here
+     * @param slotNames order in which render takes the remaining slot values; every other slot must be listed
+     */
+    public SoapRequestTemplate(String template, Map<String, String> constants, String... slotNames) {
+        this.slotNames = List.of(slotNames);
+        List<byte[]> fragmentList = new ArrayList<>();
+        List<Integer> valueIndexes = new ArrayList<>();
+        List<Boolean> attributes = new ArrayList<>();
+
+        ByteArrayOutputStream fragment = new ByteArrayOutputStream();
+        Matcher matcher = SLOT.matcher(template);
+        int position = 0;
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            fragment.writeBytes(template.substring(position, matcher.start()).getBytes(StandardCharsets.UTF_8));
+            position = matcher.end();
+            // Inside a tag when the last '<' comes after the last '>'
+            String before = template.substring(0, matcher.start());
+            boolean attribute = before.lastIndexOf('<') > before.lastIndexOf('>');
+
+            if (constants.containsKey(name)) {
+                String constant = constants.get(name);
+                byte[] escaped = new byte[escapedLength(constant, attribute)];
+                writeEscaped(constant, attribute, escaped, 0);
+                fragment.writeBytes(escaped);
+                continue;
+            }
+            int valueIndex = this.slotNames.indexOf(name);
+            if (valueIndex < 0) {
+                throw new IllegalArgumentException("Template slot ${" + name + "} is not in " + this.slotNames);
+            }
+            fragmentList.add(fragment.toByteArray());
+            fragment.reset();
+            valueIndexes.add(valueIndex);
+            attributes.add(attribute);
+        }
+        fragment.writeBytes(template.substring(position).getBytes(StandardCharsets.UTF_8));
+        fragmentList.add(fragment.toByteArray());
+
+        this.fragments = fragmentList.toArray(new byte[0][]);
+        this.slotValueIndexes = valueIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.attributeSlots = new boolean[attributes.size()];
+        for (int i = 0; i < attributeSlots.length; i++) {
+            attributeSlots[i] = attributes.get(i);
+        }
+        this.fixedLength = Arrays.stream(fragments).mapToInt(bytes -> bytes.length).sum();
+    }
+
+    public List<String> getSlotNames() {
+        return slotNames;
+    }
+
+    /**
+     * Bytes of the template without any slot values
+     */
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    public byte[] render(String... values) {
+        byte[] request = new byte[renderedLength(values)];
+        renderInto(request, 0, values);
+        return request;
+    }
+
+    /**
+     * Length of the rendered request, for sizing a buffer shared by several templates
+     */
+    public int renderedLength(String... values) {
+        checkValues(values);
+        int length = fixedLength;
+        for (int slot = 0; slot < slotValueIndexes.length; slot++) {
+            length += escapedLength(values[slotValueIndexes[slot]], attributeSlots[slot]);
+        }
+        return length;
+    }
+
+    /**
+     * Render into dest at offset, which must have renderedLength(values) bytes free. Returns the end offset.
+     */
+    public int renderInto(byte[] dest, int offset, String... values) {
+        checkValues(values);
+        int position = offset;
+        for (int slot = 0; slot < slotValueIndexes.length; slot++) {
+            System.arraycopy(fragments[slot], 0, dest, position, fragments[slot].length);
+            position += fragments[slot].length;
+            position = writeEscaped(values[slotValueIndexes[slot]], attributeSlots[slot], dest, position);
+        }
+        byte[] last = fragments[fragments.length - 1];
+        System.arraycopy(last, 0, dest, position, last.length);
+        return position + last.length;
+    }
+
+    private void checkValues(String[] values) {
+        if (values.length != slotNames.size()) {
+            throw new IllegalArgumentException("Expected values for " + slotNames + " but got " + values.length);
+        }
+    }
+
+    private static int escapedLength(String value, boolean attribute) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String entity = entity(c, attribute);
+            if (entity != null) {
+                length += entity.length();
+            } else if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int writeEscaped(String value, boolean attribute, byte[] dest, int position) {
+        if (value == null) {
+            return position;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String entity = entity(c, attribute);
+            if (entity != null) {
+                for (int j = 0; j < entity.length(); j++) {
+                    dest[position++] = (byte) entity.charAt(j);
+                }
+            } else if (c < 0x80) {
+                dest[position++] = (byte) c;
+            } else if (c < 0x800) {
+                dest[position++] = (byte) (0xC0 | (c >> 6));
+                dest[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                dest[position++] = (byte) (0xF0 | (codePoint >> 18));
+                dest[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                dest[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                dest[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                dest[position++] = (byte) (0xE0 | (c >> 12));
+                dest[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dest[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Entity for characters that must be escaped, null for characters written as is
+     */
+    private static String entity(char c, boolean attribute) {
+        switch (c) {
+            case '&': return "&amp;";
+            case '<': return "&lt;";
+            case '>': return "&gt;";
+            case '\r': return "&#13;";
+            case '"': return attribute ? "&quot;" : null;
+            case '\n': return attribute ? "&#10;" : null;
+            case '\t': return attribute ? "&#9;" : null;
+            default: return null;
+        }
+    }
+}
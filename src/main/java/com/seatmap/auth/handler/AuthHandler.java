@@ -20,6 +20,7 @@ import com.seatmap.auth.service.JwtService;
 import com.seatmap.auth.service.PasswordService;
 import com.seatmap.email.service.EmailService;
 import com.seatmap.common.exception.SeatmapException;
+import com.seatmap.common.http.ResponseWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
@@ -36,6 +37,7 @@ public class AuthHandler implements RequestHandler<APIGatewayProxyRequestEvent,
     private static final Logger logger = LoggerFactory.getLogger(AuthHandler.class);
     
     private final ObjectMapper objectMapper;
+    private final ResponseWriter responseWriter = new ResponseWriter();
     private final Validator validator;
     private final AuthService authService;
     private final UserRepository userRepository;
@@ -72,6 +74,10 @@ public class AuthHandler implements RequestHandler<APIGatewayProxyRequestEvent,
     
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        return responseWriter.handle(event, request -> route(request, context));
+    }
+    
+    private APIGatewayProxyResponseEvent route(APIGatewayProxyRequestEvent event, Context context) {
         logger.info("Processing authentication request: {}", event.getPath());
         
         try {
@@ -21,6 +21,7 @@ import com.seatmap.auth.service.JwtService;
 import com.seatmap.auth.service.PasswordService;
 import com.seatmap.auth.service.UserUsageLimitsService;
 import com.seatmap.common.exception.SeatmapException;
+import com.seatmap.common.http.ResponseWriter;
 import com.seatmap.common.model.Bookmark;
 import com.seatmap.common.model.User;
 import jakarta.validation.ConstraintViolation;
@@ -39,6 +40,7 @@ public class BookmarkHandler implements RequestHandler<APIGatewayProxyRequestEve
     private static final Logger logger = LoggerFactory.getLogger(BookmarkHandler.class);
     
     private final ObjectMapper objectMapper;
+    private final ResponseWriter responseWriter = new ResponseWriter();
     private final Validator validator;
     private final BookmarkRepository bookmarkRepository;
     private final AuthService authService;
@@ -83,6 +85,10 @@ public class BookmarkHandler implements RequestHandler<APIGatewayProxyRequestEve
     
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        return responseWriter.handle(event, request -> route(request, context));
+    }
+    
+    private APIGatewayProxyResponseEvent route(APIGatewayProxyRequestEvent event, Context context) {
         try {
             logger.info("Processing bookmark request: {} {}", event.getHttpMethod(), event.getPath());
             
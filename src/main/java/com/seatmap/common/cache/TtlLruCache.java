@@ -0,0 +1,221 @@
+package com.seatmap.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process cache with LRU eviction, a per-entry TTL and a total weight budget.
+ * Intended for warm Lambda containers where entries are shared across invocations.
+ * Cached values must be treated as immutable by callers.
+ */
+public class TtlLruCache<K, V> {
+    private final long maxWeight;
+    private final long defaultTtlMillis;
+    private final ToLongFunction<V> weigher;
+    private final LongSupplier clock;
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public TtlLruCache(long maxWeight, long defaultTtlMillis, ToLongFunction<V> weigher) {
+        this(maxWeight, defaultTtlMillis, weigher, System::currentTimeMillis);
+    }
+
+    TtlLruCache(long maxWeight, long defaultTtlMillis, ToLongFunction<V> weigher, LongSupplier clock) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        if (defaultTtlMillis <= 0) {
+            throw new IllegalArgumentException("defaultTtlMillis must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.weigher = weigher;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            removeEntry(key, entry);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtlMillis);
+    }
+
+    /**
+     * Stores a value with its own TTL. Values heavier than the whole budget are not cached.
+     */
+    public synchronized void put(K key, V value, long ttlMillis) {
+        if (key == null || value == null || ttlMillis <= 0) {
+            return;
+        }
+        long weight = Math.max(0, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            return;
+        }
+
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            currentWeight -= previous.weight;
+        }
+
+        entries.put(key, new Entry<>(value, weight, clock.getAsLong() + ttlMillis));
+        currentWeight += weight;
+        evictToBudget();
+    }
+
+    public synchronized void invalidate(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            currentWeight -= entry.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return currentWeight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(),
+            entries.size(), currentWeight, maxWeight);
+    }
+
+    private void evictToBudget() {
+        long now = clock.getAsLong();
+
+        // Drop expired entries first so live entries are not evicted needlessly
+        if (currentWeight > maxWeight) {
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<V> entry = iterator.next().getValue();
+                if (entry.expiresAt <= now) {
+                    iterator.remove();
+                    currentWeight -= entry.weight;
+                    expirations.incrementAndGet();
+                }
+            }
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (currentWeight > maxWeight && iterator.hasNext()) {
+            Entry<V> entry = iterator.next().getValue();
+            iterator.remove();
+            currentWeight -= entry.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void removeEntry(K key, Entry<V> entry) {
+        entries.remove(key);
+        currentWeight -= entry.weight;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+
+        private Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of cache counters
+     */
+    public static class CacheStats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long expirationCount;
+        private final int size;
+        private final long weight;
+        private final long maxWeight;
+
+        public CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount,
+                          int size, long weight, long maxWeight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+            this.size = size;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+        }
+
+        public long getHitCount() { return hitCount; }
+        public long getMissCount() { return missCount; }
+        public long getEvictionCount() { return evictionCount; }
+        public long getExpirationCount() { return expirationCount; }
+        public int getSize() { return size; }
+        public long getWeight() { return weight; }
+        public long getMaxWeight() { return maxWeight; }
+
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, evictions=%d, expirations=%d, size=%d, weight=%d/%d",
+                hitCount, missCount, evictionCount, expirationCount, size, weight, maxWeight);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.seatmap.common.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Shared request/response handling for API Gateway handlers. Request bodies API Gateway delivers
+ * base64-encoded are decoded before the handler sees them, and response bodies above a size
+ * threshold are gzip-compressed when the client's Accept-Encoding allows it. Compressed bodies are
+ * sent base64-encoded, which API Gateway turns back into bytes because the API accepts all media
+ * types as binary.
+ */
+public class ResponseWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseWriter.class);
+
+    static final long DEFAULT_MIN_COMPRESS_BYTES = 1024;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final long minCompressBytes;
+
+    private final AtomicLong compressedCount = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong cpuNanos = new AtomicLong();
+
+    public ResponseWriter() {
+        this(parseLongEnvVar("RESPONSE_COMPRESSION_MIN_BYTES", DEFAULT_MIN_COMPRESS_BYTES));
+    }
+
+    public ResponseWriter(long minCompressBytes) {
+        this.minCompressBytes = minCompressBytes;
+    }
+
+    /**
+     * Run a handler's routing with the request body decoded, then compress its response
+     */
+    public APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request,
+                                               Function<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> route) {
+        return write(request, route.apply(decodeBody(request)));
+    }
+
+    /**
+     * Replace a base64-encoded request body with its text
+     */
+    public static APIGatewayProxyRequestEvent decodeBody(APIGatewayProxyRequestEvent request) {
+        if (request != null && Boolean.TRUE.equals(request.getIsBase64Encoded()) && request.getBody() != null) {
+            request.setBody(new String(Base64.getDecoder().decode(request.getBody()), StandardCharsets.UTF_8));
+            request.setIsBase64Encoded(false);
+        }
+        return request;
+    }
+
+    /**
+     * Gzip the response body if the client accepts gzip, the body is at least the threshold, and
+     * compressing makes it smaller; otherwise return the response as it is
+     */
+    public APIGatewayProxyResponseEvent write(APIGatewayProxyRequestEvent request, APIGatewayProxyResponseEvent response) {
+        if (response == null || response.getBody() == null || Boolean.TRUE.equals(response.getIsBase64Encoded())
+                || !acceptsGzip(header(request != null ? request.getHeaders() : null, "Accept-Encoding"))) {
+            return response;
+        }
+
+        byte[] body = response.getBody().getBytes(StandardCharsets.UTF_8);
+        if (body.length < minCompressBytes) {
+            return response;
+        }
+
+        long cpuStart = cpuTime();
+        byte[] compressed = gzip(body);
+        long cpuUsed = cpuTime() - cpuStart;
+        if (compressed == null || compressed.length >= body.length) {
+            return response;
+        }
+
+        compressedCount.incrementAndGet();
+        uncompressedBytes.addAndGet(body.length);
+        compressedBytes.addAndGet(compressed.length);
+        cpuNanos.addAndGet(cpuUsed);
+        logger.info("Compressed response {} -> {} bytes (ratio {}) in {}us CPU",
+            body.length, compressed.length, String.format("%.2f", (double) body.length / compressed.length), cpuUsed / 1000);
+
+        Map<String, String> headers = response.getHeaders() != null ? new HashMap<>(response.getHeaders()) : new HashMap<>();
+        headers.put("Content-Encoding", "gzip");
+        headers.put("Vary", "Accept-Encoding");
+        response.setHeaders(headers);
+        response.setBody(Base64.getEncoder().encodeToString(compressed));
+        response.setIsBase64Encoded(true);
+        return response;
+    }
+
+    /**
+     * Whether an Accept-Encoding value allows gzip: listed (or covered by *) without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static String header(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey() != null && header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            logger.warn("Failed to compress response, sending it uncompressed: {}", e.getMessage());
+            return null;
+        }
+        return output.toByteArray();
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static long parseLongEnvVar(String envVarName, long defaultValue) {
+        String value = System.getenv(envVarName);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            return parsed >= 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: '{}', using default: {}", envVarName, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public CompressionStats getStats() {
+        return new CompressionStats(compressedCount.get(), uncompressedBytes.get(), compressedBytes.get(), cpuNanos.get());
+    }
+
+    /**
+     * Point-in-time snapshot of compression counters
+     */
+    public static class CompressionStats {
+        private final long compressedCount;
+        private final long uncompressedBytes;
+        private final long compressedBytes;
+        private final long cpuNanos;
+
+        public CompressionStats(long compressedCount, long uncompressedBytes, long compressedBytes, long cpuNanos) {
+            this.compressedCount = compressedCount;
+            this.uncompressedBytes = uncompressedBytes;
+            this.compressedBytes = compressedBytes;
+            this.cpuNanos = cpuNanos;
+        }
+
+        public long getCompressedCount() { return compressedCount; }
+        public long getUncompressedBytes() { return uncompressedBytes; }
+        public long getCompressedBytes() { return compressedBytes; }
+        public long getCpuNanos() { return cpuNanos; }
+
+        public double getRatio() {
+            return compressedBytes > 0 ? (double) uncompressedBytes / compressedBytes : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("compressed=%d, bytes=%d->%d, ratio=%.2f, cpu=%dms",
+                compressedCount, uncompressedBytes, compressedBytes, getRatio(), cpuNanos / 1_000_000);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.seatmap.api.model.FlightSearchResponse;
 import com.seatmap.api.model.FlightSearchResult;
+import com.seatmap.api.model.SeatMapData;
 import com.seatmap.common.model.Bookmark;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -203,6 +204,31 @@ class AlertEvaluationServiceTest {
         assertEquals(hasUAFlightAboveThreshold, result.isTriggered());
     }
     
+    @Test
+    void testSavedSearchAlert_UsesSeatmapSummary() {
+        // Given
+        Bookmark bookmark = createSavedSearchBookmark();
+        bookmark.setAlertConfig(new Bookmark.AlertConfig(50.0));
+        
+        // A summary-only seatmap: 120 of 200 seats available, no seat list to walk
+        SeatMapData.AvailabilitySummary summary = new SeatMapData.AvailabilitySummary();
+        summary.setTotalSeats(200);
+        summary.setAvailableSeats(120);
+        SeatMapData seatMap = new SeatMapData();
+        seatMap.setSummary(summary);
+        
+        FlightSearchResponse response = createFlightSearchResponse(1);
+        response.getData().get(0).setSeatMap(seatMap);
+        
+        // When
+        AlertEvaluationService.AlertEvaluationResult result = 
+            alertEvaluationService.evaluateAlert(bookmark, response);
+        
+        // Then
+        assertTrue(result.isTriggered());
+        assertTrue(result.getMessage().contains("60.0%"));
+    }
+    
     // Helper methods
     
     private Bookmark createBookmarkWithFlightData() {
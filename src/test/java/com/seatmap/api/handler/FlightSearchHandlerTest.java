@@ -8,6 +8,7 @@ import com.seatmap.auth.service.JwtService;
 import com.seatmap.common.exception.SeatmapException;
 import com.seatmap.auth.repository.BookmarkRepository;
 import com.seatmap.api.service.AmadeusService;
+import com.seatmap.api.service.FlightSearchService;
 import com.seatmap.api.service.SabreService;
 import com.seatmap.common.model.Bookmark;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -19,11 +20,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -48,6 +55,9 @@ class FlightSearchHandlerTest {
     
     @Mock
     private SabreService mockSabreService;
+    
+    @Mock
+    private FlightSearchService mockFlightSearchService;
 
     private FlightSearchHandler handler;
     private ObjectMapper objectMapper;
@@ -154,6 +164,102 @@ class FlightSearchHandlerTest {
         assertEquals(400, response.getStatusCode());
     }
 
+    @Test
+    void testSeatmapHandleRequiresAuthorization() {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setHttpMethod("GET");
+        event.setPath("/flight-search/seatmap/c2VhcmNoOjA");
+        event.setHeaders(new HashMap<>());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, mockContext);
+
+        assertEquals(401, response.getStatusCode());
+        verifyNoInteractions(mockFlightSearchService);
+    }
+
+    @Test
+    void testSeatmapHandleResolvesSeatmap() throws Exception {
+        // Given - a guest resolving a handle from a lazy search
+        injectMock("flightSearchService", mockFlightSearchService);
+        when(mockJwtService.isGuestToken("test-token")).thenReturn(true);
+        SeatMapData seatMap = new SeatMapData();
+        seatMap.setSource("AMADEUS");
+        when(mockFlightSearchService.getSeatmapForHandle(eq("c2VhcmNoOjA"), any())).thenReturn(seatMap);
+
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setHttpMethod("GET");
+        event.setPath("/flight-search/seatmap/c2VhcmNoOjA");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer test-token");
+        event.setHeaders(headers);
+
+        // When
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, mockContext);
+
+        // Then
+        assertEquals(200, response.getStatusCode());
+        assertEquals("AMADEUS", objectMapper.readTree(response.getBody()).path("source").asText());
+    }
+
+    @Test
+    void testSeatmapResponseIsGzippedWhenAccepted() throws Exception {
+        // Given - a full-size seatmap and a client that accepts gzip
+        injectMock("flightSearchService", mockFlightSearchService);
+        when(mockJwtService.isGuestToken("test-token")).thenReturn(true);
+        List<SeatMapData.Seat> seats = new ArrayList<>();
+        for (int row = 1; row <= 30; row++) {
+            SeatMapData.Seat seat = new SeatMapData.Seat();
+            seat.setNumber(row + "A");
+            seat.setAvailabilityStatus("AVAILABLE");
+            seats.add(seat);
+        }
+        SeatMapData seatMap = new SeatMapData();
+        seatMap.setSource("AMADEUS");
+        seatMap.setSeats(seats);
+        when(mockFlightSearchService.getSeatmapForHandle(eq("c2VhcmNoOjA"), any())).thenReturn(seatMap);
+
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setHttpMethod("GET");
+        event.setPath("/flight-search/seatmap/c2VhcmNoOjA");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer test-token");
+        headers.put("Accept-Encoding", "gzip, deflate, br");
+        event.setHeaders(headers);
+
+        // When
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, mockContext);
+
+        // Then
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("*", response.getHeaders().get("Access-Control-Allow-Origin"));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(response.getBody())))) {
+            JsonNode json = objectMapper.readTree(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(30, json.path("seats").size());
+        }
+    }
+
+    @Test
+    void testExpiredSeatmapHandle() throws Exception {
+        injectMock("flightSearchService", mockFlightSearchService);
+        when(mockJwtService.isGuestToken("test-token")).thenReturn(true);
+        when(mockFlightSearchService.getSeatmapForHandle(eq("c2VhcmNoOjA"), any()))
+            .thenThrow(new SeatmapException("SEATMAP_HANDLE_EXPIRED", "Seatmap handle has expired, please search again", 410));
+
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setHttpMethod("GET");
+        event.setPath("/flight-search/seatmap/c2VhcmNoOjA");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer test-token");
+        event.setHeaders(headers);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, mockContext);
+
+        assertEquals(410, response.getStatusCode());
+        assertTrue(response.getBody().contains("Seatmap handle has expired"));
+    }
+
     @Test
     void testCorsHeaders() {
         // Given
@@ -317,7 +423,7 @@ class FlightSearchHandlerTest {
         verify(mockBookmarkRepository).findByUserIdAndBookmarkId(userId, bookmarkId);
         verify(mockAmadeusService).getSeatMapFromOffer(any(JsonNode.class));
         verify(mockAmadeusService).convertToSeatMapData(seatMapNode);
-        verify(mockSabreService, never()).getSeatMapFromFlight(any(), any(), any(), any(), any());
+        verify(mockSabreService, never()).getSeatMapDataFromFlight(any(), any(), any(), any(), any());
     }
     
     @Test
@@ -363,43 +469,14 @@ class FlightSearchHandlerTest {
         when(mockBookmarkRepository.findByUserIdAndBookmarkId(userId, bookmarkId))
             .thenReturn(Optional.of(bookmark));
         
-        // Mock Sabre seat map response
-        String sabreSeatMapResponse = """
-        {
-            "GetSeatMapRS": {
-                "FlightInfo": {
-                    "OriginLocation": {"LocationCode": "LAX"},
-                    "DestinationLocation": {"LocationCode": "JFK"},
-                    "MarketingAirline": {"Code": "AA"},
-                    "FlightNumber": "1234"
-                },
-                "Aircraft": {"Code": "321"},
-                "SeatMapDetails": [{
-                    "CabinClass": {"Name": "Economy"},
-                    "RowInfo": [{
-                        "RowNumber": "15",
-                        "SeatInfo": [{
-                            "SeatNumber": "F",
-                            "Summary": "Window Available"
-                        }]
-                    }]
-                }]
-            }
-        }
-        """;
-        
-        JsonNode sabreSeatMapNode = objectMapper.readTree(sabreSeatMapResponse);
-        when(mockSabreService.getSeatMapFromFlight("AA", "1234", "2025-12-06", "LAX", "JFK"))
-            .thenReturn(sabreSeatMapNode);
-        
-        // Mock seat map conversion
+        // Mock Sabre seat map fetch
         SeatMapData convertedSeatMap = new SeatMapData();
         convertedSeatMap.setSource("SABRE");
         SeatMapData.FlightInfo flightInfo = new SeatMapData.FlightInfo();
         flightInfo.setNumber("1234");
         flightInfo.setCarrierCode("AA");
         convertedSeatMap.setFlight(flightInfo);
-        when(mockSabreService.convertToSeatMapData(sabreSeatMapNode))
+        when(mockSabreService.getSeatMapDataFromFlight("AA", "1234", "2025-12-06", "LAX", "JFK"))
             .thenReturn(convertedSeatMap);
         
         // Setup request
@@ -428,8 +505,7 @@ class FlightSearchHandlerTest {
         
         // Verify service calls
         verify(mockBookmarkRepository).findByUserIdAndBookmarkId(userId, bookmarkId);
-        verify(mockSabreService).getSeatMapFromFlight("AA", "1234", "2025-12-06", "LAX", "JFK");
-        verify(mockSabreService).convertToSeatMapData(sabreSeatMapNode);
+        verify(mockSabreService).getSeatMapDataFromFlight("AA", "1234", "2025-12-06", "LAX", "JFK");
         verify(mockAmadeusService, never()).getSeatMapFromOffer(any(JsonNode.class));
     }
     
@@ -472,7 +548,7 @@ class FlightSearchHandlerTest {
         
         // Verify no seat map service calls were made
         verify(mockAmadeusService, never()).getSeatMapFromOffer(any(JsonNode.class));
-        verify(mockSabreService, never()).getSeatMapFromFlight(any(), any(), any(), any(), any());
+        verify(mockSabreService, never()).getSeatMapDataFromFlight(any(), any(), any(), any(), any());
     }
     
     @Test
@@ -501,7 +577,7 @@ class FlightSearchHandlerTest {
         // Verify no repository or service calls were made
         verify(mockBookmarkRepository, never()).findByUserIdAndBookmarkId(any(), any());
         verify(mockAmadeusService, never()).getSeatMapFromOffer(any(JsonNode.class));
-        verify(mockSabreService, never()).getSeatMapFromFlight(any(), any(), any(), any(), any());
+        verify(mockSabreService, never()).getSeatMapDataFromFlight(any(), any(), any(), any(), any());
     }
     
     @Test
@@ -0,0 +1,228 @@
+package com.seatmap.api.handler;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seatmap.api.model.FlightSearchResponse;
+import com.seatmap.api.model.FlightSearchResult;
+import com.seatmap.api.service.FlightSearchService;
+import com.seatmap.auth.service.JwtService;
+import com.seatmap.common.exception.SeatmapException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingFlightSearchHandlerTest {
+
+    private static final String SEARCH_BODY = "{\"origin\":\"LAX\",\"destination\":\"JFK\",\"departureDate\":\"2024-12-15\"}";
+
+    @Mock
+    private Context mockContext;
+
+    @Mock
+    private JwtService mockJwtService;
+
+    @Mock
+    private FlightSearchService mockFlightSearchService;
+
+    private StreamingFlightSearchHandler handler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handler = new StreamingFlightSearchHandler();
+        objectMapper = new ObjectMapper();
+
+        // Inject mock services using reflection
+        injectMock("jwtService", mockJwtService);
+        injectMock("flightSearchService", mockFlightSearchService);
+    }
+
+    private void injectMock(String fieldName, Object mock) throws Exception {
+        Field field = StreamingFlightSearchHandler.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(handler, mock);
+    }
+
+    @Test
+    void testNonPostRequestIsRejected() throws Exception {
+        ObjectNode event = event("Bearer test-token", SEARCH_BODY, true);
+        event.putObject("requestContext").putObject("http").put("method", "GET");
+
+        StreamedResponse response = invoke(event);
+
+        assertEquals(405, response.statusCode);
+        assertEquals("POST", response.headers.path("Allow").asText());
+        assertEquals("Method not allowed", response.lines.get(0).get("message").asText());
+        verifyNoInteractions(mockJwtService, mockFlightSearchService);
+    }
+
+    @Test
+    void testMissingAuthorizationHeader() throws Exception {
+        StreamedResponse response = invoke(event(null, SEARCH_BODY, false));
+
+        assertEquals(401, response.statusCode);
+        assertEquals("application/json", response.headers.path("Content-Type").asText());
+        assertEquals(1, response.lines.size());
+        assertFalse(response.lines.get(0).get("success").asBoolean());
+        assertEquals("Missing or invalid authorization header", response.lines.get(0).get("message").asText());
+        verifyNoInteractions(mockFlightSearchService);
+    }
+
+    @Test
+    void testInvalidToken() throws Exception {
+        when(mockJwtService.getUserIdFromToken("test-token")).thenThrow(new SeatmapException("TOKEN_INVALID", "Invalid token", 401));
+
+        StreamedResponse response = invoke(event("Bearer test-token", SEARCH_BODY, false));
+
+        assertEquals(401, response.statusCode);
+        assertEquals(1, response.lines.size());
+        assertEquals("Invalid or expired token", response.lines.get(0).get("message").asText());
+    }
+
+    @Test
+    void testInvalidRequestBody() throws Exception {
+        stubGuestToken();
+
+        StreamedResponse response = invoke(event("Bearer test-token", "invalid json", false));
+
+        assertEquals(400, response.statusCode);
+        assertEquals(1, response.lines.size());
+        assertEquals("Invalid request format", response.lines.get(0).get("message").asText());
+    }
+
+    @Test
+    void testStreamsEachResultThenMetadata() throws Exception {
+        stubGuestToken();
+        FlightSearchResult first = result("AA", "100");
+        FlightSearchResult second = result("B6", "615");
+        when(mockFlightSearchService.streamFlightsWithSeatmaps(any(), any(), any()))
+            .thenAnswer(invocation -> {
+                Consumer<FlightSearchResult> onResult = invocation.getArgument(2);
+                onResult.accept(first);
+                onResult.accept(second);
+                return new FlightSearchResponse(List.of(first, second), new FlightSearchResponse.SearchMetadata(2, "AMADEUS"));
+            });
+
+        // Function URLs deliver lower-case header names and may base64-encode the body
+        String body = Base64.getEncoder().encodeToString(SEARCH_BODY.getBytes(StandardCharsets.UTF_8));
+        StreamedResponse response = invoke(event("Bearer test-token", body, true).put("isBase64Encoded", true));
+
+        assertEquals(200, response.statusCode);
+        assertEquals("application/x-ndjson", response.headers.path("Content-Type").asText());
+        assertEquals(3, response.lines.size());
+        assertEquals("AA", response.lines.get(0).path("itineraries").get(0).path("segments").get(0).path("carrierCode").asText());
+        assertEquals("B6", response.lines.get(1).path("itineraries").get(0).path("segments").get(0).path("carrierCode").asText());
+        assertEquals(2, response.lines.get(2).path("meta").path("count").asInt());
+        assertEquals("AMADEUS", response.lines.get(2).path("meta").path("sources").asText());
+    }
+
+    @Test
+    void testSearchFailureBeforeFirstResultReturnsServerError() throws Exception {
+        stubGuestToken();
+        when(mockFlightSearchService.streamFlightsWithSeatmaps(any(), any(), any()))
+            .thenThrow(new SeatmapException("SEARCH_FAILED", "Search failed", 500));
+
+        StreamedResponse response = invoke(event("Bearer test-token", SEARCH_BODY, false));
+
+        assertEquals(500, response.statusCode);
+        assertEquals(1, response.lines.size());
+        assertEquals("Internal server error", response.lines.get(0).get("message").asText());
+    }
+
+    @Test
+    void testSearchFailureAfterFirstResultEndsStreamWithError() throws Exception {
+        stubGuestToken();
+        FlightSearchResult first = result("AA", "100");
+        when(mockFlightSearchService.streamFlightsWithSeatmaps(any(), any(), any()))
+            .thenAnswer(invocation -> {
+                Consumer<FlightSearchResult> onResult = invocation.getArgument(2);
+                onResult.accept(first);
+                throw new SeatmapException("SEARCH_FAILED", "Search failed", 500);
+            });
+
+        StreamedResponse response = invoke(event("Bearer test-token", SEARCH_BODY, false));
+
+        // The 200 prelude went out with the first result
+        assertEquals(200, response.statusCode);
+        assertEquals(2, response.lines.size());
+        assertEquals("AA", response.lines.get(0).path("itineraries").get(0).path("segments").get(0).path("carrierCode").asText());
+        assertFalse(response.lines.get(1).get("success").asBoolean());
+    }
+
+    private void stubGuestToken() throws SeatmapException {
+        when(mockJwtService.getUserIdFromToken("test-token")).thenReturn("test-user-id");
+        when(mockJwtService.isGuestToken("test-token")).thenReturn(true);
+    }
+
+    private ObjectNode event(String authorization, String body, boolean lowerCaseHeaders) {
+        ObjectNode event = objectMapper.createObjectNode();
+        ObjectNode headers = event.putObject("headers");
+        if (authorization != null) {
+            headers.put(lowerCaseHeaders ? "authorization" : "Authorization", authorization);
+        }
+        event.putObject("requestContext").putObject("http").put("method", "POST");
+        event.put("body", body);
+        return event;
+    }
+
+    private StreamedResponse invoke(ObjectNode event) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        handler.handleRequest(new ByteArrayInputStream(objectMapper.writeValueAsBytes(event)), output, mockContext);
+
+        // The prelude (status and headers as JSON) is separated from the body by eight NUL bytes
+        String raw = output.toString(StandardCharsets.UTF_8);
+        int delimiter = raw.indexOf("\0\0\0\0\0\0\0\0");
+        assertTrue(delimiter > 0, "response starts with a prelude");
+        JsonNode prelude = objectMapper.readTree(raw.substring(0, delimiter));
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : raw.substring(delimiter + 8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return new StreamedResponse(prelude.path("statusCode").asInt(), prelude.path("headers"), lines);
+    }
+
+    private static final class StreamedResponse {
+        private final int statusCode;
+        private final JsonNode headers;
+        private final List<JsonNode> lines;
+
+        private StreamedResponse(int statusCode, JsonNode headers, List<JsonNode> lines) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.lines = lines;
+        }
+    }
+
+    private FlightSearchResult result(String carrier, String number) {
+        ObjectNode itinerary = objectMapper.createObjectNode();
+        ObjectNode segment = itinerary.putArray("segments").addObject();
+        segment.put("carrierCode", carrier);
+        segment.put("number", number);
+
+        FlightSearchResult result = new FlightSearchResult();
+        result.setDataSource("AMADEUS");
+        result.setItineraries(List.of(itinerary));
+        return result;
+    }
+}
@@ -0,0 +1,205 @@
+package com.seatmap.api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSeatsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void toCompact_RoundTripsThroughJson() throws Exception {
+        SeatMapData original = createSeatMap();
+
+        String json = objectMapper.writeValueAsString(original.toCompact());
+        SeatMapData decoded = decode(objectMapper.readValue(json, SeatMapData.class));
+
+        assertEquals(objectMapper.valueToTree(original), objectMapper.valueToTree(decoded));
+    }
+
+    @Test
+    void encode_SendsRepeatedValuesOnceAndPricesInMinorUnits() {
+        SeatMapData seatMap = createSeatMap();
+
+        CompactSeats compact = CompactSeats.encode(seatMap.getDecks(), seatMap.getSeats());
+
+        assertEquals(4, compact.getCount());
+        assertEquals(List.of("1A", "60A", "1B", "60B"), compact.getNumber());
+        assertEquals(2, compact.getCharacteristics().size());
+        assertEquals(List.of("BUSINESS", "ECONOMY"), compact.getCabins());
+        assertEquals(List.of("AVAILABLE", "OCCUPIED"), compact.getStatuses());
+        assertEquals(List.of("USD", "JPY"), compact.getCurrencies());
+        assertEquals(List.of(0, 1, 0, 1), compact.getDeck());
+        assertEquals(List.of(2500L, 1500L), compact.getPrice().subList(0, 2));
+        assertNull(compact.getPrice().get(2));
+        assertNull(compact.getCurrency().get(2));
+    }
+
+    @Test
+    void encode_WithUnreadablePriceOrNoCoordinates_LeavesThemNull() {
+        SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+        pricing.setCurrency("USD");
+        pricing.setTotal("n/a");
+        SeatMapData.Seat seat = new SeatMapData.Seat();
+        seat.setNumber("3C");
+        seat.setPricing(pricing);
+
+        CompactSeats compact = CompactSeats.encode(null, List.of(seat));
+
+        assertNull(compact.getDeck().get(0));
+        assertNull(compact.getX().get(0));
+        assertNull(compact.getPrice().get(0));
+        assertNull(compact.getCurrency().get(0));
+        assertTrue(compact.getCurrencies().isEmpty());
+    }
+
+    @Test
+    void toCompact_IsSmallerThanTheFullSeatMap() throws Exception {
+        SeatMapData seatMap = createSeatMap();
+        List<SeatMapData.Seat> seats = new ArrayList<>();
+        for (int row = 1; row <= 30; row++) {
+            for (String column : List.of("A", "B", "C", "D", "E", "F")) {
+                seats.add(seat(row + column, "ECONOMY", "AVAILABLE", row, column.charAt(0) - 'A', "USD", "25.00", window()));
+            }
+        }
+        seatMap.getDecks().get(0).setSeats(seats);
+        seatMap.setSeats(seats);
+
+        int full = objectMapper.writeValueAsBytes(seatMap).length;
+        int compact = objectMapper.writeValueAsBytes(seatMap.toCompact()).length;
+
+        assertTrue(compact * 3 < full, "compact " + compact + " bytes vs full " + full);
+    }
+
+    /**
+     * Reference decoder for the documented compact schema: rebuilds decks and seats from the columns.
+     * Raw characteristic codes come from the characteristics, and prices carry their total only.
+     */
+    static SeatMapData decode(SeatMapData compactSeatMap) {
+        CompactSeats compact = compactSeatMap.getCompactSeats();
+        assertEquals(CompactSeats.VERSION, compact.getVersion());
+
+        List<SeatMapData.SeatMapDeck> decks = new ArrayList<>();
+        for (CompactSeats.DeckInfo info : compact.getDecks()) {
+            SeatMapData.SeatMapDeck deck = new SeatMapData.SeatMapDeck();
+            deck.setDeckType(info.getDeckType());
+            deck.setDeckConfiguration(info.getDeckConfiguration());
+            deck.setSeats(new ArrayList<>());
+            decks.add(deck);
+        }
+
+        List<SeatMapData.Seat> seats = new ArrayList<>(compact.getCount());
+        for (int i = 0; i < compact.getCount(); i++) {
+            SeatMapData.Seat seat = new SeatMapData.Seat();
+            seat.setNumber(compact.getNumber().get(i));
+            seat.setCabin(lookup(compact.getCabins(), compact.getCabin().get(i)));
+            seat.setAvailabilityStatus(lookup(compact.getStatuses(), compact.getStatus().get(i)));
+
+            if (compact.getX().get(i) != null || compact.getY().get(i) != null) {
+                ObjectNode coordinates = new ObjectMapper().createObjectNode();
+                coordinates.put("x", compact.getX().get(i));
+                coordinates.put("y", compact.getY().get(i));
+                seat.setCoordinates(coordinates);
+            }
+
+            List<Integer> ids = compact.getCharacteristicIds().get(i);
+            if (ids != null) {
+                List<SeatMapData.SeatCharacteristic> characteristics = new ArrayList<>();
+                List<String> codes = new ArrayList<>();
+                for (int id : ids) {
+                    characteristics.add(compact.getCharacteristics().get(id));
+                    codes.add(compact.getCharacteristics().get(id).getCode());
+                }
+                seat.setCharacteristics(characteristics);
+                seat.setCharacteristicsCodes(codes);
+            }
+
+            Long price = compact.getPrice().get(i);
+            if (price != null) {
+                String currency = lookup(compact.getCurrencies(), compact.getCurrency().get(i));
+                SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+                pricing.setCurrency(currency);
+                pricing.setTotal(BigDecimal.valueOf(price, CompactSeats.fractionDigits(currency)).toPlainString());
+                seat.setPricing(pricing);
+            }
+
+            seats.add(seat);
+            Integer deck = compact.getDeck().get(i);
+            if (deck != null) {
+                decks.get(deck).getSeats().add(seat);
+            }
+        }
+
+        SeatMapData seatMap = new SeatMapData(decks, compactSeatMap.getAircraft(), compactSeatMap.getFlight(), seats,
+            compactSeatMap.getLayout(), compactSeatMap.getSource());
+        seatMap.setSummary(compactSeatMap.getSummary());
+        return seatMap;
+    }
+
+    private static String lookup(List<String> table, Integer index) {
+        return index != null ? table.get(index) : null;
+    }
+
+    /**
+     * Two decks whose seats interleave in the flat list, as the Sabre decoder produces them
+     */
+    private SeatMapData createSeatMap() {
+        SeatMapData.Seat businessWindow = seat("1A", "BUSINESS", "AVAILABLE", 1, 0, "USD", "25.00", window());
+        SeatMapData.Seat upperWindow = seat("60A", "ECONOMY", "AVAILABLE", 0, 0, "JPY", "1500", window());
+        SeatMapData.Seat businessAisle = seat("1B", "BUSINESS", "OCCUPIED", 1, 1, null, null,
+            new SeatMapData.SeatCharacteristic("A", "POSITION", "Aisle seat", false, false));
+        SeatMapData.Seat upperUnlisted = seat("60B", "ECONOMY", "OCCUPIED", 0, 1, null, null);
+        upperUnlisted.setCharacteristics(null);
+        upperUnlisted.setCharacteristicsCodes(null);
+
+        SeatMapData.SeatMapDeck main = new SeatMapData.SeatMapDeck();
+        main.setDeckType("MAIN");
+        main.setDeckConfiguration(objectMapper.createObjectNode().put("width", 6).put("length", 30));
+        main.setSeats(new ArrayList<>(List.of(businessWindow, businessAisle)));
+        SeatMapData.SeatMapDeck upper = new SeatMapData.SeatMapDeck();
+        upper.setDeckType("UPPER");
+        upper.setSeats(new ArrayList<>(List.of(upperWindow, upperUnlisted)));
+
+        List<SeatMapData.SeatMapDeck> decks = new ArrayList<>(List.of(main, upper));
+        List<SeatMapData.Seat> seats = new ArrayList<>(List.of(businessWindow, upperWindow, businessAisle, upperUnlisted));
+        SeatMapData seatMap = new SeatMapData(decks, new SeatMapData.AircraftInfo("744", "Boeing 747-400"),
+            new SeatMapData.FlightInfo(), seats, new SeatMapData.LayoutInfo(30, 6, "3-4-3"), "SABRE");
+        seatMap.setSummary(SeatMapData.AvailabilitySummary.of(decks, seats));
+        return seatMap;
+    }
+
+    private SeatMapData.SeatCharacteristic window() {
+        return new SeatMapData.SeatCharacteristic("W", "POSITION", "Window seat", false, false);
+    }
+
+    private SeatMapData.Seat seat(String number, String cabin, String status, int x, int y, String currency, String total,
+                                  SeatMapData.SeatCharacteristic... characteristics) {
+        SeatMapData.Seat seat = new SeatMapData.Seat();
+        seat.setNumber(number);
+        seat.setCabin(cabin);
+        seat.setAvailabilityStatus(status);
+        JsonNode coordinates = objectMapper.createObjectNode().put("x", x).put("y", y);
+        seat.setCoordinates(coordinates);
+        List<String> codes = new ArrayList<>();
+        for (SeatMapData.SeatCharacteristic characteristic : characteristics) {
+            codes.add(characteristic.getCode());
+        }
+        seat.setCharacteristics(new ArrayList<>(List.of(characteristics)));
+        seat.setCharacteristicsCodes(codes);
+        if (total != null) {
+            SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+            pricing.setCurrency(currency);
+            pricing.setTotal(total);
+            seat.setPricing(pricing);
+        }
+        return seat;
+    }
+}
@@ -306,4 +306,20 @@ class FlightSearchResultTest {
         // The rawFlightOffer should still have the original value
         assertEquals("original", result.getRawFlightOffer().path("modifiableField").asText());
     }
+
+    @Test
+    void testWithDataSourceSharesNestedNodesWithoutModifyingOffer() {
+        ObjectNode flightOffer = objectMapper.createObjectNode();
+        flightOffer.put("id", "test-flight-id");
+        ObjectNode itinerary = flightOffer.putArray("itineraries").addObject();
+        itinerary.put("duration", "PT5H30M");
+
+        ObjectNode tagged = FlightSearchResult.withDataSource(flightOffer, "SABRE");
+        FlightSearchResult result = new FlightSearchResult(tagged, null, false, null);
+
+        assertFalse(flightOffer.has("dataSource"));
+        assertEquals("SABRE", result.getDataSource());
+        assertSame(itinerary, result.getItineraries().get(0));
+        assertEquals("PT5H30M", result.toJsonNode().path("itineraries").path(0).path("duration").asText());
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -357,4 +358,133 @@ class SeatMapDataTest {
         assertNull(seatMapData.getLayout());
         assertNull(seatMapData.getSource());
     }
+
+    @Test
+    void availabilitySummary_CountsSeatsPerDeckAndCabin() {
+        SeatMapData.SeatMapDeck main = new SeatMapData.SeatMapDeck();
+        main.setDeckType("MAIN");
+        main.setSeats(List.of(
+            seat("1A", "BUSINESS", "AVAILABLE", List.of("W"), "USD", "80.00"),
+            seat("10A", "ECONOMY", "AVAILABLE", List.of("W"), "USD", "25.00"),
+            seat("10C", "ECONOMY", "AVAILABLE", List.of("A"), "USD", "15.00"),
+            seat("10D", "ECONOMY", "AVAILABLE", List.of("A"), "EUR", "5.00"),
+            seat("10E", "ECONOMY", "OCCUPIED", List.of("W"), "USD", "1.00"),
+            seat("10F", "ECONOMY", "BLOCKED", List.of(), null, null)));
+        SeatMapData.SeatMapDeck upper = new SeatMapData.SeatMapDeck();
+        upper.setDeckType("UPPER");
+        upper.setSeats(List.of(seat("60A", "ECONOMY", "AVAILABLE", List.of("W", "A"), "USD", "n/a")));
+
+        SeatMapData.AvailabilitySummary summary = SeatMapData.AvailabilitySummary.of(List.of(main, upper), null);
+
+        assertEquals(7, summary.getTotalSeats());
+        assertEquals(5, summary.getAvailableSeats());
+        assertEquals(1, summary.getOccupiedSeats());
+        assertEquals(3, summary.getAvailableWindowSeats());
+        assertEquals(3, summary.getAvailableAisleSeats());
+
+        assertEquals(3, summary.getCabins().size());
+        SeatMapData.CabinSummary mainEconomy = summary.getCabins().get(1);
+        assertEquals("MAIN", mainEconomy.getDeckType());
+        assertEquals("ECONOMY", mainEconomy.getCabin());
+        assertEquals(5, mainEconomy.getTotalSeats());
+        assertEquals(3, mainEconomy.getAvailableSeats());
+        assertEquals(1, mainEconomy.getOccupiedSeats());
+        assertEquals("UPPER", summary.getCabins().get(2).getDeckType());
+
+        // Occupied, other-currency and unparseable prices are left out of the range
+        assertEquals("USD", summary.getPrices().getCurrency());
+        assertEquals("15.00", summary.getPrices().getMin());
+        assertEquals("25.00", summary.getPrices().getMedian());
+        assertEquals("80.00", summary.getPrices().getMax());
+    }
+
+    @Test
+    void availabilitySummary_WithoutDecksOrPricing_UsesSeatsAndLeavesPricesOut() {
+        SeatMapData.AvailabilitySummary summary = SeatMapData.AvailabilitySummary.of(null,
+            List.of(seat("1A", "ECONOMY", "AVAILABLE", null, null, null), seat("1B", "ECONOMY", "OCCUPIED", null, null, null)));
+
+        assertEquals(2, summary.getTotalSeats());
+        assertEquals(1, summary.getAvailableSeats());
+        assertEquals(1, summary.getCabins().size());
+        assertNull(summary.getCabins().get(0).getDeckType());
+        assertNull(summary.getPrices());
+    }
+
+    @Test
+    void toSummaryOnly_KeepsEverythingButDecksAndSeats() {
+        List<SeatMapData.Seat> seats = List.of(seat("1A", "ECONOMY", "AVAILABLE", null, null, null));
+        SeatMapData seatMapData = new SeatMapData(List.of(new SeatMapData.SeatMapDeck()), new SeatMapData.AircraftInfo("320", "Airbus A320"),
+            new SeatMapData.FlightInfo(), seats, new SeatMapData.LayoutInfo(30, 6, "3-3"), "AMADEUS");
+        seatMapData.setSummary(SeatMapData.AvailabilitySummary.of(null, seats));
+
+        SeatMapData projection = seatMapData.toSummaryOnly();
+
+        assertNull(projection.getDecks());
+        assertNull(projection.getSeats());
+        assertSame(seatMapData.getAircraft(), projection.getAircraft());
+        assertSame(seatMapData.getLayout(), projection.getLayout());
+        assertSame(seatMapData.getSummary(), projection.getSummary());
+        assertEquals("AMADEUS", projection.getSource());
+        assertEquals(1, seatMapData.getSeats().size());
+    }
+
+    @Test
+    void conversionStats_AreNotSerialized() {
+        SeatMapData seatMapData = new SeatMapData();
+        seatMapData.setSource("AMADEUS");
+        seatMapData.setConversionStats(new SeatMapData.ConversionStats());
+
+        JsonNode json = objectMapper.valueToTree(seatMapData);
+
+        assertFalse(json.has("conversionStats"));
+        assertNotNull(seatMapData.getConversionStats());
+    }
+
+    @Test
+    void conversionStats_RecordSeat_CountsPricingAndUnknownCharacteristics() {
+        SeatMapData.ConversionStats stats = new SeatMapData.ConversionStats();
+
+        SeatMapData.SeatPricing fullPricing = new SeatMapData.SeatPricing();
+        fullPricing.setCurrency("USD");
+        fullPricing.setTotal("10.00");
+        fullPricing.setBase("10.00");
+        SeatMapData.Seat priced = new SeatMapData.Seat();
+        priced.setPricing(fullPricing);
+
+        SeatMapData.SeatPricing partialPricing = new SeatMapData.SeatPricing();
+        partialPricing.setTotal("10.00");
+        SeatMapData.Seat incomplete = new SeatMapData.Seat();
+        incomplete.setPricing(partialPricing);
+
+        SeatMapData.Seat unpriced = new SeatMapData.Seat();
+        unpriced.setCharacteristics(List.of(new SeatMapData.SeatCharacteristic("QQ", "UNKNOWN", "Unmapped characteristic: QQ")));
+
+        stats.recordSeat(priced);
+        assertFalse(stats.hasIssues());
+
+        stats.recordSeat(incomplete);
+        stats.recordSeat(unpriced);
+
+        assertEquals(3, stats.getSeatCount());
+        assertEquals(2, stats.getPricedSeatCount());
+        assertEquals(1, stats.getSeatsMissingPricingCount());
+        assertEquals(1, stats.getIncompletePricingCount());
+        assertEquals(Map.of("QQ", 1), stats.getUnknownCharacteristicCounts());
+        assertTrue(stats.hasIssues());
+    }
+
+    private SeatMapData.Seat seat(String number, String cabin, String status, List<String> codes, String currency, String total) {
+        SeatMapData.Seat seat = new SeatMapData.Seat();
+        seat.setNumber(number);
+        seat.setCabin(cabin);
+        seat.setAvailabilityStatus(status);
+        seat.setCharacteristicsCodes(codes);
+        if (total != null) {
+            SeatMapData.SeatPricing pricing = new SeatMapData.SeatPricing();
+            pricing.setCurrency(currency);
+            pricing.setTotal(total);
+            seat.setPricing(pricing);
+        }
+        return seat;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.exception.SeatmapApiException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenManagerTest {
+
+    private static final long SAFETY_MS = 60_000;
+    private static final long REFRESH_AHEAD_MS = 300_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+
+    @Test
+    void getToken_WithValidToken_DoesNotRefreshAgain() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        AccessTokenManager manager = newManager(() -> new AccessTokenManager.IssuedToken("token" + fetches.incrementAndGet(), 3600));
+
+        assertEquals("token1", manager.getToken());
+        now.addAndGet(60_000);
+        assertEquals("token1", manager.getToken());
+
+        assertEquals(1, fetches.get());
+        assertEquals(60_000, manager.getStats().getTokenAgeMs());
+        assertEquals(1, manager.getStats().getBlockingRefreshCount());
+    }
+
+    @Test
+    void getToken_InRefreshWindow_RefreshesInBackgroundAndReturnsCurrentToken() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        AccessTokenManager manager = newManager(() -> new AccessTokenManager.IssuedToken("token" + fetches.incrementAndGet(), 3600));
+        manager.getToken();
+
+        // 3600s lifetime - 60s safety - 300s refresh-ahead
+        now.addAndGet(3_240_000);
+        assertEquals("token1", manager.getToken());
+        assertEquals("token1", manager.getToken());
+        assertEquals(1, backgroundTasks.size()); // Only one background refresh scheduled
+
+        backgroundTasks.remove(0).run();
+
+        assertEquals("token2", manager.getToken());
+        assertEquals(2, fetches.get());
+        assertEquals(1, manager.getStats().getBackgroundRefreshCount());
+        assertEquals(0, manager.getStats().getTokenAgeMs());
+    }
+
+    @Test
+    void getToken_WhenBackgroundRefreshFails_KeepsCurrentTokenAndRetriesLater() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        AccessTokenManager manager = newManager(() -> {
+            if (fetches.incrementAndGet() == 2) {
+                throw new SeatmapApiException("Failed to authenticate with Amadeus API");
+            }
+            return new AccessTokenManager.IssuedToken("token" + fetches.get(), 3600);
+        });
+        manager.getToken();
+
+        now.addAndGet(3_240_000);
+        manager.getToken();
+        backgroundTasks.remove(0).run();
+
+        assertEquals("token1", manager.getToken());
+        assertTrue(backgroundTasks.isEmpty()); // Backs off before the next attempt
+        assertEquals(1, manager.getStats().getFailureCount());
+
+        now.addAndGet(5_000);
+        manager.getToken();
+        backgroundTasks.remove(0).run();
+        assertEquals("token3", manager.getToken());
+    }
+
+    @Test
+    void getToken_WithExpiredToken_RefreshesBeforeReturning() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        AccessTokenManager manager = newManager(() -> new AccessTokenManager.IssuedToken("token" + fetches.incrementAndGet(), 3600));
+        manager.getToken();
+
+        now.addAndGet(3_540_000);
+
+        assertEquals("token2", manager.getToken());
+        assertEquals(2, manager.getStats().getBlockingRefreshCount());
+        assertTrue(backgroundTasks.isEmpty());
+    }
+
+    @Test
+    void getToken_WithFailedRefresh_ThrowsSeatmapApiException() {
+        AccessTokenManager manager = newManager(() -> {
+            throw new SeatmapApiException("Failed to authenticate with Amadeus API");
+        });
+
+        SeatmapApiException exception = assertThrows(SeatmapApiException.class, manager::getToken);
+
+        assertEquals("Failed to authenticate with Amadeus API", exception.getMessage());
+        assertNull(manager.getCurrentToken());
+        assertEquals(-1, manager.getStats().getTokenAgeMs());
+    }
+
+    @Test
+    void getToken_WithConcurrentCallersAndNoToken_FetchesOnce() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        AccessTokenManager manager = new AccessTokenManager("TEST", () -> {
+            fetches.incrementAndGet();
+            fetchStarted.countDown();
+            await(releaseFetch);
+            return new AccessTokenManager.IssuedToken("shared-token", 3600);
+        }, Runnable::run, SAFETY_MS, REFRESH_AHEAD_MS);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(callers.submit(manager::getToken));
+            assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(callers.submit(manager::getToken));
+            }
+            waitForCoalescedWaits(manager, 7);
+            releaseFetch.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("shared-token", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, fetches.get());
+        assertEquals(7, manager.getStats().getCoalescedWaitCount());
+    }
+
+    @Test
+    void getToken_WithShortLivedToken_RefreshesHalfwayThroughLifetime() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        AccessTokenManager manager = newManager(() -> new AccessTokenManager.IssuedToken("token" + fetches.incrementAndGet(), 120));
+        manager.getToken();
+
+        now.addAndGet(29_000);
+        manager.getToken();
+        assertTrue(backgroundTasks.isEmpty());
+
+        now.addAndGet(1_000);
+        manager.getToken();
+        assertEquals(1, backgroundTasks.size());
+    }
+
+    private AccessTokenManager newManager(AccessTokenManager.TokenFetcher fetcher) {
+        return new AccessTokenManager("TEST", fetcher, backgroundTasks::add, SAFETY_MS, REFRESH_AHEAD_MS, now::get);
+    }
+
+    private static void waitForCoalescedWaits(AccessTokenManager manager, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manager.getStats().getCoalescedWaitCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
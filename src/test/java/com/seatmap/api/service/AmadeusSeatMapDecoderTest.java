@@ -0,0 +1,248 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seatmap.api.exception.SeatmapApiException;
+import com.seatmap.api.model.SeatMapData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmadeusSeatMapDecoderTest {
+
+    private ObjectMapper objectMapper;
+    private AmadeusSeatMapDecoder decoder;
+    private AmadeusService amadeusService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        decoder = new AmadeusSeatMapDecoder(objectMapper);
+        amadeusService = new AmadeusService();
+    }
+
+    @Test
+    void decode_WithWidebodySeatMap_MatchesTreeConverter() throws Exception {
+        assertDecodesLikeTreeConverter(createWidebodySeatMapJson(50));
+    }
+
+    @Test
+    void decode_FromInputStream_MatchesTreeConverter() throws Exception {
+        String json = createWidebodySeatMapJson(10);
+
+        SeatMapData streamed = decoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        SeatMapData converted = amadeusService.convertToSeatMapData(objectMapper.readTree(json));
+
+        assertEquals(objectMapper.valueToTree(converted), objectMapper.valueToTree(streamed));
+        assertEquals(10 * 9, streamed.getSeats().size());
+    }
+
+    @Test
+    void decode_WithMultiSegmentFlight_MatchesTreeConverter() throws Exception {
+        String json = """
+            {
+                "data": [
+                    {"type": "seat-map", "carrierCode": "", "number": "100",
+                     "aircraft": {"code": "321"},
+                     "decks": [{"deckType": "MAIN", "deckConfiguration": {"width": 6, "length": 30},
+                                "seats": [{"number": "1A", "cabin": "ECONOMY", "characteristicsCodes": ["W"]}]}]},
+                    {"type": "seat-map", "carrierCode": "AA", "number": "200",
+                     "departure": {"iataCode": "ORD", "terminal": "3", "at": "2025-12-15T10:00:00"},
+                     "arrival": {"iataCode": "JFK", "at": "2025-12-15T13:00:00"},
+                     "operating": {"carrierCode": "AA"},
+                     "aircraft": {"code": "789"},
+                     "decks": [{"deckType": "UPPER", "deckConfiguration": {"width": 4, "length": 12},
+                                "seats": [{"number": "2C", "cabin": "BUSINESS", "characteristicsCodes": ["A", "ZZ"]}]}]}
+                ],
+                "dictionaries": {"seatCharacteristics": {"W": "Window seat", "A": "Aisle seat"}}
+            }
+            """;
+
+        assertDecodesLikeTreeConverter(json);
+    }
+
+    @Test
+    void decode_WithDictionariesBeforeData_MatchesTreeConverter() throws Exception {
+        String json = """
+            {
+                "meta": {"count": 1},
+                "dictionaries": {"seatCharacteristics": {"W": "Window seat with extra legroom"}},
+                "data": {"type": "seat-map", "carrierCode": "UA", "number": "1",
+                         "decks": [{"deckType": "MAIN", "seats": [{"number": "1A", "characteristicsCodes": ["W"]}]}]}
+            }
+            """;
+
+        assertDecodesLikeTreeConverter(json);
+    }
+
+    @Test
+    void decode_WithIrregularValues_MatchesTreeConverter() throws Exception {
+        String json = """
+            {
+                "data": [{
+                    "type": "seat-map", "carrierCode": "DL", "number": 42,
+                    "departure": null, "arrival": "JFK", "operating": null,
+                    "decks": [
+                        null,
+                        {"deckType": null, "deckConfiguration": {"width": "7", "length": 2.5},
+                         "seats": [
+                            null,
+                            {"number": "3B", "cabin": {"code": "Y"}, "characteristicsCodes": "W", "coordinates": {"x": 3, "y": 1}},
+                            {"number": "3C", "travelerPricing": []},
+                            {"number": "3D", "travelerPricing": [null]},
+                            {"number": "3E", "travelerPricing": [{"seatAvailabilityStatus": "BLOCKED"}]},
+                            {"number": "3F", "travelerPricing": [{"seatAvailabilityStatus": "AVAILABLE",
+                                "price": {"currency": null, "total": 12.5, "taxes": [{"amount": "1.00"}, null]}},
+                                {"seatAvailabilityStatus": "OCCUPIED"}]},
+                            {"number": "3G", "travelerPricing": [{"price": "free"}]}
+                         ]}
+                    ]
+                }]
+            }
+            """;
+
+        assertDecodesLikeTreeConverter(json);
+    }
+
+    @Test
+    void decode_WithIrregularValues_RecordsConversionStats() throws Exception {
+        String json = """
+            {
+                "data": [{
+                    "type": "seat-map", "carrierCode": "DL", "number": "42",
+                    "decks": [{"deckType": "MAIN", "seats": [
+                        {"number": "1A", "characteristicsCodes": ["W", "QQ"],
+                         "travelerPricing": [{"price": {"currency": "USD", "total": "10.00", "base": "10.00"}}]},
+                        {"number": "1B", "travelerPricing": [{"price": {"total": "10.00"}}]},
+                        {"number": "1C", "travelerPricing": [{"seatAvailabilityStatus": "BLOCKED"}]},
+                        {"number": "1D"}
+                    ]}]
+                }, {"type": "seat-map", "carrierCode": "DL", "number": "43"}]
+            }
+            """;
+
+        SeatMapData.ConversionStats stats = decoder.decode(json.getBytes(StandardCharsets.UTF_8)).getConversionStats();
+
+        assertEquals(2, stats.getSegmentCount());
+        assertEquals(1, stats.getDeckCount());
+        assertEquals(4, stats.getSeatCount());
+        assertEquals(2, stats.getPricedSeatCount());
+        assertEquals(2, stats.getSeatsMissingPricingCount());
+        assertEquals(1, stats.getIncompletePricingCount());
+        assertEquals(Map.of("decks", 1, "travelerPricing", 1, "travelerPricing.price", 1), stats.getMissingFieldCounts());
+        assertEquals(Map.of("QQ", 1), stats.getUnknownCharacteristicCounts());
+        assertTrue(stats.hasIssues());
+    }
+
+    @Test
+    void decode_WithPayloadSampling_CapturesPayloadOnlyWhenConversionHasIssues() throws Exception {
+        SeatMapDiagnostics diagnostics = new SeatMapDiagnostics("AMADEUS", 1.0, 1024);
+        AmadeusSeatMapDecoder samplingDecoder = new AmadeusSeatMapDecoder(objectMapper, diagnostics);
+
+        samplingDecoder.decode(new ByteArrayInputStream(createWidebodySeatMapJson(2).getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, diagnostics.getCapturedPayloadCount());
+
+        String unpriced = "{\"data\":[{\"decks\":[{\"seats\":[{\"number\":\"1A\"}]}]}]}";
+        SeatMapData result = samplingDecoder.decode(new ByteArrayInputStream(unpriced.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, diagnostics.getCapturedPayloadCount());
+        assertEquals(1, result.getSeats().size());
+    }
+
+    @Test
+    void decode_WithMissingDataField_ReturnsSourceOnly() throws Exception {
+        SeatMapData result = decoder.decode("{\"errors\":[{\"code\":1}]}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("AMADEUS", result.getSource());
+        assertNull(result.getSeats());
+        assertNull(result.getDecks());
+        assertEquals(objectMapper.valueToTree(amadeusService.convertToSeatMapData(objectMapper.readTree("{\"errors\":[{\"code\":1}]}"))),
+            objectMapper.valueToTree(result));
+    }
+
+    @Test
+    void decode_WithEmptyDataArray_ThrowsException() {
+        SeatmapApiException exception = assertThrows(SeatmapApiException.class,
+            () -> decoder.decode("{\"data\":[]}".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("No seat map data available for flight", exception.getMessage());
+    }
+
+    @Test
+    void decode_WithMalformedJson_ThrowsException() {
+        assertThrows(SeatmapApiException.class,
+            () -> decoder.decode("{\"data\":[{\"decks\":[".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void assertDecodesLikeTreeConverter(String json) throws Exception {
+        SeatMapData converted = amadeusService.convertToSeatMapData(objectMapper.readTree(json));
+        SeatMapData streamed = decoder.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        JsonNode expected = objectMapper.valueToTree(converted);
+        JsonNode actual = objectMapper.valueToTree(streamed);
+        assertEquals(expected, actual);
+        assertEquals(converted.getConversionStats().toString(), streamed.getConversionStats().toString());
+    }
+
+    /**
+     * Single-deck widebody seat map (9 abreast) shaped like an Amadeus seatmaps response
+     */
+    static String createWidebodySeatMapJson(int rows) {
+        String[] columns = {"A", "B", "C", "D", "E", "F", "G", "H", "K"};
+        StringBuilder seats = new StringBuilder();
+        for (int row = 1; row <= rows; row++) {
+            for (int col = 0; col < columns.length; col++) {
+                if (seats.length() > 0) {
+                    seats.append(',');
+                }
+                boolean window = col == 0 || col == columns.length - 1;
+                boolean aisle = col == 2 || col == 3 || col == 5 || col == 6;
+                seats.append(String.format("""
+                    {"cabin": "%s", "number": "%d%s",
+                     "characteristicsCodes": [%s"CH", "1A_AQC_PREMIUM_SEAT"],
+                     "travelerPricing": [{"travelerId": "1", "seatAvailabilityStatus": "%s",
+                        "price": {"currency": "USD", "total": "%d.00", "base": "%d.00",
+                                  "taxes": [{"amount": "0.00", "code": "SUPPLIER"}]}}],
+                     "coordinates": {"x": %d, "y": %d}}""",
+                    row <= 8 ? "BUSINESS" : "ECONOMY", row, columns[col],
+                    window ? "\"W\", " : aisle ? "\"A\", " : "\"9\", ",
+                    (row + col) % 3 == 0 ? "OCCUPIED" : "AVAILABLE",
+                    20 + row, 20 + row, row, col));
+            }
+        }
+
+        return String.format("""
+            {
+                "meta": {"count": 1},
+                "data": [{
+                    "id": "1", "type": "seat-map", "flightOfferId": "1", "segmentId": "1",
+                    "departure": {"iataCode": "LAX", "terminal": "B", "at": "2025-12-15T08:00:00"},
+                    "arrival": {"iataCode": "LHR", "terminal": "3", "at": "2025-12-16T02:15:00"},
+                    "carrierCode": "BA", "number": "282",
+                    "operating": {"carrierCode": "BA"},
+                    "aircraft": {"code": "789"},
+                    "class": "M",
+                    "decks": [{
+                        "deckType": "MAIN",
+                        "deckConfiguration": {"width": 9, "length": %d, "startSeatRow": 1, "endSeatRow": %d,
+                                              "startWingsX": 15, "endWingsX": 25, "exitRowsX": [12, 30]},
+                        "facilities": [{"code": "LA", "column": "A", "position": "FRONT", "coordinates": {"x": 0, "y": 0}}],
+                        "seats": [%s]
+                    }],
+                    "aircraftCabinAmenities": {"power": {"isChargeable": false, "powerType": "PLUG"}},
+                    "availableSeatsCounters": [{"travelerId": "1", "value": %d}]
+                }],
+                "dictionaries": {
+                    "locations": {"LAX": {"cityCode": "LAX", "countryCode": "US"}},
+                    "facilities": {"LA": "Lavatory"},
+                    "seatCharacteristics": {"W": "Window", "A": "Aisle", "9": "Center seat", "CH": "Chargeable seats",
+                                            "1A_AQC_PREMIUM_SEAT": "Premium seat"}
+                }
+            }
+            """, rows, rows, seats, rows * 6);
+    }
+}
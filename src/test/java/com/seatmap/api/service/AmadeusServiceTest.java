@@ -13,12 +13,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +48,7 @@ class AmadeusServiceTest {
     void setUp() {
         objectMapper = new ObjectMapper();
         mockHttpClient = mock(HttpClient.class);
+        CircuitBreaker.resetAll(); // Breakers are shared per endpoint, so failures must not carry over between tests
         
         // Environment variables are already set in build.gradle
         amadeusService = new AmadeusService();
@@ -654,21 +667,16 @@ class AmadeusServiceTest {
         }
         """;
         
-        HttpResponse<String> seatMapResponse1 = mock(HttpResponse.class);
-        when(seatMapResponse1.statusCode()).thenReturn(200);
-        when(seatMapResponse1.body()).thenReturn(seatMapJson1);
-        
-        HttpResponse<String> seatMapResponse2 = mock(HttpResponse.class);
-        when(seatMapResponse2.statusCode()).thenReturn(200);
-        when(seatMapResponse2.body()).thenReturn(seatMapJson2);
-        
-        HttpResponse<String> seatMapResponse3 = mock(HttpResponse.class);
-        when(seatMapResponse3.statusCode()).thenReturn(400);
-        when(seatMapResponse3.body()).thenReturn("{\"error\": \"Seat map not available\"}");
+        HttpResponse<InputStream> seatMapResponse1 = mockStreamResponse(200, seatMapJson1);
+        HttpResponse<InputStream> seatMapResponse2 = mockStreamResponse(200, seatMapJson2);
+        HttpResponse<InputStream> seatMapResponse3 = mockStreamResponse(400, "{\"error\": \"Seat map not available\"}");
         
         when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
             .thenReturn(tokenResponse)
-            .thenReturn(flightOffersResponse)
+            .thenReturn(flightOffersResponse);
+        
+        // Seat map bodies are streamed straight into SeatMapData
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
             .thenReturn(seatMapResponse1)  // First seat map call succeeds
             .thenReturn(seatMapResponse2)  // Second seat map call succeeds
             .thenReturn(seatMapResponse3); // Third seat map call fails
@@ -755,8 +763,392 @@ class AmadeusServiceTest {
         assertEquals("No seat map data available for flight", exception.getMessage());
     }
 
+    @Test
+    void getSeatMapFromOffer_WithSameSegmentsTwice_ServesSecondCallFromCache() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+
+        // Mock seat map response
+        HttpResponse<String> seatMapResponse = mock(HttpResponse.class);
+        when(seatMapResponse.statusCode()).thenReturn(200);
+        when(seatMapResponse.body()).thenReturn("{\"data\":[{\"type\":\"seat-map\",\"flightOfferId\":\"offer1\",\"number\":\"123\",\"carrierCode\":\"AA\"}]}");
+
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse)
+            .thenReturn(seatMapResponse);
+
+        // Two different offers for the same flight segments
+        JsonNode firstOffer = createOfferWithSegment("offer1");
+        JsonNode secondOffer = createOfferWithSegment("offer2");
+
+        JsonNode firstResult = amadeusService.getSeatMapFromOffer(firstOffer);
+        JsonNode secondResult = amadeusService.getSeatMapFromOffer(secondOffer);
+
+        // Same seat map, pointed at the offer that asked for it
+        assertEquals("offer1", firstResult.path("data").path(0).path("flightOfferId").asText());
+        assertEquals("offer2", secondResult.path("data").path(0).path("flightOfferId").asText());
+        ((ObjectNode) secondResult.path("data").path(0)).put("flightOfferId", "offer1");
+        assertEquals(firstResult, secondResult);
+        // Token + a single seat map call; the second lookup is a cache hit
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+        assertEquals(1, amadeusService.getSeatMapCacheStats().getHitCount());
+        assertEquals(1, amadeusService.getSeatMapCacheStats().getMissCount());
+    }
+
+    @Test
+    void getSeatMapFromOffer_WithFailedResponse_DoesNotCache() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+
+        HttpResponse<String> errorResponse = mock(HttpResponse.class);
+        when(errorResponse.statusCode()).thenReturn(500);
+        when(errorResponse.body()).thenReturn("{\"error\":\"Internal error\"}");
+
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse)
+            .thenReturn(errorResponse);
+
+        JsonNode offer = createOfferWithSegment("offer1");
+
+        assertThrows(SeatmapApiException.class, () -> amadeusService.getSeatMapFromOffer(offer));
+        assertEquals(0, amadeusService.getSeatMapCacheStats().getSize());
+    }
+
+    @Test
+    void getSeatmapsForOffers_WithBatchStrategy_SendsOneRequestAndMapsByOfferIdAndSegment() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        
+        // Seat maps for offers 1 and 2 carry their flightOfferId; offer 3's only matches by segment
+        String batchJson = """
+        {
+            "data": [
+                {"type": "seat-map", "flightOfferId": "2", "carrierCode": "UA", "number": "200",
+                 "departure": {"iataCode": "LAX", "at": "2025-12-15T08:00:00"}, "arrival": {"iataCode": "JFK"},
+                 "decks": [{"deckType": "MAIN", "seats": []}]},
+                {"type": "seat-map", "flightOfferId": "1", "carrierCode": "AA", "number": "100",
+                 "departure": {"iataCode": "LAX", "at": "2025-12-15T08:00:00"}, "arrival": {"iataCode": "JFK"},
+                 "decks": [{"deckType": "MAIN", "seats": []}]},
+                {"type": "seat-map", "carrierCode": "DL", "number": "300",
+                 "departure": {"iataCode": "LAX", "at": "2025-12-15T08:00:00"}, "arrival": {"iataCode": "JFK"},
+                 "decks": [{"deckType": "MAIN", "seats": []}]}
+            ]
+        }
+        """;
+        HttpResponse<String> batchResponse = mock(HttpResponse.class);
+        when(batchResponse.statusCode()).thenReturn(200);
+        when(batchResponse.body()).thenReturn(batchJson);
+        
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse)
+            .thenReturn(batchResponse);
+        
+        List<JsonNode> offers = List.of(
+            createOfferWithFlight("1", "AA", "100"),
+            createOfferWithFlight("2", "UA", "200"),
+            createOfferWithFlight("3", "DL", "300"));
+        
+        List<FlightSearchResult> results = amadeusService.getSeatmapsForOffers(offers, false, AmadeusService.SeatmapStrategy.BATCH);
+        
+        // Token + a single batch POST for all three offers
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+        assertEquals(3, results.size());
+        assertEquals("1", results.get(0).getId());
+        assertEquals("2", results.get(1).getId());
+        assertEquals("3", results.get(2).getId());
+        for (FlightSearchResult result : results) {
+            assertNotNull(result.getSeatMap());
+            assertEquals("AMADEUS", result.getDataSource());
+        }
+    }
+    
+    @Test
+    void getSeatmapsForOffers_WithFailedBatchChunk_RetriesChunkPerOffer() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        
+        HttpResponse<String> batchErrorResponse = mock(HttpResponse.class);
+        when(batchErrorResponse.statusCode()).thenReturn(500);
+        when(batchErrorResponse.body()).thenReturn("{\"error\":\"Internal error\"}");
+        
+        HttpResponse<InputStream> seatMapResponse = mockStreamResponse(200, "{\"data\":[{\"type\":\"seat-map\",\"decks\":[{\"deckType\":\"MAIN\",\"seats\":[]}]}]}");
+        
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse)
+            .thenReturn(batchErrorResponse);
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+            .thenReturn(seatMapResponse);
+        
+        List<JsonNode> offers = List.of(
+            createOfferWithFlight("1", "AA", "100"),
+            createOfferWithFlight("2", "UA", "200"));
+        
+        List<FlightSearchResult> results = amadeusService.getSeatmapsForOffers(offers, false, AmadeusService.SeatmapStrategy.BATCH);
+        
+        // Token + failed batch POST, then one streamed retry per offer in the chunk
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+        assertEquals(2, results.size());
+    }
+    
+    @Test
+    void getSeatmapsForOffers_WithPerOfferStrategy_StreamsAndCachesSeatMapBody() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        
+        String seatMapJson = """
+        {
+            "data": [{
+                "type": "seat-map", "carrierCode": "AA", "number": "123",
+                "decks": [{"deckType": "MAIN", "deckConfiguration": {"width": 6, "length": 30},
+                           "seats": [{"number": "12A", "cabin": "ECONOMY", "characteristicsCodes": ["W"],
+                                      "travelerPricing": [{"seatAvailabilityStatus": "AVAILABLE",
+                                                           "price": {"currency": "USD", "total": "25.00", "base": "25.00"}}]}]}]
+            }],
+            "dictionaries": {"seatCharacteristics": {"W": "Window"}}
+        }
+        """;
+        HttpResponse<InputStream> seatMapResponse = mockStreamResponse(200, seatMapJson);
+        
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse);
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+            .thenReturn(seatMapResponse);
+        
+        List<JsonNode> offers = List.of(createOfferWithSegment("1"));
+        List<FlightSearchResult> first = amadeusService.getSeatmapsForOffers(offers, false, AmadeusService.SeatmapStrategy.PER_OFFER);
+        List<FlightSearchResult> second = amadeusService.getSeatmapsForOffers(offers, false, AmadeusService.SeatmapStrategy.PER_OFFER);
+        
+        // The streamed body is cached, so the second call decodes it without another request
+        verify(mockHttpClient, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+        assertEquals(1, amadeusService.getSeatMapCacheStats().getHitCount());
+        
+        SeatMapData expected = amadeusService.convertToSeatMapData(objectMapper.readTree(seatMapJson));
+        assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(first.get(0).getSeatMap()));
+        assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(second.get(0).getSeatMap()));
+        assertEquals("25.00", first.get(0).getSeatMap().getSeats().get(0).getPricing().getTotal());
+    }
+    
+    @Test
+    void getSeatmapsForOffers_WithDeadline_ReturnsCompletedFlightsAndRecordsTimedOutOffers() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        
+        HttpResponse<InputStream> seatMapResponse = mockStreamResponse(200, "{\"data\":[{\"type\":\"seat-map\",\"decks\":[{\"deckType\":\"MAIN\",\"seats\":[]}]}]}");
+        List<Duration> requestTimeouts = new CopyOnWriteArrayList<>();
+        AtomicInteger seatMapCalls = new AtomicInteger();
+        
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse);
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+            .thenAnswer(invocation -> {
+                requestTimeouts.add(invocation.<HttpRequest>getArgument(0).timeout().orElseThrow());
+                // The second seat map call hangs past the deadline
+                if (seatMapCalls.incrementAndGet() > 1) {
+                    Thread.sleep(2000);
+                }
+                return seatMapResponse;
+            });
+        
+        List<JsonNode> offers = List.of(createOfferWithFlight("1", "AA", "100"), createOfferWithFlight("2", "AA", "200"));
+        SearchDeadline deadline = SearchDeadline.after(300);
+        long start = System.currentTimeMillis();
+        List<FlightSearchResult> results = amadeusService.getSeatmapsForOffers(offers, false, AmadeusService.SeatmapStrategy.PER_OFFER, deadline);
+        long elapsed = System.currentTimeMillis() - start;
+        
+        assertTrue(elapsed < 1500, "Search should return at the deadline, took " + elapsed + "ms");
+        assertEquals(1, results.size());
+        assertEquals(1, deadline.getTimedOutOfferIds().size());
+        assertNotEquals(results.get(0).getId(), deadline.getTimedOutOfferIds().get(0));
+        
+        // Request timeouts are capped by the remaining deadline
+        assertEquals(2, requestTimeouts.size());
+        requestTimeouts.forEach(timeout -> assertTrue(timeout.toMillis() <= 300));
+    }
+    
+    @Test
+    void getSeatmapsForOffers_WhenThrottled_RetriesAfterRetryAfterInsteadOfDropping() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        
+        HttpResponse<InputStream> throttledResponse = mockStreamResponse(429, "{\"errors\":[{\"status\":429}]}");
+        when(throttledResponse.headers()).thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of("0")), (name, value) -> true));
+        HttpResponse<InputStream> seatMapResponse = mockStreamResponse(200, "{\"data\":[{\"type\":\"seat-map\",\"decks\":[{\"deckType\":\"MAIN\",\"seats\":[]}]}]}");
+        
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse);
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+            .thenReturn(throttledResponse)
+            .thenReturn(seatMapResponse);
+        
+        long throttledBefore = amadeusService.getRateLimiterStats().getThrottledCount();
+        SearchDeadline deadline = SearchDeadline.after(5000);
+        List<FlightSearchResult> results = amadeusService.getSeatmapsForOffers(
+            List.of(createOfferWithSegment("1")), false, AmadeusService.SeatmapStrategy.PER_OFFER, deadline);
+        
+        assertEquals(1, results.size());
+        assertTrue(deadline.getTimedOutOfferIds().isEmpty());
+        verify(mockHttpClient, times(2)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+        assertEquals(throttledBefore + 1, amadeusService.getRateLimiterStats().getThrottledCount());
+    }
+    
+    @Test
+    void getSeatmapsForOffers_WhenDeadlineCutsRequestTimeoutShort_DoesNotCountTimeoutAgainstBreaker() throws Exception {
+        // Mock token response
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenReturn(tokenResponse);
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+            .thenThrow(new HttpTimeoutException("request timed out"));
+        
+        // Capped by a short search deadline: our doing, not counted
+        amadeusService.getSeatmapsForOffers(List.of(createOfferWithSegment("1")), false,
+            AmadeusService.SeatmapStrategy.PER_OFFER, SearchDeadline.after(200));
+        assertEquals(0, amadeusService.getCircuitBreakerStats("/v1/shopping/seatmaps").getFailureCount());
+        
+        // Timed out within the request's own timeout: counted
+        amadeusService.getSeatmapsForOffers(List.of(createOfferWithSegment("2")), false,
+            AmadeusService.SeatmapStrategy.PER_OFFER, SearchDeadline.none());
+        assertEquals(1, amadeusService.getCircuitBreakerStats("/v1/shopping/seatmaps").getFailureCount());
+    }
+    
+    @Test
+    void searchFlightOffers_BoundsTokenAndSearchRequestsAndCapsSearchAtDeadline() throws Exception {
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        HttpResponse<String> offersResponse = mock(HttpResponse.class);
+        when(offersResponse.statusCode()).thenReturn(200);
+        when(offersResponse.body()).thenReturn("{\"data\":[]}");
+        
+        List<HttpRequest> sent = new ArrayList<>();
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                sent.add(request);
+                return request.uri().getPath().endsWith("/token") ? tokenResponse : offersResponse;
+            });
+        
+        amadeusService.searchFlightOffers("LAX", "JFK", "2024-12-01", null, null, null, 10);
+        amadeusService.searchFlightOffers("LAX", "JFK", "2024-12-01", null, null, null, 10, SearchDeadline.after(2000));
+        
+        assertEquals(3, sent.size());
+        assertEquals(Duration.ofSeconds(10), sent.get(0).timeout().orElseThrow());
+        assertEquals(Duration.ofSeconds(20), sent.get(1).timeout().orElseThrow());
+        assertTrue(sent.get(2).timeout().orElseThrow().toMillis() <= 2000);
+    }
+    
+    @Test
+    void searchFlightOffers_WhenDeadlineExpires_FailsWithTimeout() throws Exception {
+        HttpResponse<String> tokenResponse = mock(HttpResponse.class);
+        when(tokenResponse.statusCode()).thenReturn(200);
+        when(tokenResponse.body()).thenReturn("{\"access_token\":\"test-token\",\"expires_in\":3600}");
+        when(mockHttpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+            .thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                if (request.uri().getPath().endsWith("/token")) {
+                    return tokenResponse;
+                }
+                throw new HttpTimeoutException("request timed out");
+            });
+        
+        SeatmapApiException e = assertThrows(SeatmapApiException.class, () ->
+            amadeusService.searchFlightOffers("LAX", "JFK", "2024-12-01", null, null, null, 10, SearchDeadline.after(200)));
+        
+        assertTrue(e.getCause() instanceof HttpTimeoutException);
+        assertEquals(0, amadeusService.getCircuitBreakerStats("/v2/shopping/flight-offers").getFailureCount());
+    }
+    
+    @Test
+    void parseRetryAfterMillis_AcceptsSecondsAndHttpDates() {
+        assertEquals(2000, AmadeusService.parseRetryAfterMillis(mockRetryAfterResponse("2")));
+        assertEquals(1000, AmadeusService.parseRetryAfterMillis(mockRetryAfterResponse("soon")));
+        assertEquals(0, AmadeusService.parseRetryAfterMillis(mockRetryAfterResponse("Wed, 21 Oct 2015 07:28:00 GMT")));
+        
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+        long millis = AmadeusService.parseRetryAfterMillis(mockRetryAfterResponse(inTenSeconds));
+        assertTrue(millis > 8000 && millis <= 10000, "Retry-After date should be about 10s away, was " + millis);
+    }
+    
+    @Test
+    void partitionEvenly_SplitsIntoBalancedChunksWithinMaxSize() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 22; i++) {
+            items.add(i);
+        }
+        
+        List<List<Integer>> chunks = AmadeusService.partitionEvenly(items, 10);
+        
+        assertEquals(3, chunks.size());
+        assertEquals(8, chunks.get(0).size());
+        assertEquals(7, chunks.get(1).size());
+        assertEquals(7, chunks.get(2).size());
+        assertEquals(Integer.valueOf(0), chunks.get(0).get(0));
+        assertEquals(Integer.valueOf(21), chunks.get(2).get(6));
+        assertTrue(AmadeusService.partitionEvenly(new ArrayList<Integer>(), 10).isEmpty());
+    }
+    
 // Helper methods for batch tests
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> mockRetryAfterResponse(String retryAfter) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of(retryAfter)), (name, value) -> true));
+        return response;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private HttpResponse<InputStream> mockStreamResponse(int statusCode, String body) {
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        // Fresh stream per call, since a response mock may be returned for several requests
+        when(response.body()).thenAnswer(invocation -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    private JsonNode createOfferWithSegment(String offerId) throws Exception {
+        return createOfferWithFlight(offerId, "AA", "123");
+    }
     
+    private JsonNode createOfferWithFlight(String offerId, String carrierCode, String number) throws Exception {
+        return objectMapper.readTree(String.format("""
+            {
+                "id": "%s",
+                "type": "flight-offer",
+                "itineraries": [{
+                    "segments": [{
+                        "id": "1",
+                        "carrierCode": "%s",
+                        "number": "%s",
+                        "departure": {"iataCode": "LAX", "at": "2025-12-15T08:00:00"},
+                        "arrival": {"iataCode": "JFK", "at": "2025-12-15T16:35:00"},
+                        "operating": {"carrierCode": "%s"}
+                    }]
+                }],
+                "travelerPricings": [{
+                    "fareDetailsBySegment": [{"segmentId": "1", "cabin": "ECONOMY"}]
+                }]
+            }
+            """, offerId, carrierCode, number, carrierCode));
+    }
+
     private List<JsonNode> createMockFlightOffers() {
         List<JsonNode> offers = new ArrayList<>();
         ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,124 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    @Test
+    void tryAcquire_BelowFailureThreshold_StaysClosed() {
+        CircuitBreaker breaker = new CircuitBreaker("TEST", 3, OPEN_NANOS, now::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(2, breaker.getStats().getConsecutiveFailures());
+    }
+
+    @Test
+    void tryAcquire_AfterConsecutiveFailures_FailsFast() {
+        CircuitBreaker breaker = openBreaker();
+
+        assertFalse(breaker.tryAcquire());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        CircuitBreaker.BreakerStats stats = breaker.getStats();
+        assertEquals(CircuitBreaker.State.OPEN, stats.getState());
+        assertEquals(1, stats.getOpenedCount());
+        assertEquals(2, stats.getRejectedCount());
+    }
+
+    @Test
+    void tryAcquire_AfterOpenPeriod_LetsOneProbeThrough() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_NANOS);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void onSuccess_AfterProbe_ClosesBreaker() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_NANOS);
+        breaker.tryAcquire();
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_AfterProbe_ReopensForAnotherPeriod() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_NANOS);
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getStats().getOpenedCount());
+        now.addAndGet(OPEN_NANOS - 1);
+        assertFalse(breaker.tryAcquire());
+        now.addAndGet(1);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void onIgnored_AfterProbe_FreesProbeWithoutChangingState() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_NANOS);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(2, breaker.getStats().getFailureCount());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_WithAbandonedProbe_ProbesAgainAfterOpenPeriod() {
+        CircuitBreaker breaker = openBreaker();
+        now.addAndGet(OPEN_NANOS);
+        assertTrue(breaker.tryAcquire());
+
+        now.addAndGet(OPEN_NANOS);
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void forEndpoint_SharesBreakerPerProviderAndEndpoint() {
+        CircuitBreaker.resetAll();
+        CircuitBreaker seatmaps = CircuitBreaker.forEndpoint("TEST", "/v1/shopping/seatmaps");
+
+        assertSame(seatmaps, CircuitBreaker.forEndpoint("TEST", "/v1/shopping/seatmaps"));
+        assertNotSame(seatmaps, CircuitBreaker.forEndpoint("TEST", "/v2/shopping/flight-offers"));
+        assertEquals("CLOSED", CircuitBreaker.states().get("TEST /v1/shopping/seatmaps"));
+        CircuitBreaker.resetAll();
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("TEST", 2, OPEN_NANOS, now::get);
+        breaker.onFailure();
+        breaker.onFailure();
+        return breaker;
+    }
+}
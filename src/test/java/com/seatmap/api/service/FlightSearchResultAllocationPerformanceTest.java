@@ -0,0 +1,181 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seatmap.api.model.FlightSearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes allocated per FlightSearchResult built from an Amadeus offer, comparing the previous
+ * construction (deep copies of the offer and a new ObjectMapper converting its arrays per result)
+ * against the shared-mapper, shallow-copy construction.
+ * Only enabled when ENABLE_PERFORMANCE_TESTS=true.
+ */
+@EnabledIfEnvironmentVariable(named = "ENABLE_PERFORMANCE_TESTS", matches = "true")
+class FlightSearchResultAllocationPerformanceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightSearchResultAllocationPerformanceTest.class);
+
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 5000;
+
+    private ObjectMapper objectMapper;
+    private AmadeusService amadeusService;
+    private JsonNode offer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        amadeusService = new AmadeusService();
+        offer = objectMapper.readTree(createRoundTripOfferJson());
+    }
+
+    @Test
+    void sharedMapperConstruction_AllocatesLessPerResult() throws Exception {
+        Measurement before = measure(() -> legacyResult(offer, true));
+        Measurement after = measure(() -> amadeusService.buildOfferResult(offer, true));
+        Measurement afterWithoutRaw = measure(() -> amadeusService.buildOfferResult(offer, false));
+
+        logger.info("FlightSearchResult construction: before {} bytes/result {} ns/result, after {} bytes/result {} ns/result, "
+                + "after without raw offer {} bytes/result",
+            before.bytesPerOp, before.nanosPerOp, after.bytesPerOp, after.nanosPerOp, afterWithoutRaw.bytesPerOp);
+
+        // Both paths must produce the same result
+        assertEquals(objectMapper.valueToTree(legacyResult(offer, true)),
+            objectMapper.valueToTree(amadeusService.buildOfferResult(offer, true)));
+        assertTrue(after.bytesPerOp < before.bytesPerOp,
+            "Shared-mapper construction should allocate less per result than the deep-copy construction");
+    }
+
+    /**
+     * The construction path before results shared a mapper: the operating-carrier pass and the
+     * dataSource tagging each deep-copied the offer, the raw offer was another deep copy, and the
+     * constructor converted each array through its own ObjectMapper
+     */
+    private FlightSearchResult legacyResult(JsonNode flightOffer, boolean includeRawFlightOffer) {
+        ObjectNode enhanced = flightOffer.deepCopy();
+        ObjectNode tagged = enhanced.deepCopy();
+        tagged.put("dataSource", "AMADEUS");
+
+        ObjectMapper mapper = new ObjectMapper();
+        FlightSearchResult result = new FlightSearchResult();
+        result.setId(tagged.path("id").asText());
+        result.setDataSource(tagged.get("dataSource").asText());
+        result.setType(tagged.path("type").asText());
+        result.setSource(tagged.path("source").asText());
+        result.setInstantTicketingRequired(tagged.path("instantTicketingRequired").asBoolean());
+        result.setNonHomogeneous(tagged.path("nonHomogeneous").asBoolean());
+        result.setOneWay(tagged.path("oneWay").asBoolean());
+        result.setLastTicketingDate(tagged.path("lastTicketingDate").asText());
+        result.setLastTicketingDateTime(tagged.path("lastTicketingDateTime").asText());
+        result.setNumberOfBookableSeats(tagged.path("numberOfBookableSeats").asInt());
+        result.setItineraries(mapper.convertValue(tagged.get("itineraries"), new TypeReference<List<JsonNode>>() {}));
+        result.setTravelerPricings(mapper.convertValue(tagged.get("travelerPricings"), new TypeReference<List<JsonNode>>() {}));
+        result.setValidatingAirlineCodes(mapper.convertValue(tagged.get("validatingAirlineCodes"), new TypeReference<List<String>>() {}));
+        result.setPrice(tagged.get("price"));
+        if (includeRawFlightOffer) {
+            result.setRawFlightOffer(tagged.deepCopy());
+        }
+        return result;
+    }
+
+    private Measurement measure(ResultBuild build) throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            build.run();
+        }
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            build.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Measurement(allocated / MEASURED_ITERATIONS, elapsed / MEASURED_ITERATIONS);
+    }
+
+    /**
+     * Round-trip offer with two segments each way and two travelers, operating carriers present
+     */
+    private static String createRoundTripOfferJson() {
+        StringBuilder itineraries = new StringBuilder();
+        String[][] routes = {{"LAX", "ORD", "JFK"}, {"JFK", "ORD", "LAX"}};
+        int segmentId = 1;
+        for (int i = 0; i < routes.length; i++) {
+            if (i > 0) {
+                itineraries.append(",");
+            }
+            itineraries.append("{\"duration\":\"PT7H10M\",\"segments\":[");
+            for (int s = 0; s < 2; s++) {
+                if (s > 0) {
+                    itineraries.append(",");
+                }
+                itineraries.append("{\"departure\":{\"iataCode\":\"").append(routes[i][s]).append("\",\"terminal\":\"4\",\"at\":\"2026-11-2")
+                    .append(i).append("T0").append(8 + s * 3).append(":00:00\"},")
+                    .append("\"arrival\":{\"iataCode\":\"").append(routes[i][s + 1]).append("\",\"terminal\":\"1\",\"at\":\"2026-11-2")
+                    .append(i).append("T").append(11 + s * 3).append(":05:00\"},")
+                    .append("\"carrierCode\":\"AA\",\"number\":\"").append(100 + segmentId).append("\",")
+                    .append("\"aircraft\":{\"code\":\"321\"},\"operating\":{\"carrierCode\":\"AA\"},")
+                    .append("\"duration\":\"PT3H05M\",\"id\":\"").append(segmentId++).append("\",\"numberOfStops\":0,\"blacklistedInEU\":false}");
+            }
+            itineraries.append("]}");
+        }
+
+        StringBuilder travelerPricings = new StringBuilder();
+        for (int t = 1; t <= 2; t++) {
+            if (t > 1) {
+                travelerPricings.append(",");
+            }
+            travelerPricings.append("{\"travelerId\":\"").append(t).append("\",\"fareOption\":\"STANDARD\",\"travelerType\":\"ADULT\",")
+                .append("\"price\":{\"currency\":\"USD\",\"total\":\"412.20\",\"base\":\"351.63\"},\"fareDetailsBySegment\":[");
+            for (int s = 1; s < segmentId; s++) {
+                if (s > 1) {
+                    travelerPricings.append(",");
+                }
+                travelerPricings.append("{\"segmentId\":\"").append(s).append("\",\"cabin\":\"ECONOMY\",\"fareBasis\":\"OUA0AFBN\",")
+                    .append("\"brandedFare\":\"BASIC\",\"class\":\"O\",\"includedCheckedBags\":{\"quantity\":0}}");
+            }
+            travelerPricings.append("]}");
+        }
+
+        return "{\"type\":\"flight-offer\",\"id\":\"1\",\"source\":\"GDS\",\"instantTicketingRequired\":false,"
+            + "\"nonHomogeneous\":false,\"oneWay\":false,\"lastTicketingDate\":\"2026-11-01\","
+            + "\"lastTicketingDateTime\":\"2026-11-01\",\"numberOfBookableSeats\":9,"
+            + "\"itineraries\":[" + itineraries + "],"
+            + "\"price\":{\"currency\":\"USD\",\"total\":\"824.40\",\"base\":\"703.26\","
+            + "\"fees\":[{\"amount\":\"0.00\",\"type\":\"SUPPLIER\"},{\"amount\":\"0.00\",\"type\":\"TICKETING\"}],\"grandTotal\":\"824.40\"},"
+            + "\"pricingOptions\":{\"fareType\":[\"PUBLISHED\"],\"includedCheckedBagsOnly\":false},"
+            + "\"validatingAirlineCodes\":[\"AA\"],"
+            + "\"travelerPricings\":[" + travelerPricings + "]}";
+    }
+
+    @FunctionalInterface
+    private interface ResultBuild {
+        FlightSearchResult run() throws Exception;
+    }
+
+    private static class Measurement {
+        private final long bytesPerOp;
+        private final long nanosPerOp;
+
+        Measurement(long bytesPerOp, long nanosPerOp) {
+            this.bytesPerOp = bytesPerOp;
+            this.nanosPerOp = nanosPerOp;
+        }
+    }
+}
@@ -4,9 +4,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.seatmap.api.exception.SeatmapApiException;
 import com.seatmap.api.model.FlightSearchRequest;
 import com.seatmap.api.model.FlightSearchResult;
 import com.seatmap.api.model.FlightSearchResponse;
+import com.seatmap.api.model.SeatMapData;
 import com.seatmap.common.exception.SeatmapException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +16,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.net.http.HttpTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -53,10 +60,9 @@ class FlightSearchServiceTest {
         request.setFlightNumber("123");
         request.setMaxResults(5);
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 2);
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", "AA", "123", 5, 0, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), eq("AA"), eq("123"), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(2));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
@@ -66,7 +72,7 @@ class FlightSearchServiceTest {
         assertEquals(2, response.getData().size()); // Only Amadeus results
         assertEquals("AMADEUS", response.getMeta().getSources());
         
-        verify(mockAmadeusService).searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", "AA", "123", 5, 0, false);
+        verify(mockAmadeusService).searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), eq("AA"), eq("123"), eq(120), any(SearchDeadline.class));
         // Sabre is disabled, so no longer called
         verify(mockSabreService, never()).searchFlightsWithSeatmaps(any(), any(), any(), any(), any(), any());
     }
@@ -74,10 +80,9 @@ class FlightSearchServiceTest {
     @Test
     void searchFlightsWithSeatmaps_WithParameters_ShouldReturnMeshedResults() throws Exception {
         // Arrange
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 2);
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(2));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
@@ -98,7 +103,7 @@ class FlightSearchServiceTest {
     @Test
     void searchFlightsWithSeatmaps_WithAmadeusException_ShouldReturnEmptyResults() throws Exception {
         // Arrange - Since Sabre is disabled, Amadeus errors result in empty results
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
             .thenThrow(new RuntimeException("Amadeus API error"));
         
         // Act
@@ -116,7 +121,7 @@ class FlightSearchServiceTest {
     @Test
     void searchFlightsWithSeatmaps_WithAmadeusServiceException_ShouldReturnEmptyResults() throws Exception {
         // Arrange - Only Amadeus is used, so when it fails we get empty results
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
             .thenThrow(new RuntimeException("Amadeus API error"));
         
         // Act
@@ -131,13 +136,31 @@ class FlightSearchServiceTest {
         assertEquals("AMADEUS", response.getMeta().getSources());
     }
     
+    @Test
+    void searchFlightsWithSeatmaps_WithOpenCircuitBreaker_ReportsStateInMetadata() throws Exception {
+        CircuitBreaker.resetAll();
+        CircuitBreaker breaker = CircuitBreaker.forEndpoint("AMADEUS", "/v1/shopping/seatmaps");
+        while (breaker.getState() == CircuitBreaker.State.CLOSED) {
+            breaker.onFailure();
+        }
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(1));
+        stubSeatmapsForAllOffers(false);
+        
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
+            "LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10
+        );
+        
+        assertEquals("OPEN", response.getMeta().getCircuitBreakers().get("AMADEUS /v1/shopping/seatmaps"));
+        CircuitBreaker.resetAll();
+    }
+    
     @Test
     void searchFlightsWithSeatmaps_WithAmadeusResults_ShouldReturnAmadeusOnly() throws Exception {
         // Arrange - Only Amadeus is called, no deduplication needed
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 1);
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(1));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
@@ -153,11 +176,9 @@ class FlightSearchServiceTest {
     @Test
     void searchFlightsWithSeatmaps_WithMaxResults_ShouldLimitResults() throws Exception {
         // Arrange
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 3);
-        List<FlightSearchResult> sabreMockResults = createMockFlightResults("SABRE", 5);
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 3, 0, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(5));
+        stubSeatmapsForAllOffers(false);
         
         // Act - Limit to 3 results
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
@@ -168,17 +189,15 @@ class FlightSearchServiceTest {
         assertNotNull(response);
         assertEquals(3, response.getData().size());
         assertEquals(3, response.getMeta().getCount());
+        verify(mockAmadeusService).getSeatmapsForOffers(argThat(offers -> offers.size() == 3), eq(false), any(), any());
     }
     
     @Test
     void searchFlightsWithSeatmaps_WithNullMaxResults_ShouldDefaultTo10() throws Exception {
-        // Arrange - The service defaults null to 10 internally, so APIs are called with 10
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 10);
-        List<FlightSearchResult> sabreMockResults = createMockFlightResults("SABRE", 0);
-        
-        // Note: The service converts null maxResults to 10 before calling the APIs
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, null, 0, false))
-            .thenReturn(amadeusMockResults);
+        // Arrange - The service defaults null to 10 internally, so only 10 offers are paged
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(15));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
@@ -194,8 +213,8 @@ class FlightSearchServiceTest {
     @Test
     void searchFlightsWithSeatmaps_WithNoResults_ShouldReturnEmptyResponse() throws Exception {
         // Arrange
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
-            .thenReturn(new ArrayList<>());
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(0));
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
@@ -210,62 +229,397 @@ class FlightSearchServiceTest {
     }
     
     @Test
-    void createFlightKey_WithValidFlightData_ShouldReturnCorrectKey() {
+    void searchFlightsWithSeatmaps_WithSabreEnabled_MergesSabreAfterAmadeus() throws Exception {
+        FlightSearchService multiProviderService = new FlightSearchService(mockAmadeusService, mockSabreService, true);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(2));
+        stubSeatmapsForAllOffers(false);
+        FlightSearchResult duplicate = createMockFlightResult("SABRE", "AA", "100", "LAX", "JFK", "2024-06-15T10:05:00");
+        FlightSearchResult sabreOnly = createMockFlightResult("SABRE", "B6", "615", "LAX", "JFK", "2024-06-15T12:00:00");
+        when(mockSabreService.searchFlightsWithSeatmaps(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), eq(10), any(SearchDeadline.class)))
+            .thenReturn(List.of(sabreOnly, duplicate));
+        
+        FlightSearchResponse response = multiProviderService.searchFlightsWithSeatmaps(
+            "LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10
+        );
+        
+        assertEquals(3, response.getData().size());
+        assertEquals("AMADEUS", response.getData().get(0).getDataSource());
+        assertEquals("AMADEUS", response.getData().get(1).getDataSource());
+        assertSame(sabreOnly, response.getData().get(2));
+        assertEquals("AMADEUS,SABRE", response.getMeta().getSources());
+        assertFalse(response.getMeta().isPartial());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WhenOfferSearchTimesOut_ReportsAmadeusAsTimedOut() throws Exception {
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenThrow(new SeatmapApiException("Network error calling Amadeus API", new HttpTimeoutException("request timed out")));
+        
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(
+            new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY"), SearchDeadline.after(5000));
+        
+        assertTrue(response.getData().isEmpty());
+        assertTrue(response.getMeta().isPartial());
+        assertEquals(List.of("AMADEUS"), response.getMeta().getTimedOutSources());
+        assertEquals(0, flightSearchService.getOfferSetCacheStats().getSize());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithSlowSabre_ReturnsAmadeusAtSabreDeadline() throws Exception {
+        FlightSearchService multiProviderService = new FlightSearchService(mockAmadeusService, mockSabreService, true);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(2));
+        stubSeatmapsForAllOffers(false);
+        when(mockSabreService.searchFlightsWithSeatmaps(any(), any(), any(), any(), any(), any(), any(SearchDeadline.class)))
+            .thenAnswer(invocation -> {
+                Thread.sleep(5000);
+                return List.of(createMockFlightResult("SABRE", "B6", "615", "LAX", "JFK", "2024-06-15T12:00:00"));
+            });
+        
+        long start = System.currentTimeMillis();
+        FlightSearchResponse response = multiProviderService.searchFlightsWithSeatmaps(
+            new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY"), SearchDeadline.after(300));
+        
+        assertTrue(System.currentTimeMillis() - start < 3000, "Search should not wait for Sabre past the deadline");
+        assertEquals(2, response.getData().size());
+        assertEquals("AMADEUS", response.getMeta().getSources());
+        assertTrue(response.getMeta().isPartial());
+        assertEquals(List.of("SABRE"), response.getMeta().getTimedOutSources());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithSabreEnabled_QueriesSabreForFirstPageOnly() throws Exception {
+        FlightSearchService multiProviderService = new FlightSearchService(mockAmadeusService, mockSabreService, true);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(30));
+        stubSeatmapsForAllOffers(false);
+        
+        FlightSearchResponse response = multiProviderService.searchFlightsWithSeatmaps(
+            "LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 10, false
+        );
+        
+        assertEquals(10, response.getData().size());
+        assertEquals("AMADEUS", response.getMeta().getSources());
+        verify(mockSabreService, never()).searchFlightsWithSeatmaps(any(), any(), any(), any(), any(), any(), any(SearchDeadline.class));
+    }
+    
+    // Helper methods
+    
+    private JsonNode createMockFlightOffers(int count) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode data = response.putArray("data");
+        for (int i = 0; i < count; i++) {
+            ObjectNode offer = data.addObject();
+            offer.put("id", "offer" + i);
+            offer.put("type", "flight-offer");
+        }
+        return response;
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithIdenticalConcurrentSearches_SharesOneUpstreamSearch() throws Exception {
+        // Arrange - the first search blocks upstream until the second has joined it
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenAnswer(invocation -> {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                return createMockFlightOffers(15);
+            });
+        stubSeatmapsForAllOffers(false);
+        
+        FlightSearchRequest smallerPage = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        smallerPage.setMaxResults(5);
+        
+        // Act - the searches differ only in page size
+        CompletableFuture<FlightSearchResponse> first = CompletableFuture.supplyAsync(() -> search(new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY")));
+        CompletableFuture<FlightSearchResponse> second = CompletableFuture.supplyAsync(() -> search(smallerPage));
+        long waitUntil = System.currentTimeMillis() + 5000;
+        while (flightSearchService.getCoalescingStats().getCoalescedCount() < 1 && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        FlightSearchResponse firstResponse = first.get(5, TimeUnit.SECONDS);
+        FlightSearchResponse secondResponse = second.get(5, TimeUnit.SECONDS);
+        
+        // Assert - one upstream search, with each caller paging through the shared result set
+        verify(mockAmadeusService, times(1)).searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class));
+        assertEquals(10, firstResponse.getData().size());
+        assertEquals(5, secondResponse.getData().size());
+        assertEquals(SearchCursor.decode(firstResponse.getMeta().getPagination().getNextCursor()).getSearchId(),
+            SearchCursor.decode(secondResponse.getMeta().getPagination().getNextCursor()).getSearchId());
+        assertEquals(5, SearchCursor.decode(secondResponse.getMeta().getPagination().getNextCursor()).getOffset());
+        assertEquals(1, flightSearchService.getCoalescingStats().getLeaderCount());
+        assertEquals(1, flightSearchService.getCoalescingStats().getCoalescedCount());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithSequentialIdenticalSearches_RunsEachUpstream() throws Exception {
         // Arrange
-        FlightSearchResult flight = createMockFlightResult("AMADEUS", "AA", "123", "LAX", "JFK", "2024-06-15T10:00:00");
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(5));
+        stubSeatmapsForAllOffers(false);
         
         // Act
-        String key = invokeCreateFlightKey(flight);
+        search(new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY"));
+        search(new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY"));
         
-        // Assert
-        assertEquals("AA123LAXJFK2024-06-15", key);
+        // Assert - only searches in flight at the same moment are coalesced
+        verify(mockAmadeusService, times(2)).searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class));
+        assertEquals(2, flightSearchService.getCoalescingStats().getLeaderCount());
+        assertEquals(0, flightSearchService.getCoalescingStats().getCoalescedCount());
     }
     
     @Test
-    void createFlightKey_WithMissingItinerary_ShouldReturnEmptyKey() {
-        // Arrange
-        FlightSearchResult flight = new FlightSearchResult();
-        flight.setDataSource("AMADEUS");
+    void createSearchKey_NormalizesCodesAndIgnoresPaging() {
+        assertEquals(FlightSearchService.createSearchKey("LAX", "JFK", "2024-06-15", "ECONOMY", "AA", "100"),
+            FlightSearchService.createSearchKey(" lax", "jfk ", "2024-06-15", "economy", " aa", "100"));
+        assertEquals(FlightSearchService.createSearchKey("LAX", "JFK", "2024-06-15", null, null, null),
+            FlightSearchService.createSearchKey("LAX", "JFK", "2024-06-15", "", " ", null));
+        assertNotEquals(FlightSearchService.createSearchKey("LAX", "JFK", "2024-06-15", "ECONOMY", null, null),
+            FlightSearchService.createSearchKey("LAX", "JFK", "2024-06-15", "BUSINESS", null, null));
+    }
+    
+    @Test
+    void streamFlightsWithSeatmaps_PassesOnEachResultAsItArrives() throws Exception {
+        // Arrange - Amadeus hands each result to the listener before returning the page
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(3));
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                List<FlightSearchResult> results = createMockFlightResults("AMADEUS", ((List<?>) invocation.getArgument(0)).size());
+                Consumer<FlightSearchResult> onResult = invocation.getArgument(4);
+                results.forEach(onResult);
+                return results;
+            });
+        List<FlightSearchResult> streamed = new ArrayList<>();
         
         // Act
-        String key = invokeCreateFlightKey(flight);
+        FlightSearchResponse response = flightSearchService.streamFlightsWithSeatmaps(
+            new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY"), SearchDeadline.after(5000), streamed::add);
         
-        // Assert
-        assertEquals("", key);
+        // Assert - the response lists what was streamed
+        assertEquals(3, streamed.size());
+        assertEquals(streamed, response.getData());
+        assertEquals(3, response.getMeta().getCount());
+        verify(mockAmadeusService, never()).getSeatmapsForOffers(anyList(), anyBoolean(), any(), any());
     }
     
     @Test
-    void createFlightKey_WithEmptyItinerary_ShouldReturnEmptyKey() {
-        // Arrange
-        FlightSearchResult flight = new FlightSearchResult();
-        flight.setDataSource("AMADEUS");
-        flight.setItineraries(new ArrayList<>());
+    void streamedResults_PassesOnEachFlightOnceFromFirstProviderUpToLimitPerProvider() {
+        List<FlightSearchResult> streamed = new ArrayList<>();
+        FlightSearchService.StreamedResults results = new FlightSearchService.StreamedResults(2, streamed::add);
+        FlightSearchResult amadeusFare = createMockFlightResult("AMADEUS", "AA", "100", "LAX", "JFK", "2024-06-15T10:00:00");
+        FlightSearchResult otherAmadeusFare = createMockFlightResult("AMADEUS", "AA", "100", "LAX", "JFK", "2024-06-15T10:00:00");
+        FlightSearchResult sabreDuplicate = createMockFlightResult("SABRE", "AA", "100", "LAX", "JFK", "2024-06-15T10:00:00");
+        FlightSearchResult sabreOnly = createMockFlightResult("SABRE", "B6", "615", "LAX", "JFK", "2024-06-15T12:00:00");
+        FlightSearchResult otherSabreOnly = createMockFlightResult("SABRE", "DL", "200", "LAX", "JFK", "2024-06-15T14:00:00");
+        FlightSearchResult overLimit = createMockFlightResult("SABRE", "UA", "300", "LAX", "JFK", "2024-06-15T16:00:00");
+        
+        results.offer("AMADEUS", amadeusFare);
+        results.offer("SABRE", sabreDuplicate);
+        results.offer("AMADEUS", otherAmadeusFare);
+        results.offer("SABRE", sabreOnly);
+        results.offer("SABRE", otherSabreOnly);
+        results.offer("SABRE", overLimit);
+        
+        assertEquals(List.of(amadeusFare, otherAmadeusFare, sabreOnly, otherSabreOnly), streamed);
+        assertEquals(streamed, results.close());
+    }
+    
+    @Test
+    void streamFlightsWithSeatmaps_WhenSabreCompletesFirst_StreamsWholeAmadeusPage() throws Exception {
+        // Arrange - the Amadeus seatmaps complete only after Sabre has streamed a page's worth
+        FlightSearchService multiProviderService = new FlightSearchService(mockAmadeusService, mockSabreService, true);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(4));
+        when(mockSabreService.searchFlightsWithSeatmaps(any(), any(), any(), any(), any(), any(), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightResults("SABRE", 2));
+        CountDownLatch sabreStreamed = new CountDownLatch(2);
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                assertTrue(sabreStreamed.await(5, TimeUnit.SECONDS));
+                List<FlightSearchResult> results = createMockFlightResults("AMADEUS", ((List<?>) invocation.getArgument(0)).size());
+                Consumer<FlightSearchResult> onResult = invocation.getArgument(4);
+                results.forEach(onResult);
+                return results;
+            });
+        List<FlightSearchResult> streamed = new ArrayList<>();
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setMaxResults(2);
         
         // Act
-        String key = invokeCreateFlightKey(flight);
+        FlightSearchResponse response = multiProviderService.streamFlightsWithSeatmaps(request, SearchDeadline.after(5000), result -> {
+            streamed.add(result);
+            if ("SABRE".equals(result.getDataSource())) {
+                sabreStreamed.countDown();
+            }
+        });
+        
+        // Assert - both Amadeus page offers were sent, so the next page starts right after them
+        assertEquals(4, streamed.size());
+        assertEquals(List.of("SABRE", "SABRE", "AMADEUS", "AMADEUS"), streamed.stream().map(FlightSearchResult::getDataSource).toList());
+        assertEquals(streamed, response.getData());
+        assertEquals(2, SearchCursor.decode(response.getMeta().getPagination().getNextCursor()).getOffset());
+    }
+    
+    @Test
+    void streamedResults_WhenSabreCompletesFirst_StillPassesOnWholeAmadeusPage() {
+        List<FlightSearchResult> streamed = new ArrayList<>();
+        FlightSearchService.StreamedResults results = new FlightSearchService.StreamedResults(2, streamed::add);
+        FlightSearchResult sabreFirst = createMockFlightResult("SABRE", "B6", "615", "LAX", "JFK", "2024-06-15T12:00:00");
+        FlightSearchResult sabreSecond = createMockFlightResult("SABRE", "DL", "200", "LAX", "JFK", "2024-06-15T14:00:00");
+        FlightSearchResult amadeusFirst = createMockFlightResult("AMADEUS", "AA", "100", "LAX", "JFK", "2024-06-15T10:00:00");
+        FlightSearchResult amadeusSecond = createMockFlightResult("AMADEUS", "UA", "300", "LAX", "JFK", "2024-06-15T16:00:00");
+        
+        // Sabre fills a page's worth before any Amadeus seatmap completes
+        results.offer("SABRE", sabreFirst);
+        results.offer("SABRE", sabreSecond);
+        results.offer("AMADEUS", amadeusFirst);
+        results.offer("AMADEUS", amadeusSecond);
+        
+        // The Amadeus page offers the next cursor moves past were all sent
+        assertEquals(List.of(sabreFirst, sabreSecond, amadeusFirst, amadeusSecond), streamed);
+    }
+    
+    @Test
+    void streamedResults_AfterClose_PassesOnNothing() {
+        List<FlightSearchResult> streamed = new ArrayList<>();
+        FlightSearchService.StreamedResults results = new FlightSearchService.StreamedResults(10, streamed::add);
         
-        // Assert
-        assertEquals("", key);
+        results.close();
+        results.offer("SABRE", createMockFlightResult("SABRE", "B6", "615", "LAX", "JFK", "2024-06-15T12:00:00"));
+        
+        assertTrue(streamed.isEmpty());
     }
     
     @Test
-    void createFlightKey_WithMissingSegments_ShouldReturnEmptyKey() {
+    void searchFlightsWithSeatmaps_WithLazySeatmaps_ReturnsHandlesAndPrefetchesTopOffers() throws Exception {
         // Arrange
-        FlightSearchResult flight = new FlightSearchResult();
-        flight.setDataSource("AMADEUS");
-        ObjectNode itinerary = objectMapper.createObjectNode();
-        List<JsonNode> itineraries = new ArrayList<>();
-        itineraries.add(itinerary);
-        flight.setItineraries(itineraries);
+        FlightSearchService multiProviderService = new FlightSearchService(mockAmadeusService, mockSabreService, true);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(5));
+        when(mockAmadeusService.buildOfferResult(any(JsonNode.class), eq(false)))
+            .thenAnswer(invocation -> createMockFlightResult("AMADEUS", "AA", ((JsonNode) invocation.getArgument(0)).path("id").asText(), "LAX", "JFK", "2024-06-15T10:00:00"));
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setSeatmapMode("LAZY");
         
         // Act
-        String key = invokeCreateFlightKey(flight);
+        FlightSearchResponse response = multiProviderService.searchFlightsWithSeatmaps(request);
+        
+        // Assert - offers come back without waiting on seatmaps, each with a handle to its own
+        assertEquals(5, response.getData().size());
+        SeatmapHandle handle = SeatmapHandle.decode(response.getData().get(3).getSeatmapHandle());
+        assertEquals(3, handle.getOfferIndex());
+        verify(mockAmadeusService, never()).getSeatmapsForOffers(anyList(), anyBoolean(), any(), any());
+        verify(mockAmadeusService).prefetchSeatMaps(argThat(offers -> offers.size() == 3 && offers.get(0).path("id").asText().equals("offer0")));
+        verify(mockSabreService, never()).searchFlightsWithSeatmaps(any(), any(), any(), any(), any(), any(), any(SearchDeadline.class));
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithSummaryOnly_ReturnsSeatmapSummariesWithoutSeats() throws Exception {
+        // Arrange
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(2));
+        SeatMapData.Seat seat = new SeatMapData.Seat();
+        seat.setNumber("1A");
+        seat.setAvailabilityStatus("AVAILABLE");
+        SeatMapData seatMap = new SeatMapData(null, null, null, List.of(seat), null, "AMADEUS");
+        seatMap.setSummary(SeatMapData.AvailabilitySummary.of(null, List.of(seat)));
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any()))
+            .thenAnswer(invocation -> {
+                List<FlightSearchResult> results = createMockFlightResults("AMADEUS", ((List<?>) invocation.getArgument(0)).size());
+                results.forEach(result -> result.setSeatMap(seatMap));
+                return results;
+            });
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setSummaryOnly(true);
         
-        // Assert
-        assertEquals("", key);
+        // Act
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
+        
+        // Assert - the projection drops the seats but leaves the shared seatmap untouched
+        SeatMapData projected = response.getData().get(0).getSeatMap();
+        assertNull(projected.getSeats());
+        assertEquals("AMADEUS", projected.getSource());
+        assertEquals(1, projected.getSummary().getAvailableSeats());
+        assertEquals(1, seatMap.getSeats().size());
     }
     
-    // Helper methods
+    @Test
+    void streamFlightsWithSeatmaps_WithCompactSeatFormat_StreamsCompactSeatmaps() throws Exception {
+        // Arrange
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(1));
+        SeatMapData.Seat seat = new SeatMapData.Seat();
+        seat.setNumber("1A");
+        seat.setAvailabilityStatus("AVAILABLE");
+        SeatMapData seatMap = new SeatMapData(null, null, null, List.of(seat), null, "AMADEUS");
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                Consumer<FlightSearchResult> onResult = invocation.getArgument(4);
+                FlightSearchResult result = createMockFlightResult("AMADEUS", "AA", "100", "LAX", "JFK", "2024-06-15T10:00:00");
+                result.setSeatMap(seatMap);
+                onResult.accept(result);
+                return List.of(result);
+            });
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setSeatFormat("COMPACT");
+        List<FlightSearchResult> streamed = new ArrayList<>();
+        
+        // Act
+        FlightSearchResponse response = flightSearchService.streamFlightsWithSeatmaps(request, SearchDeadline.none(), streamed::add);
+        
+        // Assert - seats travel as columns, projected once
+        SeatMapData compact = streamed.get(0).getSeatMap();
+        assertNull(compact.getSeats());
+        assertEquals(List.of("1A"), compact.getCompactSeats().getNumber());
+        assertSame(compact, response.getData().get(0).getSeatMap());
+        assertEquals(1, seatMap.getSeats().size());
+    }
+    
+    @Test
+    void getSeatmapForHandle_ResolvesToThatOffersSeatmap() throws Exception {
+        // Arrange
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(5));
+        when(mockAmadeusService.buildOfferResult(any(JsonNode.class), eq(false)))
+            .thenAnswer(invocation -> createMockFlightResult("AMADEUS", "AA", "100", "LAX", "JFK", "2024-06-15T10:00:00"));
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setSeatmapMode("LAZY");
+        String handle = flightSearchService.searchFlightsWithSeatmaps(request).getData().get(2).getSeatmapHandle();
+        SeatMapData seatMap = new SeatMapData();
+        when(mockAmadeusService.getSeatMapDataForOffer(argThat(offer -> offer.path("id").asText().equals("offer2")), any(SearchDeadline.class)))
+            .thenReturn(seatMap);
+        
+        // Act & Assert
+        assertSame(seatMap, flightSearchService.getSeatmapForHandle(handle, SearchDeadline.none()));
+    }
+    
+    @Test
+    void getSeatmapForHandle_WithUnknownOrMalformedHandle_Throws() {
+        SeatmapException expired = assertThrows(SeatmapException.class,
+            () -> flightSearchService.getSeatmapForHandle(new SeatmapHandle("unknown-search", 0).encode(), SearchDeadline.none()));
+        SeatmapException malformed = assertThrows(SeatmapException.class,
+            () -> flightSearchService.getSeatmapForHandle("@@not-a-handle@@", SearchDeadline.none()));
+        
+        assertEquals(410, expired.getHttpStatus());
+        assertEquals(400, malformed.getHttpStatus());
+    }
+    
+    private FlightSearchResponse search(FlightSearchRequest request) {
+        try {
+            return flightSearchService.searchFlightsWithSeatmaps(request);
+        } catch (SeatmapException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private void stubSeatmapsForAllOffers(boolean includeRaw) throws Exception {
+        // Every offer on the requested page gets a seatmap
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(includeRaw), any(), any()))
+            .thenAnswer(invocation -> createMockFlightResults("AMADEUS", ((List<?>) invocation.getArgument(0)).size()));
+    }
     
     private List<FlightSearchResult> createMockFlightResults(String dataSource, int count) {
         List<FlightSearchResult> results = new ArrayList<>();
@@ -317,7 +671,9 @@ class FlightSearchServiceTest {
         request.setIncludeRawFlightOffer(false);
         
         List<FlightSearchResult> amadeusMockResults = createMockFlightResultsWithRawData("AMADEUS", 1, false);
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(1));
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any()))
             .thenReturn(amadeusMockResults);
         
         // Act
@@ -336,7 +692,9 @@ class FlightSearchServiceTest {
         request.setIncludeRawFlightOffer(true);
         
         List<FlightSearchResult> amadeusMockResults = createMockFlightResultsWithRawData("AMADEUS", 1, true);
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, true))
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(1));
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(true), any(), any()))
             .thenReturn(amadeusMockResults);
         
         // Act
@@ -355,7 +713,9 @@ class FlightSearchServiceTest {
         request.setIncludeRawFlightOffer(null);
         
         List<FlightSearchResult> amadeusMockResults = createMockFlightResultsWithRawData("AMADEUS", 1, false);
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(1));
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any()))
             .thenReturn(amadeusMockResults);
         
         // Act
@@ -367,6 +727,71 @@ class FlightSearchServiceTest {
         assertNull(response.getData().get(0).getRawFlightOffer());
     }
 
+    @Test
+    void searchFlightsWithSeatmaps_WithSeatmapStrategy_ShouldPassStrategyToAmadeus() throws Exception {
+        // Arrange
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setSeatmapStrategy("BATCH");
+        
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(3));
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), eq(AmadeusService.SeatmapStrategy.BATCH), any()))
+            .thenReturn(createMockFlightResults("AMADEUS", 3));
+        
+        // Act
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
+        
+        // Assert
+        assertEquals(3, response.getData().size());
+        verify(mockAmadeusService).getSeatmapsForOffers(anyList(), eq(false), eq(AmadeusService.SeatmapStrategy.BATCH), any());
+    }
+
+    @Test
+    void searchFlightsWithSeatmaps_WithTimedOutSeatmaps_ShouldReturnPartialResultsAndListOmittedOffers() throws Exception {
+        // Arrange
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        SearchDeadline deadline = SearchDeadline.after(30000);
+        
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(3));
+        // The provider gets its own budgeted deadline, which records timeouts on the search deadline
+        when(mockAmadeusService.getSeatmapsForOffers(anyList(), eq(false), any(), any(SearchDeadline.class)))
+            .thenAnswer(invocation -> {
+                // The provider ran out of time for one offer
+                invocation.<SearchDeadline>getArgument(3).recordTimedOut("offer2");
+                return createMockFlightResults("AMADEUS", 2);
+            });
+        
+        // Act
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request, deadline);
+        
+        // Assert
+        assertEquals(2, response.getData().size());
+        assertTrue(response.getMeta().isPartial());
+        assertEquals(List.of("offer2"), response.getMeta().getTimedOutOfferIds());
+        assertEquals(List.of("offer2"), deadline.getTimedOutOfferIds());
+        assertEquals(3, response.getMeta().getPagination().getTotal());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithoutTimeouts_ShouldNotMarkResponsePartial() throws Exception {
+        // Arrange
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(2));
+        stubSeatmapsForAllOffers(false);
+        
+        // Act
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request, SearchDeadline.after(30000));
+        
+        // Assert
+        assertEquals(2, response.getData().size());
+        assertFalse(response.getMeta().isPartial());
+        assertNull(response.getMeta().getTimedOutOfferIds());
+        assertFalse(objectMapper.valueToTree(response.getMeta()).has("timedOutOfferIds"));
+    }
+
     // Helper methods for raw data tests
     
     private List<FlightSearchResult> createMockFlightResultsWithRawData(String dataSource, int count, boolean includeRaw) {
@@ -419,16 +844,15 @@ class FlightSearchServiceTest {
 
     // Pagination Integration Tests
     @Test
-    void searchFlightsWithSeatmaps_WithOffset_ShouldPassOffsetToAmadeus() throws Exception {
+    void searchFlightsWithSeatmaps_WithOffset_ShouldFetchSeatmapsForRequestedPageOnly() throws Exception {
         // Arrange
         FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
         request.setMaxResults(15);
         request.setOffset(30);
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 15);
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 15, 30, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(120));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
@@ -438,10 +862,11 @@ class FlightSearchServiceTest {
         assertEquals(15, response.getData().size());
         assertEquals("AMADEUS", response.getMeta().getSources());
         
-        // Verify offset was passed to Amadeus service
-        verify(mockAmadeusService).searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 15, 30, false);
+        // Verify only offers 30-44 were sent for seatmaps
+        verify(mockAmadeusService).getSeatmapsForOffers(
+            argThat(offers -> offers.size() == 15 && "offer30".equals(offers.get(0).path("id").asText())), eq(false), any(), any());
     }
-
+    
     @Test
     void searchFlightsWithSeatmaps_WithNullOffset_ShouldDefaultToZero() throws Exception {
         // Arrange
@@ -449,10 +874,9 @@ class FlightSearchServiceTest {
         request.setMaxResults(10);
         request.setOffset(null); // Explicitly null
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 10);
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(30));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
@@ -460,11 +884,13 @@ class FlightSearchServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals(10, response.getData().size());
+        assertEquals(0, response.getMeta().getPagination().getOffset());
         
         // Verify offset defaulted to 0
-        verify(mockAmadeusService).searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 0, false);
+        verify(mockAmadeusService).getSeatmapsForOffers(
+            argThat(offers -> "offer0".equals(offers.get(0).path("id").asText())), eq(false), any(), any());
     }
-
+    
     @Test
     void searchFlightsWithSeatmaps_ShouldIncludePaginationMetadata() throws Exception {
         // Arrange
@@ -472,10 +898,9 @@ class FlightSearchServiceTest {
         request.setMaxResults(10);
         request.setOffset(20);
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 10); // Full page
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 20, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(45));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
@@ -488,11 +913,12 @@ class FlightSearchServiceTest {
         FlightSearchResponse.PaginationInfo pagination = response.getMeta().getPagination();
         assertEquals(20, pagination.getOffset());
         assertEquals(10, pagination.getLimit());
-        assertEquals(-1, pagination.getTotal()); // Unknown total from Amadeus
-        assertTrue(pagination.isHasNext());  // Full page indicates more results
+        assertEquals(45, pagination.getTotal()); // Size of the cached result set
+        assertTrue(pagination.isHasNext());  // Result set extends past this page
         assertTrue(pagination.isHasPrevious()); // Offset > 0 indicates previous pages
+        assertNotNull(pagination.getNextCursor());
     }
-
+    
     @Test
     void searchFlightsWithSeatmaps_PartialPage_ShouldIndicateNoMoreResults() throws Exception {
         // Arrange
@@ -500,23 +926,25 @@ class FlightSearchServiceTest {
         request.setMaxResults(10);
         request.setOffset(20);
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 5); // Partial page
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 20, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(25)); // Partial last page
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
         
         // Assert
         assertNotNull(response);
+        assertEquals(5, response.getData().size());
         FlightSearchResponse.PaginationInfo pagination = response.getMeta().getPagination();
         assertEquals(20, pagination.getOffset());
         assertEquals(10, pagination.getLimit());
+        assertEquals(25, pagination.getTotal());
         assertFalse(pagination.isHasNext());  // Partial page indicates no more results
         assertTrue(pagination.isHasPrevious());
+        assertNull(pagination.getNextCursor());
     }
-
+    
     @Test
     void searchFlightsWithSeatmaps_FirstPage_ShouldIndicateNoPreviousResults() throws Exception {
         // Arrange
@@ -524,10 +952,9 @@ class FlightSearchServiceTest {
         request.setMaxResults(15);
         request.setOffset(0);
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 15); // Full first page
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 15, 0, false))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(40));
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
@@ -537,21 +964,19 @@ class FlightSearchServiceTest {
         FlightSearchResponse.PaginationInfo pagination = response.getMeta().getPagination();
         assertEquals(0, pagination.getOffset());
         assertEquals(15, pagination.getLimit());
-        assertTrue(pagination.isHasNext());   // Full page indicates more results
+        assertTrue(pagination.isHasNext());   // Result set extends past this page
         assertFalse(pagination.isHasPrevious()); // First page has no previous
     }
-
+    
     @Test
     void searchFlightsWithSeatmaps_EmptyResults_ShouldHaveCorrectPagination() throws Exception {
-        // Arrange
+        // Arrange - offset past the end of the result set
         FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
         request.setMaxResults(10);
         request.setOffset(50);
         
-        List<FlightSearchResult> emptyResults = new ArrayList<>();
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 10, 50))
-            .thenReturn(emptyResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(30));
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
@@ -566,7 +991,7 @@ class FlightSearchServiceTest {
         assertFalse(pagination.isHasNext());  // No results means no more
         assertTrue(pagination.isHasPrevious()); // Offset > 0 means previous pages exist
     }
-
+    
     @Test
     void searchFlightsWithSeatmaps_BoundaryOffsetValues_ShouldWorkCorrectly() throws Exception {
         // Test maximum offset (100)
@@ -574,31 +999,107 @@ class FlightSearchServiceTest {
         request.setMaxResults(20);
         request.setOffset(100);
         
-        List<FlightSearchResult> amadeusMockResults = createMockFlightResults("AMADEUS", 5); // Partial last page
-        
-        when(mockAmadeusService.searchFlightsWithBatchSeatmaps("LAX", "JFK", "2024-06-15", "ECONOMY", null, null, 20, 100))
-            .thenReturn(amadeusMockResults);
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(105)); // Partial last page
+        stubSeatmapsForAllOffers(false);
         
         // Act
         FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
         
         // Assert
         assertNotNull(response);
+        assertEquals(5, response.getData().size());
         FlightSearchResponse.PaginationInfo pagination = response.getMeta().getPagination();
         assertEquals(100, pagination.getOffset()); // Maximum offset
         assertEquals(20, pagination.getLimit());   // Maximum page size
         assertFalse(pagination.isHasNext());       // Partial page at max offset
         assertTrue(pagination.isHasPrevious());    // Has previous pages
     }
-
-    // Helper method to invoke private createFlightKey method using reflection
-    private String invokeCreateFlightKey(FlightSearchResult result) {
-        try {
-            var method = FlightSearchService.class.getDeclaredMethod("createFlightKey", FlightSearchResult.class);
-            method.setAccessible(true);
-            return (String) method.invoke(flightSearchService, result);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to invoke createFlightKey", e);
-        }
+    
+    // Cursor Pagination Tests
+    @Test
+    void searchFlightsWithSeatmaps_WithNextCursor_ShouldServePageFromCachedResultSet() throws Exception {
+        // Arrange
+        FlightSearchRequest firstRequest = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        firstRequest.setMaxResults(10);
+        
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(25));
+        stubSeatmapsForAllOffers(false);
+        
+        FlightSearchResponse firstPage = flightSearchService.searchFlightsWithSeatmaps(firstRequest);
+        
+        FlightSearchRequest nextRequest = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        nextRequest.setMaxResults(10);
+        nextRequest.setCursor(firstPage.getMeta().getPagination().getNextCursor());
+        
+        // Act
+        FlightSearchResponse secondPage = flightSearchService.searchFlightsWithSeatmaps(nextRequest);
+        
+        // Assert
+        assertEquals(10, secondPage.getData().size());
+        assertEquals(10, secondPage.getMeta().getPagination().getOffset());
+        assertEquals(25, secondPage.getMeta().getPagination().getTotal());
+        assertTrue(secondPage.getMeta().getPagination().isHasNext());
+        
+        // Offers are searched once; the second page only fetches its own seatmaps
+        verify(mockAmadeusService, times(1)).searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class));
+        verify(mockAmadeusService).getSeatmapsForOffers(
+            argThat(offers -> "offer10".equals(offers.get(0).path("id").asText())), eq(false), any(), any());
+        assertEquals(1, flightSearchService.getOfferSetCacheStats().getHitCount());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithExpiredCursor_ShouldResearchAndServeCursorOffset() throws Exception {
+        // Arrange - cursor from a result set this instance has never cached
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setMaxResults(10);
+        request.setCursor(new SearchCursor("unknown-search", 10).encode());
+        
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(15));
+        stubSeatmapsForAllOffers(false);
+        
+        // Act
+        FlightSearchResponse response = flightSearchService.searchFlightsWithSeatmaps(request);
+        
+        // Assert
+        assertEquals(5, response.getData().size());
+        assertEquals(10, response.getMeta().getPagination().getOffset());
+        assertFalse(response.getMeta().getPagination().isHasNext());
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithMalformedCursor_ShouldThrowBadRequest() {
+        // Arrange
+        FlightSearchRequest request = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        request.setCursor("@@not-a-cursor@@");
+        
+        // Act & Assert
+        SeatmapException exception = assertThrows(SeatmapException.class,
+            () -> flightSearchService.searchFlightsWithSeatmaps(request));
+        assertEquals(400, exception.getHttpStatus());
+        verifyNoInteractions(mockAmadeusService);
+    }
+    
+    @Test
+    void searchFlightsWithSeatmaps_WithCursorFromDifferentSearch_ShouldThrowBadRequest() throws Exception {
+        // Arrange
+        FlightSearchRequest firstRequest = new FlightSearchRequest("LAX", "JFK", "2024-06-15", "ECONOMY");
+        firstRequest.setMaxResults(10);
+        
+        when(mockAmadeusService.searchFlightOffers(eq("LAX"), eq("JFK"), eq("2024-06-15"), eq("ECONOMY"), isNull(), isNull(), eq(120), any(SearchDeadline.class)))
+            .thenReturn(createMockFlightOffers(25));
+        stubSeatmapsForAllOffers(false);
+        
+        String nextCursor = flightSearchService.searchFlightsWithSeatmaps(firstRequest).getMeta().getPagination().getNextCursor();
+        
+        FlightSearchRequest otherRequest = new FlightSearchRequest("SFO", "JFK", "2024-06-15", "ECONOMY");
+        otherRequest.setCursor(nextCursor);
+        
+        // Act & Assert
+        SeatmapException exception = assertThrows(SeatmapException.class,
+            () -> flightSearchService.searchFlightsWithSeatmaps(otherRequest));
+        assertEquals(400, exception.getHttpStatus());
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightSegmentKeyTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void forOffer_WithSingleSegment_BuildsCanonicalKey() throws Exception {
+        JsonNode offer = objectMapper.readTree("""
+            {
+                "id": "1",
+                "itineraries": [{
+                    "segments": [{
+                        "id": "1",
+                        "carrierCode": "UA",
+                        "number": "1679",
+                        "departure": {"iataCode": "SFO", "at": "2025-12-05T08:30:00"},
+                        "arrival": {"iataCode": "LAX", "at": "2025-12-05T10:00:00"}
+                    }]
+                }],
+                "travelerPricings": [{
+                    "fareDetailsBySegment": [{"segmentId": "1", "cabin": "ECONOMY"}]
+                }]
+            }
+            """);
+
+        assertEquals("UA|1679|SFO|LAX|2025-12-05T08:30:00|ECONOMY", FlightSegmentKey.forOffer(offer));
+    }
+
+    @Test
+    void forOffer_WithMultipleSegments_JoinsSegmentKeysInOrder() throws Exception {
+        JsonNode offer = objectMapper.readTree("""
+            {
+                "itineraries": [{
+                    "segments": [{
+                        "id": "1",
+                        "carrierCode": "UA",
+                        "number": "1",
+                        "departure": {"iataCode": "SFO", "at": "2025-12-05T08:30:00"},
+                        "arrival": {"iataCode": "DEN"}
+                    }, {
+                        "id": "2",
+                        "carrierCode": "UA",
+                        "number": "456",
+                        "departure": {"iataCode": "DEN", "at": "2025-12-05T13:30:00"},
+                        "arrival": {"iataCode": "CUN"}
+                    }]
+                }],
+                "travelerPricings": [{
+                    "fareDetailsBySegment": [
+                        {"segmentId": "1", "cabin": "ECONOMY"},
+                        {"segmentId": "2", "cabin": "BUSINESS"}
+                    ]
+                }]
+            }
+            """);
+
+        assertEquals("UA|1|SFO|DEN|2025-12-05T08:30:00|ECONOMY/UA|456|DEN|CUN|2025-12-05T13:30:00|BUSINESS",
+            FlightSegmentKey.forOffer(offer));
+    }
+
+    @Test
+    void forOffer_WithDifferentOfferIdsForSameSegments_ProducesSameKey() throws Exception {
+        String template = """
+            {
+                "id": "%s",
+                "itineraries": [{
+                    "segments": [{
+                        "carrierCode": "AA",
+                        "number": "123",
+                        "departure": {"iataCode": "LAX", "at": "2025-12-15T08:00:00"},
+                        "arrival": {"iataCode": "JFK"}
+                    }]
+                }]
+            }
+            """;
+
+        String key1 = FlightSegmentKey.forOffer(objectMapper.readTree(String.format(template, "1")));
+        String key2 = FlightSegmentKey.forOffer(objectMapper.readTree(String.format(template, "7")));
+
+        assertNotNull(key1);
+        assertEquals(key1, key2);
+    }
+
+    @Test
+    void forOffer_WithoutTravelerPricings_UsesEmptyCabin() throws Exception {
+        JsonNode offer = objectMapper.readTree("""
+            {
+                "itineraries": [{
+                    "segments": [{
+                        "carrierCode": "AA",
+                        "number": "123",
+                        "departure": {"iataCode": "LAX", "at": "2025-12-15T08:00:00"},
+                        "arrival": {"iataCode": "JFK"}
+                    }]
+                }]
+            }
+            """);
+
+        assertEquals("AA|123|LAX|JFK|2025-12-15T08:00:00|", FlightSegmentKey.forOffer(offer));
+    }
+
+    @Test
+    void forOffer_WithoutItineraries_ReturnsNull() throws Exception {
+        assertNull(FlightSegmentKey.forOffer(objectMapper.readTree("{\"id\":\"offer1\",\"type\":\"flight-offer\"}")));
+        assertNull(FlightSegmentKey.forOffer(null));
+    }
+
+    @Test
+    void forOffer_WithSegmentMissingDepartureTime_ReturnsNull() throws Exception {
+        JsonNode offer = objectMapper.readTree("""
+            {
+                "itineraries": [{
+                    "segments": [{
+                        "carrierCode": "AA",
+                        "number": "123",
+                        "departure": {"iataCode": "LAX"},
+                        "arrival": {"iataCode": "JFK"}
+                    }]
+                }]
+            }
+            """);
+
+        assertNull(FlightSegmentKey.forOffer(offer));
+    }
+
+    @Test
+    void forFlight_UsesFirstSegmentWithDepartureDateOnly() throws Exception {
+        JsonNode itinerary = objectMapper.readTree("""
+            {
+                "segments": [{
+                    "carrierCode": "AA",
+                    "number": "123",
+                    "departure": {"iataCode": "LAX", "at": "2024-06-15T10:00:00"},
+                    "arrival": {"iataCode": "JFK", "at": "2024-06-15T18:00:00"}
+                }, {
+                    "carrierCode": "AA",
+                    "number": "456",
+                    "departure": {"iataCode": "JFK", "at": "2024-06-15T20:00:00"},
+                    "arrival": {"iataCode": "BOS", "at": "2024-06-15T21:00:00"}
+                }]
+            }
+            """);
+
+        assertEquals("AA|123|LAX|JFK|2024-06-15", FlightSegmentKey.forFlight(List.of(itinerary)));
+    }
+
+    @Test
+    void forFlight_WithoutItinerariesOrSegments_ReturnsNull() throws Exception {
+        assertNull(FlightSegmentKey.forFlight(null));
+        assertNull(FlightSegmentKey.forFlight(List.of()));
+        assertNull(FlightSegmentKey.forFlight(List.of(objectMapper.createObjectNode())));
+        assertNull(FlightSegmentKey.forFlight(List.of(objectMapper.readTree("{\"segments\": []}"))));
+    }
+}
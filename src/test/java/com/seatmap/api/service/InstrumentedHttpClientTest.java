@@ -0,0 +1,196 @@
+package com.seatmap.api.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedHttpClientTest {
+
+    private static final String BODY = "{\"data\":[" + "{\"number\":\"12A\",\"cabin\":\"ECONOMY\"},".repeat(500) + "{}]}";
+
+    private HttpServer server;
+    private InstrumentedHttpClient client;
+    private final AtomicReference<String> receivedAcceptEncoding = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            receivedAcceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(compressed);
+            }
+        });
+        server.createContext("/plain", exchange -> {
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        client = new InstrumentedHttpClient("TEST", HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void send_WithGzipResponse_DecodesForStringHandler() throws Exception {
+        HttpResponse<String> response = client.send(request("/gzip"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(BODY, response.body());
+        assertEquals("gzip", receivedAcceptEncoding.get());
+
+        InstrumentedHttpClient.TransportStats stats = client.getStats();
+        assertEquals(1, stats.getRequestCount());
+        assertEquals(1, stats.getCompressedResponseCount());
+        assertEquals(BODY.length(), stats.getDecodedBytes());
+        assertTrue(stats.getWireBytes() < stats.getDecodedBytes());
+        assertTrue(stats.getCompressionRatio() > 1.0);
+    }
+
+    @Test
+    void send_WithGzipResponse_StreamsDecodedInputStream() throws Exception {
+        HttpResponse<InputStream> response = client.send(request("/gzip"), HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream body = response.body()) {
+            assertEquals(BODY, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void send_WithUncompressedResponse_PassesBodyThrough() throws Exception {
+        HttpResponse<String> response = client.send(request("/plain"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(BODY, response.body());
+        InstrumentedHttpClient.TransportStats stats = client.getStats();
+        assertEquals(0, stats.getCompressedResponseCount());
+        assertEquals(stats.getWireBytes(), stats.getDecodedBytes());
+    }
+
+    @Test
+    void send_WithExplicitAcceptEncoding_KeepsCallerHeader() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/gzip"))
+            .header("Accept-Encoding", "identity, gzip")
+            .GET()
+            .build();
+
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("identity, gzip", receivedAcceptEncoding.get());
+    }
+
+    @Test
+    void sendAsync_WithGzipResponse_DecodesBody() throws Exception {
+        HttpResponse<String> response = client.sendAsync(request("/gzip"), HttpResponse.BodyHandlers.ofString()).get();
+
+        assertEquals(BODY, response.body());
+        assertEquals(1, client.getStats().getRequestCount());
+    }
+
+    @Test
+    void gzipDecoder_WithOneByteChunksAndConcatenatedMembers_DecodesAll() throws Exception {
+        byte[] first = gzip("first member ".getBytes(StandardCharsets.UTF_8));
+        byte[] second = gzip("second member".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(first);
+        stream.write(second);
+
+        InstrumentedHttpClient.GzipDecoder decoder = new InstrumentedHttpClient.GzipDecoder();
+        List<ByteBuffer> output = new ArrayList<>();
+        for (byte b : stream.toByteArray()) {
+            output.addAll(decoder.decode(List.of(ByteBuffer.wrap(new byte[] {b}))));
+        }
+
+        assertEquals("first member second member", toString(output));
+        assertTrue(decoder.isAtMemberBoundary());
+    }
+
+    @Test
+    void gzipDecoder_WithFileNameInHeader_SkipsOptionalFields() throws Exception {
+        byte[] plain = gzip("named".getBytes(StandardCharsets.UTF_8));
+        // Rewrite the header with FNAME set and a zero-terminated file name after the fixed 10 bytes
+        ByteArrayOutputStream named = new ByteArrayOutputStream();
+        named.write(plain, 0, 3);
+        named.write(0x08);
+        named.write(plain, 4, 6);
+        named.write("seatmap.json\0".getBytes(StandardCharsets.ISO_8859_1));
+        named.write(plain, 10, plain.length - 10);
+
+        List<ByteBuffer> output = new InstrumentedHttpClient.GzipDecoder().decode(List.of(ByteBuffer.wrap(named.toByteArray())));
+
+        assertEquals("named", toString(output));
+    }
+
+    @Test
+    void gzipDecoder_WithCorruptTrailer_Throws() throws Exception {
+        byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+        compressed[compressed.length - 5] ^= 0x01;
+
+        assertThrows(ZipException.class,
+            () -> new InstrumentedHttpClient.GzipDecoder().decode(List.of(ByteBuffer.wrap(compressed))));
+    }
+
+    @Test
+    void gzipDecoder_WithTruncatedBody_IsNotAtMemberBoundary() throws Exception {
+        byte[] compressed = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+        InstrumentedHttpClient.GzipDecoder decoder = new InstrumentedHttpClient.GzipDecoder();
+
+        decoder.decode(List.of(ByteBuffer.wrap(compressed, 0, compressed.length / 2)));
+
+        assertFalse(decoder.isAtMemberBoundary());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl() + path)).GET().build();
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String toString(List<ByteBuffer> buffers) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
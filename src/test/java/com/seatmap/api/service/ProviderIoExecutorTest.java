@@ -0,0 +1,112 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderIoExecutorTest {
+
+    @Test
+    void supplyAsync_RunsUpToMaxConcurrencyCallsAtOnce() throws Exception {
+        ProviderIoExecutor executor = new ProviderIoExecutor("TEST", 8, 64);
+        CountDownLatch allStarted = new CountDownLatch(8);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int value = i;
+            futures.add(executor.supplyAsync(() -> {
+                allStarted.countDown();
+                await(release);
+                return value;
+            }));
+        }
+
+        // All 8 blocking calls are in flight together, regardless of vCPU count
+        assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        int sum = futures.stream().mapToInt(CompletableFuture::join).sum();
+        assertEquals(28, sum);
+        assertEquals(8, executor.getStats().getPeakActiveCount());
+        assertEquals(8, executor.getStats().getSubmittedCount());
+    }
+
+    @Test
+    void execute_BeyondMaxConcurrency_QueuesRemainingWork() throws Exception {
+        ProviderIoExecutor executor = new ProviderIoExecutor("TEST", 2, 16);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(executor.runAsync(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                started.countDown();
+                await(release);
+                concurrent.decrementAndGet();
+            }));
+        }
+
+        // Both workers must be running before release, or the first may finish before the second starts
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(4, executor.getStats().getQueueDepth());
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(2, maxConcurrent.get());
+        assertEquals(4, executor.getStats().getPeakQueueDepth());
+        assertEquals(0, executor.getStats().getCallerRunsCount());
+    }
+
+    @Test
+    void execute_WhenQueueIsFull_RunsOnCallerThread() throws Exception {
+        ProviderIoExecutor executor = new ProviderIoExecutor("TEST", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<Void> running = executor.runAsync(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = executor.runAsync(() -> { });
+
+        Thread caller = Thread.currentThread();
+        CompletableFuture<Boolean> overflow = executor.supplyAsync(() -> Thread.currentThread() == caller);
+
+        assertTrue(overflow.join());
+        assertEquals(1, executor.getStats().getCallerRunsCount());
+
+        release.countDown();
+        running.join();
+        queued.join();
+    }
+
+    @Test
+    void forProvider_ReturnsSharedInstancePerProvider() {
+        ProviderIoExecutor first = ProviderIoExecutor.forProvider("SHARED_TEST", 4);
+        ProviderIoExecutor second = ProviderIoExecutor.forProvider("SHARED_TEST", 12);
+
+        assertSame(first, second);
+        assertEquals(4, first.getMaxConcurrency());
+        assertEquals("SHARED_TEST", first.getProvider());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    @Test
+    void reserve_WithinBurst_DoesNotWait() {
+        RateLimiter limiter = new RateLimiter("TEST", 10, 3, now::get);
+
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE));
+
+        RateLimiter.LimiterStats stats = limiter.getStats();
+        assertEquals(3, stats.getAcquiredCount());
+        assertEquals(0, stats.getWaitedCount());
+        assertEquals(0.0, stats.getAvailableTokens(), 0.001);
+    }
+
+    @Test
+    void reserve_BeyondBurst_QueuesCallersAtSteadyRate() {
+        RateLimiter limiter = new RateLimiter("TEST", 10, 1, now::get);
+
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(100 * MS, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(200 * MS, limiter.reserve(Long.MAX_VALUE));
+
+        RateLimiter.LimiterStats stats = limiter.getStats();
+        assertEquals(2, stats.getWaitedCount());
+        assertEquals(200, stats.getMaxWaitMs());
+        assertEquals(150.0, stats.getAverageWaitMs(), 0.001);
+        assertEquals(-2.0, stats.getAvailableTokens(), 0.001);
+    }
+
+    @Test
+    void reserve_RefillsOverTimeUpToBurst() {
+        RateLimiter limiter = new RateLimiter("TEST", 10, 2, now::get);
+        limiter.reserve(Long.MAX_VALUE);
+        limiter.reserve(Long.MAX_VALUE);
+
+        now.set(1000 * MS);
+
+        assertEquals(2.0, limiter.getStats().getAvailableTokens(), 0.001);
+    }
+
+    @Test
+    void reserve_WhenWaitExceedsLimit_RejectsWithoutTakingPermit() {
+        RateLimiter limiter = new RateLimiter("TEST", 10, 1, now::get);
+        limiter.reserve(Long.MAX_VALUE);
+
+        assertEquals(-1, limiter.reserve(50 * MS));
+        assertEquals(100 * MS, limiter.reserve(100 * MS));
+
+        RateLimiter.LimiterStats stats = limiter.getStats();
+        assertEquals(1, stats.getRejectedCount());
+        assertEquals(2, stats.getAcquiredCount());
+    }
+
+    @Test
+    void pauseFor_DelaysPermitsAndDropsSavedBurst() {
+        RateLimiter limiter = new RateLimiter("TEST", 10, 5, now::get);
+
+        limiter.pauseFor(2000);
+
+        assertEquals(2000 * MS, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(2100 * MS, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(1, limiter.getStats().getThrottledCount());
+
+        // Tokens refill at the steady rate once the pause is over
+        now.set(3000 * MS);
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE));
+    }
+
+    @Test
+    void acquire_WhenPermitNotDueBeforeDeadline_ReturnsFalse() throws Exception {
+        RateLimiter limiter = new RateLimiter("TEST", 1, 1, System::nanoTime);
+
+        assertTrue(limiter.acquire(SearchDeadline.after(1000)));
+        assertFalse(limiter.acquire(SearchDeadline.after(50)));
+        assertEquals(1, limiter.getStats().getRejectedCount());
+    }
+}
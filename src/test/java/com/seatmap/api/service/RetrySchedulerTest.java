@@ -0,0 +1,139 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetrySchedulerTest {
+
+    private final ProviderIoExecutor executor = new ProviderIoExecutor("TEST", 2, 16);
+
+    @Test
+    void call_WhenFirstAttemptSucceeds_RunsOnCallingThread() throws Exception {
+        RetryScheduler scheduler = new RetryScheduler("TEST", executor, 10, 40);
+        Thread caller = Thread.currentThread();
+
+        CompletableFuture<Thread> result = scheduler.call(Thread::currentThread, 3, e -> true, SearchDeadline.none());
+
+        assertSame(caller, result.get(1, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void call_AfterRetryableFailures_RetriesOnExecutorWithoutBlockingCaller() throws Exception {
+        RetryScheduler scheduler = new RetryScheduler("TEST", executor, 10, 40);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = scheduler.call(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("connection reset");
+            }
+            return Thread.currentThread().getName();
+        }, 3, e -> e instanceof IOException, SearchDeadline.none());
+
+        // The caller is free as soon as the first attempt fails
+        assertFalse(result.isDone());
+        assertTrue(result.get(1, TimeUnit.SECONDS).startsWith("test-io-"));
+        assertEquals(3, attempts.get());
+        assertEquals(2, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void call_WithNonRetryableFailure_FailsWithoutRetry() {
+        RetryScheduler scheduler = new RetryScheduler("TEST", executor, 10, 40);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = scheduler.call(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("fault");
+        }, 3, e -> e instanceof IOException, SearchDeadline.none());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void call_WhenAttemptsExhausted_FailsWithLastFailure() {
+        RetryScheduler scheduler = new RetryScheduler("TEST", executor, 10, 40);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = scheduler.call(() -> {
+            throw new IOException("attempt " + attempts.incrementAndGet());
+        }, 2, e -> true, SearchDeadline.none());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertEquals("attempt 2", e.getCause().getMessage());
+        assertEquals(1, scheduler.getExhaustedCount());
+    }
+
+    @Test
+    void call_WhenRetryWouldMissDeadline_FailsImmediately() {
+        RetryScheduler scheduler = new RetryScheduler("TEST", executor, 1000, 4000);
+
+        CompletableFuture<String> result = scheduler.call(() -> {
+            throw new IOException("timeout");
+        }, 3, e -> true, SearchDeadline.after(100));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void call_WhenExecutorQueueIsFull_FailsRetryInsteadOfRunningItOnTimer() throws Exception {
+        ProviderIoExecutor saturated = new ProviderIoExecutor("SATURATED", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        saturated.runAsync(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        saturated.runAsync(() -> await(release));
+        RetryScheduler scheduler = new RetryScheduler("TEST", saturated, 10, 40);
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            CompletableFuture<String> result = scheduler.call(() -> {
+                throw new IOException("attempt " + attempts.incrementAndGet());
+            }, 3, e -> true, SearchDeadline.none());
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+            assertEquals("attempt 1", e.getCause().getMessage());
+            assertEquals(1, attempts.get());
+            assertEquals(1, scheduler.getRejectedCount());
+            assertEquals(0, saturated.getStats().getCallerRunsCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void backoffMillis_GrowsExponentiallyWithJitterUpToMax() {
+        RetryScheduler scheduler = new RetryScheduler("TEST", executor, 1000, 4000);
+
+        for (int i = 0; i < 100; i++) {
+            long first = scheduler.backoffMillis(1);
+            long second = scheduler.backoffMillis(2);
+            long capped = scheduler.backoffMillis(10);
+            assertTrue(first >= 500 && first <= 1000, "first retry " + first);
+            assertTrue(second >= 1000 && second <= 2000, "second retry " + second);
+            assertTrue(capped >= 2000 && capped <= 4000, "capped retry " + capped);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
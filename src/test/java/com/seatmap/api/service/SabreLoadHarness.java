@@ -0,0 +1,119 @@
+package com.seatmap.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a call at a fixed concurrency for a number of requests and reports throughput and latency
+ * percentiles. Each worker issues its next request as soon as the previous one returns.
+ */
+public class SabreLoadHarness {
+
+    /**
+     * One request of the load run; the request index is passed so callers can vary the search
+     */
+    @FunctionalInterface
+    public interface Call {
+        void run(int requestIndex) throws Exception;
+    }
+
+    private final int concurrency;
+    private final int requests;
+    private final int warmupRequests;
+
+    public SabreLoadHarness(int concurrency, int requests, int warmupRequests) {
+        this.concurrency = Math.max(1, concurrency);
+        this.requests = Math.max(1, requests);
+        this.warmupRequests = Math.max(0, warmupRequests);
+    }
+
+    public Report run(Call call) throws Exception {
+        // Warm-up requests run single-threaded and are not measured: class loading, JIT, sessions
+        for (int i = 0; i < warmupRequests; i++) {
+            try {
+                call.run(i);
+            } catch (Exception e) {
+                // Failures during warm-up are not part of the measurement
+            }
+        }
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < requests) {
+                        long requestStart = System.nanoTime();
+                        try {
+                            call.run(warmupRequests + index);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - requestStart;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return new Report(concurrency, latencies, errors.get(), System.nanoTime() - start);
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Outcome of a load run
+     */
+    public static class Report {
+        private final int concurrency;
+        private final long[] sortedLatencyNanos;
+        private final long errorCount;
+        private final long elapsedNanos;
+
+        Report(int concurrency, long[] latencyNanos, long errorCount, long elapsedNanos) {
+            this.concurrency = concurrency;
+            this.sortedLatencyNanos = latencyNanos.clone();
+            Arrays.sort(sortedLatencyNanos);
+            this.errorCount = errorCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getRequestCount() { return sortedLatencyNanos.length; }
+        public long getErrorCount() { return errorCount; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getThroughputPerSecond() {
+            return sortedLatencyNanos.length * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * Nearest-rank percentile of request latency in milliseconds, e.g. percentileMillis(99)
+         */
+        public double percentileMillis(double percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencyNanos.length);
+            int index = Math.min(sortedLatencyNanos.length - 1, Math.max(0, rank - 1));
+            return sortedLatencyNanos[index] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d, concurrency=%d, errors=%d, throughput=%.1f/s, p50=%.1fms, p99=%.1fms, max=%.1fms",
+                sortedLatencyNanos.length, concurrency, errorCount, getThroughputPerSecond(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(100));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.model.FlightSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load runs of SabreService against the embedded SOAP stub, so the Sabre path can be measured without
+ * credentials. Only enabled when ENABLE_PERFORMANCE_TESTS=true. The run is shaped by
+ * SABRE_LOAD_CONCURRENCY, SABRE_LOAD_REQUESTS, SABRE_STUB_LATENCY_MS, SABRE_STUB_JITTER_MS,
+ * SABRE_STUB_FAULT_RATE and SABRE_STUB_TIMEOUT_RATE.
+ */
+@EnabledIfEnvironmentVariable(named = "ENABLE_PERFORMANCE_TESTS", matches = "true")
+class SabreLoadPerformanceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SabreLoadPerformanceTest.class);
+
+    private static final int WARMUP_REQUESTS = 20;
+    private static final long SEARCH_BUDGET_MS = 10_000;
+
+    private SabreStubServer stub;
+    private SabreService sabreService;
+    private SabreLoadHarness harness;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CircuitBreaker.resetAll();
+        stub = SabreStubServer.start();
+        long latency = envLong("SABRE_STUB_LATENCY_MS", 50);
+        long jitter = envLong("SABRE_STUB_JITTER_MS", 20);
+        for (SabreStubServer.Operation operation : SabreStubServer.Operation.values()) {
+            stub.behavior(operation).latency(latency, jitter);
+        }
+        stub.behavior(SabreStubServer.Operation.SEAT_MAP)
+            .faults(envDouble("SABRE_STUB_FAULT_RATE", 0), "soap-env:Server.SystemError", "SEAT MAP NOT AVAILABLE")
+            .timeouts(envDouble("SABRE_STUB_TIMEOUT_RATE", 0));
+
+        sabreService = new SabreService(stub.getEndpoint());
+        harness = new SabreLoadHarness((int) envLong("SABRE_LOAD_CONCURRENCY", 16),
+            (int) envLong("SABRE_LOAD_REQUESTS", 200), WARMUP_REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void searchFlightsWithSeatmaps_UnderLoad() throws Exception {
+        LocalDate firstDate = LocalDate.of(2024, 12, 1);
+
+        // A week of dates, so schedule lookups mix cache hits and misses as in production
+        SabreLoadHarness.Report report = harness.run(i -> {
+            List<FlightSearchResult> results = sabreService.searchFlightsWithSeatmaps("LAX", "JFK",
+                firstDate.plusDays(i % 7).toString(), "ECONOMY", null, 10, SearchDeadline.after(SEARCH_BUDGET_MS));
+            if (results.isEmpty()) {
+                throw new IllegalStateException("No flights returned");
+            }
+        });
+
+        logger.info("Sabre search with seat maps: {}", report);
+        logger.info("Stub requests - schedules: {}, seat maps: {}, sessions: {}, faults: {}, timeouts: {}",
+            stub.getRequestCount(SabreStubServer.Operation.FLIGHT_LIST), stub.getRequestCount(SabreStubServer.Operation.SEAT_MAP),
+            stub.getRequestCount(SabreStubServer.Operation.SESSION_CREATE), stub.getFaultCount(), stub.getTimeoutCount());
+        logger.info("Sessions: {}, SOAP pool: {}, schedule cache: {}",
+            sabreService.getSessionPoolStats(), sabreService.getSoapPoolStats(), sabreService.getScheduleCacheStats());
+
+        assertTrue(report.getErrorCount() < report.getRequestCount(), "Every search failed: " + report);
+    }
+
+    @Test
+    void getSeatMapDataFromFlight_UnderLoad() throws Exception {
+        SabreLoadHarness.Report report = harness.run(i ->
+            sabreService.getSeatMapDataFromFlight("U0", "1234", "2024-12-01", "LAX", "JFK"));
+
+        logger.info("Sabre seat map: {}", report);
+        logger.info("Sessions: {}, SOAP pool: {}, transport: {}",
+            sabreService.getSessionPoolStats(), sabreService.getSoapPoolStats(), sabreService.getTransportStats());
+
+        assertTrue(report.getErrorCount() < report.getRequestCount(), "Every seat map failed: " + report);
+    }
+
+    private static long envLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    private static double envDouble(String name, double defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Double.parseDouble(value.trim());
+    }
+}
@@ -0,0 +1,124 @@
+package com.seatmap.api.service;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPElement;
+import jakarta.xml.soap.SOAPEnvelope;
+import jakarta.xml.soap.SOAPMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation and CPU comparison of building and serializing an EnhancedSeatMapRQ through SAAJ against
+ * rendering the precompiled template. Only enabled when ENABLE_PERFORMANCE_TESTS=true.
+ */
+@EnabledIfEnvironmentVariable(named = "ENABLE_PERFORMANCE_TESTS", matches = "true")
+class SabreRequestSerializationPerformanceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SabreRequestSerializationPerformanceTest.class);
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+    private static final String TOKEN = "Shared/IDL:IceSess\\/SessMgr:1\\.0.IDL/Common/!ICESMS\\/RESD!ICESMSLB\\/RES.LB!-3177016070087638603!1007!0";
+
+    private MessageFactory messageFactory;
+    private SabreRequestTemplates templates;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageFactory = MessageFactory.newInstance();
+        templates = new SabreRequestTemplates("V1:user:PCC:AA", "password", "A1B2", "AA", "U0");
+    }
+
+    @Test
+    void template_UsesLessCpuAndAllocationThanSaaj() throws Exception {
+        Measurement saaj = measure(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            saajSeatMap().writeTo(out);
+            return out.toByteArray();
+        });
+        Measurement template = measure(() ->
+            templates.seatMap(TOKEN, "20241201083000", "AA", "1234", "2024-12-01", "LAX", "JFK"));
+
+        logger.info("Seat map request ({} bytes): SAAJ {} bytes/op {} ns/op, template {} bytes/op {} ns/op",
+            template.requestBytes, saaj.bytesPerOp, saaj.nanosPerOp, template.bytesPerOp, template.nanosPerOp);
+
+        assertEquals(saaj.requestBytes, template.requestBytes);
+        assertTrue(template.bytesPerOp < saaj.bytesPerOp, "Template should allocate less than SAAJ");
+        assertTrue(template.nanosPerOp < saaj.nanosPerOp, "Template should render faster than SAAJ");
+    }
+
+    private Measurement measure(RequestSerialization serialization) throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        int requestBytes = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            requestBytes = serialization.run().length;
+        }
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            serialization.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Measurement(allocated / MEASURED_ITERATIONS, elapsed / MEASURED_ITERATIONS, requestBytes);
+    }
+
+    private SOAPMessage saajSeatMap() throws Exception {
+        SOAPMessage soapMessage = messageFactory.createMessage();
+        SOAPEnvelope envelope = soapMessage.getSOAPPart().getEnvelope();
+        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
+        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
+        envelope.addNamespaceDeclaration("ns8", "http://stl.sabre.com/Merchandising/v8");
+        envelope.getHeader().addChildElement("Security", "wsse").addChildElement("BinarySecurityToken", "wsse").addTextNode(TOKEN);
+
+        SOAPElement seatMapRQ = envelope.getBody().addChildElement("EnhancedSeatMapRQ", "ns8");
+        seatMapRQ.addAttribute(envelope.createName("version"), "8");
+        SOAPElement seatMapQuery = seatMapRQ.addChildElement("SeatMapQueryEnhanced", "ns8");
+        seatMapQuery.addAttribute(envelope.createName("correlationID"), "20241201083000");
+        seatMapQuery.addChildElement("RequestType", "ns8").addTextNode("Payload");
+        SOAPElement flight = seatMapQuery.addChildElement("Flight", "ns8");
+        flight.addAttribute(envelope.createName("destination"), "JFK");
+        flight.addAttribute(envelope.createName("origin"), "LAX");
+        flight.addChildElement("DepartureDate", "ns8").addTextNode("2024-12-01");
+        SOAPElement operating = flight.addChildElement("Operating", "ns8");
+        operating.addAttribute(envelope.createName("carrier"), "AA");
+        operating.addTextNode("1234");
+        SOAPElement marketing = flight.addChildElement("Marketing", "ns8");
+        marketing.addAttribute(envelope.createName("carrier"), "AA");
+        marketing.addTextNode("1234");
+        seatMapQuery.addChildElement("CabinDefinition", "ns8").addChildElement("RBD", "ns8").addTextNode("Y");
+        seatMapQuery.addChildElement("Client", "ns8").addTextNode("WEB");
+
+        soapMessage.saveChanges();
+        return soapMessage;
+    }
+
+    @FunctionalInterface
+    private interface RequestSerialization {
+        byte[] run() throws Exception;
+    }
+
+    private static class Measurement {
+        private final long bytesPerOp;
+        private final long nanosPerOp;
+        private final int requestBytes;
+
+        Measurement(long bytesPerOp, long nanosPerOp, int requestBytes) {
+            this.bytesPerOp = bytesPerOp;
+            this.nanosPerOp = nanosPerOp;
+            this.requestBytes = requestBytes;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.seatmap.api.service;
+
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPBody;
+import jakarta.xml.soap.SOAPElement;
+import jakarta.xml.soap.SOAPEnvelope;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPHeader;
+import jakarta.xml.soap.SOAPMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the templates byte for byte against the SAAJ builders they replaced, kept here as the reference
+ */
+class SabreRequestTemplatesTest {
+
+    private static final String USER_ID = "V1:user:PCC:AA";
+    private static final String PASSWORD = "p&ss<word>\"1\"";
+    private static final String ORGANIZATION = "A1B2";
+    private static final String DOMAIN = "AA";
+    private static final String AIRLINE = "U0";
+    private static final String TOKEN = "Shared/IDL:IceSess\\/SessMgr:1\\.0.IDL/Common/!ICESMS\\/RESD!ICESMSLB\\/RES.LB!-3177016070087638603!1007!0";
+    private static final String CONVERSATION_ID = "V1@conversation@1";
+    private static final String MESSAGE_ID = "mid:20241201-083000-123@sabre.client.com";
+    private static final String TIMESTAMP = "2024-12-01T08:30:00Z";
+
+    private MessageFactory messageFactory;
+    private SabreRequestTemplates templates;
+
+    @BeforeEach
+    void setUp() throws SOAPException {
+        messageFactory = MessageFactory.newInstance();
+        templates = new SabreRequestTemplates(USER_ID, PASSWORD, ORGANIZATION, DOMAIN, AIRLINE);
+    }
+
+    @Test
+    void sessionCreate_MatchesSaajBuilder() throws Exception {
+        assertSameBytes(saajSessionCreate(), templates.sessionCreate(CONVERSATION_ID, MESSAGE_ID, TIMESTAMP));
+    }
+
+    @Test
+    void sessionClose_MatchesSaajBuilder() throws Exception {
+        assertSameBytes(saajSessionClose(TOKEN), templates.sessionClose(TOKEN, CONVERSATION_ID, MESSAGE_ID, TIMESTAMP));
+    }
+
+    @Test
+    void flightSchedules_WithAllFields_MatchesSaajBuilder() throws Exception {
+        assertSameBytes(saajFlightSchedules("LAX", "2024-12-01", "JFK", "1234", "12"),
+            templates.flightSchedules(TOKEN, "LAX", "2024-12-01", "JFK", "1234", "12"));
+    }
+
+    @Test
+    void flightSchedules_WithOnlyOrigin_MatchesSaajBuilder() throws Exception {
+        assertSameBytes(saajFlightSchedules("LAX", null, null, null, null),
+            templates.flightSchedules(TOKEN, "LAX", null, null, null, null));
+    }
+
+    @Test
+    void seatMap_MatchesSaajBuilder() throws Exception {
+        assertSameBytes(saajSeatMap("AA", "1234", "2024-12-01", "LAX", "JFK"),
+            templates.seatMap(TOKEN, "20241201083000", "AA", "1234", "2024-12-01", "LAX", "JFK"));
+    }
+
+    @Test
+    void seatMap_WithCharactersToEscape_MatchesSaajBuilder() throws Exception {
+        assertSameBytes(saajSeatMap("A\"&", "<12>", "2024-12-01", "L&X", "J\"K"),
+            templates.seatMap(TOKEN, "20241201083000", "A\"&", "<12>", "2024-12-01", "L&X", "J\"K"));
+    }
+
+    private static void assertSameBytes(SOAPMessage expected, byte[] actual) throws SOAPException, IOException {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        expected.writeTo(serialized);
+        assertEquals(serialized.toString(StandardCharsets.UTF_8), new String(actual, StandardCharsets.UTF_8));
+        assertArrayEquals(serialized.toByteArray(), actual);
+    }
+
+    private SOAPMessage saajSessionCreate() throws SOAPException {
+        SOAPMessage soapMessage = messageFactory.createMessage();
+        SOAPEnvelope envelope = soapMessage.getSOAPPart().getEnvelope();
+        envelope.addNamespaceDeclaration("eb", "http://www.ebxml.org/namespaces/messageHeader");
+        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
+        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
+
+        SOAPHeader header = envelope.getHeader();
+        SOAPElement messageHeader = header.addChildElement("MessageHeader", "eb");
+        messageHeader.addAttribute(envelope.createName("mustUnderstand"), "1");
+        messageHeader.addAttribute(envelope.createName("version"), "1.0");
+        SOAPElement fromPartyId = messageHeader.addChildElement("From", "eb").addChildElement("PartyId", "eb");
+        fromPartyId.addAttribute(envelope.createName("type"), "urn:x12.org:IO5:01");
+        fromPartyId.addTextNode("999999");
+        SOAPElement toPartyId = messageHeader.addChildElement("To", "eb").addChildElement("PartyId", "eb");
+        toPartyId.addAttribute(envelope.createName("type"), "urn:x12.org:IO5:01");
+        toPartyId.addTextNode("123123");
+        messageHeader.addChildElement("CPAId", "eb").addTextNode(ORGANIZATION);
+        messageHeader.addChildElement("ConversationId", "eb").addTextNode(CONVERSATION_ID);
+        SOAPElement service = messageHeader.addChildElement("Service", "eb");
+        service.addAttribute(envelope.createName("type"), "OTA");
+        service.addTextNode("SessionCreateRQ");
+        messageHeader.addChildElement("Action", "eb").addTextNode("SessionCreateRQ");
+        SOAPElement messageData = messageHeader.addChildElement("MessageData", "eb");
+        messageData.addChildElement("MessageId", "eb").addTextNode(MESSAGE_ID);
+        messageData.addChildElement("Timestamp", "eb").addTextNode(TIMESTAMP);
+
+        SOAPElement usernameToken = header.addChildElement("Security", "wsse").addChildElement("UsernameToken", "wsse");
+        usernameToken.addChildElement("Username", "wsse").addTextNode(USER_ID);
+        usernameToken.addChildElement("Password", "wsse").addTextNode(PASSWORD);
+        usernameToken.addChildElement("Organization").addTextNode(ORGANIZATION);
+        usernameToken.addChildElement("Domain").addTextNode(DOMAIN);
+
+        SOAPElement sessionCreate = envelope.getBody().addChildElement("SessionCreateRQ");
+        sessionCreate.addAttribute(envelope.createName("returnContextID"), "true");
+        SOAPElement source = sessionCreate.addChildElement("POS").addChildElement("Source");
+        source.addAttribute(envelope.createName("PseudoCityCode"), ORGANIZATION);
+
+        soapMessage.saveChanges();
+        return soapMessage;
+    }
+
+    private SOAPMessage saajSessionClose(String sessionToken) throws SOAPException {
+        SOAPMessage soapMessage = messageFactory.createMessage();
+        SOAPEnvelope envelope = soapMessage.getSOAPPart().getEnvelope();
+        envelope.addNamespaceDeclaration("eb", "http://www.ebxml.org/namespaces/messageHeader");
+        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
+
+        SOAPHeader header = envelope.getHeader();
+        SOAPElement messageHeader = header.addChildElement("MessageHeader", "eb");
+        messageHeader.addAttribute(envelope.createName("mustUnderstand"), "1");
+        messageHeader.addAttribute(envelope.createName("version"), "1.0");
+        messageHeader.addChildElement("From", "eb").addChildElement("PartyId", "eb").addTextNode("999999");
+        messageHeader.addChildElement("To", "eb").addChildElement("PartyId", "eb").addTextNode("123123");
+        messageHeader.addChildElement("CPAId", "eb").addTextNode(ORGANIZATION);
+        messageHeader.addChildElement("ConversationId", "eb").addTextNode(CONVERSATION_ID);
+        messageHeader.addChildElement("Service", "eb").addTextNode("SessionCloseRQ");
+        messageHeader.addChildElement("Action", "eb").addTextNode("SessionCloseRQ");
+        SOAPElement messageData = messageHeader.addChildElement("MessageData", "eb");
+        messageData.addChildElement("MessageId", "eb").addTextNode(MESSAGE_ID);
+        messageData.addChildElement("Timestamp", "eb").addTextNode(TIMESTAMP);
+        header.addChildElement("Security", "wsse").addChildElement("BinarySecurityToken", "wsse").addTextNode(sessionToken);
+
+        SOAPElement source = envelope.getBody().addChildElement("SessionCloseRQ").addChildElement("POS").addChildElement("Source");
+        source.addAttribute(envelope.createName("PseudoCityCode"), ORGANIZATION);
+
+        soapMessage.saveChanges();
+        return soapMessage;
+    }
+
+    private SOAPMessage saajFlightSchedules(String origin, String departureDate, String destination,
+                                            String flightNumber, String hoursFromCurrentTime) throws SOAPException {
+        SOAPMessage soapMessage = messageFactory.createMessage();
+        SOAPEnvelope envelope = soapMessage.getSOAPPart().getEnvelope();
+        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
+        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
+        envelope.addNamespaceDeclaration("n1", "http://services.sabre.com/ACS/BSO/airportFlightList/v3");
+        envelope.getHeader().addChildElement("Security", "wsse").addChildElement("BinarySecurityToken", "wsse").addTextNode(TOKEN);
+
+        SOAPBody body = envelope.getBody();
+        SOAPElement flightSchedulesRQ = body.addChildElement("ACS_AirportFlightListRQ", "n1");
+        SOAPElement flightInfo = flightSchedulesRQ.addChildElement("FlightInfo", "n1");
+        flightInfo.addChildElement("Airline", "n1").addTextNode(AIRLINE);
+        flightInfo.addChildElement("Origin", "n1").addTextNode(origin);
+        if (departureDate != null) {
+            flightInfo.addChildElement("DepartureDate", "n1").addTextNode(departureDate);
+        }
+        if (destination != null) {
+            flightInfo.addChildElement("Destination", "n1").addTextNode(destination);
+        }
+        if (flightNumber != null) {
+            flightInfo.addChildElement("FlightNumber", "n1").addTextNode(flightNumber);
+        }
+        if (hoursFromCurrentTime != null) {
+            flightInfo.addChildElement("HoursFromCurrentTime", "n1").addTextNode(hoursFromCurrentTime);
+        }
+        flightSchedulesRQ.addChildElement("Client", "n1").addTextNode("WEB");
+
+        soapMessage.saveChanges();
+        return soapMessage;
+    }
+
+    private SOAPMessage saajSeatMap(String carrierCode, String flightNumber, String departureDate,
+                                    String origin, String destination) throws SOAPException {
+        SOAPMessage soapMessage = messageFactory.createMessage();
+        SOAPEnvelope envelope = soapMessage.getSOAPPart().getEnvelope();
+        envelope.addNamespaceDeclaration("wsse", "http://schemas.xmlsoap.org/ws/2002/12/secext");
+        envelope.addNamespaceDeclaration("wsu", "http://schemas.xmlsoap.org/ws/2002/12/utility");
+        envelope.addNamespaceDeclaration("ns8", "http://stl.sabre.com/Merchandising/v8");
+        envelope.getHeader().addChildElement("Security", "wsse").addChildElement("BinarySecurityToken", "wsse").addTextNode(TOKEN);
+
+        SOAPElement seatMapRQ = envelope.getBody().addChildElement("EnhancedSeatMapRQ", "ns8");
+        seatMapRQ.addAttribute(envelope.createName("version"), "8");
+        SOAPElement seatMapQuery = seatMapRQ.addChildElement("SeatMapQueryEnhanced", "ns8");
+        seatMapQuery.addAttribute(envelope.createName("correlationID"), "20241201083000");
+        seatMapQuery.addChildElement("RequestType", "ns8").addTextNode("Payload");
+        SOAPElement flight = seatMapQuery.addChildElement("Flight", "ns8");
+        flight.addAttribute(envelope.createName("destination"), destination);
+        flight.addAttribute(envelope.createName("origin"), origin);
+        flight.addChildElement("DepartureDate", "ns8").addTextNode(departureDate);
+        SOAPElement operating = flight.addChildElement("Operating", "ns8");
+        operating.addAttribute(envelope.createName("carrier"), carrierCode);
+        operating.addTextNode(flightNumber);
+        SOAPElement marketing = flight.addChildElement("Marketing", "ns8");
+        marketing.addAttribute(envelope.createName("carrier"), carrierCode);
+        marketing.addTextNode(flightNumber);
+        seatMapQuery.addChildElement("CabinDefinition", "ns8").addChildElement("RBD", "ns8").addTextNode("Y");
+        seatMapQuery.addChildElement("Client", "ns8").addTextNode("WEB");
+
+        soapMessage.saveChanges();
+        return soapMessage;
+    }
+}
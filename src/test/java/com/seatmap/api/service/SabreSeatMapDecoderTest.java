@@ -0,0 +1,208 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.model.SeatMapData;
+import jakarta.xml.soap.SOAPException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SabreSeatMapDecoderTest {
+
+    private static final String ENVELOPE_START = "<soap-env:Envelope xmlns:soap-env=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+        + "<soap-env:Header><eb:MessageHeader xmlns:eb=\"http://www.ebxml.org/namespaces/messageHeader\">"
+        + "<eb:Action>EnhancedSeatMapRS</eb:Action></eb:MessageHeader></soap-env:Header><soap-env:Body>";
+    private static final String ENVELOPE_END = "</soap-env:Body></soap-env:Envelope>";
+
+    private SabreSeatMapDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new SabreSeatMapDecoder();
+    }
+
+    @Test
+    void decode_WithSeatMap_BuildsFlightDecksAndSeats() throws Exception {
+        SeatMapData seatMap = decode(createSeatMapResponse());
+
+        assertEquals("SABRE", seatMap.getSource());
+        assertEquals("AA", seatMap.getFlight().getCarrierCode());
+        assertEquals("1234", seatMap.getFlight().getNumber());
+        assertEquals("LAX", seatMap.getFlight().getDeparture().getIataCode());
+        assertEquals("2024-12-01T08:30:00", seatMap.getFlight().getDeparture().getAt());
+        assertEquals("JFK", seatMap.getFlight().getArrival().getIataCode());
+        assertEquals("BA", seatMap.getFlight().getOperating().path("carrierCode").asText());
+        assertEquals("738", seatMap.getAircraft().getCode());
+
+        assertEquals(1, seatMap.getDecks().size());
+        SeatMapData.SeatMapDeck deck = seatMap.getDecks().get(0);
+        assertEquals("MAIN", deck.getDeckType());
+        assertEquals(3, deck.getDeckConfiguration().path("width").asInt());
+        assertEquals(2, deck.getDeckConfiguration().path("length").asInt());
+        assertEquals(1, deck.getDeckConfiguration().path("startSeatRow").asInt());
+        assertEquals(12, deck.getDeckConfiguration().path("endSeatRow").asInt());
+        assertEquals(4, deck.getSeats().size());
+        assertEquals(seatMap.getSeats(), deck.getSeats());
+        assertEquals("2x3", seatMap.getLayout().getConfiguration());
+    }
+
+    @Test
+    void decode_WithSeatMap_MapsSeatDetails() throws Exception {
+        SeatMapData seatMap = decode(createSeatMapResponse());
+        Map<String, SeatMapData.Seat> seats = seatsByNumber(seatMap);
+
+        SeatMapData.Seat window = seats.get("1A");
+        assertEquals("BUSINESS", window.getCabin());
+        assertEquals("AVAILABLE", window.getAvailabilityStatus());
+        assertEquals(List.of("W"), window.getCharacteristicsCodes());
+        assertEquals("Window seat", window.getCharacteristics().get(0).getDescription());
+        assertEquals(0, window.getCoordinates().path("x").asInt());
+        assertEquals(0, window.getCoordinates().path("y").asInt());
+        assertNull(window.getPricing());
+
+        assertEquals("OCCUPIED", seats.get("1C").getAvailabilityStatus());
+        assertEquals(2, seats.get("1C").getCoordinates().path("y").asInt());
+
+        SeatMapData.Seat exit = seats.get("12A");
+        assertEquals("ECONOMY", exit.getCabin());
+        assertEquals(List.of("E", "CH", "W"), exit.getCharacteristicsCodes());
+        assertEquals(1, exit.getCoordinates().path("x").asInt());
+        assertEquals("USD", exit.getPricing().getCurrency());
+        assertEquals("45.00", exit.getPricing().getTotal());
+        assertEquals("40.00", exit.getPricing().getBase());
+        assertEquals(1, exit.getPricing().getTaxes().size());
+        assertEquals("US", exit.getPricing().getTaxes().get(0).getCode());
+        assertEquals("5.00", exit.getPricing().getTaxes().get(0).getAmount());
+
+        assertEquals("BLOCKED", seats.get("12B").getAvailabilityStatus());
+    }
+
+    @Test
+    void decode_WithSeatMap_RecordsConversionStats() throws Exception {
+        SeatMapData.ConversionStats stats = decode(createSeatMapResponse()).getConversionStats();
+
+        assertEquals(1, stats.getSegmentCount());
+        assertEquals(1, stats.getDeckCount());
+        assertEquals(4, stats.getSeatCount());
+        assertEquals(1, stats.getPricedSeatCount());
+        assertEquals(3, stats.getIncludedSeatCount());
+        assertEquals(0, stats.getSeatsMissingPricingCount());
+        assertEquals(Map.of("ZZ", 1), stats.getUnknownCharacteristicCounts());
+    }
+
+    @Test
+    void decode_WithUpperDeckCabin_SplitsDecks() throws Exception {
+        String response = seatMapResponse(
+            "<Cabin firstRow=\"1\" lastRow=\"1\"><CabinClass><CabinType>Y</CabinType></CabinClass>"
+                + "<Row><RowNumber>30</RowNumber><Seat><Number>A</Number></Seat></Row></Cabin>"
+                + "<Cabin upperDeckInd=\"true\"><CabinClass><CabinType>C</CabinType></CabinClass>"
+                + "<Row><RowNumber>60</RowNumber><Seat><Number>A</Number></Seat></Row></Cabin>");
+
+        SeatMapData seatMap = decode(response);
+
+        assertEquals(2, seatMap.getDecks().size());
+        assertEquals("MAIN", seatMap.getDecks().get(0).getDeckType());
+        assertEquals("UPPER", seatMap.getDecks().get(1).getDeckType());
+        assertEquals("60A", seatMap.getDecks().get(1).getSeats().get(0).getNumber());
+        assertEquals(2, seatMap.getConversionStats().getDeckCount());
+    }
+
+    @Test
+    void decode_WithSoapFault_ThrowsFault() {
+        String response = ENVELOPE_START + "<soap-env:Fault><faultcode>soap-env:Client.InvalidSecurityToken</faultcode>"
+            + "<faultstring>Invalid or Expired binary security token</faultstring></soap-env:Fault>" + ENVELOPE_END;
+
+        SabreFaultException e = assertThrows(SabreFaultException.class, () -> decode(response));
+
+        assertEquals("soap-env:Client.InvalidSecurityToken", e.getFaultCode());
+        assertEquals("Invalid or Expired binary security token", e.getFaultString());
+        assertTrue(e.isInvalidSession());
+    }
+
+    @Test
+    void decode_WithNotProcessedResults_ThrowsFaultWithMessages() {
+        String response = ENVELOPE_START + "<EnhancedSeatMapRS xmlns=\"http://stl.sabre.com/Merchandising/v8\">"
+            + "<ApplicationResults status=\"NotProcessed\"><Error type=\"Application\"><SystemSpecificResults>"
+            + "<Message code=\"ERR.SWS.HOST.ERROR_IN_RESPONSE\">SEAT MAP NOT AVAILABLE</Message>"
+            + "</SystemSpecificResults></Error></ApplicationResults></EnhancedSeatMapRS>" + ENVELOPE_END;
+
+        SabreFaultException e = assertThrows(SabreFaultException.class, () -> decode(response));
+
+        assertEquals("SEAT MAP NOT AVAILABLE", e.getFaultString());
+        assertFalse(e.isInvalidSession());
+    }
+
+    @Test
+    void decode_WithoutSeatMap_ThrowsFault() {
+        String response = ENVELOPE_START + "<EnhancedSeatMapRS xmlns=\"http://stl.sabre.com/Merchandising/v8\">"
+            + "<ApplicationResults status=\"Complete\"/></EnhancedSeatMapRS>" + ENVELOPE_END;
+
+        SabreFaultException e = assertThrows(SabreFaultException.class, () -> decode(response));
+
+        assertEquals("NoSeatMap", e.getFaultCode());
+    }
+
+    @Test
+    void decode_WithMalformedXml_ThrowsSoapException() {
+        SOAPException e = assertThrows(SOAPException.class, () -> decode(ENVELOPE_START + "<EnhancedSeatMapRS>"));
+
+        assertFalse(e instanceof SabreFaultException);
+    }
+
+    private SeatMapData decode(String response) throws SOAPException {
+        return decoder.decode(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Map<String, SeatMapData.Seat> seatsByNumber(SeatMapData seatMap) {
+        Map<String, SeatMapData.Seat> seats = new HashMap<>();
+        for (SeatMapData.Seat seat : seatMap.getSeats()) {
+            seats.put(seat.getNumber(), seat);
+        }
+        return seats;
+    }
+
+    private static String createSeatMapResponse() {
+        return seatMapResponse(
+            "<Cabin firstRow=\"1\" lastRow=\"1\">"
+                + "<CabinClass><CabinType>C</CabinType><RBD>J</RBD></CabinClass>"
+                + "<Column><Column>A</Column><Characteristics>Window</Characteristics></Column>"
+                + "<Column><Column>B</Column><Characteristics>Center</Characteristics></Column>"
+                + "<Column><Column>C</Column><Characteristics>Aisle</Characteristics></Column>"
+                + "<Row><RowNumber>1</RowNumber>"
+                + "<Seat occupiedInd=\"false\" inoperativeInd=\"false\" chargeableInd=\"false\"><Number>A</Number>"
+                + "<Occupation><Detail content=\"Seat is free\">SeatIsFree</Detail></Occupation>"
+                + "<Location><Detail content=\"Window\">W</Detail></Location></Seat>"
+                + "<Seat occupiedInd=\"true\"><Number>C</Number><Location><Detail>A</Detail></Location>"
+                + "<Facilities><Detail>ZZ</Detail></Facilities></Seat>"
+                + "</Row></Cabin>"
+                + "<Cabin firstRow=\"12\" lastRow=\"12\">"
+                + "<CabinClass><CabinType>Y</CabinType></CabinClass>"
+                + "<Column><Column>A</Column></Column><Column><Column>B</Column></Column>"
+                + "<Row><RowNumber>12</RowNumber>"
+                + "<Seat exitRowInd=\"true\" chargeableInd=\"true\"><Number>A</Number>"
+                + "<Location><Detail>W</Detail></Location>"
+                + "<Offer><Price><TotalAmount currencyCode=\"USD\">45.00</TotalAmount><BaseAmount>40.00</BaseAmount>"
+                + "<Taxes><Tax code=\"US\">5.00</Tax></Taxes></Price></Offer></Seat>"
+                + "<Seat inoperativeInd=\"true\"><Number>B</Number></Seat>"
+                + "</Row></Cabin>");
+    }
+
+    private static String seatMapResponse(String cabins) {
+        return ENVELOPE_START
+            + "<EnhancedSeatMapRS xmlns=\"http://stl.sabre.com/Merchandising/v8\">"
+            + "<ApplicationResults status=\"Complete\"><Success timeStamp=\"2024-11-20T10:00:00\"/></ApplicationResults>"
+            + "<SeatMap changeOfGaugeInd=\"false\" equipment=\"738\">"
+            + "<Flight id=\"f1\" origin=\"LAX\" destination=\"JFK\">"
+            + "<DepartureDate>2024-12-01</DepartureDate><DepartureTime>08:30</DepartureTime>"
+            + "<Marketing carrier=\"AA\">1234</Marketing><Operating carrier=\"BA\">1234</Operating>"
+            + "<ArrivalDate>2024-12-01</ArrivalDate></Flight>"
+            + cabins
+            + "</SeatMap></EnhancedSeatMapRS>" + ENVELOPE_END;
+    }
+}
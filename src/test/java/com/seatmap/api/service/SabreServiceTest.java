@@ -22,6 +22,7 @@ import java.net.http.HttpResponse;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -42,6 +43,7 @@ class SabreServiceTest {
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
+        CircuitBreaker.resetAll(); // Breakers are shared per operation, so failures must not carry over between tests
         
         // Environment variables are already set in build.gradle
         sabreService = new SabreService();
@@ -280,24 +282,19 @@ class SabreServiceTest {
         @Test
         @DisplayName("Should build flight search result from JSON")
         void shouldBuildFlightSearchResultFromJson() throws Exception {
-            // Create a spy to mock the getSeatMapFromFlight method
+            // Create a spy to mock the getSeatMapDataAsync method
             SabreService spyService = Mockito.spy(sabreService);
             
-            // Mock seat map response
-            String mockSeatMapJson = """
-                {
-                    "flight": "AA1234",
-                    "aircraft": "Boeing 737"
-                }
-                """;
-            JsonNode mockSeatMapResponse = objectMapper.readTree(mockSeatMapJson);
+            // Mock decoded seat map
+            SeatMapData mockSeatMap = new SeatMapData();
+            mockSeatMap.setSource("SABRE");
             
-            // Mock the getSeatMapFromFlight method to return our mock response
-            Mockito.doReturn(mockSeatMapResponse)
+            // Mock the getSeatMapDataAsync method to return our mock seat map
+            Mockito.doReturn(CompletableFuture.completedFuture(mockSeatMap))
                 .when(spyService)
-                .getSeatMapFromFlight(anyString(), anyString(), anyString(), anyString(), anyString());
+                .getSeatMapDataAsync(anyString(), anyString(), anyString(), anyString(), anyString(), any(SearchDeadline.class));
             
-            Method buildFlightSearchResultMethod = SabreService.class.getDeclaredMethod("buildFlightSearchResult", JsonNode.class);
+            Method buildFlightSearchResultMethod = SabreService.class.getDeclaredMethod("buildFlightSearchResult", JsonNode.class, SearchDeadline.class);
             buildFlightSearchResultMethod.setAccessible(true);
             
             String flightJson = """
@@ -320,9 +317,11 @@ class SabreServiceTest {
                 """;
             JsonNode flight = objectMapper.readTree(flightJson);
             
-            FlightSearchResult result = (FlightSearchResult) buildFlightSearchResultMethod.invoke(spyService, flight);
+            CompletableFuture<?> future = (CompletableFuture<?>) buildFlightSearchResultMethod.invoke(spyService, flight, SearchDeadline.none());
+            FlightSearchResult result = (FlightSearchResult) future.join();
             assertNotNull(result);
             assertEquals("SABRE", result.getDataSource());
+            assertSame(mockSeatMap, result.getSeatMap());
         }
         
         @Test
@@ -392,5 +391,58 @@ class SabreServiceTest {
         }
     }
     
-    // TODO: SeatMap Data Conversion Tests will be added when SabreService.convertToSeatMapData() is fully implemented
-}
\ No newline at end of file
+    @Nested
+    @DisplayName("Schedule Cache Tests")
+    class ScheduleCacheTests {
+        
+        @Test
+        @DisplayName("Should serve repeated schedule searches from the cache")
+        void shouldServeRepeatedScheduleSearchesFromCache() throws Exception {
+            SabreService spyService = Mockito.spy(sabreService);
+            JsonNode schedules = objectMapper.readTree("{\"data\": [{\"id\": null, \"itineraries\": [{\"segments\": [{\"departure\": {\"at\": \"2024-12-01T08:00:00\"}, \"arrival\": {}}]}]}]}");
+            Mockito.doReturn(schedules)
+                .when(spyService)
+                .fetchFlightSchedules(eq("LAX"), eq("JFK"), eq("2024-12-01"), isNull(), eq(10), any(SearchDeadline.class));
+            
+            JsonNode first = spyService.getFlightSchedulesCached("LAX", "JFK", "2024-12-01", null, 10, SearchDeadline.none());
+            JsonNode second = spyService.getFlightSchedulesCached("LAX", "JFK", "2024-12-01", null, 10, SearchDeadline.none());
+            
+            verify(spyService, times(1)).fetchFlightSchedules(eq("LAX"), eq("JFK"), eq("2024-12-01"), isNull(), eq(10), any(SearchDeadline.class));
+            assertEquals(1, spyService.getScheduleCacheStats().getHitCount());
+            
+            // Ids and placeholder times are generated per search, never stored in the cached tree
+            assertTrue(first.path("data").path(0).path("id").asText().startsWith("sabre_"));
+            assertNotEquals(first.path("data").path(0).path("id"), second.path("data").path(0).path("id"));
+            JsonNode segment = second.path("data").path(0).path("itineraries").path(0).path("segments").path(0);
+            assertEquals("2024-12-01T08:00:00", segment.path("departure").path("at").asText());
+            assertFalse(segment.path("arrival").path("at").asText().isEmpty());
+            assertTrue(schedules.path("data").path(0).path("id").isNull());
+            assertFalse(schedules.path("data").path(0).path("itineraries").path(0).path("segments").path(0).path("arrival").has("at"));
+        }
+        
+        @Test
+        @DisplayName("Should not cache schedules without flights")
+        void shouldNotCacheSchedulesWithoutFlights() throws Exception {
+            SabreService spyService = Mockito.spy(sabreService);
+            JsonNode empty = objectMapper.readTree("{\"data\": []}");
+            Mockito.doReturn(empty)
+                .when(spyService)
+                .fetchFlightSchedules(eq("LAX"), eq("JFK"), eq("2024-12-01"), isNull(), eq(10), any(SearchDeadline.class));
+            
+            spyService.getFlightSchedulesCached("LAX", "JFK", "2024-12-01", null, 10, SearchDeadline.none());
+            spyService.getFlightSchedulesCached("LAX", "JFK", "2024-12-01", null, 10, SearchDeadline.none());
+            
+            verify(spyService, times(2)).fetchFlightSchedules(eq("LAX"), eq("JFK"), eq("2024-12-01"), isNull(), eq(10), any(SearchDeadline.class));
+            assertEquals(0, spyService.getScheduleCacheStats().getSize());
+        }
+        
+        @Test
+        @DisplayName("Should key schedules by normalized search parameters")
+        void shouldKeySchedulesByNormalizedSearchParameters() {
+            assertEquals(SabreService.scheduleCacheKey("LAX", "JFK", "2024-12-01", null, 30),
+                SabreService.scheduleCacheKey(" lax", "jfk ", "2024-12-01", "", 24));
+            assertNotEquals(SabreService.scheduleCacheKey("LAX", "JFK", "2024-12-01", null, 10),
+                SabreService.scheduleCacheKey("LAX", "JFK", "2024-12-01", "1234", 10));
+        }
+    }
+}
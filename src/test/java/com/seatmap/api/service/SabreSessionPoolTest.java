@@ -0,0 +1,194 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.exception.SeatmapApiException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SabreSessionPoolTest {
+
+    private static final long SESSION_DURATION_MS = 60 * 60 * 1000;
+    private static final long REFRESH_BUFFER_MS = 5 * 60 * 1000;
+    private static final long IDLE_TIMEOUT_MS = 10 * 60 * 1000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger openCalls = new AtomicInteger();
+    private final List<String> closedTokens = new CopyOnWriteArrayList<>();
+
+    @Test
+    void checkout_ReusesReleasedSession() throws Exception {
+        SabreSessionPool pool = pool(4);
+
+        SabreSessionPool.Session first = pool.checkout(SearchDeadline.none());
+        pool.release(first);
+        SabreSessionPool.Session second = pool.checkout(SearchDeadline.none());
+
+        assertSame(first, second);
+        assertEquals(1, openCalls.get());
+        assertEquals(SESSION_DURATION_MS, first.getExpiresAt() - now.get());
+    }
+
+    @Test
+    void checkout_ConcurrentCallersGetDistinctSessions() throws Exception {
+        SabreSessionPool pool = pool(4);
+
+        SabreSessionPool.Session first = pool.checkout(SearchDeadline.none());
+        SabreSessionPool.Session second = pool.checkout(SearchDeadline.none());
+
+        assertNotEquals(first.getToken(), second.getToken());
+        SabreSessionPool.SessionPoolStats stats = pool.getStats();
+        assertEquals(2, stats.getInUseCount());
+        assertEquals(2, stats.getOpenedCount());
+    }
+
+    @Test
+    void checkout_WhenPoolExhausted_FailsAtDeadline() throws Exception {
+        SabreSessionPool pool = new SabreSessionPool("TEST", 1, SESSION_DURATION_MS, REFRESH_BUFFER_MS, IDLE_TIMEOUT_MS,
+            5000, this::openSession, closedTokens::add, Runnable::run);
+        pool.checkout(SearchDeadline.none());
+
+        assertThrows(SeatmapApiException.class, () -> pool.checkout(SearchDeadline.after(100)));
+        assertEquals(1, pool.getStats().getTimeoutCount());
+    }
+
+    @Test
+    void checkout_WhenPoolExhausted_WaitsForRelease() throws Exception {
+        SabreSessionPool pool = new SabreSessionPool("TEST", 1, SESSION_DURATION_MS, REFRESH_BUFFER_MS, IDLE_TIMEOUT_MS,
+            5000, this::openSession, closedTokens::add, Runnable::run);
+        SabreSessionPool.Session held = pool.checkout(SearchDeadline.none());
+
+        CompletableFuture<SabreSessionPool.Session> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.checkout(SearchDeadline.after(5000));
+            } catch (SeatmapApiException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        pool.release(held);
+
+        assertSame(held, waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.getStats().getWaitedCheckoutCount());
+        assertEquals(1, openCalls.get());
+    }
+
+    @Test
+    void checkout_ReplacesSessionNearExpiry() throws Exception {
+        SabreSessionPool pool = pool(4);
+        SabreSessionPool.Session original = pool.checkout(SearchDeadline.none());
+        pool.release(original);
+
+        now.addAndGet(SESSION_DURATION_MS - REFRESH_BUFFER_MS);
+        SabreSessionPool.Session next = pool.checkout(SearchDeadline.none());
+
+        assertNotSame(original, next);
+        assertEquals(List.of(original.getToken()), closedTokens);
+        assertEquals(1, pool.getStats().getReplacedCount());
+        // The background replacement plus the session opened for this checkout
+        assertEquals(3, openCalls.get());
+        assertEquals(1, pool.getStats().getIdleCount());
+    }
+
+    @Test
+    void checkout_ClosesSessionsIdlePastTimeout() throws Exception {
+        SabreSessionPool pool = pool(4);
+        SabreSessionPool.Session original = pool.checkout(SearchDeadline.none());
+        pool.release(original);
+
+        now.addAndGet(IDLE_TIMEOUT_MS);
+        SabreSessionPool.Session next = pool.checkout(SearchDeadline.none());
+
+        assertNotSame(original, next);
+        assertEquals(List.of(original.getToken()), closedTokens);
+        assertEquals(1, pool.getStats().getIdleClosedCount());
+    }
+
+    @Test
+    void invalidate_DropsSessionInsteadOfReusingIt() throws Exception {
+        SabreSessionPool pool = pool(4);
+        SabreSessionPool.Session rejected = pool.checkout(SearchDeadline.none());
+
+        pool.invalidate(rejected);
+        SabreSessionPool.Session next = pool.checkout(SearchDeadline.none());
+
+        assertNotSame(rejected, next);
+        assertEquals(List.of(rejected.getToken()), closedTokens);
+        assertEquals(1, pool.getStats().getInvalidatedCount());
+    }
+
+    @Test
+    void ensureAvailable_OpensSessionsAheadOfCheckouts() throws Exception {
+        SabreSessionPool pool = pool(4);
+
+        pool.ensureAvailable(6, SearchDeadline.none());
+
+        assertEquals(4, pool.getStats().getIdleCount());
+        assertEquals(4, openCalls.get());
+        pool.checkout(SearchDeadline.none());
+        pool.checkout(SearchDeadline.none());
+        assertEquals(4, openCalls.get());
+    }
+
+    @Test
+    void checkout_WhenOpenFails_FreesTheSlot() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        SabreSessionPool pool = new SabreSessionPool("TEST", 1, SESSION_DURATION_MS, REFRESH_BUFFER_MS, IDLE_TIMEOUT_MS,
+            5000, deadline -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new SeatmapApiException("Authentication failed");
+                }
+                return "token-" + attempts.get();
+            }, closedTokens::add, Runnable::run, now::get);
+
+        assertThrows(SeatmapApiException.class, () -> pool.checkout(SearchDeadline.none()));
+        assertEquals("token-2", pool.checkout(SearchDeadline.none()).getToken());
+        assertEquals(1, pool.getStats().getOpenFailureCount());
+    }
+
+    @Test
+    void checkout_OpensSessionWithinCallersDeadline() throws Exception {
+        List<SearchDeadline> openDeadlines = new CopyOnWriteArrayList<>();
+        SabreSessionPool pool = new SabreSessionPool("TEST", 1, SESSION_DURATION_MS, REFRESH_BUFFER_MS, IDLE_TIMEOUT_MS,
+            5000, deadline -> {
+                openDeadlines.add(deadline);
+                return "token-1";
+            }, closedTokens::add, Runnable::run, now::get);
+        SearchDeadline deadline = SearchDeadline.after(5000);
+
+        pool.checkout(deadline);
+
+        assertEquals(List.of(deadline), openDeadlines);
+    }
+
+    @Test
+    void retireAll_ClosesIdleAndCheckedOutSessionsOnRelease() throws Exception {
+        SabreSessionPool pool = pool(4);
+        SabreSessionPool.Session idle = pool.checkout(SearchDeadline.none());
+        SabreSessionPool.Session busy = pool.checkout(SearchDeadline.none());
+        pool.release(idle);
+        assertTrue(pool.hasValidSession());
+
+        pool.retireAll();
+        pool.release(busy);
+
+        assertEquals(List.of(idle.getToken(), busy.getToken()), closedTokens);
+        assertFalse(pool.hasValidSession());
+        assertEquals(0, pool.getLatestExpiry());
+    }
+
+    private SabreSessionPool pool(int maxSize) {
+        return new SabreSessionPool("TEST", maxSize, SESSION_DURATION_MS, REFRESH_BUFFER_MS, IDLE_TIMEOUT_MS,
+            5000, this::openSession, closedTokens::add, Runnable::run, now::get);
+    }
+
+    private String openSession(SearchDeadline deadline) {
+        return "token-" + openCalls.incrementAndGet();
+    }
+}
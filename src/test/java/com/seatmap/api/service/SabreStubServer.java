@@ -0,0 +1,246 @@
+package com.seatmap.api.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded Sabre SOAP endpoint for offline tests and load runs. Serves the recorded responses under
+ * /sabre on the test classpath, routed by the request's operation, with per-operation latency, fault
+ * rate and timeout rate. A timed-out request is held until the client gives up or the server stops.
+ */
+public class SabreStubServer implements AutoCloseable {
+
+    public enum Operation {
+        // Checked in this order, since the operation names also appear in each other's requests
+        SEAT_MAP("EnhancedSeatMapRQ", "/sabre/enhanced-seat-map-rs.xml"),
+        FLIGHT_LIST("ACS_AirportFlightListRQ", "/sabre/airport-flight-list-rs.xml"),
+        SESSION_CLOSE("SessionCloseRQ", "/sabre/session-close-rs.xml"),
+        SESSION_CREATE("SessionCreateRQ", "/sabre/session-create-rs.xml");
+
+        private final String requestName;
+        private final String recording;
+
+        Operation(String requestName, String recording) {
+            this.requestName = requestName;
+            this.recording = recording;
+        }
+
+        public String getRequestName() {
+            return requestName;
+        }
+
+        static Operation of(String request) {
+            for (Operation operation : values()) {
+                if (request.contains(operation.requestName)) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * How one operation answers. Latency is a fixed part plus uniform jitter; fault and timeout rates
+     * are fractions of requests between 0 and 1.
+     */
+    public static final class Behavior {
+        private volatile long latencyMillis;
+        private volatile long jitterMillis;
+        private volatile double faultRate;
+        private volatile String faultCode = "soap-env:Server.SystemError";
+        private volatile String faultString = "SYSTEM ERROR - STUB";
+        private volatile double timeoutRate;
+        private volatile double unavailableRate;
+
+        public Behavior latency(long latencyMillis, long jitterMillis) {
+            this.latencyMillis = latencyMillis;
+            this.jitterMillis = jitterMillis;
+            return this;
+        }
+
+        public Behavior faults(double faultRate, String faultCode, String faultString) {
+            this.faultRate = faultRate;
+            this.faultCode = faultCode;
+            this.faultString = faultString;
+            return this;
+        }
+
+        public Behavior timeouts(double timeoutRate) {
+            this.timeoutRate = timeoutRate;
+            return this;
+        }
+
+        /**
+         * Answer this fraction of requests with a non-SOAP 503, as a load balancer does during an outage
+         */
+        public Behavior unavailable(double unavailableRate) {
+            this.unavailableRate = unavailableRate;
+            return this;
+        }
+    }
+
+    private static final String FAULT_TEMPLATE = "<soap-env:Envelope xmlns:soap-env=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+        + "<soap-env:Body><soap-env:Fault><faultcode>%s</faultcode><faultstring>%s</faultstring></soap-env:Fault>"
+        + "</soap-env:Body></soap-env:Envelope>";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Operation, byte[]> recordings = new ConcurrentHashMap<>();
+    private final Map<Operation, Behavior> behaviors = new ConcurrentHashMap<>();
+    private final Map<Operation, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final LongAdder faultCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final AtomicLong sessionSequence = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private SabreStubServer() throws IOException {
+        for (Operation operation : Operation.values()) {
+            recordings.put(operation, loadRecording(operation.recording));
+            behaviors.put(operation, new Behavior());
+            requestCounts.put(operation, new LongAdder());
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // A thread per in-flight request, so held and slow responses never queue behind each other
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sabre-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Start on an ephemeral loopback port
+     */
+    public static SabreStubServer start() throws IOException {
+        SabreStubServer stub = new SabreStubServer();
+        stub.server.start();
+        return stub;
+    }
+
+    public String getEndpoint() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/websvc";
+    }
+
+    public Behavior behavior(Operation operation) {
+        return behaviors.get(operation);
+    }
+
+    /**
+     * Replace the recorded response for an operation
+     */
+    public void setRecording(Operation operation, String response) {
+        recordings.put(operation, response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getRequestCount(Operation operation) {
+        return requestCounts.get(operation).sum();
+    }
+
+    public long getFaultCount() {
+        return faultCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public void close() {
+        stopped.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Operation operation = Operation.of(request);
+            if (operation == null) {
+                send(exchange, 500, fault("soap-env:Client.InvalidAction", "Unknown operation"));
+                return;
+            }
+            requestCounts.get(operation).increment();
+
+            Behavior behavior = behaviors.get(operation);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = behavior.latencyMillis + (behavior.jitterMillis > 0 ? random.nextLong(behavior.jitterMillis + 1) : 0);
+            if (delay > 0 && stopped.await(delay, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            if (random.nextDouble() < behavior.timeoutRate) {
+                timeoutCount.increment();
+                stopped.await(); // Never answered; the client's request timeout or the search deadline ends it
+                return;
+            }
+            if (random.nextDouble() < behavior.unavailableRate) {
+                send(exchange, 503, "Service Unavailable".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (random.nextDouble() < behavior.faultRate) {
+                faultCount.increment();
+                send(exchange, 500, fault(behavior.faultCode, behavior.faultString));
+                return;
+            }
+            send(exchange, 200, response(operation));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] response(Operation operation) {
+        byte[] recording = recordings.get(operation);
+        if (operation != Operation.SESSION_CREATE) {
+            return recording;
+        }
+        // Distinct tokens, so tests can tell pooled sessions apart
+        String token = "Shared/IDL:IceSess\\/SessMgr:1\\.0.IDL/Common/!ICESMS\\/STUB!" + sessionSequence.incrementAndGet();
+        return new String(recording, StandardCharsets.UTF_8).replace("${token}", token).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] fault(String faultCode, String faultString) {
+        return String.format(FAULT_TEMPLATE, faultCode, faultString).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] loadRecording(String resource) {
+        try (InputStream in = SabreStubServer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing recorded Sabre response " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
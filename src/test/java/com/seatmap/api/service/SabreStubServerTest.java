@@ -0,0 +1,113 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.model.FlightSearchResult;
+import com.seatmap.api.model.SeatMapData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SabreStubServerTest {
+
+    private SabreStubServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CircuitBreaker.resetAll();
+        stub = SabreStubServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void seatMapRecording_DecodesToFullSeatMap() throws Exception {
+        HttpResponse<InputStream> response = post("<EnhancedSeatMapRQ/>");
+
+        SeatMapData seatMap = new SabreSeatMapDecoder().decode(response.body());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("U0", seatMap.getFlight().getCarrierCode());
+        assertEquals(1, seatMap.getDecks().size());
+        assertEquals(4 * 4 + 26 * 6, seatMap.getSeats().size());
+        assertEquals(1, stub.getRequestCount(SabreStubServer.Operation.SEAT_MAP));
+    }
+
+    @Test
+    void behavior_WithFaultRate_AnswersWithSoapFault() throws Exception {
+        stub.behavior(SabreStubServer.Operation.SEAT_MAP).faults(1.0, "soap-env:Client.InvalidSecurityToken", "Invalid or Expired binary security token");
+
+        HttpResponse<InputStream> response = post("<EnhancedSeatMapRQ/>");
+
+        assertEquals(500, response.statusCode());
+        SabreFaultException e = assertThrows(SabreFaultException.class, () -> new SabreSeatMapDecoder().decode(response.body()));
+        assertTrue(e.isInvalidSession());
+        assertEquals(1, stub.getFaultCount());
+    }
+
+    @Test
+    void searchFlightsWithSeatmaps_AgainstStub_ReturnsEveryRecordedFlight() throws Exception {
+        SabreService sabreService = new SabreService(stub.getEndpoint());
+
+        List<FlightSearchResult> results = sabreService.searchFlightsWithSeatmaps("LAX", "JFK", "2024-12-01", "ECONOMY", null, 10);
+
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getSeatMap().getSeats().size() == 172));
+        assertEquals(1, stub.getRequestCount(SabreStubServer.Operation.FLIGHT_LIST));
+        assertEquals(5, stub.getRequestCount(SabreStubServer.Operation.SEAT_MAP));
+        assertTrue(stub.getRequestCount(SabreStubServer.Operation.SESSION_CREATE) <= 5);
+    }
+
+    @Test
+    void searchFlightsWithSeatmaps_WithSeatMapTimeouts_OmitsFlightsAtDeadline() throws Exception {
+        SabreService sabreService = new SabreService(stub.getEndpoint());
+        stub.behavior(SabreStubServer.Operation.SEAT_MAP).timeouts(1.0);
+        SearchDeadline deadline = SearchDeadline.after(1000);
+
+        List<FlightSearchResult> results = sabreService.searchFlightsWithSeatmaps("LAX", "JFK", "2024-12-01", "ECONOMY", null, 10, deadline);
+
+        assertTrue(results.isEmpty());
+        assertFalse(deadline.getTimedOutOfferIds().isEmpty());
+        assertEquals(5, stub.getTimeoutCount());
+    }
+
+    @Test
+    void getSeatMapDataAsync_WhileRetryWaits_HoldsNoSession() throws Exception {
+        SabreService sabreService = new SabreService(stub.getEndpoint());
+        stub.behavior(SabreStubServer.Operation.SEAT_MAP).unavailable(1.0);
+
+        CompletableFuture<SeatMapData> seatMap = sabreService.getSeatMapDataAsync("U0", "1234", "2024-12-01", "LAX", "JFK",
+            SearchDeadline.after(10_000));
+
+        // The first attempt failed and its retry is waiting on the backoff timer
+        assertEquals(1, stub.getRequestCount(SabreStubServer.Operation.SEAT_MAP));
+        assertFalse(seatMap.isDone());
+        assertEquals(0, sabreService.getSessionPoolStats().getInUseCount());
+        assertEquals(1, sabreService.getSessionPoolStats().getIdleCount());
+
+        stub.behavior(SabreStubServer.Operation.SEAT_MAP).unavailable(0);
+        assertEquals(172, seatMap.get(10, TimeUnit.SECONDS).getSeats().size());
+        assertEquals(2, stub.getRequestCount(SabreStubServer.Operation.SEAT_MAP));
+        assertEquals(1, stub.getRequestCount(SabreStubServer.Operation.SESSION_CREATE));
+    }
+
+    private HttpResponse<InputStream> post(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(stub.getEndpoint()))
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+}
@@ -0,0 +1,41 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorTest {
+
+    @Test
+    void encodeDecode_RoundTripsSearchIdAndOffset() {
+        String token = new SearchCursor("b5f3e4e8-8d47-4e1f-a6d6-9a61d3b1d0a7", 30).encode();
+
+        SearchCursor decoded = SearchCursor.decode(token);
+
+        assertEquals("b5f3e4e8-8d47-4e1f-a6d6-9a61d3b1d0a7", decoded.getSearchId());
+        assertEquals(30, decoded.getOffset());
+    }
+
+    @Test
+    void encode_ProducesUrlSafeTokenWithoutPadding() {
+        String token = new SearchCursor("search?id", 5).encode();
+
+        assertTrue(token.matches("^[A-Za-z0-9_-]+$"));
+    }
+
+    @Test
+    void decode_WithMalformedToken_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(" "));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("@@not-a-cursor@@"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(new SearchCursor("search", -1).encode()));
+    }
+
+    @Test
+    void decode_WithNonNumericOffset_ThrowsIllegalArgumentException() {
+        String token = java.util.Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("search:abc".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token));
+    }
+}
@@ -0,0 +1,111 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchDeadlineTest {
+
+    @Test
+    void none_IsUnboundedAndKeepsPerRequestTimeout() {
+        SearchDeadline deadline = SearchDeadline.none();
+
+        assertFalse(deadline.isBounded());
+        assertFalse(deadline.isExpired());
+        assertEquals(Duration.ofSeconds(15), deadline.requestTimeout(Duration.ofSeconds(15)));
+    }
+
+    @Test
+    void fromRemainingTime_WithUnknownRemainingTime_IsUnbounded() {
+        assertFalse(SearchDeadline.fromRemainingTime(0).isBounded());
+    }
+
+    @Test
+    void fromRemainingTime_KeepsReserveForResponse() {
+        SearchDeadline deadline = SearchDeadline.fromRemainingTime(60000);
+
+        assertTrue(deadline.isBounded());
+        assertTrue(deadline.remainingMillis() <= 57000);
+        assertTrue(deadline.remainingMillis() > 50000);
+    }
+
+    @Test
+    void withBudget_TakesSoonerOfBudgetAndDeadlineAndSharesTimedOutOffers() {
+        AtomicLong now = new AtomicLong(1000);
+        SearchDeadline deadline = new SearchDeadline(6000, now::get);
+
+        SearchDeadline tight = deadline.withBudget(2000);
+        SearchDeadline loose = deadline.withBudget(60000);
+        tight.recordTimedOut("offer1");
+
+        assertEquals(2000, tight.remainingMillis());
+        assertEquals(5000, loose.remainingMillis());
+        assertEquals(List.of("offer1"), deadline.getTimedOutOfferIds());
+        assertFalse(SearchDeadline.none().withBudget(Long.MAX_VALUE).isBounded());
+    }
+
+    @Test
+    void requestTimeout_IsCappedByRemainingTime() {
+        AtomicLong now = new AtomicLong(1000);
+        SearchDeadline deadline = new SearchDeadline(6000, now::get);
+
+        assertEquals(Duration.ofSeconds(5), deadline.requestTimeout(Duration.ofSeconds(15)));
+        assertEquals(Duration.ofSeconds(2), deadline.requestTimeout(Duration.ofSeconds(2)));
+
+        now.set(5500);
+        assertEquals(Duration.ofMillis(500), deadline.requestTimeout(Duration.ofSeconds(15)));
+        assertFalse(deadline.isExpired());
+
+        now.set(6000);
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+        assertEquals(Duration.ofMillis(1), deadline.requestTimeout(Duration.ofSeconds(15)));
+    }
+
+    @Test
+    void limitsRequestTimeout_OnlyWhenRemainingTimeIsShorterThanBudget() {
+        AtomicLong now = new AtomicLong(1000);
+        SearchDeadline deadline = new SearchDeadline(6000, now::get);
+
+        assertTrue(deadline.limitsRequestTimeout(Duration.ofSeconds(15)));
+        assertFalse(deadline.limitsRequestTimeout(Duration.ofSeconds(2)));
+        assertFalse(SearchDeadline.none().limitsRequestTimeout(Duration.ofSeconds(15)));
+    }
+
+    @Test
+    void awaitAll_WhenFuturesCompleteInTime_ReturnsTrue() {
+        SearchDeadline deadline = SearchDeadline.after(1000);
+        List<CompletableFuture<String>> futures = List.of(
+            CompletableFuture.completedFuture("a"),
+            CompletableFuture.failedFuture(new IllegalStateException("seat map unavailable")));
+
+        assertTrue(deadline.awaitAll(futures));
+    }
+
+    @Test
+    void awaitAll_AtDeadline_CancelsOutstandingFutures() {
+        SearchDeadline deadline = SearchDeadline.after(50);
+        CompletableFuture<String> done = CompletableFuture.completedFuture("a");
+        CompletableFuture<String> outstanding = new CompletableFuture<>();
+
+        assertFalse(deadline.awaitAll(List.of(done, outstanding)));
+        assertTrue(outstanding.isCancelled());
+        assertEquals("a", done.join());
+    }
+
+    @Test
+    void recordTimedOut_KeepsFirstSeenOrderWithoutDuplicates() {
+        SearchDeadline deadline = SearchDeadline.none();
+
+        deadline.recordTimedOut("3");
+        deadline.recordTimedOut("1");
+        deadline.recordTimedOut("3");
+
+        assertEquals(List.of("3", "1"), deadline.getTimedOutOfferIds());
+    }
+}
@@ -0,0 +1,98 @@
+package com.seatmap.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seatmap.api.model.SeatMapData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation and latency comparison of the tree-based seat map conversion (String body, readTree,
+ * convertToSeatMapData) against the streaming decoder, on a 450-seat widebody response.
+ * Only enabled when ENABLE_PERFORMANCE_TESTS=true.
+ */
+@EnabledIfEnvironmentVariable(named = "ENABLE_PERFORMANCE_TESTS", matches = "true")
+class SeatMapDecoderPerformanceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapDecoderPerformanceTest.class);
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    private ObjectMapper objectMapper;
+    private AmadeusService amadeusService;
+    private AmadeusSeatMapDecoder decoder;
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        amadeusService = new AmadeusService();
+        decoder = new AmadeusSeatMapDecoder(objectMapper);
+        body = AmadeusSeatMapDecoderTest.createWidebodySeatMapJson(50).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void streamingDecoder_AllocatesLessThanTreeConversion() throws Exception {
+        Measurement tree = measure(() -> {
+            // What the HTTP path did: decode the body to a String, build the tree, walk it
+            String response = new String(body, StandardCharsets.UTF_8);
+            return amadeusService.convertToSeatMapData(objectMapper.readTree(response));
+        });
+        Measurement streaming = measure(() -> decoder.decode(new ByteArrayInputStream(body)));
+
+        logger.info("Seat map decode ({} KB body, {} seats): tree {} KB/op {} us/op, streaming {} KB/op {} us/op",
+            body.length / 1024, streaming.seats,
+            tree.bytesPerOp / 1024, tree.nanosPerOp / 1000,
+            streaming.bytesPerOp / 1024, streaming.nanosPerOp / 1000);
+
+        assertEquals(tree.seats, streaming.seats);
+        assertTrue(streaming.bytesPerOp < tree.bytesPerOp,
+            "Streaming decoder should allocate less than the tree-based conversion");
+    }
+
+    private Measurement measure(SeatMapDecode decode) throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        int seats = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            seats = decode.run().getSeats().size();
+        }
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            decode.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Measurement(allocated / MEASURED_ITERATIONS, elapsed / MEASURED_ITERATIONS, seats);
+    }
+
+    @FunctionalInterface
+    private interface SeatMapDecode {
+        SeatMapData run() throws Exception;
+    }
+
+    private static class Measurement {
+        private final long bytesPerOp;
+        private final long nanosPerOp;
+        private final int seats;
+
+        Measurement(long bytesPerOp, long nanosPerOp, int seats) {
+            this.bytesPerOp = bytesPerOp;
+            this.nanosPerOp = nanosPerOp;
+            this.seats = seats;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.seatmap.api.service;
+
+import com.seatmap.api.model.SeatMapData;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapDiagnosticsTest {
+
+    @Test
+    void shouldCapturePayload_WithZeroSampleRate_NeverCaptures() {
+        SeatMapDiagnostics diagnostics = SeatMapDiagnostics.disabled("AMADEUS");
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(diagnostics.shouldCapturePayload());
+        }
+    }
+
+    @Test
+    void shouldCapturePayload_WithFullSampleRate_AlwaysCaptures() {
+        SeatMapDiagnostics diagnostics = new SeatMapDiagnostics("AMADEUS", 1.0, 1024);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(diagnostics.shouldCapturePayload());
+        }
+    }
+
+    @Test
+    void emit_WithoutIssues_DoesNotReadPayload() {
+        SeatMapDiagnostics diagnostics = new SeatMapDiagnostics("AMADEUS", 1.0, 1024);
+        AtomicInteger payloadReads = new AtomicInteger();
+
+        diagnostics.emit(new SeatMapData.ConversionStats(), () -> {
+            payloadReads.incrementAndGet();
+            return "{}";
+        });
+
+        assertEquals(0, payloadReads.get());
+        assertEquals(0, diagnostics.getCapturedPayloadCount());
+    }
+
+    @Test
+    void emit_WithIssues_LogsCapturedPayload() {
+        SeatMapDiagnostics diagnostics = new SeatMapDiagnostics("AMADEUS", 1.0, 8);
+        SeatMapData.ConversionStats stats = new SeatMapData.ConversionStats();
+        stats.recordMissingField("decks");
+
+        diagnostics.emit(stats, () -> "{\"data\":[{\"number\":\"1\"}]}");
+        diagnostics.emit(stats, null);
+
+        assertEquals(1, diagnostics.getCapturedPayloadCount());
+    }
+}
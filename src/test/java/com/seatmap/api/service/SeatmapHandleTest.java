@@ -0,0 +1,27 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatmapHandleTest {
+
+    @Test
+    void encodeDecode_RoundTripsSearchIdAndOfferIndex() {
+        String token = new SeatmapHandle("b5f3e4e8-8d47-4e1f-a6d6-9a61d3b1d0a7", 12).encode();
+
+        SeatmapHandle decoded = SeatmapHandle.decode(token);
+
+        assertEquals("b5f3e4e8-8d47-4e1f-a6d6-9a61d3b1d0a7", decoded.getSearchId());
+        assertEquals(12, decoded.getOfferIndex());
+        assertTrue(token.matches("^[A-Za-z0-9_-]+$"));
+    }
+
+    @Test
+    void decode_WithMalformedToken_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> SeatmapHandle.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> SeatmapHandle.decode(" "));
+        assertThrows(IllegalArgumentException.class, () -> SeatmapHandle.decode("@@not-a-handle@@"));
+        assertThrows(IllegalArgumentException.class, () -> SeatmapHandle.decode(new SeatmapHandle("search", -1).encode()));
+    }
+}
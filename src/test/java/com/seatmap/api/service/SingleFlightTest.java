@@ -0,0 +1,114 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("TEST");
+
+    @Test
+    void execute_WithCallInFlight_SharesItsResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<SingleFlight.Outcome<String>> leader = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "value";
+            }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<SingleFlight.Outcome<String>> follower = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("key", () -> "not called"));
+        waitForCoalesced(1);
+        release.countDown();
+
+        assertEquals("value", leader.get(1, TimeUnit.SECONDS).getValue());
+        assertFalse(leader.get().isCoalesced());
+        assertEquals("value", follower.get(1, TimeUnit.SECONDS).getValue());
+        assertTrue(follower.get().isCoalesced());
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.getStats().getInFlightCount());
+    }
+
+    @Test
+    void execute_AfterCallCompletes_RunsAgain() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("key", () -> "first " + calls.incrementAndGet());
+        SingleFlight.Outcome<String> second = singleFlight.execute("key", () -> "second " + calls.incrementAndGet());
+
+        assertEquals("second 2", second.getValue());
+        assertFalse(second.isCoalesced());
+        assertEquals(2, singleFlight.getStats().getLeaderCount());
+        assertEquals(0, singleFlight.getStats().getCoalescedCount());
+    }
+
+    @Test
+    void execute_WithDifferentKeys_DoesNotCoalesce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Outcome<String>> first = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("LAX|JFK", () -> {
+                await(release);
+                return "LAX";
+            }));
+
+        SingleFlight.Outcome<String> second = singleFlight.execute("SFO|JFK", () -> "SFO");
+        release.countDown();
+
+        assertEquals("SFO", second.getValue());
+        assertEquals("LAX", first.get(1, TimeUnit.SECONDS).getValue());
+        assertEquals(0, singleFlight.getStats().getCoalescedCount());
+    }
+
+    @Test
+    void execute_WhenCallFails_FailsEveryWaiterAndForgetsTheCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<SingleFlight.Outcome<String>> leader = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("upstream down");
+            }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<SingleFlight.Outcome<String>> follower = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("key", () -> "not called"));
+        waitForCoalesced(1);
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+        assertEquals("upstream down", leaderFailure.getCause().getMessage());
+        assertEquals("upstream down", followerFailure.getCause().getMessage());
+        assertEquals("recovered", singleFlight.execute("key", () -> "recovered").getValue());
+    }
+
+    private void waitForCoalesced(long count) throws InterruptedException {
+        long waitUntil = System.currentTimeMillis() + 1000;
+        while (singleFlight.getStats().getCoalescedCount() < count && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, singleFlight.getStats().getCoalescedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
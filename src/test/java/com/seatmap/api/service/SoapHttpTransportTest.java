@@ -0,0 +1,180 @@
+package com.seatmap.api.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.xml.soap.MessageFactory;
+import jakarta.xml.soap.SOAPEnvelope;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoapHttpTransportTest {
+
+    private static final String PONG_RESPONSE = "<soap-env:Envelope xmlns:soap-env=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+        + "<soap-env:Body><t:Pong xmlns:t=\"urn:test\">hello back</t:Pong></soap-env:Body></soap-env:Envelope>";
+    private static final String FAULT_RESPONSE = "<soap-env:Envelope xmlns:soap-env=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+        + "<soap-env:Body><soap-env:Fault><faultcode>soap-env:Client</faultcode><faultstring>Invalid request</faultstring>"
+        + "</soap-env:Fault></soap-env:Body></soap-env:Envelope>";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private MessageFactory messageFactory;
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private final AtomicReference<String> receivedSoapAction = new AtomicReference<>();
+    private final AtomicReference<String> receivedContentType = new AtomicReference<>();
+    private final CountDownLatch releaseSlowCall = new CountDownLatch(1);
+    private final CountDownLatch slowCallStarted = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messageFactory = MessageFactory.newInstance();
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/ok", exchange -> {
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            receivedSoapAction.set(exchange.getRequestHeaders().getFirst("SOAPAction"));
+            receivedContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            respond(exchange, 200, PONG_RESPONSE);
+        });
+        server.createContext("/fault", exchange -> respond(exchange, 500, FAULT_RESPONSE));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "Not found"));
+        server.createContext("/slow", exchange -> {
+            slowCallStarted.countDown();
+            try {
+                releaseSlowCall.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, PONG_RESPONSE);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowCall.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void call_PostsSerializedEnvelopeAndParsesResponse() throws Exception {
+        SoapHttpTransport transport = transport("/ok", 4);
+
+        SOAPMessage response = transport.call(pingRequest(), Duration.ofSeconds(5));
+
+        assertTrue(receivedBody.get().contains("hello"));
+        assertEquals("\"Ping\"", receivedSoapAction.get());
+        assertTrue(receivedContentType.get().startsWith("text/xml"));
+        assertEquals("hello back", response.getSOAPBody().getElementsByTagNameNS("urn:test", "Pong").item(0).getTextContent());
+
+        SoapHttpTransport.PoolStats stats = transport.getStats();
+        assertEquals(1, stats.getRequestCount());
+        assertEquals(0, stats.getInUseCount());
+        assertEquals(1, stats.getPeakInUseCount());
+        assertEquals(0, stats.getFailedCount());
+    }
+
+    @Test
+    void call_WithSerializedEnvelope_PostsBytesAsIs() throws Exception {
+        SoapHttpTransport transport = transport("/ok", 4);
+        String envelope = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+            + "<SOAP-ENV:Body><t:Ping xmlns:t=\"urn:test\">h\u00e9llo</t:Ping></SOAP-ENV:Body></SOAP-ENV:Envelope>";
+
+        String response = transport.call(envelope.getBytes(StandardCharsets.UTF_8), Duration.ofSeconds(5),
+            (headers, body) -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+        assertEquals(envelope, receivedBody.get());
+        assertEquals("\"\"", receivedSoapAction.get());
+        assertEquals("text/xml; charset=utf-8", receivedContentType.get());
+        assertEquals(PONG_RESPONSE, response);
+        assertEquals(1, transport.getStats().getRequestCount());
+        assertEquals(0, transport.getStats().getInUseCount());
+    }
+
+    @Test
+    void call_WithSoapFault_ReturnsFaultMessage() throws Exception {
+        SOAPMessage response = transport("/fault", 4).call(pingRequest(), Duration.ofSeconds(5));
+
+        assertTrue(response.getSOAPBody().hasFault());
+        assertEquals("Invalid request", response.getSOAPBody().getFault().getFaultString());
+    }
+
+    @Test
+    void call_WithHttpError_ThrowsSoapException() throws Exception {
+        SoapHttpTransport transport = transport("/missing", 4);
+
+        SOAPException e = assertThrows(SOAPException.class, () -> transport.call(pingRequest(), Duration.ofSeconds(5)));
+
+        assertTrue(e.getMessage().contains("404"));
+        assertEquals(1, transport.getStats().getFailedCount());
+    }
+
+    @Test
+    void call_WhenPoolExhausted_FailsAfterTimeoutWithoutSending() throws Exception {
+        SoapHttpTransport transport = transport("/slow", 1);
+        SOAPMessage request = pingRequest();
+        CompletableFuture<SOAPMessage> slowCall = CompletableFuture.supplyAsync(() -> {
+            try {
+                return transport.call(request, Duration.ofSeconds(5));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(slowCallStarted.await(5, TimeUnit.SECONDS));
+
+        assertThrows(SOAPException.class, () -> transport.call(pingRequest(), Duration.ofMillis(100)));
+        assertEquals(1, transport.getStats().getInUseCount());
+        assertEquals(1.0, transport.getStats().getUtilization(), 0.001);
+
+        releaseSlowCall.countDown();
+        assertNotNull(slowCall.get(5, TimeUnit.SECONDS));
+        SoapHttpTransport.PoolStats stats = transport.getStats();
+        assertEquals(1, stats.getRequestCount());
+        assertEquals(1, stats.getPeakInUseCount());
+        assertEquals(1, stats.getFailedCount());
+    }
+
+    private SoapHttpTransport transport(String path, int poolSize) {
+        URI endpoint = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        return new SoapHttpTransport("TEST", endpoint, HttpClient.newHttpClient(), messageFactory, poolSize);
+    }
+
+    private SOAPMessage pingRequest() throws SOAPException {
+        SOAPMessage message = messageFactory.createMessage();
+        SOAPEnvelope envelope = message.getSOAPPart().getEnvelope();
+        envelope.addNamespaceDeclaration("t", "urn:test");
+        envelope.getBody().addChildElement("Ping", "t").addTextNode("hello");
+        message.getMimeHeaders().addHeader("SOAPAction", "\"Ping\"");
+        message.saveChanges();
+        return message;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.seatmap.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoapRequestTemplateTest {
+
+    @Test
+    void render_FillsSlotsInDeclaredOrder() {
+        SoapRequestTemplate template = new SoapRequestTemplate(
+            "<a x=\"${second}\"><b>${first}</b><c>${second}</c></a>", "first", "second");
+
+        assertEquals("<a x=\"2\"><b>1</b><c>2</c></a>", render(template, "1", "2"));
+        assertEquals(List.of("first", "second"), template.getSlotNames());
+    }
+
+    @Test
+    void render_WithConstants_CompilesThemIntoFragments() {
+        SoapRequestTemplate template = new SoapRequestTemplate(
+            "<a pcc=\"${org}\"><b>${org}</b><c>${value}</c></a>", Map.of("org", "A&B"), "value");
+
+        assertEquals("<a pcc=\"A&amp;B\"><b>A&amp;B</b><c>v</c></a>", render(template, "v"));
+        assertEquals("<a pcc=\"A&amp;B\"><b>A&amp;B</b><c></c></a>".length(), template.getFixedLength());
+    }
+
+    @Test
+    void render_EscapesTextContent() {
+        SoapRequestTemplate template = new SoapRequestTemplate("<a>${value}</a>", "value");
+
+        assertEquals("<a>&lt;x&gt; &amp; \"q\"\n\t&#13;</a>", render(template, "<x> & \"q\"\n\t\r"));
+    }
+
+    @Test
+    void render_EscapesAttributeValues() {
+        SoapRequestTemplate template = new SoapRequestTemplate("<a b=\"${value}\"/>", "value");
+
+        assertEquals("<a b=\"&lt;x&gt; &amp; &quot;q&quot;&#10;&#9;&#13;\"/>", render(template, "<x> & \"q\"\n\t\r"));
+    }
+
+    @Test
+    void render_EncodesNonAsciiAsUtf8() {
+        SoapRequestTemplate template = new SoapRequestTemplate("<a>${value}</a>", "value");
+        String value = "Zürich € 🛫";
+
+        byte[] rendered = template.render(value);
+
+        assertArrayEquals(("<a>" + value + "</a>").getBytes(StandardCharsets.UTF_8), rendered);
+        assertEquals(rendered.length, template.renderedLength(value));
+    }
+
+    @Test
+    void render_WithNullValue_LeavesSlotEmpty() {
+        SoapRequestTemplate template = new SoapRequestTemplate("<a>${value}</a>", "value");
+
+        assertEquals("<a></a>", render(template, (String) null));
+    }
+
+    @Test
+    void renderInto_AppendsAtOffsetAndReturnsEnd() {
+        SoapRequestTemplate head = new SoapRequestTemplate("<a>${value}", "value");
+        SoapRequestTemplate tail = new SoapRequestTemplate("</a>");
+        byte[] request = new byte[head.renderedLength("x") + tail.getFixedLength()];
+
+        int position = head.renderInto(request, 0, "x");
+        assertEquals(request.length, tail.renderInto(request, position));
+
+        assertEquals("<a>x</a>", new String(request, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void constructor_WithUndeclaredSlot_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new SoapRequestTemplate("<a>${missing}</a>", "value"));
+    }
+
+    @Test
+    void render_WithWrongValueCount_Throws() {
+        SoapRequestTemplate template = new SoapRequestTemplate("<a>${first}${second}</a>", "first", "second");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render("only one"));
+    }
+
+    private static String render(SoapRequestTemplate template, String... values) {
+        return new String(template.render(values), StandardCharsets.UTF_8);
+    }
+}
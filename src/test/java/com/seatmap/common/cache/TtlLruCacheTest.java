@@ -0,0 +1,150 @@
+package com.seatmap.common.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlLruCacheTest {
+
+    private AtomicLong clock;
+    private TtlLruCache<String, byte[]> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000L);
+        cache = new TtlLruCache<>(100, 1000, value -> value.length, clock::get);
+    }
+
+    @Test
+    void get_WithMissingKey_ReturnsNullAndCountsMiss() {
+        assertNull(cache.get("missing"));
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void get_AfterPut_ReturnsValueAndCountsHit() {
+        byte[] value = new byte[10];
+        cache.put("key", value);
+
+        assertSame(value, cache.get("key"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(10, cache.getWeight());
+    }
+
+    @Test
+    void get_AfterTtlElapsed_ReturnsNullAndRemovesEntry() {
+        cache.put("key", new byte[10]);
+
+        clock.addAndGet(1000);
+
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void put_WithPerEntryTtl_OverridesDefaultTtl() {
+        cache.put("short", new byte[1], 100);
+        cache.put("long", new byte[1]);
+
+        clock.addAndGet(500);
+
+        assertNull(cache.get("short"));
+        assertNotNull(cache.get("long"));
+    }
+
+    @Test
+    void put_OverWeightBudget_EvictsLeastRecentlyUsed() {
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+
+        // Touch "a" so "b" becomes the least recently used entry
+        cache.get("a");
+        cache.put("c", new byte[40]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(80, cache.getWeight());
+    }
+
+    @Test
+    void put_OverWeightBudget_DropsExpiredEntriesBeforeLiveOnes() {
+        cache.put("expiring", new byte[40], 10);
+        cache.put("live", new byte[40]);
+
+        clock.addAndGet(20);
+        cache.put("new", new byte[40]);
+
+        assertNotNull(cache.get("live"));
+        assertNotNull(cache.get("new"));
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void put_WithValueHeavierThanBudget_IsNotCached() {
+        cache.put("huge", new byte[101]);
+
+        assertNull(cache.get("huge"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_WithExistingKey_ReplacesValueAndWeight() {
+        cache.put("key", new byte[30]);
+        cache.put("key", new byte[50]);
+
+        assertEquals(1, cache.size());
+        assertEquals(50, cache.getWeight());
+        assertEquals(50, cache.get("key").length);
+    }
+
+    @Test
+    void put_WithNullValue_IsIgnored() {
+        cache.put("key", null);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidate_RemovesEntryAndWeight() {
+        cache.put("key", new byte[30]);
+
+        cache.invalidate("key");
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void getStats_ReflectsCounters() {
+        cache.put("key", new byte[25]);
+        cache.get("key");
+        cache.get("key");
+        cache.get("other");
+
+        TtlLruCache.CacheStats stats = cache.getStats();
+
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+        assertEquals(25, stats.getWeight());
+        assertEquals(100, stats.getMaxWeight());
+        assertEquals(2.0 / 3.0, stats.getHitRate(), 0.0001);
+    }
+
+    @Test
+    void constructor_WithNonPositiveBudget_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TtlLruCache<String, byte[]>(0, 1000, v -> v.length));
+        assertThrows(IllegalArgumentException.class, () -> new TtlLruCache<String, byte[]>(100, 0, v -> v.length));
+    }
+}
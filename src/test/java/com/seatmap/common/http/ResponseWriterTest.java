@@ -0,0 +1,96 @@
+package com.seatmap.common.http;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseWriterTest {
+
+    private static final String LARGE_BODY = "{\"data\":[" + "{\"number\":\"12A\",\"availabilityStatus\":\"AVAILABLE\"},".repeat(200) + "{}]}";
+
+    private final ResponseWriter responseWriter = new ResponseWriter(1024);
+
+    @Test
+    void write_WhenClientAcceptsGzip_CompressesAndRecordsStats() throws Exception {
+        APIGatewayProxyResponseEvent response = responseWriter.write(request("gzip, deflate, br"), response(LARGE_BODY));
+
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+        assertEquals("application/json", response.getHeaders().get("Content-Type"));
+        assertEquals(LARGE_BODY, gunzip(response.getBody()));
+
+        ResponseWriter.CompressionStats stats = responseWriter.getStats();
+        assertEquals(1, stats.getCompressedCount());
+        assertEquals(LARGE_BODY.length(), stats.getUncompressedBytes());
+        assertTrue(stats.getRatio() > 5, stats.toString());
+    }
+
+    @Test
+    void write_WithoutGzipOrBelowThreshold_LeavesResponseAsIs() {
+        APIGatewayProxyResponseEvent identity = responseWriter.write(request("identity"), response(LARGE_BODY));
+        APIGatewayProxyResponseEvent noHeader = responseWriter.write(new APIGatewayProxyRequestEvent(), response(LARGE_BODY));
+        APIGatewayProxyResponseEvent small = responseWriter.write(request("gzip"), response("{\"success\":true}"));
+
+        assertEquals(LARGE_BODY, identity.getBody());
+        assertEquals(LARGE_BODY, noHeader.getBody());
+        assertEquals("{\"success\":true}", small.getBody());
+        assertNull(small.getHeaders().get("Content-Encoding"));
+        assertEquals(0, responseWriter.getStats().getCompressedCount());
+    }
+
+    @Test
+    void acceptsGzip_HonoursQualityValuesAndWildcard() {
+        assertTrue(ResponseWriter.acceptsGzip("GZIP"));
+        assertTrue(ResponseWriter.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(ResponseWriter.acceptsGzip("*"));
+        assertFalse(ResponseWriter.acceptsGzip("gzip;q=0, *"));
+        assertFalse(ResponseWriter.acceptsGzip("*;q=0"));
+        assertFalse(ResponseWriter.acceptsGzip("br"));
+        assertFalse(ResponseWriter.acceptsGzip(null));
+    }
+
+    @Test
+    void handle_DecodesBase64RequestBodyBeforeRouting() {
+        APIGatewayProxyRequestEvent request = request("gzip");
+        request.setBody(Base64.getEncoder().encodeToString("{\"origin\":\"LAX\"}".getBytes(StandardCharsets.UTF_8)));
+        request.setIsBase64Encoded(true);
+
+        APIGatewayProxyResponseEvent response = responseWriter.handle(request, routed -> response(routed.getBody()));
+
+        assertEquals("{\"origin\":\"LAX\"}", response.getBody());
+        assertFalse(request.getIsBase64Encoded());
+    }
+
+    private APIGatewayProxyRequestEvent request(String acceptEncoding) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("accept-encoding", acceptEncoding);
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        request.setHeaders(headers);
+        return request;
+    }
+
+    private APIGatewayProxyResponseEvent response(String body) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        return new APIGatewayProxyResponseEvent()
+            .withStatusCode(200)
+            .withHeaders(headers)
+            .withBody(body);
+    }
+
+    private String gunzip(String base64Body) throws Exception {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64Body)))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
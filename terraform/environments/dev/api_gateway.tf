@@ -3,6 +3,10 @@ resource "aws_api_gateway_rest_api" "seatmap_api" {
   name        = "seatmap-api-${local.environment}"
   description = "Seatmap Backend API - Development"
 
+  # Handlers gzip large responses as base64 bodies; treating every type as binary lets API Gateway
+  # send them as bytes. Request bodies then arrive base64-encoded and the handlers decode them.
+  binary_media_types = ["*/*"]
+
   tags = local.common_tags
 }
 
@@ -227,6 +231,20 @@ resource "aws_api_gateway_resource" "flight_search_bookmark_id" {
   path_part   = "{bookmarkId}"
 }
 
+# Flight Search Seatmap Resource (handles from lazy seatmap searches)
+resource "aws_api_gateway_resource" "flight_search_seatmap" {
+  rest_api_id = aws_api_gateway_rest_api.seatmap_api.id
+  parent_id   = aws_api_gateway_resource.flight_search.id
+  path_part   = "seatmap"
+}
+
+# Flight Search Seatmap Handle Resource
+resource "aws_api_gateway_resource" "flight_search_seatmap_handle" {
+  rest_api_id = aws_api_gateway_rest_api.seatmap_api.id
+  parent_id   = aws_api_gateway_resource.flight_search_seatmap.id
+  path_part   = "{handle}"
+}
+
 # Flight Search Method (POST)
 resource "aws_api_gateway_method" "flight_search_post" {
   rest_api_id   = aws_api_gateway_rest_api.seatmap_api.id
@@ -245,6 +263,15 @@ resource "aws_api_gateway_method" "flight_search_bookmark_get" {
   api_key_required = true
 }
 
+# Flight Search Seatmap Method (GET)
+resource "aws_api_gateway_method" "flight_search_seatmap_get" {
+  rest_api_id   = aws_api_gateway_rest_api.seatmap_api.id
+  resource_id   = aws_api_gateway_resource.flight_search_seatmap_handle.id
+  http_method   = "GET"
+  authorization = "NONE"
+  api_key_required = true
+}
+
 # Flight Search Integration
 resource "aws_api_gateway_integration" "flight_search_integration" {
   rest_api_id = aws_api_gateway_rest_api.seatmap_api.id
@@ -267,6 +294,17 @@ resource "aws_api_gateway_integration" "flight_search_bookmark_integration" {
   uri                     = aws_lambda_function.flight_search.invoke_arn
 }
 
+# Flight Search Seatmap Integration
+resource "aws_api_gateway_integration" "flight_search_seatmap_integration" {
+  rest_api_id = aws_api_gateway_rest_api.seatmap_api.id
+  resource_id = aws_api_gateway_resource.flight_search_seatmap_handle.id
+  http_method = aws_api_gateway_method.flight_search_seatmap_get.http_method
+
+  integration_http_method = "POST"
+  type                    = "AWS_PROXY"
+  uri                     = aws_lambda_function.flight_search.invoke_arn
+}
+
 # Lambda Permission for Flight Search API Gateway
 resource "aws_lambda_permission" "flight_search_api_gateway" {
   statement_id  = "AllowExecutionFromAPIGateway"
@@ -537,6 +575,7 @@ resource "aws_api_gateway_deployment" "main" {
     aws_api_gateway_integration.auth_resend_verification_integration,
     aws_api_gateway_integration.flight_search_integration,
     aws_api_gateway_integration.flight_search_bookmark_integration,
+    aws_api_gateway_integration.flight_search_seatmap_integration,
     aws_api_gateway_integration.seatmap_view_integration,
     aws_api_gateway_integration.bookmarks_get_integration,
     aws_api_gateway_integration.bookmarks_post_integration,
@@ -551,6 +590,7 @@ resource "aws_api_gateway_deployment" "main" {
 
   triggers = {
     redeployment = sha1(jsonencode([
+      aws_api_gateway_rest_api.seatmap_api.binary_media_types,
       aws_api_gateway_resource.auth.id,
       aws_api_gateway_resource.auth_guest.id,
       aws_api_gateway_resource.auth_login.id,
@@ -579,6 +619,10 @@ resource "aws_api_gateway_deployment" "main" {
       aws_api_gateway_method.flight_search_bookmark_get.id,
       aws_api_gateway_integration.flight_search_integration.id,
       aws_api_gateway_integration.flight_search_bookmark_integration.id,
+      aws_api_gateway_resource.flight_search_seatmap.id,
+      aws_api_gateway_resource.flight_search_seatmap_handle.id,
+      aws_api_gateway_method.flight_search_seatmap_get.id,
+      aws_api_gateway_integration.flight_search_seatmap_integration.id,
       aws_api_gateway_resource.seatmap.id,
       aws_api_gateway_resource.seatmap_view.id,
       aws_api_gateway_method.seatmap_view_post.id,
@@ -57,6 +57,50 @@ resource "aws_lambda_function" "flight_search" {
   tags = local.common_tags
 }
 
+# Streaming Flight Search Lambda Function (newline-delimited results as seatmaps complete)
+# The managed java17 runtime buffers the handler's output and returns it when the handler finishes,
+# so through this function URL the results arrive all at once. They only arrive as each seatmap
+# completes on a runtime that streams responses (a custom runtime or the Lambda Web Adapter).
+resource "aws_lambda_function" "flight_search_stream" {
+  filename         = local.lambda_jar_path
+  function_name    = "seatmap-flight-search-stream-${local.environment}"
+  role            = aws_iam_role.lambda_role.arn
+  handler         = "com.seatmap.api.handler.StreamingFlightSearchHandler::handleRequest"
+  runtime         = "java17"
+  memory_size     = 512
+  timeout         = 120
+  
+  source_code_hash = filebase64sha256(local.lambda_jar_path)
+  
+  environment {
+    variables = {
+      ENVIRONMENT        = local.environment
+      AMADEUS_ENDPOINT   = var.amadeus_endpoint
+      AMADEUS_API_KEY    = var.amadeus_api_key
+      AMADEUS_API_SECRET = var.amadeus_api_secret
+      SABRE_USER_ID      = var.sabre_user_id
+      SABRE_PASSWORD     = var.sabre_password
+      SABRE_ENDPOINT     = var.sabre_endpoint
+      JWT_SECRET         = var.jwt_secret
+    }
+  }
+
+  tags = local.common_tags
+}
+
+# Function URL for the streaming search; the handler checks the JWT itself
+resource "aws_lambda_function_url" "flight_search_stream" {
+  function_name      = aws_lambda_function.flight_search_stream.function_name
+  authorization_type = "NONE"
+  invoke_mode        = "RESPONSE_STREAM"
+
+  cors {
+    allow_origins = ["*"]
+    allow_methods = ["POST"]
+    allow_headers = ["content-type", "authorization"]
+  }
+}
+
 # Seatmap View Lambda Function (new for usage tracking)
 resource "aws_lambda_function" "seatmap_view" {
   filename         = local.lambda_jar_path
@@ -45,6 +45,11 @@ output "flight_search_lambda_invoke_arn" {
   value       = aws_lambda_function.flight_search.invoke_arn
 }
 
+output "flight_search_stream_url" {
+  description = "Function URL of the streaming Flight Search Lambda function"
+  value       = aws_lambda_function_url.flight_search_stream.function_url
+}
+
 output "seatmap_view_lambda_function_name" {
   description = "Name of the Seatmap View Lambda function"
   value       = aws_lambda_function.seatmap_view.function_name